@@ -2,6 +2,7 @@ package com.example.finances.config;
 
 import com.example.finances.model.Account;
 import com.example.finances.model.Category;
+import com.example.finances.model.Money;
 import com.example.finances.model.User;
 import com.example.finances.repository.AccountRepository;
 import com.example.finances.repository.CategoryRepository;
@@ -10,7 +11,6 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
 import jakarta.annotation.PostConstruct;
-import java.math.BigDecimal;
 
 @Component
 public class DataInitializer {
@@ -39,7 +39,7 @@ public class DataInitializer {
                 System.out.println("Created user with ID: " + user.getUserId());
                 
                 // Create account
-                Account account = new Account(user, "Chequing", BigDecimal.ZERO);
+                Account account = new Account(user, "Chequing", Money.ZERO);
                 account = accountRepository.save(account);
                 System.out.println("Created account: " + account.getAccountName());
                 
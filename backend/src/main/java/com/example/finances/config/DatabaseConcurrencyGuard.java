@@ -0,0 +1,124 @@
+package com.example.finances.config;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+/**
+ * Bounds the number of connections of one pool in use at a time and the number of threads
+ * waiting for one. Waiters are served first come, first served and give up after a bounded
+ * wait; once too many are waiting, new requests are turned away at once rather than queued.
+ * With platform threads the servlet container's thread pool already limits how many requests
+ * can wait. With virtual threads every request gets its own thread, so without this guard a
+ * burst would queue thousands of threads on the pool. The SQLite driver's native calls also pin
+ * a virtual thread to its carrier, so at most as many carriers are pinned as there are permits.
+ */
+public class DatabaseConcurrencyGuard extends DelegatingDataSource {
+    private final Semaphore permits;
+    private final int maxWaiters;
+    private final long maxWaitMs;
+
+    /**
+     * @param target The pool to guard.
+     * @param connections The number of connections that may be in use at once.
+     * @param maxWaiters The number of threads that may wait for a connection before new ones are rejected.
+     * @param maxWaitMs How long a thread waits for a connection before giving up.
+     */
+    public DatabaseConcurrencyGuard(DataSource target, int connections, int maxWaiters, long maxWaitMs) {
+        super(target);
+        this.permits = new Semaphore(connections, true);
+        this.maxWaiters = maxWaiters;
+        this.maxWaitMs = maxWaitMs;
+    }
+
+    /**
+     * @return The number of connections that can be taken without waiting.
+     */
+    public int availablePermits() {
+        return permits.availablePermits();
+    }
+
+    /**
+     * Waits for a permit, then takes a connection from the pool. The permit is returned when the
+     * connection is closed.
+     * @throws SQLTransientConnectionException if too many threads are waiting or none became free in time.
+     */
+    @Override
+    public Connection getConnection() throws SQLException {
+        acquire();
+        try {
+            return guard(super.getConnection());
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        acquire();
+        try {
+            return guard(super.getConnection(username, password));
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    private void acquire() throws SQLException {
+        if (permits.tryAcquire()) {
+            return;
+        }
+        // The queue length is an estimate, so the bound can be overshot by a few concurrent arrivals
+        if (permits.getQueueLength() >= maxWaiters) {
+            throw new SQLTransientConnectionException("Too many requests waiting for a database connection");
+        }
+        try {
+            if (!permits.tryAcquire(maxWaitMs, TimeUnit.MILLISECONDS)) {
+                throw new SQLTransientConnectionException("No database connection became free within " + maxWaitMs + " ms");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLTransientConnectionException("Interrupted while waiting for a database connection", e);
+        }
+    }
+
+    // Returns the permit on the first close, however many times the connection is closed
+    private Connection guard(Connection connection) {
+        AtomicBoolean released = new AtomicBoolean();
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[] {Connection.class},
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "equals":
+                            return proxy == args[0];
+                        case "hashCode":
+                            return System.identityHashCode(proxy);
+                        case "close":
+                            try {
+                                connection.close();
+                            } finally {
+                                if (released.compareAndSet(false, true)) {
+                                    permits.release();
+                                }
+                            }
+                            return null;
+                        default:
+                            break;
+                    }
+                    try {
+                        return method.invoke(connection, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getTargetException();
+                    }
+                });
+    }
+}
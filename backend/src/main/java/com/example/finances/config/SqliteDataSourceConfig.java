@@ -0,0 +1,110 @@
+package com.example.finances.config;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.sqlite.SQLiteConfig;
+import org.sqlite.SQLiteDataSource;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+
+/**
+ * SQLite connection strategy.
+ * SQLite allows a single writer at a time, so read-write transactions all go through one
+ * writer connection instead of queueing on the database lock, while read-only transactions
+ * ({@code @Transactional(readOnly = true)}) are served by a pool of read-only connections.
+ * The database runs in WAL mode, where readers see the last committed snapshot and neither
+ * block nor wait for the writer. Each pool sits behind a {@link DatabaseConcurrencyGuard}, which
+ * bounds how many threads may wait for its connections and for how long.
+ */
+@Configuration
+public class SqliteDataSourceConfig {
+
+    @Value("${finances.datasource.reader-pool-size:4}")
+    private int readerPoolSize;
+
+    // Page cache per connection
+    @Value("${finances.datasource.cache-size-kib:16384}")
+    private int cacheSizeKib;
+
+    // Bytes of the database file read through memory-mapped I/O
+    @Value("${finances.datasource.mmap-size-bytes:268435456}")
+    private long mmapSizeBytes;
+
+    @Value("${finances.datasource.busy-timeout-ms:5000}")
+    private int busyTimeoutMs;
+
+    // Threads allowed to queue for each pool before further requests are rejected
+    @Value("${finances.datasource.max-waiters:1000}")
+    private int maxWaiters;
+
+    @Value("${finances.datasource.max-wait-ms:10000}")
+    private long maxWaitMs;
+
+    private final DataSourceProperties properties;
+
+    public SqliteDataSourceConfig(DataSourceProperties properties) {
+        this.properties = properties;
+    }
+
+    /**
+     * The application DataSource. Connections are only obtained when the first statement runs,
+     * by which point the transaction's read-only flag decides which pool serves it.
+     */
+    @Bean
+    public DataSource dataSource() {
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(
+                new DatabaseConcurrencyGuard(sqliteWriter(), 1, maxWaiters, maxWaitMs));
+        dataSource.setReadOnlyDataSource(
+                new DatabaseConcurrencyGuard(sqliteReaders(), readerPoolSize, maxWaiters, maxWaitMs));
+        return dataSource;
+    }
+
+    // The writer is created first: it creates the database file and switches it to WAL,
+    // which read-only connections cannot do.
+    @Bean(defaultCandidate = false)
+    public HikariDataSource sqliteWriter() {
+        SQLiteConfig config = baseConfig();
+        config.setJournalMode(SQLiteConfig.JournalMode.WAL);
+        // In WAL mode NORMAL only syncs at checkpoints; a power loss can drop the last commits but never corrupts
+        config.setSynchronous(SQLiteConfig.SynchronousMode.NORMAL);
+        return pool("sqlite-writer", config, false, 1);
+    }
+
+    @Bean(defaultCandidate = false)
+    @DependsOn("sqliteWriter")
+    public HikariDataSource sqliteReaders() {
+        SQLiteConfig config = baseConfig();
+        config.setReadOnly(true);
+        return pool("sqlite-reader", config, true, readerPoolSize);
+    }
+
+    private SQLiteConfig baseConfig() {
+        SQLiteConfig config = new SQLiteConfig();
+        config.setBusyTimeout(busyTimeoutMs);
+        // A negative cache_size is in KiB rather than pages
+        config.setCacheSize(-cacheSizeKib);
+        config.setPragma(SQLiteConfig.Pragma.MMAP_SIZE, Long.toString(mmapSizeBytes));
+        return config;
+    }
+
+    private HikariDataSource pool(String name, SQLiteConfig sqliteConfig, boolean readOnly, int size) {
+        SQLiteDataSource sqliteDataSource = new SQLiteDataSource(sqliteConfig);
+        sqliteDataSource.setUrl(properties.determineUrl());
+
+        HikariConfig config = new HikariConfig();
+        config.setPoolName(name);
+        config.setDataSource(sqliteDataSource);
+        // The driver fixes the read-only flag when it opens the file, so the pool must not try to change it
+        config.setReadOnly(readOnly);
+        config.setMaximumPoolSize(size);
+        config.setMinimumIdle(size);
+        return new HikariDataSource(config);
+    }
+}
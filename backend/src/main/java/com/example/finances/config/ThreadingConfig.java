@@ -0,0 +1,24 @@
+package com.example.finances.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Request threading mode.
+ * By default Tomcat serves requests from its pool of platform threads. With
+ * {@code spring.threads.virtual.enabled=true} (the {@code virtual-threads} profile) Spring Boot
+ * runs Tomcat handlers, {@code @Async} and streaming work and scheduled tasks on virtual threads
+ * instead, and {@link DatabaseConcurrencyGuard} keeps database access bounded by the number of
+ * connections. Virtual threads need Java 21 (build with {@code mvn -Pjava21}); on older runtimes
+ * Spring Boot would silently keep platform threads, so startup fails instead.
+ */
+@Configuration
+public class ThreadingConfig {
+
+    public ThreadingConfig(@Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        if (virtualThreads && Runtime.version().feature() < 21) {
+            throw new IllegalStateException("spring.threads.virtual.enabled requires Java 21, running on Java "
+                    + Runtime.version().feature());
+        }
+    }
+}
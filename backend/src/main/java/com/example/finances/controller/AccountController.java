@@ -1,13 +1,21 @@
 package com.example.finances.controller;
 
+import com.example.finances.dto.BalancePointDTO;
 import com.example.finances.dto.CreateAccountDTO;
 import com.example.finances.model.Account;
 import com.example.finances.service.AccountService;
+import com.example.finances.service.DataVersionService;
+import com.example.finances.service.NetWorthService;
 import jakarta.validation.Valid;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import java.time.LocalDate;
 import java.util.List;
 import java.util.NoSuchElementException;
 
@@ -16,15 +24,30 @@ import java.util.NoSuchElementException;
 @RequestMapping("/accounts")
 public class AccountController {
     private final AccountService accountService;
+    private final NetWorthService netWorthService;
+    private final DataVersionService dataVersionService;
 
-    public AccountController(AccountService accountService) {
+    public AccountController(AccountService accountService, NetWorthService netWorthService,
+                             DataVersionService dataVersionService) {
         this.accountService = accountService;
+        this.netWorthService = netWorthService;
+        this.dataVersionService = dataVersionService;
     }
 
+    /**
+     * Retrieves all accounts. Answers 304 Not Modified without reading them if no account or
+     * transaction has been written since the ETag in If-None-Match was issued.
+     * @param request The request, for its If-None-Match header.
+     * @return A ResponseEntity containing all accounts and their ETag, or a NOT_MODIFIED status.
+     */
     @GetMapping
-    public ResponseEntity<List<Account>> getAllAccounts() {
+    public ResponseEntity<List<Account>> getAllAccounts(WebRequest request) {
+        String eTag = dataVersionService.allUsersETag();
+        if (request.checkNotModified(eTag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).cacheControl(CacheControl.noCache()).build();
+        }
         List<Account> accounts = accountService.findAllAccounts();
-        return ResponseEntity.ok(accounts);
+        return ResponseEntity.ok().eTag(eTag).cacheControl(CacheControl.noCache()).body(accounts);
     }
 
     @GetMapping("/{accountId}")
@@ -37,6 +60,29 @@ public class AccountController {
         }
     }
 
+    /**
+     * Retrieves an account's end-of-day balances for charting.
+     * @param accountId The ID of the account.
+     * @param from The first day (yyyy-MM-dd) to include; defaults to one year before {@code to}.
+     * @param to The last day (yyyy-MM-dd) to include; defaults to today.
+     * @param points The maximum number of points to return (3-1000); defaults to 120.
+     * @return A ResponseEntity containing the downsampled series, a NOT_FOUND status if the account
+     *         does not exist, or a BAD_REQUEST status for an invalid range or number of points.
+     */
+    @GetMapping("/{accountId}/balance-history")
+    public ResponseEntity<List<BalancePointDTO>> getBalanceHistory(@PathVariable int accountId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) Integer points) {
+        try {
+            return ResponseEntity.ok(netWorthService.getAccountBalanceHistory(accountId, from, to, points));
+        } catch (NoSuchElementException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+        }
+    }
+
     @GetMapping("/user/{userId}")
     public ResponseEntity<List<Account>> findByUserId(@PathVariable int userId) {
         try {
@@ -67,13 +113,22 @@ public class AccountController {
         }
     }
 
+    /**
+     * Updates an account.
+     * @param accountId The ID of the account.
+     * @param accountDetails The new details, optionally with the version they were based on.
+     * @return A ResponseEntity containing the updated account, a NOT_FOUND status, or a CONFLICT
+     *         status if the account has changed since the given version.
+     */
     @PutMapping("/{accountId}")
-    public ResponseEntity<Account> updateAccount(@PathVariable int accountId, @RequestBody Account accountDetails) {
+    public ResponseEntity<?> updateAccount(@PathVariable int accountId, @RequestBody Account accountDetails) {
         try {
             Account updatedAccount = accountService.updateAccount(accountId, accountDetails);
             return ResponseEntity.ok(updatedAccount);
         } catch (NoSuchElementException e) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+        } catch (OptimisticLockingFailureException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
         }
     }
 
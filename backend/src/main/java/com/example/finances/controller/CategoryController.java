@@ -2,9 +2,12 @@ package com.example.finances.controller;
 
 import com.example.finances.model.Category;
 import com.example.finances.service.CategoryService;
+import com.example.finances.service.DataVersionService;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 import java.util.NoSuchElementException;
@@ -18,19 +21,26 @@ import java.util.NoSuchElementException;
 @RequestMapping("/categories")
 public class CategoryController {
     private final CategoryService categoryService;
+    private final DataVersionService dataVersionService;
 
-    public CategoryController(CategoryService categoryService) {
+    public CategoryController(CategoryService categoryService, DataVersionService dataVersionService) {
         this.categoryService = categoryService;
+        this.dataVersionService = dataVersionService;
     }
 
     /**
-     * Retrieves all categories.
-     * @return A ResponseEntity containing a list of all Category objects.
+     * Retrieves all categories, or NOT_MODIFIED if none has changed since the ETag in If-None-Match.
+     * @param request The request, for its If-None-Match header.
+     * @return A ResponseEntity containing a list of all Category objects and their ETag.
      */
     @GetMapping
-    public ResponseEntity<List<Category>> getAllCategories() {
+    public ResponseEntity<List<Category>> getAllCategories(WebRequest request) {
+        String eTag = dataVersionService.categoriesETag();
+        if (request.checkNotModified(eTag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).cacheControl(CacheControl.noCache()).build();
+        }
         List<Category> categories = categoryService.findAllCategories();
-        return ResponseEntity.ok(categories);
+        return ResponseEntity.ok().eTag(eTag).cacheControl(CacheControl.noCache()).body(categories);
     }
 
     /**
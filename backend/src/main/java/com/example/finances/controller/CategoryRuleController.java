@@ -0,0 +1,92 @@
+package com.example.finances.controller;
+
+import com.example.finances.dto.CategoryRuleDTO;
+import com.example.finances.dto.CreateCategoryRuleDTO;
+import com.example.finances.service.CategoryRuleService;
+import jakarta.validation.Valid;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * REST controller for categorisation rules.
+ * Transactions created or imported without a category are filed under the category of the
+ * first of their user's rules that matches them.
+ */
+@RestController
+@CrossOrigin
+@RequestMapping("/category-rules")
+public class CategoryRuleController {
+    private final CategoryRuleService categoryRuleService;
+
+    public CategoryRuleController(CategoryRuleService categoryRuleService) {
+        this.categoryRuleService = categoryRuleService;
+    }
+
+    /**
+     * Lists a user's rules in the order they are tried.
+     * @param userId The ID of the user.
+     * @return A ResponseEntity containing the rules or a NOT_FOUND status.
+     */
+    @GetMapping("/user/{userId}")
+    public ResponseEntity<List<CategoryRuleDTO>> findByUserId(@PathVariable int userId) {
+        try {
+            return ResponseEntity.ok(categoryRuleService.findRulesByUserId(userId));
+        } catch (NoSuchElementException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+        }
+    }
+
+    /**
+     * Creates a rule.
+     * @param dto The rule.
+     * @return A ResponseEntity containing the created rule and a CREATED status, a NOT_FOUND status if
+     *         the user, category or account does not exist, or a BAD_REQUEST status for an invalid rule.
+     */
+    @PostMapping
+    public ResponseEntity<?> createRule(@Valid @RequestBody CreateCategoryRuleDTO dto) {
+        try {
+            return new ResponseEntity<>(categoryRuleService.createRule(dto), HttpStatus.CREATED);
+        } catch (NoSuchElementException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
+        }
+    }
+
+    /**
+     * Replaces a rule.
+     * @param ruleId The ID of the rule.
+     * @param dto The new rule.
+     * @return A ResponseEntity containing the updated rule, a NOT_FOUND status if the rule, user,
+     *         category or account does not exist, or a BAD_REQUEST status for an invalid rule.
+     */
+    @PutMapping("/{ruleId}")
+    public ResponseEntity<?> updateRule(@PathVariable int ruleId, @Valid @RequestBody CreateCategoryRuleDTO dto) {
+        try {
+            return ResponseEntity.ok(categoryRuleService.updateRule(ruleId, dto));
+        } catch (NoSuchElementException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
+        }
+    }
+
+    /**
+     * Deletes a rule.
+     * @param ruleId The ID of the rule.
+     * @return A NO_CONTENT status, or a NOT_FOUND status if the rule does not exist.
+     */
+    @DeleteMapping("/{ruleId}")
+    public ResponseEntity<Void> deleteRule(@PathVariable int ruleId) {
+        try {
+            categoryRuleService.deleteRule(ruleId);
+            return ResponseEntity.noContent().build();
+        } catch (NoSuchElementException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+        }
+    }
+}
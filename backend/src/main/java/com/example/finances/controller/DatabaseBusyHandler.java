@@ -0,0 +1,39 @@
+package com.example.finances.controller;
+
+import java.sql.SQLTransientConnectionException;
+
+import org.hibernate.exception.JDBCConnectionException;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+/**
+ * Answers requests that could not get a database connection in time with 503 Service Unavailable
+ * and a Retry-After header instead of a 500, so clients back off and retry.
+ */
+@RestControllerAdvice
+public class DatabaseBusyHandler {
+
+    /**
+     * Handles a failure to reach the database.
+     * @param e The failure.
+     * @return A SERVICE_UNAVAILABLE status if no connection became free in time.
+     * @throws RuntimeException the failure itself if it had any other cause.
+     */
+    @ExceptionHandler({DataAccessResourceFailureException.class, CannotCreateTransactionException.class,
+            JDBCConnectionException.class})
+    public ResponseEntity<Void> handleDatabaseBusy(RuntimeException e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SQLTransientConnectionException) {
+                return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                        .header(HttpHeaders.RETRY_AFTER, "1")
+                        .build();
+            }
+        }
+        throw e;
+    }
+}
@@ -1,9 +1,10 @@
 package com.example.finances.controller;
 
-import java.math.BigDecimal;
 import java.util.List;
 import java.util.NoSuchElementException;
 
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.CrossOrigin;
@@ -13,11 +14,18 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 import com.example.finances.dto.CreateDebtDTO;
+import com.example.finances.dto.PayoffPlanDTO;
+import com.example.finances.dto.PayoffSimulationDTO;
 import com.example.finances.model.Debt;
+import com.example.finances.model.Money;
+import com.example.finances.service.DataVersionService;
+import com.example.finances.service.DebtPayoffService;
 import com.example.finances.service.DebtService;
 
 import jakarta.validation.Valid;
@@ -31,9 +39,16 @@ import jakarta.validation.Valid;
 @RequestMapping("/debts")
 public class DebtController {
     private final DebtService debtService;
+    private final DebtPayoffService debtPayoffService;
+    private final DataVersionService dataVersionService;
+    private final IdempotencyStore idempotencyStore;
 
-    public DebtController(DebtService debtService) {
+    public DebtController(DebtService debtService, DebtPayoffService debtPayoffService,
+                          DataVersionService dataVersionService, IdempotencyStore idempotencyStore) {
         this.debtService = debtService;
+        this.debtPayoffService = debtPayoffService;
+        this.dataVersionService = dataVersionService;
+        this.idempotencyStore = idempotencyStore;
     }
 
     /**
@@ -62,15 +77,21 @@ public class DebtController {
     }
 
     /**
-     * Finds all debts for a specific user.
+     * Finds all debts for a specific user, or NOT_MODIFIED if the user's data has not changed since
+     * the ETag in If-None-Match was issued.
      * @param userId The ID of the user.
-     * @return A ResponseEntity containing a list of debts for the given user.
+     * @param request The request, for its If-None-Match header.
+     * @return A ResponseEntity containing a list of debts for the given user and their ETag.
      */
     @GetMapping("/user/{userId}")
-    public ResponseEntity<List<Debt>> findDebtsByUserId(@PathVariable int userId) {
+    public ResponseEntity<List<Debt>> findDebtsByUserId(@PathVariable int userId, WebRequest request) {
+        String eTag = dataVersionService.userETag(userId);
+        if (request.checkNotModified(eTag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).cacheControl(CacheControl.noCache()).build();
+        }
         try {
             List<Debt> debts = debtService.findDebtsByUserId(userId);
-            return ResponseEntity.ok(debts);
+            return ResponseEntity.ok().eTag(eTag).cacheControl(CacheControl.noCache()).body(debts);
         } catch (NoSuchElementException e) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
         }
@@ -112,15 +133,36 @@ public class DebtController {
      * @return A ResponseEntity containing the total remaining debt amount.
      */
     @GetMapping("/user/{userId}/total-remaining")
-    public ResponseEntity<BigDecimal> getTotalRemainingDebt(@PathVariable int userId) {
+    public ResponseEntity<Money> getTotalRemainingDebt(@PathVariable int userId) {
         try {
-            BigDecimal totalRemaining = debtService.getTotalRemainingDebt(userId);
+            Money totalRemaining = debtService.getTotalRemainingDebt(userId);
             return ResponseEntity.ok(totalRemaining);
         } catch (NoSuchElementException e) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
         }
     }
 
+    /**
+     * Simulates paying off a user's active debts with one or more strategies, side by side.
+     * Nothing is written.
+     * @param userId The ID of the user.
+     * @param request The extra monthly payment, strategies, custom order and interest rates; optional.
+     * @return A ResponseEntity containing one plan per strategy, a NOT_FOUND status if the user does
+     *         not exist, or a BAD_REQUEST status for an invalid strategy, rate or order.
+     */
+    @PostMapping("/user/{userId}/payoff-plan")
+    public ResponseEntity<?> simulatePayoff(@PathVariable int userId,
+                                            @Valid @RequestBody(required = false) PayoffSimulationDTO request) {
+        try {
+            List<PayoffPlanDTO> plans = debtPayoffService.simulate(userId, request);
+            return ResponseEntity.ok(plans);
+        } catch (NoSuchElementException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
+        }
+    }
+
     /**
      * Adds a new debt.
      * @param debt The Debt object to be added.
@@ -138,8 +180,9 @@ public class DebtController {
     /**
      * Updates an existing debt.
      * @param debtId The ID of the debt to update.
-     * @param updatedDebt The updated Debt object.
-     * @return A ResponseEntity containing the updated Debt object or a NOT_FOUND status.
+     * @param updatedDebt The updated Debt object, optionally with the version it was based on.
+     * @return A ResponseEntity containing the updated Debt object, a NOT_FOUND status, or a CONFLICT
+     *         status if the debt has changed since the given version.
      */
     @PutMapping("/{debtId}")
     public ResponseEntity<?> updateDebt(@PathVariable int debtId, @Valid @RequestBody Debt updatedDebt) {
@@ -150,25 +193,36 @@ public class DebtController {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
         } catch (IllegalArgumentException e) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
+        } catch (OptimisticLockingFailureException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
         }
     }
 
     /**
-     * Makes a payment towards a specific debt.
+     * Makes a payment towards a specific debt. A retry sent with the same Idempotency-Key gets the
+     * first response instead of applying the payment again.
      * @param debtId The ID of the debt to make payment on.
      * @param paymentRequest Object containing payment amount.
-     * @return A ResponseEntity containing the updated Debt object.
+     * @param idempotencyKey A key the client chose for this payment; optional.
+     * @return A ResponseEntity containing the updated Debt object, an UNPROCESSABLE_ENTITY status
+     *         if the key was used for a different payment, or a CONFLICT status if concurrent payments
+     *         to the debt kept winning after every retry.
      */
     @PostMapping("/{debtId}/payment")
-    public ResponseEntity<?> makePayment(@PathVariable int debtId, @RequestBody PaymentRequest paymentRequest) {
-        try {
-            Debt updatedDebt = debtService.makePayment(debtId, paymentRequest.getPaymentAmount());
-            return ResponseEntity.ok(updatedDebt);
-        } catch (NoSuchElementException e) {
-            return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
-        } catch (IllegalArgumentException e) {
-            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
-        }
+    public ResponseEntity<?> makePayment(@PathVariable int debtId, @RequestBody PaymentRequest paymentRequest,
+                                         @RequestHeader(name = IdempotencyStore.HEADER, required = false) String idempotencyKey) {
+        return idempotencyStore.execute("POST /debts/" + debtId + "/payment", idempotencyKey, paymentRequest, () -> {
+            try {
+                Debt updatedDebt = debtService.makePayment(debtId, paymentRequest.getPaymentAmount());
+                return ResponseEntity.ok(updatedDebt);
+            } catch (NoSuchElementException e) {
+                return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+            } catch (IllegalArgumentException e) {
+                return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
+            } catch (OptimisticLockingFailureException e) {
+                return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
+            }
+        });
     }
 
     /**
@@ -190,19 +244,19 @@ public class DebtController {
      * Inner class for payment requests.
      */
     public static class PaymentRequest {
-        private BigDecimal paymentAmount;
+        private Money paymentAmount;
 
         public PaymentRequest() {}
 
-        public PaymentRequest(BigDecimal paymentAmount) {
+        public PaymentRequest(Money paymentAmount) {
             this.paymentAmount = paymentAmount;
         }
 
-        public BigDecimal getPaymentAmount() {
+        public Money getPaymentAmount() {
             return paymentAmount;
         }
 
-        public void setPaymentAmount(BigDecimal paymentAmount) {
+        public void setPaymentAmount(Money paymentAmount) {
             this.paymentAmount = paymentAmount;
         }
     }
@@ -0,0 +1,159 @@
+package com.example.finances.controller;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+/**
+ * Remembers the responses to requests sent with an {@code Idempotency-Key} header, so a client
+ * can retry a write after a timeout without creating it twice. A retry with the same key and
+ * body gets the stored response, marked with {@code Idempotent-Replayed: true}. A retry that arrives
+ * while the first request is still running waits for it. A key reused with a different body is
+ * refused with 422 Unprocessable Entity.
+ * Server errors, 409 Conflict responses and requests that throw are not stored, so they can be retried.
+ * The store holds at most {@code finances.idempotency.max-keys} keys, each for
+ * {@code finances.idempotency.ttl-hours}. It is in memory, so keys are forgotten on restart.
+ */
+@Component
+public class IdempotencyStore {
+    public static final String HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+    private static final int MAX_KEY_LENGTH = 255;
+
+    private final ObjectMapper objectMapper;
+    private final Cache<String, Attempt> attempts;
+
+    @Autowired
+    public IdempotencyStore(ObjectMapper objectMapper,
+                            @Value("${finances.idempotency.max-keys:100000}") long maxKeys,
+                            @Value("${finances.idempotency.ttl-hours:24}") long ttlHours) {
+        this.objectMapper = objectMapper;
+        this.attempts = Caffeine.newBuilder()
+                .maximumSize(maxKeys)
+                .expireAfterWrite(Duration.ofHours(ttlHours))
+                .build();
+    }
+
+    /**
+     * Runs a write once per idempotency key.
+     * @param scope The endpoint, including any path variables, so keys are never shared between endpoints.
+     * @param key The Idempotency-Key header; without one the write simply runs.
+     * @param request The request body, compared with the body the key was first used with.
+     * @param write Runs the write and builds its response.
+     * @return The write's response, the stored response of an earlier request with the same key,
+     *         a BAD_REQUEST status for an invalid key, or an UNPROCESSABLE_ENTITY status if the key
+     *         was used with a different body.
+     */
+    public ResponseEntity<?> execute(String scope, String key, Object request, Supplier<ResponseEntity<?>> write) {
+        if (key == null) {
+            return write.get();
+        }
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(HEADER + " must be between 1 and " + MAX_KEY_LENGTH + " characters");
+        }
+        String storeKey = scope + " " + key;
+        byte[] fingerprint = fingerprint(request);
+        while (true) {
+            Attempt attempt = new Attempt(fingerprint, new CompletableFuture<>());
+            Attempt earlier = attempts.asMap().putIfAbsent(storeKey, attempt);
+            if (earlier == null) {
+                return run(storeKey, attempt, write);
+            }
+            if (!Arrays.equals(earlier.fingerprint(), fingerprint)) {
+                return ResponseEntity.status(HttpStatus.UNPROCESSABLE_ENTITY)
+                        .body(HEADER + " " + key + " was already used with a different request");
+            }
+            try {
+                return replay(earlier.response().join());
+            } catch (CompletionException | CancellationException e) {
+                // The earlier request failed and was forgotten; this one takes its place
+            }
+        }
+    }
+
+    private ResponseEntity<?> run(String storeKey, Attempt attempt, Supplier<ResponseEntity<?>> write) {
+        ResponseEntity<?> response;
+        try {
+            response = write.get();
+        } catch (RuntimeException e) {
+            forget(storeKey, attempt, e);
+            throw e;
+        }
+        if (response.getStatusCode().is5xxServerError() || response.getStatusCode().isSameCodeAs(HttpStatus.CONFLICT)) {
+            forget(storeKey, attempt, new IllegalStateException("Request failed with " + response.getStatusCode()));
+            return response;
+        }
+        try {
+            attempt.response().complete(store(response));
+        } catch (JsonProcessingException e) {
+            forget(storeKey, attempt, e);
+        }
+        return response;
+    }
+
+    // Lets a retry, or a request waiting on this one, run the write itself
+    private void forget(String storeKey, Attempt attempt, Throwable failure) {
+        attempts.asMap().remove(storeKey, attempt);
+        attempt.response().completeExceptionally(failure);
+    }
+
+    private ResponseEntity<?> replay(StoredResponse stored) {
+        ResponseEntity.BodyBuilder builder = ResponseEntity.status(stored.status())
+                .headers(stored.headers())
+                .header(REPLAYED_HEADER, "true");
+        if (stored.body() == null) {
+            return builder.build();
+        }
+        return builder.contentType(stored.contentType()).body(stored.body());
+    }
+
+    // Error messages are plain text; everything else is stored as the JSON it was sent as
+    private StoredResponse store(ResponseEntity<?> response) throws JsonProcessingException {
+        Object body = response.getBody();
+        MediaType contentType = null;
+        byte[] bytes = null;
+        if (body instanceof String message) {
+            contentType = new MediaType(MediaType.TEXT_PLAIN, StandardCharsets.UTF_8);
+            bytes = message.getBytes(StandardCharsets.UTF_8);
+        } else if (body != null) {
+            contentType = MediaType.APPLICATION_JSON;
+            bytes = objectMapper.writeValueAsBytes(body);
+        }
+        return new StoredResponse(response.getStatusCode().value(), response.getHeaders(), contentType, bytes);
+    }
+
+    private byte[] fingerprint(Object request) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(objectMapper.writeValueAsBytes(request));
+        } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Request could not be fingerprinted", e);
+        }
+    }
+
+    // The first request with a key, and the response it completes with
+    private record Attempt(byte[] fingerprint, CompletableFuture<StoredResponse> response) {
+    }
+
+    private record StoredResponse(int status, HttpHeaders headers, MediaType contentType, byte[] body) {
+    }
+}
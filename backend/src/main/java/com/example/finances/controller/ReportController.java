@@ -0,0 +1,124 @@
+package com.example.finances.controller;
+
+import java.time.YearMonth;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.example.finances.dto.CashFlowForecastDTO;
+import com.example.finances.dto.MonthlySpendingDTO;
+import com.example.finances.service.CashFlowForecastService;
+import com.example.finances.service.NetWorthService;
+import com.example.finances.service.SpendingReportService;
+
+/**
+ * REST controller for reports built from the monthly rollups, for cash-flow forecasts, and for
+ * rebuilding the rollups and balance history from the ledger.
+ */
+@RestController
+@CrossOrigin
+@RequestMapping("/reports")
+public class ReportController {
+    private final SpendingReportService spendingReportService;
+    private final NetWorthService netWorthService;
+    private final CashFlowForecastService cashFlowForecastService;
+
+    public ReportController(SpendingReportService spendingReportService, NetWorthService netWorthService,
+                            CashFlowForecastService cashFlowForecastService) {
+        this.spendingReportService = spendingReportService;
+        this.netWorthService = netWorthService;
+        this.cashFlowForecastService = cashFlowForecastService;
+    }
+
+    /**
+     * Retrieves a user's monthly totals per category.
+     * @param userId The ID of the user.
+     * @param type "income" or "expense"; defaults to expense.
+     * @param from The first month (yyyy-MM) to include; defaults to eleven months before {@code to}.
+     * @param to The last month (yyyy-MM) to include; defaults to the current month.
+     * @return A ResponseEntity containing one row per month and category, a NOT_FOUND status if the
+     *         user does not exist, or a BAD_REQUEST status for an invalid type or range.
+     */
+    @GetMapping("/spending")
+    public ResponseEntity<List<MonthlySpendingDTO>> getSpendingReport(@RequestParam int userId,
+                                                                      @RequestParam(defaultValue = "expense") String type,
+                                                                      @RequestParam(required = false) YearMonth from,
+                                                                      @RequestParam(required = false) YearMonth to) {
+        try {
+            return ResponseEntity.ok(spendingReportService.getSpendingReport(userId, type, from, to));
+        }
+        catch (NoSuchElementException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+        }
+        catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+        }
+    }
+
+    /**
+     * Projects a user's daily account balances from their recurring transactions and the monthly
+     * payments on their debts.
+     * @param userId The ID of the user.
+     * @param months The number of months from today to project; defaults to 12, at most 24.
+     * @return A ResponseEntity containing the forecast, a NOT_FOUND status if the user does not
+     *         exist, or a BAD_REQUEST status for an invalid number of months.
+     */
+    @GetMapping("/cash-flow")
+    public ResponseEntity<CashFlowForecastDTO> getCashFlowForecast(@RequestParam int userId,
+                                                                   @RequestParam(required = false) Integer months) {
+        try {
+            return ResponseEntity.ok(cashFlowForecastService.getForecast(userId, months));
+        }
+        catch (NoSuchElementException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+        }
+        catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+        }
+    }
+
+    /**
+     * Recomputes the monthly rollups from the ledger, for one user or for everyone.
+     * @param userId The ID of the user, or omitted to rebuild every user.
+     * @return A ResponseEntity containing the number of rollup rows written, or a NOT_FOUND status.
+     */
+    @PostMapping("/spending/rebuild")
+    public ResponseEntity<Integer> rebuildSpendingReport(@RequestParam(required = false) Integer userId) {
+        try {
+            int rows = (userId != null)
+                    ? spendingReportService.rebuild(userId)
+                    : spendingReportService.rebuildAll();
+            return ResponseEntity.ok(rows);
+        }
+        catch (NoSuchElementException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+        }
+    }
+
+    /**
+     * Recomputes the daily balance and debt snapshots behind the net-worth history, for one user
+     * or for everyone.
+     * @param userId The ID of the user, or omitted to rebuild every user.
+     * @return A ResponseEntity containing the number of snapshots written, or a NOT_FOUND status.
+     */
+    @PostMapping("/net-worth/rebuild")
+    public ResponseEntity<Integer> rebuildNetWorthHistory(@RequestParam(required = false) Integer userId) {
+        try {
+            int rows = (userId != null)
+                    ? netWorthService.rebuild(userId)
+                    : netWorthService.rebuildAll();
+            return ResponseEntity.ok(rows);
+        }
+        catch (NoSuchElementException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+        }
+    }
+}
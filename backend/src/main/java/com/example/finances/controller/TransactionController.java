@@ -1,10 +1,17 @@
 package com.example.finances.controller;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.NoSuchElementException;
 
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -13,37 +20,115 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import com.example.finances.dto.BatchCreateResultDTO;
 import com.example.finances.dto.CreateTransactionDTO;
+import com.example.finances.dto.CursorPageDTO;
+import com.example.finances.dto.ImportResultDTO;
+import com.example.finances.dto.RecurringOccurrenceDTO;
+import com.example.finances.importer.ImportListener;
+import com.example.finances.importer.StatementFormat;
+import com.example.finances.importer.StatementParser;
 import com.example.finances.dto.TransactionResponseDTO;
 import com.example.finances.model.Transaction;
+import com.example.finances.model.User;
+import com.example.finances.service.DataVersionService;
+import com.example.finances.service.RecurringTransactionService;
+import com.example.finances.service.StatementImportService;
+import com.example.finances.service.TransactionExportService;
+import com.example.finances.service.TransactionSearchService;
 import com.example.finances.service.TransactionService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
 
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
 
 @RestController
 @CrossOrigin
 @RequestMapping("/transactions")
 public class TransactionController {
+    // Bounds how much of a request body is held in memory at once
+    private static final int MAX_BATCH_SIZE = 10_000;
+
+    private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
     private final TransactionService transactionService;
+    private final StatementImportService statementImportService;
+    private final TransactionExportService transactionExportService;
+    private final RecurringTransactionService recurringTransactionService;
+    private final TransactionSearchService transactionSearchService;
+    private final DataVersionService dataVersionService;
+    private final ObjectMapper objectMapper;
+    private final IdempotencyStore idempotencyStore;
 
-    public TransactionController(TransactionService transactionService) {
+    public TransactionController(TransactionService transactionService, StatementImportService statementImportService,
+                                 TransactionExportService transactionExportService,
+                                 RecurringTransactionService recurringTransactionService,
+                                 TransactionSearchService transactionSearchService,
+                                 DataVersionService dataVersionService, ObjectMapper objectMapper,
+                                 IdempotencyStore idempotencyStore) {
         this.transactionService = transactionService;
+        this.statementImportService = statementImportService;
+        this.transactionExportService = transactionExportService;
+        this.recurringTransactionService = recurringTransactionService;
+        this.transactionSearchService = transactionSearchService;
+        this.dataVersionService = dataVersionService;
+        this.objectMapper = objectMapper;
+        this.idempotencyStore = idempotencyStore;
     }
 
     @GetMapping
-    public ResponseEntity<List<Transaction>> getAllTransactions() {
-        List<Transaction> transactions = transactionService.findAllTransactions();
-        return ResponseEntity.ok(transactions);
+    public ResponseEntity<CursorPageDTO<TransactionResponseDTO>> getAllTransactions(@RequestParam(required = false) String cursor,
+                                                                         @RequestParam(required = false) Integer limit) {
+        try {
+            CursorPageDTO<TransactionResponseDTO> page = transactionService.findAllTransactions(cursor, limit);
+            return ResponseEntity.ok(page);
+        }
+        catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+        }
+    }
+
+    /**
+     * Searches a user's transaction descriptions, best match first. Words match whole words,
+     * {@code groc*} matches words starting with "groc", and {@code "whole foods"} matches the phrase.
+     * @param userId The ID of the user.
+     * @param q The search text.
+     * @param cursor The cursor returned with the previous page, or null for the first page.
+     * @param limit The maximum number of transactions to return.
+     * @return A ResponseEntity containing the page of matches, a NOT_FOUND status if the user does
+     *         not exist, or a BAD_REQUEST status for an empty query or an invalid cursor or limit.
+     */
+    @GetMapping("/search")
+    public ResponseEntity<CursorPageDTO<TransactionResponseDTO>> search(@RequestParam int userId,
+                                                                       @RequestParam String q,
+                                                                       @RequestParam(required = false) String cursor,
+                                                                       @RequestParam(required = false) Integer limit) {
+        try {
+            return ResponseEntity.ok(transactionSearchService.search(userId, q, cursor, limit));
+        }
+        catch (NoSuchElementException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+        }
+        catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+        }
     }
 
     @GetMapping("/{transactionID}")
-    public ResponseEntity<Transaction> findByTransactionID(@PathVariable int transactionID) {
+    public ResponseEntity<TransactionResponseDTO> findByTransactionID(@PathVariable int transactionID) {
         try {
             Transaction transaction = transactionService.findByTransactionID(transactionID);
-            return ResponseEntity.ok(transaction);
+            return ResponseEntity.ok(new TransactionResponseDTO(transaction));
         }
         catch (NoSuchElementException e) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
@@ -51,53 +136,110 @@ public class TransactionController {
     }
 
     @GetMapping("account/{accountId}")
-    public ResponseEntity<List<Transaction>> findByAccountID(@PathVariable int accountId) {
+    public ResponseEntity<CursorPageDTO<TransactionResponseDTO>> findByAccountID(@PathVariable int accountId,
+                                                                      @RequestParam(required = false) String cursor,
+                                                                      @RequestParam(required = false) Integer limit) {
         try {
-            List<Transaction> transaction = transactionService.findByAccountID(accountId);
-            return ResponseEntity.ok(transaction);
+            CursorPageDTO<TransactionResponseDTO> page = transactionService.findByAccountID(accountId, cursor, limit);
+            return ResponseEntity.ok(page);
         }
         catch (NoSuchElementException e) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
         }
+        catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+        }
     }
 
     @GetMapping("debt/{debtId}")
-    public ResponseEntity<List<Transaction>> findByDebtID(@PathVariable int debtId) {
+    public ResponseEntity<CursorPageDTO<TransactionResponseDTO>> findByDebtID(@PathVariable int debtId,
+                                                                   @RequestParam(required = false) String cursor,
+                                                                   @RequestParam(required = false) Integer limit) {
         try {
-            List<Transaction> transactions = transactionService.findByDebtID(debtId);
-            return ResponseEntity.ok(transactions);
+            CursorPageDTO<TransactionResponseDTO> page = transactionService.findByDebtID(debtId, cursor, limit);
+            return ResponseEntity.ok(page);
         }
         catch (NoSuchElementException e) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
         }
+        catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+        }
     }
 
+    /**
+     * Retrieves one page of a user's transactions, newest first. Each page URL is cached separately
+     * by the client, so the user's ETag alone identifies its content; a matching If-None-Match is
+     * answered with NOT_MODIFIED without running the query.
+     */
     @GetMapping("user/{userId}")
-    public ResponseEntity<List<Transaction>> findByUserId(@PathVariable int userId) {
+    public ResponseEntity<CursorPageDTO<TransactionResponseDTO>> findByUserId(@PathVariable int userId,
+                                                                   @RequestParam(required = false) String cursor,
+                                                                   @RequestParam(required = false) Integer limit,
+                                                                   WebRequest request) {
+        String eTag = dataVersionService.userETag(userId);
+        if (request.checkNotModified(eTag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).cacheControl(CacheControl.noCache()).build();
+        }
         try {
-            List<Transaction> transactions = transactionService.findByUserID(userId);
-            return ResponseEntity.ok(transactions);
+            CursorPageDTO<TransactionResponseDTO> page = transactionService.findByUserID(userId, cursor, limit);
+            return ResponseEntity.ok().eTag(eTag).cacheControl(CacheControl.noCache()).body(page);
         }
         catch (NoSuchElementException e) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
         }
+        catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+        }
+    }
+
+    /**
+     * Exports all of a user's transactions as newline-delimited JSON or CSV.
+     * Rows are streamed from a database cursor, so the download starts immediately and
+     * memory use does not depend on the number of transactions.
+     */
+    @GetMapping("user/{userId}/export")
+    public ResponseEntity<StreamingResponseBody> exportByUserId(@PathVariable int userId,
+                                                                @RequestParam(defaultValue = "ndjson") String format) {
+        TransactionExportService.Format exportFormat;
+        User user;
+        try {
+            exportFormat = TransactionExportService.Format.fromName(format);
+            user = transactionExportService.findExportUser(userId);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+        } catch (NoSuchElementException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+        }
+
+        StreamingResponseBody body = out -> transactionExportService.exportUserTransactions(user, exportFormat, out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat.getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"transactions-user-" + userId + "." + exportFormat.getFileExtension() + "\"")
+                .body(body);
     }
 
     @GetMapping("category/{categoryId}")
-    public ResponseEntity<List<Transaction>> findByCategoryID(@PathVariable int categoryId) {
+    public ResponseEntity<CursorPageDTO<TransactionResponseDTO>> findByCategoryID(@PathVariable int categoryId,
+                                                                       @RequestParam(required = false) String cursor,
+                                                                       @RequestParam(required = false) Integer limit) {
         try {
-            List<Transaction> transactions = transactionService.findByCategoryId(categoryId);
-            return ResponseEntity.ok(transactions);
+            CursorPageDTO<TransactionResponseDTO> page = transactionService.findByCategoryId(categoryId, cursor, limit);
+            return ResponseEntity.ok(page);
         }
         catch (NoSuchElementException e) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
         }
+        catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+        }
     }
 
     @GetMapping("/date/{transactionDate}")
-    public ResponseEntity<List<Transaction>> findByTransactionDate(@PathVariable LocalDate transactionDate) {
+    public ResponseEntity<List<TransactionResponseDTO>> findByTransactionDate(@PathVariable LocalDate transactionDate) {
         try {
-            List<Transaction> transactions = transactionService.findByTransactionDate(transactionDate);
+            List<TransactionResponseDTO> transactions = transactionService.findByTransactionDate(transactionDate);
             return ResponseEntity.ok(transactions);
         }
         catch (NoSuchElementException e) {
@@ -106,9 +248,22 @@ public class TransactionController {
     }
 
     @GetMapping("/type/{type}")
-    public ResponseEntity<List<Transaction>> findByType(@PathVariable String type) {
+    public ResponseEntity<CursorPageDTO<TransactionResponseDTO>> findByType(@PathVariable String type,
+                                                                 @RequestParam(required = false) String cursor,
+                                                                 @RequestParam(required = false) Integer limit) {
         try {
-            List<Transaction> transactions = transactionService.findByType(type);
+            CursorPageDTO<TransactionResponseDTO> page = transactionService.findByType(type, cursor, limit);
+            return ResponseEntity.ok(page);
+        }
+        catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+        }
+    }
+
+    @GetMapping("/recurrence/{recurrence}")
+    public ResponseEntity<List<TransactionResponseDTO>> findByRecurrence(@PathVariable String recurrence) {
+        try {
+            List<TransactionResponseDTO> transactions = transactionService.findByRecurrence(recurrence);
             return ResponseEntity.ok(transactions);
         }
         catch (NoSuchElementException e) {
@@ -116,37 +271,122 @@ public class TransactionController {
         }
     }
 
-    @GetMapping("/recurrence/{recurrence}")
-    public ResponseEntity<List<Transaction>> findByRecurrence(@PathVariable String recurrence) {
+    /**
+     * Projects a user's recurring transactions that have not been created yet.
+     * @param userId The ID of the user.
+     * @param to The last day (yyyy-MM-dd) to project; defaults to three months from today, at most 24.
+     * @param limit The maximum number of occurrences to return; defaults to 500, at most 5000.
+     * @return A ResponseEntity containing the occurrences in date order, a NOT_FOUND status if the
+     *         user does not exist, or a BAD_REQUEST status for an invalid day or limit.
+     */
+    @GetMapping("/recurring/forecast")
+    public ResponseEntity<List<RecurringOccurrenceDTO>> forecastRecurring(@RequestParam int userId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) Integer limit) {
         try {
-            List<Transaction> transactions = transactionService.findByRecurrence(recurrence);
-            return ResponseEntity.ok(transactions);
+            return ResponseEntity.ok(recurringTransactionService.forecast(userId, to, limit));
         }
         catch (NoSuchElementException e) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
         }
+        catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+        }
     }
 
+    /**
+     * Creates the recurring transactions that have fallen due, without waiting for the daily run.
+     * @return A ResponseEntity containing the number of transactions created.
+     */
+    @PostMapping("/recurring/expand")
+    public ResponseEntity<Integer> expandRecurring() {
+        return ResponseEntity.ok(recurringTransactionService.expandDue());
+    }
+
+    /**
+     * Creates a transaction. A retry sent with the same Idempotency-Key gets the first response
+     * instead of creating the transaction again.
+     * @param createTransactionDTO The transaction.
+     * @param idempotencyKey A key the client chose for this transaction; optional.
+     * @return A ResponseEntity containing the created transaction and a CREATED status, a BAD_REQUEST
+     *         status if a referenced entity does not exist, or an UNPROCESSABLE_ENTITY status if the
+     *         key was used for a different transaction.
+     */
     @PostMapping
-    public ResponseEntity<TransactionResponseDTO> createTransaction(@Valid @RequestBody CreateTransactionDTO createTransactionDTO) {
+    public ResponseEntity<?> createTransaction(@Valid @RequestBody CreateTransactionDTO createTransactionDTO,
+                                               @RequestHeader(name = IdempotencyStore.HEADER, required = false) String idempotencyKey) {
+        return idempotencyStore.execute("POST /transactions", idempotencyKey, createTransactionDTO, () -> {
+            try {
+                Transaction createdTransaction = transactionService.createTransaction(createTransactionDTO);
+                TransactionResponseDTO responseDTO = new TransactionResponseDTO(createdTransaction);
+                return new ResponseEntity<>(responseDTO, HttpStatus.CREATED);
+            } catch (NoSuchElementException e) {
+                return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+            } catch (Exception e) {
+                // This will now catch the serialization error and can be logged or handled
+                e.printStackTrace(); 
+                return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+            }
+        });
+    }
+
+    /**
+     * Creates a batch of transactions in one database transaction; if any of them cannot be created
+     * none are.
+     * @param createTransactionDTOs The transactions, at most MAX_BATCH_SIZE of them.
+     * @return A ResponseEntity containing the IDs of the created transactions in request order and a
+     *         CREATED status, or a BAD_REQUEST status if a referenced entity does not exist.
+     */
+    @PostMapping("/batch")
+    public ResponseEntity<?> createTransactions(@RequestBody @NotEmpty @Size(max = MAX_BATCH_SIZE) List<@Valid CreateTransactionDTO> createTransactionDTOs) {
         try {
-            Transaction createdTransaction = transactionService.createTransaction(createTransactionDTO);
-            TransactionResponseDTO responseDTO = new TransactionResponseDTO(createdTransaction);
-            return new ResponseEntity<>(responseDTO, HttpStatus.CREATED);
+            List<Integer> transactionIds = transactionService.createTransactions(createTransactionDTOs);
+            return new ResponseEntity<>(new BatchCreateResultDTO(transactionIds), HttpStatus.CREATED);
         } catch (NoSuchElementException e) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
-        } catch (Exception e) {
-            // This will now catch the serialization error and can be logged or handled
-            e.printStackTrace(); 
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
     }
 
+    /**
+     * Imports a CSV or OFX bank statement sent as the raw request body.
+     * The body is parsed as it arrives and the response is a stream of newline-delimited JSON events:
+     * one "error" event per skipped row, a "progress" event per committed chunk and a final "complete"
+     * (or "failed") event.
+     */
+    @PostMapping("/import")
+    public ResponseEntity<StreamingResponseBody> importStatement(@RequestParam int userId,
+                                                                 @RequestParam int accountId,
+                                                                 @RequestParam(required = false) Integer categoryId,
+                                                                 @RequestParam(defaultValue = "csv") String format,
+                                                                 HttpServletRequest request) {
+        StatementFormat statementFormat;
+        StatementImportService.ImportTarget target;
+        try {
+            statementFormat = StatementFormat.fromName(format);
+            target = statementImportService.resolveTarget(userId, accountId, categoryId);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+        } catch (NoSuchElementException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+        }
+
+        StreamingResponseBody body = out -> {
+            NdjsonImportListener listener = new NdjsonImportListener(objectMapper, out);
+            try (StatementParser parser = statementFormat.open(request.getInputStream())) {
+                statementImportService.importStatement(target, parser, listener);
+            } catch (Exception e) {
+                // The cause may carry SQL or parser internals, so the client only learns how far it got
+                listener.onFailure();
+            }
+        };
+        return ResponseEntity.ok().contentType(NDJSON).body(body);
+    }
+
     @PutMapping("/{transactionId}")
-    public ResponseEntity<Transaction> updateTransaction(@PathVariable int transactionId, @RequestBody Transaction transactionDetails) {
+    public ResponseEntity<TransactionResponseDTO> updateTransaction(@PathVariable int transactionId, @Valid @RequestBody CreateTransactionDTO transactionDetails) {
         try {
             Transaction updatedTransaction = transactionService.updateTransaction(transactionId, transactionDetails);
-            return ResponseEntity.ok(updatedTransaction);
+            return ResponseEntity.ok(new TransactionResponseDTO(updatedTransaction));
         } catch (NoSuchElementException e) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
         }
@@ -161,4 +401,52 @@ public class TransactionController {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
         }
     }
+
+    /**
+     * Writes statement import events to the response as newline-delimited JSON, flushing each line.
+     */
+    private static class NdjsonImportListener implements ImportListener {
+        private final ObjectMapper objectMapper;
+        private final OutputStream out;
+        // Rows committed as of the last progress event
+        private long imported;
+
+        NdjsonImportListener(ObjectMapper objectMapper, OutputStream out) {
+            this.objectMapper = objectMapper;
+            this.out = out;
+        }
+
+        @Override
+        public void onProgress(ImportResultDTO progress) {
+            imported = progress.getImported();
+            ObjectNode event = objectMapper.valueToTree(progress);
+            event.put("event", progress.isComplete() ? "complete" : "progress");
+            write(event);
+        }
+
+        @Override
+        public void onRowError(long lineNumber, String message) {
+            write(objectMapper.createObjectNode()
+                    .put("event", "error")
+                    .put("lineNumber", lineNumber)
+                    .put("message", message));
+        }
+
+        void onFailure() {
+            write(objectMapper.createObjectNode()
+                    .put("event", "failed")
+                    .put("imported", imported)
+                    .put("message", "Import failed after " + imported + " rows"));
+        }
+
+        private void write(ObjectNode event) {
+            try {
+                out.write(objectMapper.writeValueAsBytes(event));
+                out.write('\n');
+                out.flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
 }
@@ -0,0 +1,69 @@
+package com.example.finances.controller;
+
+import com.example.finances.dto.CreateTransactionDTO;
+import com.example.finances.dto.IngestStatusDTO;
+import com.example.finances.service.TransactionIngestService;
+import jakarta.validation.Valid;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.NoSuchElementException;
+
+/**
+ * REST controller for write-behind transaction ingestion, for feeds that send many small
+ * transactions. Only present when {@code finances.ingest.enabled} is true.
+ */
+@RestController
+@CrossOrigin
+@RequestMapping("/transactions/ingest")
+@ConditionalOnProperty(name = "finances.ingest.enabled", havingValue = "true")
+public class TransactionIngestController {
+    private final TransactionIngestService transactionIngestService;
+
+    public TransactionIngestController(TransactionIngestService transactionIngestService) {
+        this.transactionIngestService = transactionIngestService;
+    }
+
+    /**
+     * Accepts a transaction to be written in the background.
+     * @param createTransactionDTO The transaction.
+     * @return A ResponseEntity with an ACCEPTED status, the pending status and its URL once the
+     *         transaction is in the journal, a BAD_REQUEST status if a referenced entity does not
+     *         exist, or a SERVICE_UNAVAILABLE status if too many transactions are waiting.
+     */
+    @PostMapping
+    public ResponseEntity<?> ingestTransaction(@Valid @RequestBody CreateTransactionDTO createTransactionDTO) {
+        try {
+            IngestStatusDTO status = transactionIngestService.accept(createTransactionDTO);
+            return ResponseEntity.accepted()
+                    .location(URI.create("/transactions/ingest/" + status.getIngestId()))
+                    .body(status);
+        } catch (NoSuchElementException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, "1").build();
+        } catch (IOException e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    /**
+     * Looks up a transaction accepted for ingestion.
+     * @param ingestId The ID returned when it was accepted.
+     * @return A ResponseEntity containing its status (pending, committed with the transaction ID,
+     *         or failed with the reason), or a NOT_FOUND status if the ID is unknown.
+     */
+    @GetMapping("/{ingestId}")
+    public ResponseEntity<IngestStatusDTO> findStatus(@PathVariable long ingestId) {
+        try {
+            return ResponseEntity.ok(transactionIngestService.findStatus(ingestId));
+        } catch (NoSuchElementException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+        }
+    }
+}
@@ -1,19 +1,32 @@
 package com.example.finances.controller;
 
+import com.example.finances.dto.DashboardSummaryDTO;
+import com.example.finances.dto.NetWorthPointDTO;
 import com.example.finances.model.User;
+import com.example.finances.service.DashboardService;
+import com.example.finances.service.NetWorthService;
+import com.example.finances.service.UserEventStreamService;
 import com.example.finances.service.UserService;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.time.LocalDate;
+import java.util.List;
 import java.util.NoSuchElementException;
 
 /**
  * REST controller for the User entity.
- * Provides a single endpoint to retrieve the single user.
+ * Provides endpoints to retrieve the single user, their dashboard overview and net-worth history,
+ * and a stream of changes to their ledger.
  */
 @RestController
 @CrossOrigin
@@ -21,9 +34,16 @@ import java.util.NoSuchElementException;
 public class UserController {
 
     private final UserService userService;
+    private final DashboardService dashboardService;
+    private final NetWorthService netWorthService;
+    private final UserEventStreamService userEventStreamService;
 
-    public UserController(UserService userService) {
+    public UserController(UserService userService, DashboardService dashboardService, NetWorthService netWorthService,
+                          UserEventStreamService userEventStreamService) {
         this.userService = userService;
+        this.dashboardService = dashboardService;
+        this.netWorthService = netWorthService;
+        this.userEventStreamService = userEventStreamService;
     }
 
     /**
@@ -39,4 +59,59 @@ public class UserController {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
         }
     }
+
+    /**
+     * Endpoint to retrieve the dashboard summary of a user.
+     * @param userId The ID of the user.
+     * @return A ResponseEntity containing the dashboard summary or a NOT_FOUND status.
+     */
+    @GetMapping("/{userId}/dashboard")
+    public ResponseEntity<DashboardSummaryDTO> getDashboardSummary(@PathVariable int userId) {
+        try {
+            DashboardSummaryDTO summary = dashboardService.getDashboardSummary(userId);
+            return ResponseEntity.ok(summary);
+        } catch (NoSuchElementException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+        }
+    }
+
+    /**
+     * Endpoint to retrieve a user's daily account total, remaining debt and net worth.
+     * @param userId The ID of the user.
+     * @param from The first day (yyyy-MM-dd) to include; defaults to one year before {@code to}.
+     * @param to The last day (yyyy-MM-dd) to include; defaults to today.
+     * @param points The maximum number of points to return (3-1000); defaults to 120.
+     * @return A ResponseEntity containing the downsampled series, a NOT_FOUND status if the user
+     *         does not exist, or a BAD_REQUEST status for an invalid range or number of points.
+     */
+    @GetMapping("/{userId}/net-worth")
+    public ResponseEntity<List<NetWorthPointDTO>> getNetWorthHistory(@PathVariable int userId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) Integer points) {
+        try {
+            return ResponseEntity.ok(netWorthService.getNetWorthHistory(userId, from, to, points));
+        } catch (NoSuchElementException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+        }
+    }
+
+    /**
+     * Endpoint to stream changes to a user's ledger as Server-Sent Events: transactions created,
+     * updated or deleted, debt payments and account balance changes, each sent once committed.
+     * A client that falls behind misses the oldest events and receives an "overflow" event with
+     * the number it missed.
+     * @param userId The ID of the user.
+     * @return A ResponseEntity containing the event stream or a NOT_FOUND status.
+     */
+    @GetMapping(value = "/{userId}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamEvents(@PathVariable int userId) {
+        try {
+            return ResponseEntity.ok(userEventStreamService.subscribe(userId));
+        } catch (NoSuchElementException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+        }
+    }
 }
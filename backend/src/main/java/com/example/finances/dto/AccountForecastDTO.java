@@ -0,0 +1,47 @@
+package com.example.finances.dto;
+
+import java.util.List;
+
+import com.example.finances.model.Money;
+
+/**
+ * Projected end-of-day balances of one account; {@code balances.get(i)} is the balance on the
+ * forecast's first day plus i days.
+ */
+public class AccountForecastDTO {
+    private int accountId;
+    private String accountName;
+    private List<Money> balances;
+
+    public AccountForecastDTO() {}
+
+    public AccountForecastDTO(int accountId, String accountName, List<Money> balances) {
+        this.accountId = accountId;
+        this.accountName = accountName;
+        this.balances = balances;
+    }
+
+    public int getAccountId() {
+        return accountId;
+    }
+
+    public void setAccountId(int accountId) {
+        this.accountId = accountId;
+    }
+
+    public String getAccountName() {
+        return accountName;
+    }
+
+    public void setAccountName(String accountName) {
+        this.accountName = accountName;
+    }
+
+    public List<Money> getBalances() {
+        return balances;
+    }
+
+    public void setBalances(List<Money> balances) {
+        this.balances = balances;
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.finances.dto;
+
+import java.time.LocalDate;
+
+import com.example.finances.model.Money;
+
+/**
+ * An account's balance at the end of a day.
+ */
+public class BalancePointDTO {
+    private LocalDate date;
+    private Money balance;
+
+    public BalancePointDTO() {}
+
+    public BalancePointDTO(LocalDate date, Money balance) {
+        this.date = date;
+        this.balance = balance;
+    }
+
+    public LocalDate getDate() {
+        return date;
+    }
+
+    public void setDate(LocalDate date) {
+        this.date = date;
+    }
+
+    public Money getBalance() {
+        return balance;
+    }
+
+    public void setBalance(Money balance) {
+        this.balance = balance;
+    }
+}
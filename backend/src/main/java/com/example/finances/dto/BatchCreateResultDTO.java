@@ -0,0 +1,35 @@
+package com.example.finances.dto;
+
+import java.util.List;
+
+/**
+ * Data Transfer Object returned by bulk creation endpoints.
+ * Only the generated IDs are returned to keep the response small for large imports.
+ */
+public class BatchCreateResultDTO {
+    private int createdCount;
+    private List<Integer> transactionIds;
+
+    public BatchCreateResultDTO() {}
+
+    public BatchCreateResultDTO(List<Integer> transactionIds) {
+        this.createdCount = transactionIds.size();
+        this.transactionIds = transactionIds;
+    }
+
+    public int getCreatedCount() {
+        return createdCount;
+    }
+
+    public void setCreatedCount(int createdCount) {
+        this.createdCount = createdCount;
+    }
+
+    public List<Integer> getTransactionIds() {
+        return transactionIds;
+    }
+
+    public void setTransactionIds(List<Integer> transactionIds) {
+        this.transactionIds = transactionIds;
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.finances.dto;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import com.example.finances.model.Money;
+
+/**
+ * Projected daily balances of a user's accounts from recurring transactions and debt payments.
+ * Every list holds one value per day from {@code from} to {@code to} inclusive.
+ */
+public class CashFlowForecastDTO {
+    private LocalDate from;
+    private LocalDate to;
+    private List<AccountForecastDTO> accounts;
+    // Scheduled payments on debts not already paid by a recurring transaction, cumulative
+    private List<Money> debtPayments;
+    // Sum of the account balances less the debt payments so far
+    private List<Money> total;
+    private Money lowestTotal;
+    private LocalDate lowestTotalDate;
+
+    public CashFlowForecastDTO() {}
+
+    public CashFlowForecastDTO(LocalDate from, LocalDate to, List<AccountForecastDTO> accounts,
+                               List<Money> debtPayments, List<Money> total, Money lowestTotal,
+                               LocalDate lowestTotalDate) {
+        this.from = from;
+        this.to = to;
+        this.accounts = accounts;
+        this.debtPayments = debtPayments;
+        this.total = total;
+        this.lowestTotal = lowestTotal;
+        this.lowestTotalDate = lowestTotalDate;
+    }
+
+    public LocalDate getFrom() {
+        return from;
+    }
+
+    public void setFrom(LocalDate from) {
+        this.from = from;
+    }
+
+    public LocalDate getTo() {
+        return to;
+    }
+
+    public void setTo(LocalDate to) {
+        this.to = to;
+    }
+
+    public List<AccountForecastDTO> getAccounts() {
+        return accounts;
+    }
+
+    public void setAccounts(List<AccountForecastDTO> accounts) {
+        this.accounts = accounts;
+    }
+
+    public List<Money> getDebtPayments() {
+        return debtPayments;
+    }
+
+    public void setDebtPayments(List<Money> debtPayments) {
+        this.debtPayments = debtPayments;
+    }
+
+    public List<Money> getTotal() {
+        return total;
+    }
+
+    public void setTotal(List<Money> total) {
+        this.total = total;
+    }
+
+    public Money getLowestTotal() {
+        return lowestTotal;
+    }
+
+    public void setLowestTotal(Money lowestTotal) {
+        this.lowestTotal = lowestTotal;
+    }
+
+    public LocalDate getLowestTotalDate() {
+        return lowestTotalDate;
+    }
+
+    public void setLowestTotalDate(LocalDate lowestTotalDate) {
+        this.lowestTotalDate = lowestTotalDate;
+    }
+}
@@ -0,0 +1,115 @@
+package com.example.finances.dto;
+
+import com.example.finances.model.Money;
+
+/**
+ * Data Transfer Object for returning a categorisation rule, populated by a JPQL constructor expression.
+ */
+public class CategoryRuleDTO {
+    private int ruleId;
+    private int userId;
+    private int categoryId;
+    private String categoryName;
+    private Integer accountId;
+    private String keyword;
+    private String pattern;
+    private Money minAmount;
+    private Money maxAmount;
+    private int priority;
+
+    public CategoryRuleDTO() {}
+
+    public CategoryRuleDTO(int ruleId, int userId, int categoryId, String categoryName, Integer accountId,
+                           String keyword, String pattern, Money minAmount, Money maxAmount, int priority) {
+        this.ruleId = ruleId;
+        this.userId = userId;
+        this.categoryId = categoryId;
+        this.categoryName = categoryName;
+        this.accountId = accountId;
+        this.keyword = keyword;
+        this.pattern = pattern;
+        this.minAmount = minAmount;
+        this.maxAmount = maxAmount;
+        this.priority = priority;
+    }
+
+    public int getRuleId() {
+        return ruleId;
+    }
+
+    public void setRuleId(int ruleId) {
+        this.ruleId = ruleId;
+    }
+
+    public int getUserId() {
+        return userId;
+    }
+
+    public void setUserId(int userId) {
+        this.userId = userId;
+    }
+
+    public int getCategoryId() {
+        return categoryId;
+    }
+
+    public void setCategoryId(int categoryId) {
+        this.categoryId = categoryId;
+    }
+
+    public String getCategoryName() {
+        return categoryName;
+    }
+
+    public void setCategoryName(String categoryName) {
+        this.categoryName = categoryName;
+    }
+
+    public Integer getAccountId() {
+        return accountId;
+    }
+
+    public void setAccountId(Integer accountId) {
+        this.accountId = accountId;
+    }
+
+    public String getKeyword() {
+        return keyword;
+    }
+
+    public void setKeyword(String keyword) {
+        this.keyword = keyword;
+    }
+
+    public String getPattern() {
+        return pattern;
+    }
+
+    public void setPattern(String pattern) {
+        this.pattern = pattern;
+    }
+
+    public Money getMinAmount() {
+        return minAmount;
+    }
+
+    public void setMinAmount(Money minAmount) {
+        this.minAmount = minAmount;
+    }
+
+    public Money getMaxAmount() {
+        return maxAmount;
+    }
+
+    public void setMaxAmount(Money maxAmount) {
+        this.maxAmount = maxAmount;
+    }
+
+    public int getPriority() {
+        return priority;
+    }
+
+    public void setPriority(int priority) {
+        this.priority = priority;
+    }
+}
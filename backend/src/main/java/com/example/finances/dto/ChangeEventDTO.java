@@ -0,0 +1,48 @@
+package com.example.finances.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import com.example.finances.model.Money;
+
+/**
+ * Data of one ledger change sent on a user's event stream. The event name repeats the type so
+ * that browsers can listen for single kinds of change.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ChangeEventDTO {
+    private String type;
+    private Integer id;
+    private Money amount;
+
+    public ChangeEventDTO() {}
+
+    public ChangeEventDTO(String type, Integer id, Money amount) {
+        this.type = type;
+        this.id = id;
+        this.amount = amount;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public void setType(String type) {
+        this.type = type;
+    }
+
+    public Integer getId() {
+        return id;
+    }
+
+    public void setId(Integer id) {
+        this.id = id;
+    }
+
+    public Money getAmount() {
+        return amount;
+    }
+
+    public void setAmount(Money amount) {
+        this.amount = amount;
+    }
+}
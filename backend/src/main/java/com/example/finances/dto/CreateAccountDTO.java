@@ -1,9 +1,10 @@
 package com.example.finances.dto;
 
-import java.math.BigDecimal;
+import com.example.finances.model.Money;
+import com.example.finances.validation.MinMoney;
+
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
-import jakarta.validation.constraints.PositiveOrZero;
 
 public class CreateAccountDTO {
     @NotNull(message = "User ID cannot be null")
@@ -13,12 +14,12 @@ public class CreateAccountDTO {
     private String accountName;
 
     @NotNull(message = "Account balance cannot be null")
-    @PositiveOrZero(message = "Account balance must be a positive number or zero")
-    private BigDecimal accountBalance;
+    @MinMoney(value = "0.00", message = "Account balance must be a positive number or zero")
+    private Money accountBalance;
 
     public CreateAccountDTO() {}
 
-    public CreateAccountDTO(Integer userId, String accountName, BigDecimal accountBalance) {
+    public CreateAccountDTO(Integer userId, String accountName, Money accountBalance) {
         this.userId = userId;
         this.accountName = accountName;
         this.accountBalance = accountBalance;
@@ -40,11 +41,11 @@ public class CreateAccountDTO {
         this.accountName = accountName;
     }
 
-    public BigDecimal getAccountBalance() {
+    public Money getAccountBalance() {
         return accountBalance;
     }
 
-    public void setAccountBalance(BigDecimal accountBalance) {
+    public void setAccountBalance(Money accountBalance) {
         this.accountBalance = accountBalance;
     }
 }
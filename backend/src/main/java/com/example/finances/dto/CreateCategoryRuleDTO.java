@@ -0,0 +1,116 @@
+package com.example.finances.dto;
+
+import com.example.finances.model.Money;
+import com.example.finances.validation.MinMoney;
+
+import jakarta.validation.constraints.*;
+
+/**
+ * Data Transfer Object for creating or replacing a categorisation rule.
+ * Every condition is optional, but a rule must set at least one.
+ */
+public class CreateCategoryRuleDTO {
+
+    @NotNull(message = "User ID is mandatory")
+    @Min(value = 1, message = "User ID must be a positive integer")
+    private Integer userId;
+
+    @NotNull(message = "Category ID is mandatory")
+    @Min(value = 1, message = "Category ID must be a positive integer")
+    private Integer categoryId;
+
+    @Min(value = 1, message = "Account ID must be a positive integer")
+    private Integer accountId; // Optional - null matches every account
+
+    @Size(max = 100, message = "Keyword must be at most 100 characters")
+    private String keyword; // Optional - matched anywhere in the description, ignoring case
+
+    @Size(max = 200, message = "Pattern must be at most 200 characters")
+    private String pattern; // Optional - regular expression searched for in the description, ignoring case
+
+    @MinMoney(value = "0.00", message = "Minimum amount cannot be negative")
+    private Money minAmount; // Optional
+
+    @MinMoney(value = "0.00", message = "Maximum amount cannot be negative")
+    private Money maxAmount; // Optional
+
+    private int priority; // Lower priorities are tried first
+
+    public CreateCategoryRuleDTO() {}
+
+    public CreateCategoryRuleDTO(Integer userId, Integer categoryId, Integer accountId, String keyword,
+                                 String pattern, Money minAmount, Money maxAmount, int priority) {
+        this.userId = userId;
+        this.categoryId = categoryId;
+        this.accountId = accountId;
+        this.keyword = keyword;
+        this.pattern = pattern;
+        this.minAmount = minAmount;
+        this.maxAmount = maxAmount;
+        this.priority = priority;
+    }
+
+    public Integer getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Integer userId) {
+        this.userId = userId;
+    }
+
+    public Integer getCategoryId() {
+        return categoryId;
+    }
+
+    public void setCategoryId(Integer categoryId) {
+        this.categoryId = categoryId;
+    }
+
+    public Integer getAccountId() {
+        return accountId;
+    }
+
+    public void setAccountId(Integer accountId) {
+        this.accountId = accountId;
+    }
+
+    public String getKeyword() {
+        return keyword;
+    }
+
+    public void setKeyword(String keyword) {
+        this.keyword = keyword;
+    }
+
+    public String getPattern() {
+        return pattern;
+    }
+
+    public void setPattern(String pattern) {
+        this.pattern = pattern;
+    }
+
+    public Money getMinAmount() {
+        return minAmount;
+    }
+
+    public void setMinAmount(Money minAmount) {
+        this.minAmount = minAmount;
+    }
+
+    public Money getMaxAmount() {
+        return maxAmount;
+    }
+
+    public void setMaxAmount(Money maxAmount) {
+        this.maxAmount = maxAmount;
+    }
+
+    public int getPriority() {
+        return priority;
+    }
+
+    public void setPriority(int priority) {
+        this.priority = priority;
+    }
+}
@@ -1,7 +1,9 @@
 package com.example.finances.dto;
 
+import com.example.finances.model.Money;
+import com.example.finances.validation.MinMoney;
+
 import jakarta.validation.constraints.*;
-import java.math.BigDecimal;
 
 /**
  * Data Transfer Object for creating a new Debt.
@@ -18,20 +20,20 @@ public class CreateDebtDTO {
     private String debtName;
 
     @NotNull(message = "Total owed amount is mandatory")
-    @DecimalMin(value = "0.01", message = "Total owed must be a positive value")
-    private BigDecimal totalOwed;
+    @MinMoney(value = "0.01", message = "Total owed must be a positive value")
+    private Money totalOwed;
 
-    @DecimalMin(value = "0.00", message = "Amount paid cannot be negative")
-    private BigDecimal amountPaid = BigDecimal.ZERO; // Defaults to 0
+    @MinMoney(value = "0.00", message = "Amount paid cannot be negative")
+    private Money amountPaid = Money.ZERO; // Defaults to 0
 
     @NotNull(message = "Monthly payment is mandatory")
-    @DecimalMin(value = "0.01", message = "Monthly payment must be a positive value")
-    private BigDecimal monthlyPayment;
+    @MinMoney(value = "0.01", message = "Monthly payment must be a positive value")
+    private Money monthlyPayment;
 
     public CreateDebtDTO() {}
 
-    public CreateDebtDTO(Integer userId, String debtName, BigDecimal totalOwed, 
-                        BigDecimal amountPaid, BigDecimal monthlyPayment) {
+    public CreateDebtDTO(Integer userId, String debtName, Money totalOwed, 
+                        Money amountPaid, Money monthlyPayment) {
         this.userId = userId;
         this.debtName = debtName;
         this.totalOwed = totalOwed;
@@ -55,27 +57,27 @@ public class CreateDebtDTO {
         this.debtName = debtName;
     }
 
-    public BigDecimal getTotalOwed() {
+    public Money getTotalOwed() {
         return totalOwed;
     }
 
-    public void setTotalOwed(BigDecimal totalOwed) {
+    public void setTotalOwed(Money totalOwed) {
         this.totalOwed = totalOwed;
     }
 
-    public BigDecimal getAmountPaid() {
+    public Money getAmountPaid() {
         return amountPaid;
     }
 
-    public void setAmountPaid(BigDecimal amountPaid) {
+    public void setAmountPaid(Money amountPaid) {
         this.amountPaid = amountPaid;
     }
 
-    public BigDecimal getMonthlyPayment() {
+    public Money getMonthlyPayment() {
         return monthlyPayment;
     }
 
-    public void setMonthlyPayment(BigDecimal monthlyPayment) {
+    public void setMonthlyPayment(Money monthlyPayment) {
         this.monthlyPayment = monthlyPayment;
     }
 }
\ No newline at end of file
@@ -1,6 +1,11 @@
 package com.example.finances.dto;
 
+import com.example.finances.model.Money;
+import com.example.finances.validation.MaxMoney;
+import com.example.finances.validation.MinMoney;
+
 import jakarta.validation.constraints.*;
+import java.time.LocalDate;
 
 /**
  * Data Transfer Object for creating a new Transaction.
@@ -18,15 +23,16 @@ public class CreateTransactionDTO {
     private Integer userId;
 
     @NotNull(message = "Amount is mandatory")
-    @DecimalMin(value = "0.01", message = "Amount must be a positive value")
-    private Double amount;
+    @MinMoney(value = "0.01", message = "Amount must be a positive value")
+    // Keeps the sums of a full batch, and of an account's balance, far from overflowing a long of cents
+    @MaxMoney(value = "1000000000.00", message = "Amount must not exceed 1,000,000,000.00")
+    private Money amount;
 
     @NotBlank(message = "Description is mandatory")
     private String description;
 
-    @NotNull(message = "Category ID is mandatory")
     @Min(value = 1, message = "Category ID must be a positive integer")
-    private Integer categoryId;
+    private Integer categoryId; // Optional - chosen by the user's categorisation rules
 
     private Integer debtId; // Optional
 
@@ -37,9 +43,11 @@ public class CreateTransactionDTO {
     @Pattern(regexp = "^(weekly|monthly|yearly)?$", message = "Recurrence must be 'weekly', 'monthly', 'yearly', or empty")
     private String recurrence; // Optional - can be null or empty string
 
+    private LocalDate transactionDate; // Optional - defaults to today
+
     public CreateTransactionDTO() {}
 
-    public CreateTransactionDTO(Integer accountId, Integer userId, Double amount, 
+    public CreateTransactionDTO(Integer accountId, Integer userId, Money amount, 
                                String description, Integer categoryId, Integer debtId, 
                                String type, String recurrence) {
         this.accountId = accountId;
@@ -68,11 +76,11 @@ public class CreateTransactionDTO {
         this.userId = userId;
     }
 
-    public Double getAmount() {
+    public Money getAmount() {
         return amount;
     }
 
-    public void setAmount(Double amount) {
+    public void setAmount(Money amount) {
         this.amount = amount;
     }
 
@@ -115,4 +123,12 @@ public class CreateTransactionDTO {
     public void setRecurrence(String recurrence) {
         this.recurrence = recurrence;
     }
+
+    public LocalDate getTransactionDate() {
+        return transactionDate;
+    }
+
+    public void setTransactionDate(LocalDate transactionDate) {
+        this.transactionDate = transactionDate;
+    }
 }
\ No newline at end of file
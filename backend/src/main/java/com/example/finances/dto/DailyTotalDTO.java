@@ -0,0 +1,53 @@
+package com.example.finances.dto;
+
+import java.time.LocalDate;
+
+import com.example.finances.model.Money;
+
+/**
+ * Total of one type of transaction on one day, populated by a JPQL constructor expression.
+ */
+public class DailyTotalDTO {
+    private LocalDate date;
+    private String type;
+    private Money total;
+
+    public DailyTotalDTO() {}
+
+    public DailyTotalDTO(LocalDate date, String type, Long totalCents) {
+        this.date = date;
+        this.type = type;
+        this.total = (totalCents != null) ? Money.ofCents(totalCents) : Money.ZERO;
+    }
+
+    public LocalDate getDate() {
+        return date;
+    }
+
+    public void setDate(LocalDate date) {
+        this.date = date;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public void setType(String type) {
+        this.type = type;
+    }
+
+    public Money getTotal() {
+        return total;
+    }
+
+    public void setTotal(Money total) {
+        this.total = total;
+    }
+
+    /**
+     * @return The total's effect on an account balance: positive for income, negative for expenses.
+     */
+    public Money getSignedTotal() {
+        return "income".equals(type) ? total : total.negate();
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.finances.dto;
+
+import java.time.LocalDate;
+
+import com.example.finances.model.Money;
+
+/**
+ * Data Transfer Object for the dashboard overview of a user.
+ * Every figure is computed with aggregate queries on the server so the
+ * client never has to download the full ledger to render the home page.
+ */
+public class DashboardSummaryDTO {
+    private int userId;
+    private Money totalAssets;
+    private Money totalDebts;
+    private Money netWorth;
+    private LocalDate periodStart;
+    private LocalDate periodEnd;
+    private Money monthToDateIncome;
+    private Money monthToDateExpense;
+
+    public DashboardSummaryDTO() {}
+
+    public int getUserId() {
+        return userId;
+    }
+
+    public void setUserId(int userId) {
+        this.userId = userId;
+    }
+
+    public Money getTotalAssets() {
+        return totalAssets;
+    }
+
+    public void setTotalAssets(Money totalAssets) {
+        this.totalAssets = totalAssets;
+    }
+
+    public Money getTotalDebts() {
+        return totalDebts;
+    }
+
+    public void setTotalDebts(Money totalDebts) {
+        this.totalDebts = totalDebts;
+    }
+
+    public Money getNetWorth() {
+        return netWorth;
+    }
+
+    public void setNetWorth(Money netWorth) {
+        this.netWorth = netWorth;
+    }
+
+    public LocalDate getPeriodStart() {
+        return periodStart;
+    }
+
+    public void setPeriodStart(LocalDate periodStart) {
+        this.periodStart = periodStart;
+    }
+
+    public LocalDate getPeriodEnd() {
+        return periodEnd;
+    }
+
+    public void setPeriodEnd(LocalDate periodEnd) {
+        this.periodEnd = periodEnd;
+    }
+
+    public Money getMonthToDateIncome() {
+        return monthToDateIncome;
+    }
+
+    public void setMonthToDateIncome(Money monthToDateIncome) {
+        this.monthToDateIncome = monthToDateIncome;
+    }
+
+    public Money getMonthToDateExpense() {
+        return monthToDateExpense;
+    }
+
+    public void setMonthToDateExpense(Money monthToDateExpense) {
+        this.monthToDateExpense = monthToDateExpense;
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.finances.dto;
+
+import java.time.LocalDate;
+
+import com.example.finances.model.Money;
+
+/**
+ * One debt's outcome under a simulated payoff strategy.
+ */
+public class DebtPayoffDTO {
+    private int debtId;
+    private String debtName;
+    // Date of the final payment, or null if the debt is not paid off within the horizon
+    private LocalDate payoffDate;
+    private Money totalPaid;
+    private Money interestPaid;
+
+    public DebtPayoffDTO() {}
+
+    public DebtPayoffDTO(int debtId, String debtName, LocalDate payoffDate, Money totalPaid, Money interestPaid) {
+        this.debtId = debtId;
+        this.debtName = debtName;
+        this.payoffDate = payoffDate;
+        this.totalPaid = totalPaid;
+        this.interestPaid = interestPaid;
+    }
+
+    public int getDebtId() {
+        return debtId;
+    }
+
+    public void setDebtId(int debtId) {
+        this.debtId = debtId;
+    }
+
+    public String getDebtName() {
+        return debtName;
+    }
+
+    public void setDebtName(String debtName) {
+        this.debtName = debtName;
+    }
+
+    public LocalDate getPayoffDate() {
+        return payoffDate;
+    }
+
+    public void setPayoffDate(LocalDate payoffDate) {
+        this.payoffDate = payoffDate;
+    }
+
+    public Money getTotalPaid() {
+        return totalPaid;
+    }
+
+    public void setTotalPaid(Money totalPaid) {
+        this.totalPaid = totalPaid;
+    }
+
+    public Money getInterestPaid() {
+        return interestPaid;
+    }
+
+    public void setInterestPaid(Money interestPaid) {
+        this.interestPaid = interestPaid;
+    }
+}
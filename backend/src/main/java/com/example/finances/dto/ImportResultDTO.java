@@ -0,0 +1,52 @@
+package com.example.finances.dto;
+
+/**
+ * Data Transfer Object with the running totals of a statement import.
+ */
+public class ImportResultDTO {
+    private long rowsRead;
+    private long imported;
+    private long failed;
+    private boolean complete;
+
+    public ImportResultDTO() {}
+
+    public ImportResultDTO(long rowsRead, long imported, long failed, boolean complete) {
+        this.rowsRead = rowsRead;
+        this.imported = imported;
+        this.failed = failed;
+        this.complete = complete;
+    }
+
+    public long getRowsRead() {
+        return rowsRead;
+    }
+
+    public void setRowsRead(long rowsRead) {
+        this.rowsRead = rowsRead;
+    }
+
+    public long getImported() {
+        return imported;
+    }
+
+    public void setImported(long imported) {
+        this.imported = imported;
+    }
+
+    public long getFailed() {
+        return failed;
+    }
+
+    public void setFailed(long failed) {
+        this.failed = failed;
+    }
+
+    public boolean isComplete() {
+        return complete;
+    }
+
+    public void setComplete(boolean complete) {
+        this.complete = complete;
+    }
+}
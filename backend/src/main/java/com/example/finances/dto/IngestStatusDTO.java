@@ -0,0 +1,59 @@
+package com.example.finances.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * The state of a transaction accepted for write-behind ingestion.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class IngestStatusDTO {
+    public static final String PENDING = "pending";
+    public static final String COMMITTED = "committed";
+    public static final String FAILED = "failed";
+
+    private long ingestId;
+    private String status;
+    private Integer transactionId;
+    private String error;
+
+    public IngestStatusDTO() {}
+
+    public IngestStatusDTO(long ingestId, String status, Integer transactionId, String error) {
+        this.ingestId = ingestId;
+        this.status = status;
+        this.transactionId = transactionId;
+        this.error = error;
+    }
+
+    public long getIngestId() {
+        return ingestId;
+    }
+
+    public void setIngestId(long ingestId) {
+        this.ingestId = ingestId;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public Integer getTransactionId() {
+        return transactionId;
+    }
+
+    public void setTransactionId(Integer transactionId) {
+        this.transactionId = transactionId;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+}
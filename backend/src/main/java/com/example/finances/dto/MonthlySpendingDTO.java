@@ -0,0 +1,76 @@
+package com.example.finances.dto;
+
+import com.example.finances.model.Money;
+
+/**
+ * Total of one category's transactions of one type within a calendar month.
+ * Read straight from the monthly_category_totals rollup by a JPQL constructor expression.
+ */
+public class MonthlySpendingDTO {
+    private String yearMonth;
+    private int categoryId;
+    private String categoryName;
+    private String type;
+    private Money total;
+    private long transactionCount;
+
+    public MonthlySpendingDTO() {}
+
+    public MonthlySpendingDTO(String yearMonth, int categoryId, String categoryName, String type,
+                              Money total, long transactionCount) {
+        this.yearMonth = yearMonth;
+        this.categoryId = categoryId;
+        this.categoryName = categoryName;
+        this.type = type;
+        this.total = total;
+        this.transactionCount = transactionCount;
+    }
+
+    public String getYearMonth() {
+        return yearMonth;
+    }
+
+    public void setYearMonth(String yearMonth) {
+        this.yearMonth = yearMonth;
+    }
+
+    public int getCategoryId() {
+        return categoryId;
+    }
+
+    public void setCategoryId(int categoryId) {
+        this.categoryId = categoryId;
+    }
+
+    public String getCategoryName() {
+        return categoryName;
+    }
+
+    public void setCategoryName(String categoryName) {
+        this.categoryName = categoryName;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public void setType(String type) {
+        this.type = type;
+    }
+
+    public Money getTotal() {
+        return total;
+    }
+
+    public void setTotal(Money total) {
+        this.total = total;
+    }
+
+    public long getTransactionCount() {
+        return transactionCount;
+    }
+
+    public void setTransactionCount(long transactionCount) {
+        this.transactionCount = transactionCount;
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.finances.dto;
+
+import java.time.LocalDate;
+
+import com.example.finances.model.Money;
+
+/**
+ * A user's account balances and remaining debt at the end of a day.
+ */
+public class NetWorthPointDTO {
+    private LocalDate date;
+    private Money assets;
+    private Money debts;
+    private Money netWorth;
+
+    public NetWorthPointDTO() {}
+
+    public NetWorthPointDTO(LocalDate date, Money assets, Money debts) {
+        this.date = date;
+        this.assets = assets;
+        this.debts = debts;
+        this.netWorth = assets.minus(debts);
+    }
+
+    public LocalDate getDate() {
+        return date;
+    }
+
+    public void setDate(LocalDate date) {
+        this.date = date;
+    }
+
+    public Money getAssets() {
+        return assets;
+    }
+
+    public void setAssets(Money assets) {
+        this.assets = assets;
+    }
+
+    public Money getDebts() {
+        return debts;
+    }
+
+    public void setDebts(Money debts) {
+        this.debts = debts;
+    }
+
+    public Money getNetWorth() {
+        return netWorth;
+    }
+
+    public void setNetWorth(Money netWorth) {
+        this.netWorth = netWorth;
+    }
+}
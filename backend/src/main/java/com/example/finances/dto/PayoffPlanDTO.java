@@ -0,0 +1,91 @@
+package com.example.finances.dto;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import com.example.finances.model.Money;
+
+/**
+ * The outcome of paying off a user's active debts with one strategy.
+ */
+public class PayoffPlanDTO {
+    private String strategy;
+    // Number of monthly payments until every debt is paid off, or null if not within the horizon
+    private Integer months;
+    private LocalDate payoffDate;
+    private Money totalPaid;
+    private Money totalInterest;
+    // Still owed at the end of the horizon; zero when every debt is paid off
+    private Money remainingBalance;
+    // In the order the strategy targets them
+    private List<DebtPayoffDTO> debts;
+
+    public PayoffPlanDTO() {}
+
+    public PayoffPlanDTO(String strategy, Integer months, LocalDate payoffDate, Money totalPaid,
+                         Money totalInterest, Money remainingBalance, List<DebtPayoffDTO> debts) {
+        this.strategy = strategy;
+        this.months = months;
+        this.payoffDate = payoffDate;
+        this.totalPaid = totalPaid;
+        this.totalInterest = totalInterest;
+        this.remainingBalance = remainingBalance;
+        this.debts = debts;
+    }
+
+    public String getStrategy() {
+        return strategy;
+    }
+
+    public void setStrategy(String strategy) {
+        this.strategy = strategy;
+    }
+
+    public Integer getMonths() {
+        return months;
+    }
+
+    public void setMonths(Integer months) {
+        this.months = months;
+    }
+
+    public LocalDate getPayoffDate() {
+        return payoffDate;
+    }
+
+    public void setPayoffDate(LocalDate payoffDate) {
+        this.payoffDate = payoffDate;
+    }
+
+    public Money getTotalPaid() {
+        return totalPaid;
+    }
+
+    public void setTotalPaid(Money totalPaid) {
+        this.totalPaid = totalPaid;
+    }
+
+    public Money getTotalInterest() {
+        return totalInterest;
+    }
+
+    public void setTotalInterest(Money totalInterest) {
+        this.totalInterest = totalInterest;
+    }
+
+    public Money getRemainingBalance() {
+        return remainingBalance;
+    }
+
+    public void setRemainingBalance(Money remainingBalance) {
+        this.remainingBalance = remainingBalance;
+    }
+
+    public List<DebtPayoffDTO> getDebts() {
+        return debts;
+    }
+
+    public void setDebts(List<DebtPayoffDTO> debts) {
+        this.debts = debts;
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.finances.dto;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+import com.example.finances.model.Money;
+import com.example.finances.validation.MinMoney;
+
+/**
+ * Data Transfer Object for a debt payoff simulation request.
+ * Debts do not record an interest rate, so the rates to simulate with are supplied here.
+ */
+public class PayoffSimulationDTO {
+
+    // Paid each month on top of the debts' minimum payments
+    @MinMoney(value = "0.00", message = "Extra monthly payment cannot be negative")
+    private Money extraMonthly = Money.ZERO;
+
+    // "avalanche", "snowball" and/or "custom"; defaults to avalanche and snowball, plus custom if an order is given
+    private List<String> strategies;
+
+    // Debt IDs in the order the custom strategy pays them off; debts left out follow in ID order
+    private List<Integer> customOrder;
+
+    // Annual interest rate in percent per debt ID; debts left out accrue no interest
+    private Map<Integer, BigDecimal> annualRates;
+
+    public PayoffSimulationDTO() {}
+
+    public PayoffSimulationDTO(Money extraMonthly, List<String> strategies, List<Integer> customOrder,
+                               Map<Integer, BigDecimal> annualRates) {
+        this.extraMonthly = extraMonthly;
+        this.strategies = strategies;
+        this.customOrder = customOrder;
+        this.annualRates = annualRates;
+    }
+
+    public Money getExtraMonthly() {
+        return extraMonthly;
+    }
+
+    public void setExtraMonthly(Money extraMonthly) {
+        this.extraMonthly = extraMonthly;
+    }
+
+    public List<String> getStrategies() {
+        return strategies;
+    }
+
+    public void setStrategies(List<String> strategies) {
+        this.strategies = strategies;
+    }
+
+    public List<Integer> getCustomOrder() {
+        return customOrder;
+    }
+
+    public void setCustomOrder(List<Integer> customOrder) {
+        this.customOrder = customOrder;
+    }
+
+    public Map<Integer, BigDecimal> getAnnualRates() {
+        return annualRates;
+    }
+
+    public void setAnnualRates(Map<Integer, BigDecimal> annualRates) {
+        this.annualRates = annualRates;
+    }
+}
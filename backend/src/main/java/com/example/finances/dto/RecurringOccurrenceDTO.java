@@ -0,0 +1,121 @@
+package com.example.finances.dto;
+
+import java.time.LocalDate;
+
+import com.example.finances.model.Money;
+import com.example.finances.model.Transaction;
+
+/**
+ * A projected occurrence of a recurring transaction that has not been created yet.
+ */
+public class RecurringOccurrenceDTO {
+    private int templateId;
+    private LocalDate date;
+    private int accountId;
+    private String accountName;
+    private int categoryId;
+    private String categoryName;
+    private Money amount;
+    private String description;
+    private String type;
+    private String recurrence;
+
+    public RecurringOccurrenceDTO() {}
+
+    /**
+     * @param template The recurring template, with its account and category loaded.
+     * @param date The date of the occurrence.
+     */
+    public RecurringOccurrenceDTO(Transaction template, LocalDate date) {
+        this.templateId = template.getTransactionId();
+        this.date = date;
+        this.accountId = template.getAccountId().getAccountId();
+        this.accountName = template.getAccountId().getAccountName();
+        this.categoryId = template.getCategoryId().getCategoryId();
+        this.categoryName = template.getCategoryId().getCategoryName();
+        this.amount = template.getAmount();
+        this.description = template.getDescription();
+        this.type = template.getType();
+        this.recurrence = template.getRecurrence();
+    }
+
+    public int getTemplateId() {
+        return templateId;
+    }
+
+    public void setTemplateId(int templateId) {
+        this.templateId = templateId;
+    }
+
+    public LocalDate getDate() {
+        return date;
+    }
+
+    public void setDate(LocalDate date) {
+        this.date = date;
+    }
+
+    public int getAccountId() {
+        return accountId;
+    }
+
+    public void setAccountId(int accountId) {
+        this.accountId = accountId;
+    }
+
+    public String getAccountName() {
+        return accountName;
+    }
+
+    public void setAccountName(String accountName) {
+        this.accountName = accountName;
+    }
+
+    public int getCategoryId() {
+        return categoryId;
+    }
+
+    public void setCategoryId(int categoryId) {
+        this.categoryId = categoryId;
+    }
+
+    public String getCategoryName() {
+        return categoryName;
+    }
+
+    public void setCategoryName(String categoryName) {
+        this.categoryName = categoryName;
+    }
+
+    public Money getAmount() {
+        return amount;
+    }
+
+    public void setAmount(Money amount) {
+        this.amount = amount;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public void setDescription(String description) {
+        this.description = description;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public void setType(String type) {
+        this.type = type;
+    }
+
+    public String getRecurrence() {
+        return recurrence;
+    }
+
+    public void setRecurrence(String recurrence) {
+        this.recurrence = recurrence;
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.finances.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Position in a transaction listing ordered by (transaction_date DESC, transaction_id DESC).
+ * Clients only ever see the opaque token produced by {@link #encode()}.
+ */
+public class TransactionCursor {
+    /**
+     * Cursor that sorts after every stored transaction, used to request the first page.
+     */
+    public static final TransactionCursor FIRST = new TransactionCursor(LocalDate.of(9999, 12, 31), Integer.MAX_VALUE);
+
+    private final LocalDate transactionDate;
+    private final int transactionId;
+
+    public TransactionCursor(LocalDate transactionDate, int transactionId) {
+        this.transactionDate = transactionDate;
+        this.transactionId = transactionId;
+    }
+
+    public static TransactionCursor after(TransactionResponseDTO transaction) {
+        return new TransactionCursor(transaction.getTransactionDate(), transaction.getTransactionId());
+    }
+
+    /**
+     * Decodes a token previously returned by {@link #encode()}.
+     * @param token The opaque cursor token, or null/blank for the first page.
+     * @return The decoded cursor.
+     * @throws IllegalArgumentException if the token is malformed.
+     */
+    public static TransactionCursor decode(String token) {
+        if (token == null || token.isBlank()) {
+            return FIRST;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(':');
+            return new TransactionCursor(LocalDate.parse(raw.substring(0, separator)),
+                    Integer.parseInt(raw.substring(separator + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException | IndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + token);
+        }
+    }
+
+    public String encode() {
+        String raw = transactionDate + ":" + transactionId;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public LocalDate getTransactionDate() {
+        return transactionDate;
+    }
+
+    public int getTransactionId() {
+        return transactionId;
+    }
+}
@@ -1,6 +1,7 @@
 package com.example.finances.dto;
 
 import java.time.LocalDate;
+import com.example.finances.model.Money;
 import com.example.finances.model.Transaction;
 
 public class TransactionResponseDTO {
@@ -12,7 +13,7 @@ public class TransactionResponseDTO {
     private String categoryName;
     private Integer debtId;
     private String debtName;
-    private double amount;
+    private Money amount;
     private String description;
     private String type;
     private LocalDate transactionDate;
@@ -20,6 +21,29 @@ public class TransactionResponseDTO {
 
     public TransactionResponseDTO() {}
 
+    /**
+     * Builds the DTO directly from selected columns; used by the projection queries in
+     * TransactionRepository so listings never hydrate Transaction entities.
+     */
+    public TransactionResponseDTO(int transactionId, int accountId, String accountName, int userId,
+                                  int categoryId, String categoryName, Integer debtId, String debtName,
+                                  Money amount, String description, String type, LocalDate transactionDate,
+                                  String recurrence) {
+        this.transactionId = transactionId;
+        this.accountId = accountId;
+        this.accountName = accountName;
+        this.userId = userId;
+        this.categoryId = categoryId;
+        this.categoryName = categoryName;
+        this.debtId = debtId;
+        this.debtName = debtName;
+        this.amount = amount;
+        this.description = description;
+        this.type = type;
+        this.transactionDate = transactionDate;
+        this.recurrence = recurrence;
+    }
+
     public TransactionResponseDTO(Transaction transaction) {
         this.transactionId = transaction.getTransactionId();
         this.accountId = transaction.getAccountId().getAccountId();
@@ -100,11 +124,11 @@ public class TransactionResponseDTO {
         this.debtName = debtName;
     }
 
-    public double getAmount() {
+    public Money getAmount() {
         return amount;
     }
 
-    public void setAmount(double amount) {
+    public void setAmount(Money amount) {
         this.amount = amount;
     }
 
@@ -0,0 +1,214 @@
+package com.example.finances.importer;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import com.example.finances.model.Money;
+
+/**
+ * Streaming parser for CSV bank statements (RFC 4180 quoting, header row required).
+ * Recognised columns are a date, a description and either a signed amount or separate
+ * debit/credit columns, plus an optional income/expense type.
+ */
+public class CsvStatementParser implements StatementParser {
+    private static final int MAX_RECORD_LENGTH = 1024 * 1024;
+    private static final List<DateTimeFormatter> DATE_FORMATS = List.of(
+            DateTimeFormatter.ISO_LOCAL_DATE,
+            DateTimeFormatter.ofPattern("yyyy/MM/dd"),
+            DateTimeFormatter.BASIC_ISO_DATE
+    );
+
+    private final BufferedReader reader;
+    private long lineNumber = 0;
+    private long recordLineNumber = 0;
+    private boolean headerRead = false;
+
+    private int dateColumn = -1;
+    private int descriptionColumn = -1;
+    private int amountColumn = -1;
+    private int debitColumn = -1;
+    private int creditColumn = -1;
+    private int typeColumn = -1;
+
+    public CsvStatementParser(BufferedReader reader) {
+        this.reader = reader;
+    }
+
+    @Override
+    public StatementRow next() throws IOException {
+        if (!headerRead && !readHeader()) {
+            return null;
+        }
+
+        List<String> fields;
+        do {
+            fields = readRecord();
+            if (fields == null) {
+                return null;
+            }
+        } while (fields.size() == 1 && fields.get(0).isBlank());
+
+        return toRow(fields);
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    // Maps the header names to column positions; returns false for an empty statement.
+    private boolean readHeader() throws IOException {
+        headerRead = true;
+        List<String> header = readRecord();
+        if (header == null) {
+            return false;
+        }
+
+        for (int i = 0; i < header.size(); i++) {
+            String name = header.get(i).replace("\uFEFF", "").trim().toLowerCase(Locale.ROOT);
+            switch (name) {
+                case "date", "transaction date", "posted date", "posting date" -> dateColumn = i;
+                case "description", "payee", "name", "memo", "details" -> {
+                    if (descriptionColumn == -1) {
+                        descriptionColumn = i;
+                    }
+                }
+                case "amount" -> amountColumn = i;
+                case "debit", "withdrawal", "withdrawals" -> debitColumn = i;
+                case "credit", "deposit", "deposits" -> creditColumn = i;
+                case "type" -> typeColumn = i;
+                default -> { }
+            }
+        }
+
+        if (dateColumn == -1 || descriptionColumn == -1
+                || (amountColumn == -1 && (debitColumn == -1 || creditColumn == -1))) {
+            throw new IOException("CSV header must contain date, description and amount (or debit and credit) columns");
+        }
+        return true;
+    }
+
+    private StatementRow toRow(List<String> fields) {
+        String description = field(fields, descriptionColumn);
+        if (description.isEmpty()) {
+            throw new StatementParseException(recordLineNumber, "Description is empty");
+        }
+
+        Money amount;
+        if (amountColumn != -1) {
+            amount = parseAmount(field(fields, amountColumn));
+        } else {
+            String debit = field(fields, debitColumn);
+            String credit = field(fields, creditColumn);
+            amount = (credit.isEmpty() ? Money.ZERO : parseAmount(credit))
+                    .minus(debit.isEmpty() ? Money.ZERO : parseAmount(debit).abs());
+        }
+
+        String type = null;
+        if (typeColumn != -1) {
+            type = switch (field(fields, typeColumn).toLowerCase(Locale.ROOT)) {
+                case "income", "credit" -> "income";
+                case "expense", "debit" -> "expense";
+                case "" -> null;
+                default -> throw new StatementParseException(recordLineNumber,
+                        "Unknown type: " + field(fields, typeColumn));
+            };
+        }
+
+        return new StatementRow(recordLineNumber, parseDate(field(fields, dateColumn)), description, amount, type);
+    }
+
+    private String field(List<String> fields, int column) {
+        if (column >= fields.size()) {
+            throw new StatementParseException(recordLineNumber,
+                    "Expected at least " + (column + 1) + " columns but found " + fields.size());
+        }
+        return fields.get(column).trim();
+    }
+
+    private LocalDate parseDate(String value) {
+        for (DateTimeFormatter format : DATE_FORMATS) {
+            try {
+                return LocalDate.parse(value, format);
+            } catch (DateTimeParseException e) {
+                // try the next format
+            }
+        }
+        throw new StatementParseException(recordLineNumber, "Invalid date: " + value);
+    }
+
+    private Money parseAmount(String value) {
+        String cleaned = value.replace("$", "").replace(",", "").replace(" ", "");
+        boolean negative = cleaned.startsWith("(") && cleaned.endsWith(")");
+        if (negative) {
+            cleaned = cleaned.substring(1, cleaned.length() - 1);
+        }
+        try {
+            Money amount = Money.parse(cleaned);
+            return negative ? amount.negate() : amount;
+        } catch (NumberFormatException | ArithmeticException e) {
+            throw new StatementParseException(recordLineNumber, "Invalid amount: " + value);
+        }
+    }
+
+    /**
+     * Reads one CSV record, which may span several lines when a quoted field contains line breaks.
+     * @return The fields of the record, or null at the end of the stream.
+     */
+    private List<String> readRecord() throws IOException {
+        int c = reader.read();
+        if (c == -1) {
+            return null;
+        }
+        recordLineNumber = ++lineNumber;
+
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean inQuotes = false;
+        int recordLength = 0;
+
+        while (c != -1) {
+            if (++recordLength > MAX_RECORD_LENGTH) {
+                throw new IOException("Record starting on line " + recordLineNumber
+                        + " is longer than " + MAX_RECORD_LENGTH + " characters (unterminated quote?)");
+            }
+
+            char ch = (char) c;
+            if (inQuotes) {
+                if (ch == '"') {
+                    reader.mark(1);
+                    if (reader.read() == '"') {
+                        field.append('"');
+                    } else {
+                        inQuotes = false;
+                        reader.reset();
+                    }
+                } else {
+                    if (ch == '\n') {
+                        lineNumber++;
+                    }
+                    field.append(ch);
+                }
+            } else if (ch == '"') {
+                inQuotes = true;
+            } else if (ch == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (ch == '\n') {
+                break;
+            } else if (ch != '\r') {
+                field.append(ch);
+            }
+            c = reader.read();
+        }
+
+        fields.add(field.toString());
+        return fields;
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.finances.importer;
+
+import com.example.finances.dto.ImportResultDTO;
+
+/**
+ * Receives updates while a statement import is running.
+ */
+public interface ImportListener {
+    /**
+     * Called after each chunk of rows has been committed.
+     * @param progress Running totals for the import so far.
+     */
+    void onProgress(ImportResultDTO progress);
+
+    /**
+     * Called for every row that was skipped because it could not be parsed.
+     * @param lineNumber The line of the statement the row starts on.
+     * @param message Why the row was skipped.
+     */
+    void onRowError(long lineNumber, String message);
+}
@@ -0,0 +1,151 @@
+package com.example.finances.importer;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+import com.example.finances.model.Money;
+
+/**
+ * Streaming parser for OFX bank statements.
+ * Handles both OFX 1.x (SGML, optional closing tags) and OFX 2.x (XML) by scanning
+ * tags and reading each &lt;STMTTRN&gt; element as one row; everything else is skipped.
+ */
+public class OfxStatementParser implements StatementParser {
+    private static final int MAX_TOKEN_LENGTH = 64 * 1024;
+
+    private final BufferedReader reader;
+    private long lineNumber = 1;
+    private int lookahead = -2;
+
+    public OfxStatementParser(BufferedReader reader) {
+        this.reader = reader;
+    }
+
+    @Override
+    public StatementRow next() throws IOException {
+        String tag;
+        while ((tag = readTag()) != null) {
+            if (tag.equals("STMTTRN")) {
+                return readTransaction();
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    private StatementRow readTransaction() throws IOException {
+        long startLine = lineNumber;
+        Map<String, String> fields = new HashMap<>();
+        String tag;
+        while ((tag = readTag()) != null) {
+            if (tag.equals("/STMTTRN")) {
+                return toRow(startLine, fields);
+            }
+            if (!tag.startsWith("/")) {
+                fields.putIfAbsent(tag, readText());
+            }
+        }
+        throw new StatementParseException(startLine, "Unterminated <STMTTRN> element");
+    }
+
+    private StatementRow toRow(long line, Map<String, String> fields) {
+        String posted = fields.getOrDefault("DTPOSTED", "");
+        if (posted.length() < 8) {
+            throw new StatementParseException(line, "Missing or invalid DTPOSTED: " + posted);
+        }
+        LocalDate date;
+        try {
+            date = LocalDate.parse(posted.substring(0, 8), DateTimeFormatter.BASIC_ISO_DATE);
+        } catch (DateTimeParseException e) {
+            throw new StatementParseException(line, "Invalid DTPOSTED: " + posted);
+        }
+
+        Money amount;
+        try {
+            amount = Money.parse(fields.getOrDefault("TRNAMT", "").replace(",", "."));
+        } catch (NumberFormatException | ArithmeticException e) {
+            throw new StatementParseException(line, "Missing or invalid TRNAMT: " + fields.get("TRNAMT"));
+        }
+
+        String description = firstNonBlank(fields.get("NAME"), fields.get("MEMO"), fields.get("TRNTYPE"));
+        if (description == null) {
+            throw new StatementParseException(line, "Transaction has no NAME or MEMO");
+        }
+        return new StatementRow(line, date, description, amount, null);
+    }
+
+    private static String firstNonBlank(String... values) {
+        for (String value : values) {
+            if (value != null && !value.isBlank()) {
+                return value;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Skips to the next tag and returns its upper-cased name (closing tags keep their leading '/').
+     * @return The tag name, or null at the end of the stream.
+     */
+    private String readTag() throws IOException {
+        int c;
+        while ((c = read()) != '<') {
+            if (c == -1) {
+                return null;
+            }
+        }
+
+        StringBuilder tag = new StringBuilder();
+        while ((c = read()) != '>') {
+            if (c == -1 || tag.length() > MAX_TOKEN_LENGTH) {
+                throw new IOException("Malformed tag near line " + lineNumber);
+            }
+            tag.append((char) c);
+        }
+        return tag.toString().trim().toUpperCase(Locale.ROOT);
+    }
+
+    // Reads the text content following a tag, up to (not including) the next tag.
+    private String readText() throws IOException {
+        StringBuilder text = new StringBuilder();
+        int c;
+        while ((c = peek()) != '<' && c != -1) {
+            if (text.length() > MAX_TOKEN_LENGTH) {
+                throw new IOException("Element value too long near line " + lineNumber);
+            }
+            text.append((char) read());
+        }
+        return text.toString().trim()
+                .replace("&lt;", "<")
+                .replace("&gt;", ">")
+                .replace("&quot;", "\"")
+                .replace("&apos;", "'")
+                .replace("&amp;", "&");
+    }
+
+    private int peek() throws IOException {
+        if (lookahead == -2) {
+            lookahead = reader.read();
+        }
+        return lookahead;
+    }
+
+    private int read() throws IOException {
+        int c = peek();
+        lookahead = -2;
+        if (c == '\n') {
+            lineNumber++;
+        }
+        return c;
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.finances.importer;
+
+import java.io.BufferedReader;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+
+/**
+ * Supported bank statement formats.
+ */
+public enum StatementFormat {
+    CSV,
+    OFX;
+
+    private static final int READ_BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * Looks up a format by name, ignoring case.
+     * @param name "csv" or "ofx".
+     * @return The matching format.
+     * @throws IllegalArgumentException if the format is not supported.
+     */
+    public static StatementFormat fromName(String name) {
+        try {
+            return valueOf(name.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unsupported statement format: " + name);
+        }
+    }
+
+    /**
+     * Opens a streaming parser for this format over a UTF-8 encoded statement.
+     * @param in The statement stream; closed together with the parser.
+     * @return The parser.
+     */
+    public StatementParser open(InputStream in) {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8), READ_BUFFER_SIZE);
+        return switch (this) {
+            case CSV -> new CsvStatementParser(reader);
+            case OFX -> new OfxStatementParser(reader);
+        };
+    }
+}
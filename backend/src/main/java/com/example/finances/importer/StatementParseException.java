@@ -0,0 +1,18 @@
+package com.example.finances.importer;
+
+/**
+ * Thrown when a single statement row cannot be parsed.
+ * The parser has already moved past the row, so parsing can continue with the next one.
+ */
+public class StatementParseException extends RuntimeException {
+    private final long lineNumber;
+
+    public StatementParseException(long lineNumber, String message) {
+        super(message);
+        this.lineNumber = lineNumber;
+    }
+
+    public long getLineNumber() {
+        return lineNumber;
+    }
+}
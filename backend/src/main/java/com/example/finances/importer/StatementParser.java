@@ -0,0 +1,18 @@
+package com.example.finances.importer;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Reads statement rows one at a time from an underlying stream,
+ * so a statement never has to be held in memory as a whole.
+ */
+public interface StatementParser extends Closeable {
+    /**
+     * Reads the next row of the statement.
+     * @return The next row, or null once the end of the statement is reached.
+     * @throws StatementParseException if the row is malformed; the next call continues after it.
+     * @throws IOException if the underlying stream cannot be read.
+     */
+    StatementRow next() throws IOException;
+}
@@ -0,0 +1,43 @@
+package com.example.finances.importer;
+
+import java.time.LocalDate;
+
+import com.example.finances.model.Money;
+
+/**
+ * A single transaction read from a bank statement, before it is mapped to a Transaction entity.
+ */
+public class StatementRow {
+    private final long lineNumber;
+    private final LocalDate date;
+    private final String description;
+    private final Money amount;
+    private final String type;
+
+    /**
+     * @param lineNumber The line of the statement the row starts on, used in error reports.
+     * @param date The posting date.
+     * @param description The payee or memo text.
+     * @param amount The signed amount; negative amounts are expenses when no type is given.
+     * @param type "income", "expense", or null to derive it from the sign of the amount.
+     */
+    public StatementRow(long lineNumber, LocalDate date, String description, Money amount, String type) {
+        this.lineNumber = lineNumber;
+        this.date = date;
+        this.description = description;
+        this.amount = amount;
+        this.type = type;
+    }
+
+    public long getLineNumber() { return lineNumber; }
+    public LocalDate getDate() { return date; }
+    public String getDescription() { return description; }
+    public Money getAmount() { return amount; }
+
+    public String getType() {
+        if (type != null) {
+            return type;
+        }
+        return amount.isNegative() ? "expense" : "income";
+    }
+}
@@ -0,0 +1,229 @@
+package com.example.finances.ingest;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import com.example.finances.dto.CreateTransactionDTO;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * An append-only file of accepted transactions, one JSON object per line, each with a sequence
+ * number. An append returns once the entry is on disk. Appends that arrive while another thread is
+ * syncing the file are synced together by the next sync, so under load many entries share one
+ * fsync (group commit). A line cut short by a crash is ignored when the journal is read back.
+ * Every entry carries the epoch of the database it is meant for. A journal holding entries for
+ * another epoch, e.g. one left behind by a database that has since been recreated, is moved aside
+ * to {@code <file>.discarded} on open rather than replayed into the wrong database.
+ */
+public class TransactionJournal implements Closeable {
+    private final Path path;
+    private final ObjectMapper objectMapper;
+    private final String epoch;
+    private final FileChannel channel;
+    private final int discarded;
+
+    // Guarded by this
+    private long lastSequence;
+    private long lastWritten;
+    // Guarded by syncLock; read without it as a fast path
+    private volatile long lastSynced;
+    private final Object syncLock = new Object();
+
+    /**
+     * Opens a journal, creating the file if it does not exist.
+     * @param path The journal file.
+     * @param objectMapper Serialises entries.
+     * @param epoch The epoch of the database the entries are for.
+     * @param firstSequence The lowest sequence number the next entry may have; entries already in
+     *                      the file push it higher.
+     * @throws IOException if the file cannot be opened, read or moved aside.
+     */
+    public TransactionJournal(Path path, ObjectMapper objectMapper, String epoch, long firstSequence) throws IOException {
+        this.path = path;
+        this.objectMapper = objectMapper;
+        this.epoch = epoch;
+        Path parent = path.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        List<Entry> entries = readEntries();
+        if (entries.stream().anyMatch(entry -> !epoch.equals(entry.epoch()))) {
+            Files.move(path, discardedPath(), StandardCopyOption.REPLACE_EXISTING);
+            this.discarded = entries.size();
+            entries = List.of();
+        } else {
+            this.discarded = 0;
+        }
+        long last = firstSequence - 1;
+        for (Entry entry : entries) {
+            last = Math.max(last, entry.seq());
+        }
+        this.lastSequence = last;
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        // Drop a line cut short by a crash, so the next entry starts on a line of its own
+        this.channel.truncate(validLength());
+    }
+
+    /**
+     * Appends a transaction and waits until it is on disk.
+     * @param transaction The transaction.
+     * @param onWritten Called with the entry once it is written, before it is synced. Calls are
+     *                  made one at a time in sequence order, so it can hand entries on in order.
+     * @return The entry's sequence number.
+     * @throws IOException if the entry cannot be written or synced.
+     */
+    public long append(CreateTransactionDTO transaction, Consumer<Entry> onWritten) throws IOException {
+        long seq;
+        synchronized (this) {
+            seq = lastSequence + 1;
+            Entry entry = new Entry(seq, epoch, transaction);
+            ByteBuffer buffer = ByteBuffer.wrap(toLine(entry));
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            lastSequence = seq;
+            lastWritten = seq;
+            onWritten.accept(entry);
+        }
+        sync(seq);
+        return seq;
+    }
+
+    /**
+     * Waits until an entry is on disk, syncing the file unless a sync that started after the entry
+     * was written has already covered it.
+     * @param seq The sequence number of an entry already written.
+     * @throws IOException if the file cannot be synced.
+     */
+    public void sync(long seq) throws IOException {
+        if (lastSynced >= seq) {
+            return;
+        }
+        synchronized (syncLock) {
+            if (lastSynced >= seq) {
+                return;
+            }
+            long covered;
+            synchronized (this) {
+                covered = lastWritten;
+            }
+            channel.force(false);
+            lastSynced = covered;
+        }
+    }
+
+    /**
+     * Empties the journal if its last entry has been applied. Entries appended after the check are
+     * kept, so this can run while appends continue.
+     * @param appliedThrough The highest sequence number applied to the database.
+     * @return Whether the journal was emptied.
+     * @throws IOException if the file cannot be truncated.
+     */
+    public synchronized boolean truncateIfApplied(long appliedThrough) throws IOException {
+        if (lastWritten > appliedThrough || channel.size() == 0) {
+            return false;
+        }
+        // No sync: if a crash undoes the truncation, the entries are read back and skipped as applied
+        channel.truncate(0);
+        return true;
+    }
+
+    /**
+     * Reads the complete entries in the file, in order.
+     * @return The entries.
+     * @throws IOException if the file cannot be read.
+     */
+    public List<Entry> readEntries() throws IOException {
+        List<Entry> entries = new ArrayList<>();
+        if (!Files.exists(path)) {
+            return entries;
+        }
+        try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                try {
+                    entries.add(objectMapper.readValue(line, Entry.class));
+                } catch (JsonProcessingException e) {
+                    // Only the last line can be cut short, and it was never acknowledged
+                    break;
+                }
+            }
+        }
+        return entries;
+    }
+
+    /**
+     * @return The sequence number of the last entry appended, or read from the file on open.
+     */
+    public synchronized long lastSequence() {
+        return lastSequence;
+    }
+
+    /**
+     * @return The journal file.
+     */
+    public Path getPath() {
+        return path;
+    }
+
+    /**
+     * @return Where a journal for another epoch is moved to.
+     */
+    public Path discardedPath() {
+        return path.resolveSibling(path.getFileName() + ".discarded");
+    }
+
+    /**
+     * @return The number of entries for another epoch moved aside on open.
+     */
+    public int discardedCount() {
+        return discarded;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    // The length of the file up to the end of its last complete line
+    private long validLength() throws IOException {
+        byte[] bytes = Files.readAllBytes(path);
+        int end = bytes.length;
+        while (end > 0 && bytes[end - 1] != '\n') {
+            end--;
+        }
+        return end;
+    }
+
+    private byte[] toLine(Entry entry) throws JsonProcessingException {
+        byte[] json = objectMapper.writeValueAsBytes(entry);
+        byte[] line = new byte[json.length + 1];
+        System.arraycopy(json, 0, line, 0, json.length);
+        line[json.length] = '\n';
+        return line;
+    }
+
+    /**
+     * One accepted transaction.
+     * @param seq The sequence number, which is also the ingest ID returned to the client.
+     * @param epoch The epoch of the database the entry is for.
+     * @param transaction The transaction as it was accepted.
+     */
+    public record Entry(long seq, String epoch, CreateTransactionDTO transaction) {
+    }
+}
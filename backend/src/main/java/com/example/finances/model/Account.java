@@ -4,10 +4,10 @@ import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import jakarta.persistence.*;
 
-import java.math.BigDecimal;
-
 @Entity
-@Table(name = "accounts")
+@Table(name = "accounts", indexes = {
+        @Index(name = "idx_accounts_user", columnList = "user_id")
+})
 public class Account {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -22,12 +22,17 @@ public class Account {
     private String accountName;
 
     @Column(nullable = false, name = "account_balance")
-    private BigDecimal accountBalance;
+    private Money accountBalance;
+
+    // Incremented by every write, including balance adjustments; a write based on an older version is rejected
+    @Version
+    @Column(nullable = false, name = "version")
+    private Long version;
 
     public Account() {
     }
 
-    public Account(User userId, String accountName, BigDecimal accountBalance) {
+    public Account(User userId, String accountName, Money accountBalance) {
         this.userId = userId;
         this.accountName = accountName;
         this.accountBalance = accountBalance;
@@ -58,14 +63,19 @@ public class Account {
         this.accountName = accountName;
     }
 
-    public BigDecimal getAccountBalance() {
+    public Money getAccountBalance() {
         return accountBalance;
     }
 
-    public void setAccountBalance(BigDecimal accountBalance) {
+    public void setAccountBalance(Money accountBalance) {
         this.accountBalance = accountBalance;
     }
-}
-
 
+    public Long getVersion() {
+        return version;
+    }
 
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+}
@@ -0,0 +1,82 @@
+package com.example.finances.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDate;
+
+/**
+ * End-of-day balance of an account, written for each day on which the balance changed.
+ * A day without a row has the balance of the latest earlier row.
+ */
+@Entity
+@Table(name = "account_balance_snapshots", indexes = {
+        @Index(name = "idx_account_balance_snapshots_account_date", columnList = "account_id, snapshot_date"),
+        @Index(name = "idx_account_balance_snapshots_user_date", columnList = "user_id, snapshot_date")
+})
+public class AccountBalanceSnapshot {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(nullable = false, name = "account_balance_snapshot_id")
+    private int accountBalanceSnapshotId;
+
+    @Column(nullable = false, name = "account_id")
+    private int accountId;
+
+    @Column(nullable = false, name = "user_id")
+    private int userId;
+
+    @Column(nullable = false, name = "snapshot_date")
+    private LocalDate snapshotDate;
+
+    @Column(nullable = false, name = "balance")
+    private Money balance;
+
+    public AccountBalanceSnapshot() {
+    }
+
+    public AccountBalanceSnapshot(int accountId, int userId, LocalDate snapshotDate, Money balance) {
+        this.accountId = accountId;
+        this.userId = userId;
+        this.snapshotDate = snapshotDate;
+        this.balance = balance;
+    }
+
+    public int getAccountBalanceSnapshotId() {
+        return accountBalanceSnapshotId;
+    }
+
+    public void setAccountBalanceSnapshotId(int accountBalanceSnapshotId) {
+        this.accountBalanceSnapshotId = accountBalanceSnapshotId;
+    }
+
+    public int getAccountId() {
+        return accountId;
+    }
+
+    public void setAccountId(int accountId) {
+        this.accountId = accountId;
+    }
+
+    public int getUserId() {
+        return userId;
+    }
+
+    public void setUserId(int userId) {
+        this.userId = userId;
+    }
+
+    public LocalDate getSnapshotDate() {
+        return snapshotDate;
+    }
+
+    public void setSnapshotDate(LocalDate snapshotDate) {
+        this.snapshotDate = snapshotDate;
+    }
+
+    public Money getBalance() {
+        return balance;
+    }
+
+    public void setBalance(Money balance) {
+        this.balance = balance;
+    }
+}
@@ -0,0 +1,127 @@
+package com.example.finances.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import jakarta.persistence.*;
+
+/**
+ * A rule that files a user's uncategorised transactions under a category. A rule matches when
+ * every condition it sets holds: the description contains the keyword (ignoring case), the
+ * description matches the regular expression, the amount lies within the bounds and the
+ * transaction is on the account. The matching rule with the lowest priority wins.
+ */
+@Entity
+@Table(name = "category_rules", indexes = {
+        @Index(name = "idx_category_rules_user_priority", columnList = "user_id, priority"),
+        @Index(name = "idx_category_rules_category", columnList = "category_id"),
+        @Index(name = "idx_category_rules_account", columnList = "account_id")
+})
+public class CategoryRule {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "rule_id")
+    private int ruleId;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(nullable = false, name = "user_id")
+    @JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
+    private User userId;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(nullable = false, name = "category_id")
+    @JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
+    private Category categoryId;
+
+    // Null matches every account
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "account_id")
+    @JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
+    private Account accountId;
+
+    private String keyword;
+
+    private String pattern;
+
+    @Column(name = "min_amount")
+    private Money minAmount;
+
+    @Column(name = "max_amount")
+    private Money maxAmount;
+
+    @Column(nullable = false)
+    private int priority;
+
+    public CategoryRule() {
+    }
+
+    public int getRuleId() {
+        return ruleId;
+    }
+
+    public void setRuleId(int ruleId) {
+        this.ruleId = ruleId;
+    }
+
+    public User getUserId() {
+        return userId;
+    }
+
+    public void setUserId(User userId) {
+        this.userId = userId;
+    }
+
+    public Category getCategoryId() {
+        return categoryId;
+    }
+
+    public void setCategoryId(Category categoryId) {
+        this.categoryId = categoryId;
+    }
+
+    public Account getAccountId() {
+        return accountId;
+    }
+
+    public void setAccountId(Account accountId) {
+        this.accountId = accountId;
+    }
+
+    public String getKeyword() {
+        return keyword;
+    }
+
+    public void setKeyword(String keyword) {
+        this.keyword = keyword;
+    }
+
+    public String getPattern() {
+        return pattern;
+    }
+
+    public void setPattern(String pattern) {
+        this.pattern = pattern;
+    }
+
+    public Money getMinAmount() {
+        return minAmount;
+    }
+
+    public void setMinAmount(Money minAmount) {
+        this.minAmount = minAmount;
+    }
+
+    public Money getMaxAmount() {
+        return maxAmount;
+    }
+
+    public void setMaxAmount(Money maxAmount) {
+        this.maxAmount = maxAmount;
+    }
+
+    public int getPriority() {
+        return priority;
+    }
+
+    public void setPriority(int priority) {
+        this.priority = priority;
+    }
+}
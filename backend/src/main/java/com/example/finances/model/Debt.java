@@ -3,10 +3,10 @@ package com.example.finances.model;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import jakarta.persistence.*;
 
-import java.math.BigDecimal;
-
 @Entity
-@Table(name = "debts")
+@Table(name = "debts", indexes = {
+        @Index(name = "idx_debts_user", columnList = "user_id")
+})
 public class Debt {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -22,19 +22,24 @@ public class Debt {
     private String debtName;
 
     @Column(nullable = false, name = "total_owed")
-    private BigDecimal totalOwed;
+    private Money totalOwed;
 
     @Column(nullable = false, name = "amount_paid")
-    private BigDecimal amountPaid = BigDecimal.ZERO;
+    private Money amountPaid = Money.ZERO;
 
     @Column(nullable = false, name = "monthly_payment")
-    private BigDecimal monthlyPayment;
+    private Money monthlyPayment;
+
+    // Incremented by every write; a write based on an older version is rejected
+    @Version
+    @Column(nullable = false, name = "version")
+    private Long version;
 
     public Debt() {
     }
 
-    public Debt(User userId, String debtName, BigDecimal totalOwed,
-                BigDecimal amountPaid, BigDecimal monthlyPayment) {
+    public Debt(User userId, String debtName, Money totalOwed,
+                Money amountPaid, Money monthlyPayment) {
         this.userId = userId;
         this.debtName = debtName;
         this.totalOwed = totalOwed;
@@ -49,26 +54,26 @@ public class Debt {
     public void setUserId(User userId) { this.userId = userId; }
     public String getDebtName() { return debtName; }
     public void setDebtName(String debtName) { this.debtName = debtName; }
-    public BigDecimal getTotalOwed() { return totalOwed; }
-    public void setTotalOwed(BigDecimal totalOwed) { this.totalOwed = totalOwed; }
-    public BigDecimal getAmountPaid() { return amountPaid; }
-    public void setAmountPaid(BigDecimal amountPaid) { this.amountPaid = amountPaid; }
-    public BigDecimal getMonthlyPayment() { return monthlyPayment; }
-    public void setMonthlyPayment(BigDecimal monthlyPayment) { this.monthlyPayment = monthlyPayment; }
+    public Money getTotalOwed() { return totalOwed; }
+    public void setTotalOwed(Money totalOwed) { this.totalOwed = totalOwed; }
+    public Money getAmountPaid() { return amountPaid; }
+    public void setAmountPaid(Money amountPaid) { this.amountPaid = amountPaid; }
+    public Money getMonthlyPayment() { return monthlyPayment; }
+    public void setMonthlyPayment(Money monthlyPayment) { this.monthlyPayment = monthlyPayment; }
+    public Long getVersion() { return version; }
+    public void setVersion(Long version) { this.version = version; }
 
     // Calculated field - remaining balance
-    public BigDecimal getRemainingBalance() {
-        return totalOwed.subtract(amountPaid);
+    public Money getRemainingBalance() {
+        return totalOwed.minus(amountPaid);
     }
 
-    // Calculated field - progress percentage
+    // Calculated field - progress percentage, rounded to two decimal places
     public double getPaymentProgress() {
-        if (totalOwed.compareTo(BigDecimal.ZERO) == 0) {
+        if (totalOwed.isZero()) {
             return 0.0;
         }
-        return amountPaid.divide(totalOwed, 4, java.math.RoundingMode.HALF_UP)
-                .multiply(BigDecimal.valueOf(100))
-                .doubleValue();
+        return Math.round(amountPaid.getCents() * 10_000.0 / totalOwed.getCents()) / 100.0;
     }
 
 }
\ No newline at end of file
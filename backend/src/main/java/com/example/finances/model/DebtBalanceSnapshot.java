@@ -0,0 +1,69 @@
+package com.example.finances.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDate;
+
+/**
+ * End-of-day total debt remaining for a user, written for each day on which it changed.
+ * A day without a row has the total of the latest earlier row.
+ */
+@Entity
+@Table(name = "debt_balance_snapshots", indexes = {
+        @Index(name = "idx_debt_balance_snapshots_user_date", columnList = "user_id, snapshot_date")
+})
+public class DebtBalanceSnapshot {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(nullable = false, name = "debt_balance_snapshot_id")
+    private int debtBalanceSnapshotId;
+
+    @Column(nullable = false, name = "user_id")
+    private int userId;
+
+    @Column(nullable = false, name = "snapshot_date")
+    private LocalDate snapshotDate;
+
+    @Column(nullable = false, name = "total_remaining")
+    private Money totalRemaining;
+
+    public DebtBalanceSnapshot() {
+    }
+
+    public DebtBalanceSnapshot(int userId, LocalDate snapshotDate, Money totalRemaining) {
+        this.userId = userId;
+        this.snapshotDate = snapshotDate;
+        this.totalRemaining = totalRemaining;
+    }
+
+    public int getDebtBalanceSnapshotId() {
+        return debtBalanceSnapshotId;
+    }
+
+    public void setDebtBalanceSnapshotId(int debtBalanceSnapshotId) {
+        this.debtBalanceSnapshotId = debtBalanceSnapshotId;
+    }
+
+    public int getUserId() {
+        return userId;
+    }
+
+    public void setUserId(int userId) {
+        this.userId = userId;
+    }
+
+    public LocalDate getSnapshotDate() {
+        return snapshotDate;
+    }
+
+    public void setSnapshotDate(LocalDate snapshotDate) {
+        this.snapshotDate = snapshotDate;
+    }
+
+    public Money getTotalRemaining() {
+        return totalRemaining;
+    }
+
+    public void setTotalRemaining(Money totalRemaining) {
+        this.totalRemaining = totalRemaining;
+    }
+}
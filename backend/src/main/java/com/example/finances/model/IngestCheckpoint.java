@@ -0,0 +1,58 @@
+package com.example.finances.model;
+
+import jakarta.persistence.*;
+
+/**
+ * The highest sequence number of an ingest journal whose entry has been applied to the ledger.
+ * It is written in the same database transaction as the entries it covers, so after a crash the
+ * journal is replayed from exactly the first entry that did not commit. The epoch is a random ID
+ * chosen when the row is first created; journal entries carry it, so a journal left behind by a
+ * database that has since been recreated is recognised and not replayed.
+ */
+@Entity
+@Table(name = "ingest_checkpoints")
+public class IngestCheckpoint {
+    // The journal's file name
+    @Id
+    @Column(name = "journal")
+    private String journal;
+
+    @Column(name = "epoch", nullable = false)
+    private String epoch;
+
+    @Column(name = "last_sequence", nullable = false)
+    private long lastSequence;
+
+    public IngestCheckpoint() {
+    }
+
+    public IngestCheckpoint(String journal, String epoch, long lastSequence) {
+        this.journal = journal;
+        this.epoch = epoch;
+        this.lastSequence = lastSequence;
+    }
+
+    public String getJournal() {
+        return journal;
+    }
+
+    public void setJournal(String journal) {
+        this.journal = journal;
+    }
+
+    public String getEpoch() {
+        return epoch;
+    }
+
+    public void setEpoch(String epoch) {
+        this.epoch = epoch;
+    }
+
+    public long getLastSequence() {
+        return lastSequence;
+    }
+
+    public void setLastSequence(long lastSequence) {
+        this.lastSequence = lastSequence;
+    }
+}
@@ -0,0 +1,118 @@
+package com.example.finances.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDate;
+import java.time.YearMonth;
+
+/**
+ * Rollup of one user's transactions of one type and category within one calendar month.
+ * Kept up to date by SpendingReportService as transactions are written, so spending reports
+ * read a few rows per month instead of every transaction.
+ */
+@Entity
+@Table(name = "monthly_category_totals", indexes = {
+        @Index(name = "idx_monthly_category_totals_key", columnList = "user_id, year_month, category_id, type")
+})
+public class MonthlyCategoryTotal {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(nullable = false, name = "monthly_category_total_id")
+    private int monthlyCategoryTotalId;
+
+    @Column(nullable = false, name = "user_id")
+    private int userId;
+
+    // ISO year-month, e.g. "2024-03", so that string order is chronological
+    @Column(nullable = false, name = "year_month")
+    private String yearMonth;
+
+    @Column(nullable = false, name = "category_id")
+    private int categoryId;
+
+    @Column(nullable = false, name = "type")
+    private String type;
+
+    @Column(nullable = false, name = "total_amount")
+    private Money totalAmount;
+
+    @Column(nullable = false, name = "transaction_count")
+    private long transactionCount;
+
+    public MonthlyCategoryTotal() {
+    }
+
+    public MonthlyCategoryTotal(int userId, String yearMonth, int categoryId, String type,
+                                Money totalAmount, long transactionCount) {
+        this.userId = userId;
+        this.yearMonth = yearMonth;
+        this.categoryId = categoryId;
+        this.type = type;
+        this.totalAmount = totalAmount;
+        this.transactionCount = transactionCount;
+    }
+
+    /**
+     * Builds a rollup row for the month containing a day; used by TransactionRepository.sumByDayAndCategory.
+     */
+    public MonthlyCategoryTotal(int userId, LocalDate day, int categoryId, String type,
+                                Long totalCents, Long transactionCount) {
+        this(userId, YearMonth.from(day).toString(), categoryId, type,
+                Money.ofCents(totalCents), transactionCount);
+    }
+
+    public int getMonthlyCategoryTotalId() {
+        return monthlyCategoryTotalId;
+    }
+
+    public void setMonthlyCategoryTotalId(int monthlyCategoryTotalId) {
+        this.monthlyCategoryTotalId = monthlyCategoryTotalId;
+    }
+
+    public int getUserId() {
+        return userId;
+    }
+
+    public void setUserId(int userId) {
+        this.userId = userId;
+    }
+
+    public String getYearMonth() {
+        return yearMonth;
+    }
+
+    public void setYearMonth(String yearMonth) {
+        this.yearMonth = yearMonth;
+    }
+
+    public int getCategoryId() {
+        return categoryId;
+    }
+
+    public void setCategoryId(int categoryId) {
+        this.categoryId = categoryId;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public void setType(String type) {
+        this.type = type;
+    }
+
+    public Money getTotalAmount() {
+        return totalAmount;
+    }
+
+    public void setTotalAmount(Money totalAmount) {
+        this.totalAmount = totalAmount;
+    }
+
+    public long getTransactionCount() {
+        return transactionCount;
+    }
+
+    public void setTransactionCount(long transactionCount) {
+        this.transactionCount = transactionCount;
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.finances.model;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.Locale;
+
+/**
+ * How often a recurring transaction repeats, as stored in Transaction.recurrence.
+ * Occurrences are counted from the template's own date, so a monthly template dated the 31st
+ * falls on the last day of shorter months without drifting to the 28th afterwards.
+ */
+public enum Recurrence {
+    WEEKLY(ChronoUnit.WEEKS),
+    MONTHLY(ChronoUnit.MONTHS),
+    YEARLY(ChronoUnit.YEARS);
+
+    private final ChronoUnit unit;
+
+    Recurrence(ChronoUnit unit) {
+        this.unit = unit;
+    }
+
+    /**
+     * Parses a stored recurrence.
+     * @param value "weekly", "monthly", "yearly", or null or blank for a one-off transaction.
+     * @return The recurrence, or null for a one-off transaction.
+     * @throws IllegalArgumentException if the value is not a known recurrence.
+     */
+    public static Recurrence of(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        return valueOf(value.trim().toUpperCase(Locale.ROOT));
+    }
+
+    /**
+     * @param anchor The date of the template.
+     * @param index The occurrence number; 0 is the template itself.
+     * @return The date of that occurrence.
+     */
+    public LocalDate occurrence(LocalDate anchor, long index) {
+        return anchor.plus(index, unit);
+    }
+
+    /**
+     * Finds the first occurrence after a day without stepping through the earlier ones.
+     * @param anchor The date of the template.
+     * @param day The day to search after.
+     * @return The index of the first occurrence strictly after {@code day}; at least 1.
+     */
+    public long firstIndexAfter(LocalDate anchor, LocalDate day) {
+        if (day.isBefore(anchor)) {
+            return 1;
+        }
+        // Whole units between the dates is exact or one short, depending on month lengths
+        long index = Math.max(1, unit.between(anchor, day));
+        while (!occurrence(anchor, index).isAfter(day)) {
+            index++;
+        }
+        while (index > 1 && occurrence(anchor, index - 1).isAfter(day)) {
+            index--;
+        }
+        return index;
+    }
+}
@@ -1,11 +1,30 @@
 package com.example.finances.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import jakarta.persistence.*;
 import java.time.LocalDate;
 
 @Entity
-@Table(name = "transactions")
+@NamedEntityGraph(name = "Transaction.withAssociations", attributeNodes = {
+        @NamedAttributeNode("accountId"),
+        @NamedAttributeNode("userId"),
+        @NamedAttributeNode("categoryId"),
+        @NamedAttributeNode("debtId")
+})
+@Table(name = "transactions", indexes = {
+        @Index(name = "idx_transactions_user_date", columnList = "user_id, transaction_date"),
+        @Index(name = "idx_transactions_user_type_date", columnList = "user_id, type, transaction_date, category_id, amount"),
+        @Index(name = "idx_transactions_account_date", columnList = "account_id, transaction_date"),
+        @Index(name = "idx_transactions_category_date", columnList = "category_id, transaction_date"),
+        @Index(name = "idx_transactions_debt_date", columnList = "debt_id, transaction_date"),
+        // The unfiltered listing and GET /transactions/date/{date} (findPageAfter, findResponsesByTransactionDate)
+        @Index(name = "idx_transactions_date", columnList = "transaction_date"),
+        // GET /transactions/type/{type} (findPageByTypeAfter)
+        @Index(name = "idx_transactions_type_date", columnList = "type, transaction_date"),
+        // GET /transactions/recurrence/{recurrence} (findResponsesByRecurrence)
+        @Index(name = "idx_transactions_recurrence", columnList = "recurrence")
+})
 public class Transaction {
 
     @Id
@@ -24,7 +43,7 @@ public class Transaction {
     private User userId;
 
     @Column(nullable = false)
-    private double amount;
+    private Money amount;
 
     @Column(nullable = false)
     private String description;
@@ -48,10 +67,14 @@ public class Transaction {
     @Column(name = "recurrence")
     private String recurrence; // "weekly", "monthly", "yearly", or null
 
+    // For recurring templates: every occurrence up to and including this day has been created
+    @Column(name = "generated_through")
+    private LocalDate generatedThrough;
+
     public Transaction() {
     }
 
-    public Transaction(Account accountId, User userId, double amount, String description,
+    public Transaction(Account accountId, User userId, Money amount, String description,
                        Category categoryId, Debt debtId, LocalDate transactionDate,
                        String type, String recurrence) {
         this.accountId = accountId;
@@ -72,8 +95,12 @@ public class Transaction {
     public void setAccountId(Account accountId) { this.accountId = accountId; }
     public User getUserId() { return userId; }
     public void setUserId(User userId) { this.userId = userId; }
-    public double getAmount() { return amount; }
-    public void setAmount(double amount) { this.amount = amount; }
+    public Money getAmount() { return amount; }
+    public void setAmount(Money amount) { this.amount = amount; }
+
+    // Effect on the account balance: income adds the amount, expense subtracts it
+    @JsonIgnore
+    public Money getSignedAmount() { return "income".equals(type) ? amount : amount.negate(); }
     public String getDescription() { return description; }
     public void setDescription(String description) { this.description = description; }
     public Category getCategoryId() { return categoryId; }
@@ -86,4 +113,6 @@ public class Transaction {
     public void setType(String type) { this.type = type; }
     public String getRecurrence() { return recurrence; }
     public void setRecurrence(String recurrence) { this.recurrence = recurrence; }
+    public LocalDate getGeneratedThrough() { return generatedThrough; }
+    public void setGeneratedThrough(LocalDate generatedThrough) { this.generatedThrough = generatedThrough; }
 }
\ No newline at end of file
@@ -0,0 +1,64 @@
+package com.example.finances.repository;
+
+import com.example.finances.model.AccountBalanceSnapshot;
+import com.example.finances.model.Money;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+public interface AccountBalanceSnapshotRepository extends JpaRepository<AccountBalanceSnapshot, Integer> {
+    boolean existsByAccountIdAndSnapshotDate(int accountId, LocalDate snapshotDate);
+
+    Optional<AccountBalanceSnapshot> findFirstByAccountIdAndSnapshotDateLessThanOrderBySnapshotDateDesc(int accountId, LocalDate before);
+
+    List<AccountBalanceSnapshot> findByAccountIdAndSnapshotDateBetweenOrderBySnapshotDate(int accountId, LocalDate from, LocalDate to);
+
+    List<AccountBalanceSnapshot> findByUserIdAndSnapshotDateBetweenOrderBySnapshotDate(int userId, LocalDate from, LocalDate to);
+
+    /**
+     * Adds an amount to every snapshot of an account from a day onwards, e.g. for a backdated transaction.
+     * @param accountId The ID of the account.
+     * @param from The first day affected.
+     * @param delta The amount to add; negative to subtract.
+     * @return The number of snapshots updated.
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE AccountBalanceSnapshot s SET s.balance = s.balance + :delta " +
+            "WHERE s.accountId = :accountId AND s.snapshotDate >= :from")
+    int shiftFrom(@Param("accountId") int accountId, @Param("from") LocalDate from, @Param("delta") Money delta);
+
+    /**
+     * Gets the latest snapshot before a day of each of a user's accounts, i.e. their balances at the
+     * start of that day.
+     * @param userId The ID of the user.
+     * @param before The day to get the opening balances of.
+     * @return One snapshot per account that has any history before the day.
+     */
+    @Query("SELECT s FROM AccountBalanceSnapshot s WHERE s.userId = :userId AND s.snapshotDate = " +
+            "(SELECT MAX(p.snapshotDate) FROM AccountBalanceSnapshot p " +
+            "WHERE p.accountId = s.accountId AND p.snapshotDate < :before)")
+    List<AccountBalanceSnapshot> findOpeningBalances(@Param("userId") int userId, @Param("before") LocalDate before);
+
+    /**
+     * Moves an account's history to another user when the account changes hands.
+     * @param accountId The ID of the account.
+     * @param userId The ID of the new owner.
+     * @return The number of snapshots updated.
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE AccountBalanceSnapshot s SET s.userId = :userId WHERE s.accountId = :accountId")
+    int reassignUser(@Param("accountId") int accountId, @Param("userId") int userId);
+
+    @Modifying
+    @Query("DELETE FROM AccountBalanceSnapshot s WHERE s.accountId = :accountId")
+    int deleteByAccountId(@Param("accountId") int accountId);
+
+    @Modifying
+    @Query("DELETE FROM AccountBalanceSnapshot s WHERE s.userId = :userId")
+    int deleteByUserId(@Param("userId") int userId);
+}
@@ -1,8 +1,12 @@
 package com.example.finances.repository;
 
 import com.example.finances.model.Account;
+import com.example.finances.model.Money;
 import com.example.finances.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.List;
 import java.util.Optional;
@@ -10,4 +14,25 @@ import java.util.Optional;
 public interface AccountRepository extends JpaRepository<Account, Integer> {
     Optional<List<Account>> findByUserId(User userId);
     Optional<Account> findByAccountName(String accountName);
+
+    /**
+     * Gets the sum of all account balances for a user.
+     * @param userId The user to calculate for.
+     * @return Total balance across all of the user's accounts, in cents.
+     */
+    @Query("SELECT SUM(a.accountBalance) FROM Account a WHERE a.userId = :user")
+    Optional<Long> getTotalBalanceByUser(@Param("user") User userId);
+
+    /**
+     * Adds a signed amount to an account's balance in a single UPDATE, so concurrent writers
+     * cannot overwrite each other's changes. The version is incremented too, so a write based on
+     * the balance read before this one is rejected. Must run in the same transaction as the ledger
+     * write the amount comes from.
+     * @param accountId The ID of the account.
+     * @param delta The amount to add; negative to subtract.
+     * @return The number of accounts updated.
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Account a SET a.accountBalance = a.accountBalance + :delta, a.version = a.version + 1 WHERE a.accountId = :id")
+    int adjustBalance(@Param("id") int accountId, @Param("delta") Money delta);
 }
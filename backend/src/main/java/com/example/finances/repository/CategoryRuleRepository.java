@@ -0,0 +1,46 @@
+package com.example.finances.repository;
+
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.example.finances.dto.CategoryRuleDTO;
+import com.example.finances.model.Account;
+import com.example.finances.model.Category;
+import com.example.finances.model.CategoryRule;
+import com.example.finances.model.User;
+
+public interface CategoryRuleRepository extends JpaRepository<CategoryRule, Integer> {
+
+    /**
+     * Lists a user's rules in the order they are tried: lowest priority first, then oldest first.
+     * @param userId The user.
+     * @return The user's rules with their category names.
+     */
+    @Query("SELECT new com.example.finances.dto.CategoryRuleDTO(r.ruleId, r.userId.userId, c.categoryId, " +
+            "c.categoryName, a.accountId, r.keyword, r.pattern, r.minAmount, r.maxAmount, r.priority) " +
+            "FROM CategoryRule r JOIN r.categoryId c LEFT JOIN r.accountId a " +
+            "WHERE r.userId = :user ORDER BY r.priority, r.ruleId")
+    List<CategoryRuleDTO> findResponsesByUser(@Param("user") User userId);
+
+    /**
+     * Deletes the rules that file transactions under a category, before the category itself is deleted.
+     * @param categoryId The category.
+     * @return The number of rules deleted.
+     */
+    @Modifying
+    @Query("DELETE FROM CategoryRule r WHERE r.categoryId = :category")
+    int deleteByCategory(@Param("category") Category categoryId);
+
+    /**
+     * Deletes the rules that only match transactions on an account, before the account itself is deleted.
+     * @param accountId The account.
+     * @return The number of rules deleted.
+     */
+    @Modifying
+    @Query("DELETE FROM CategoryRule r WHERE r.accountId = :account")
+    int deleteByAccount(@Param("account") Account accountId);
+}
@@ -0,0 +1,36 @@
+package com.example.finances.repository;
+
+import com.example.finances.model.DebtBalanceSnapshot;
+import com.example.finances.model.Money;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+public interface DebtBalanceSnapshotRepository extends JpaRepository<DebtBalanceSnapshot, Integer> {
+    boolean existsByUserIdAndSnapshotDate(int userId, LocalDate snapshotDate);
+
+    Optional<DebtBalanceSnapshot> findFirstByUserIdAndSnapshotDateLessThanOrderBySnapshotDateDesc(int userId, LocalDate before);
+
+    List<DebtBalanceSnapshot> findByUserIdAndSnapshotDateBetweenOrderBySnapshotDate(int userId, LocalDate from, LocalDate to);
+
+    /**
+     * Adds an amount to every debt snapshot of a user from a day onwards.
+     * @param userId The ID of the user.
+     * @param from The first day affected.
+     * @param delta The amount to add; negative to subtract.
+     * @return The number of snapshots updated.
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE DebtBalanceSnapshot s SET s.totalRemaining = s.totalRemaining + :delta " +
+            "WHERE s.userId = :userId AND s.snapshotDate >= :from")
+    int shiftFrom(@Param("userId") int userId, @Param("from") LocalDate from, @Param("delta") Money delta);
+
+    @Modifying
+    @Query("DELETE FROM DebtBalanceSnapshot s WHERE s.userId = :userId")
+    int deleteByUserId(@Param("userId") int userId);
+}
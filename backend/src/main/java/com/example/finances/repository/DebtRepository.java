@@ -7,7 +7,6 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
-import java.math.BigDecimal;
 import java.util.List;
 import java.util.Optional;
 
@@ -50,8 +49,8 @@ public interface DebtRepository extends JpaRepository<Debt, Integer> {
     /**
      * Gets total amount owed by a user across all debts.
      * @param userId The user to calculate for.
-     * @return Total remaining balance across all debts.
+     * @return Total remaining balance across all debts, in cents.
      */
     @Query("SELECT SUM(d.totalOwed - d.amountPaid) FROM Debt d WHERE d.userId = :user AND d.amountPaid < d.totalOwed")
-    Optional<BigDecimal> getTotalRemainingDebtByUser(@Param("user") User userId);
+    Optional<Long> getTotalRemainingDebtByUser(@Param("user") User userId);
 }
\ No newline at end of file
@@ -0,0 +1,8 @@
+package com.example.finances.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import com.example.finances.model.IngestCheckpoint;
+
+public interface IngestCheckpointRepository extends JpaRepository<IngestCheckpoint, String> {
+}
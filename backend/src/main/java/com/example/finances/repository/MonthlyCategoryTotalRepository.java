@@ -0,0 +1,63 @@
+package com.example.finances.repository;
+
+import com.example.finances.dto.MonthlySpendingDTO;
+import com.example.finances.model.Money;
+import com.example.finances.model.MonthlyCategoryTotal;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+
+public interface MonthlyCategoryTotalRepository extends JpaRepository<MonthlyCategoryTotal, Integer> {
+
+    /**
+     * Adds to an existing rollup row in a single UPDATE. Must run in the same transaction as the
+     * ledger write the amounts come from.
+     * @param userId The ID of the user.
+     * @param yearMonth The ISO year-month, e.g. "2024-03".
+     * @param categoryId The ID of the category.
+     * @param type The transaction type ("income" or "expense").
+     * @param amount The amount to add; negative to subtract.
+     * @param count The number of transactions to add; negative to subtract.
+     * @return The number of rows updated; 0 if the month has no row for the category and type yet.
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE MonthlyCategoryTotal m SET m.totalAmount = m.totalAmount + :amount, "
+            + "m.transactionCount = m.transactionCount + :count "
+            + "WHERE m.userId = :userId AND m.yearMonth = :yearMonth AND m.categoryId = :categoryId AND m.type = :type")
+    int addToTotal(@Param("userId") int userId, @Param("yearMonth") String yearMonth,
+                   @Param("categoryId") int categoryId, @Param("type") String type,
+                   @Param("amount") Money amount, @Param("count") long count);
+
+    /**
+     * Removes a user's rollup rows that no longer cover any transaction.
+     * @param userId The ID of the user.
+     * @return The number of rows deleted.
+     */
+    @Modifying
+    @Query("DELETE FROM MonthlyCategoryTotal m WHERE m.userId = :userId AND m.transactionCount = 0")
+    int deleteEmptyByUserId(@Param("userId") int userId);
+
+    @Modifying
+    @Query("DELETE FROM MonthlyCategoryTotal m WHERE m.userId = :userId")
+    int deleteByUserId(@Param("userId") int userId);
+
+    /**
+     * Gets a user's monthly totals per category over an inclusive range of months.
+     * @param userId The ID of the user.
+     * @param type The transaction type ("income" or "expense").
+     * @param from The first ISO year-month to include.
+     * @param to The last ISO year-month to include.
+     * @return One row per month and category, in chronological order.
+     */
+    @Query("SELECT new com.example.finances.dto.MonthlySpendingDTO(m.yearMonth, m.categoryId, c.categoryName, "
+            + "m.type, m.totalAmount, m.transactionCount) "
+            + "FROM MonthlyCategoryTotal m JOIN Category c ON c.categoryId = m.categoryId "
+            + "WHERE m.userId = :userId AND m.yearMonth BETWEEN :from AND :to AND m.type = :type "
+            + "AND m.transactionCount > 0 "
+            + "ORDER BY m.yearMonth, m.totalAmount DESC")
+    List<MonthlySpendingDTO> findReport(@Param("userId") int userId, @Param("type") String type,
+                                        @Param("from") String from, @Param("to") String to);
+}
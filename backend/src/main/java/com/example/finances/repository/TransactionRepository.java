@@ -1,18 +1,190 @@
 package com.example.finances.repository;
 
+import com.example.finances.dto.DailyTotalDTO;
+import com.example.finances.dto.TransactionResponseDTO;
 import com.example.finances.model.*;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
 
 public interface TransactionRepository extends JpaRepository<Transaction, Integer> {
-    Optional<List<Transaction>> findByAccountId(Account accountId);
-    Optional<List<Transaction>> findByDebtId(Debt debtId);
-    Optional<List<Transaction>> findByUserId(User userId);
-    Optional<List<Transaction>> findByCategoryId(Category categoryId);
-    Optional<List<Transaction>> findByTransactionDate(LocalDate transactionDate);
-    Optional<List<Transaction>> findByType(String type);
-    Optional<List<Transaction>> findByRecurrence(String recurrence);
+    /**
+     * Selects exactly the columns of TransactionResponseDTO, with the account, category and debt
+     * names joined in, so read-only listings skip entity hydration and dirty checking entirely.
+     */
+    String RESPONSE_SELECT = "SELECT new com.example.finances.dto.TransactionResponseDTO(" +
+            "t.transactionId, a.accountId, a.accountName, t.userId.userId, c.categoryId, c.categoryName, " +
+            "d.debtId, d.debtName, t.amount, t.description, t.type, t.transactionDate, t.recurrence) " +
+            "FROM Transaction t JOIN t.accountId a JOIN t.categoryId c LEFT JOIN t.debtId d ";
+
+    /*
+     * Entity finders load the account, user, category and debt in the same query (see the
+     * "Transaction.withAssociations" graph), so walking the results never triggers one lazy
+     * load per row. Listings read TransactionResponseDTO projections instead (see RESPONSE_SELECT).
+     */
+
+    @Override
+    @EntityGraph("Transaction.withAssociations")
+    Optional<Transaction> findById(Integer transactionId);
+
+    /**
+     * Sums the amounts of a user's transactions of one type within a date range (inclusive).
+     * @param userId The user to calculate for.
+     * @param type "income" or "expense".
+     * @param start First day of the range.
+     * @param end Last day of the range.
+     * @return The total amount in cents, or an empty Optional if there are no matching transactions.
+     */
+    @Query("SELECT SUM(t.amount) FROM Transaction t WHERE t.userId = :user AND t.type = :type " +
+            "AND t.transactionDate BETWEEN :start AND :end")
+    Optional<Long> sumAmountByUserAndTypeBetween(@Param("user") User userId, @Param("type") String type,
+                                                   @Param("start") LocalDate start, @Param("end") LocalDate end);
+
+    /**
+     * Totals all of a user's transactions per day, category and type; used to rebuild the
+     * monthly_category_totals rollup from the ledger. Grouped by day rather than month because
+     * dates are stored as epoch milliseconds, which SQLite's date functions cannot split.
+     * @param userId The user to calculate for.
+     * @return Unsaved rollup rows, one per day, category and type.
+     */
+    @Query("SELECT new com.example.finances.model.MonthlyCategoryTotal(t.userId.userId, t.transactionDate, " +
+            "t.categoryId.categoryId, t.type, SUM(t.amount), COUNT(t)) " +
+            "FROM Transaction t WHERE t.userId = :user " +
+            "GROUP BY t.userId.userId, t.type, t.transactionDate, t.categoryId.categoryId")
+    List<MonthlyCategoryTotal> sumByDayAndCategory(@Param("user") User userId);
+
+    /**
+     * Totals an account's transactions per day and type; used to rebuild its balance history.
+     * @param accountId The account to calculate for.
+     * @return One row per day and type, newest first.
+     */
+    @Query("SELECT new com.example.finances.dto.DailyTotalDTO(t.transactionDate, t.type, SUM(t.amount)) " +
+            "FROM Transaction t WHERE t.accountId = :account " +
+            "GROUP BY t.transactionDate, t.type ORDER BY t.transactionDate DESC")
+    List<DailyTotalDTO> sumByDayAndType(@Param("account") Account accountId);
+
+    /**
+     * Gets a user's recurring templates, i.e. transactions with a recurrence.
+     * @param userId The user to get the templates of.
+     * @return The templates, with their account and category loaded.
+     */
+    @EntityGraph("Transaction.withAssociations")
+    List<Transaction> findByUserIdAndRecurrenceIsNotNull(User userId);
+
+    /**
+     * Pages through the recurring templates of all users that still have occurrences to create
+     * up to a day, in ID order.
+     * @param afterId The ID of the last template of the previous page, or 0 for the first page.
+     * @param through The last day occurrences should be created for.
+     * @param limit The page size.
+     * @return The next page of templates.
+     */
+    @Query("SELECT t FROM Transaction t WHERE t.recurrence IS NOT NULL AND t.transactionId > :after " +
+            "AND (t.generatedThrough IS NULL OR t.generatedThrough < :through) ORDER BY t.transactionId")
+    List<Transaction> findDueTemplatesAfter(@Param("after") int afterId, @Param("through") LocalDate through, Limit limit);
+
+    /**
+     * Records that the occurrences of recurring templates have been created up to a day.
+     * @param templateIds The IDs of the templates.
+     * @param through The last day occurrences were created for.
+     * @return The number of templates updated.
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Transaction t SET t.generatedThrough = :through WHERE t.transactionId IN :ids")
+    int markGeneratedThrough(@Param("ids") Collection<Integer> templateIds, @Param("through") LocalDate through);
+
+    @Query(RESPONSE_SELECT + "WHERE t.transactionDate = :date")
+    List<TransactionResponseDTO> findResponsesByTransactionDate(@Param("date") LocalDate transactionDate);
+
+    @Query(RESPONSE_SELECT + "WHERE t.recurrence = :recurrence")
+    List<TransactionResponseDTO> findResponsesByRecurrence(@Param("recurrence") String recurrence);
+
+    @Query(RESPONSE_SELECT + "WHERE t.transactionId IN :ids")
+    List<TransactionResponseDTO> findResponsesByIds(@Param("ids") Collection<Integer> transactionIds);
+
+    /**
+     * Ranks a user's transactions whose descriptions match a full-text query, best match first.
+     * Runs against the {@code transactions_fts} FTS5 index (see TransactionSearchService), so the
+     * cost depends on the number of matches rather than the size of the ledger.
+     * @param query An FTS5 match expression.
+     * @param userId The ID of the user whose transactions to search.
+     * @param limit The maximum number of IDs to return.
+     * @param offset The number of better-ranked matches to skip.
+     * @return The IDs of the matching transactions in rank order.
+     */
+    @Query(value = "SELECT t.transaction_id FROM transactions_fts " +
+            "JOIN transactions t ON t.transaction_id = transactions_fts.rowid " +
+            "WHERE transactions_fts MATCH :query AND t.user_id = :userId " +
+            "ORDER BY transactions_fts.rank, t.transaction_id DESC LIMIT :limit OFFSET :offset", nativeQuery = true)
+    List<Integer> searchIdsByUser(@Param("query") String query, @Param("userId") int userId,
+                                  @Param("limit") int limit, @Param("offset") int offset);
+
+    /*
+     * Keyset pagination: each page continues strictly after the (date, id) of the last row of
+     * the previous page, newest first, so the cost of a page does not grow with its depth.
+     * The redundant "date <= :date" bound lets SQLite seek the (..., transaction_date) indexes.
+     */
+
+    @Query(RESPONSE_SELECT + "WHERE t.transactionDate <= :date " +
+            "AND (t.transactionDate < :date OR t.transactionId < :id) " +
+            "ORDER BY t.transactionDate DESC, t.transactionId DESC")
+    List<TransactionResponseDTO> findPageAfter(@Param("date") LocalDate date, @Param("id") int id, Limit limit);
+
+    @Query(RESPONSE_SELECT + "WHERE t.userId = :user AND t.transactionDate <= :date " +
+            "AND (t.transactionDate < :date OR t.transactionId < :id) " +
+            "ORDER BY t.transactionDate DESC, t.transactionId DESC")
+    List<TransactionResponseDTO> findPageByUserAfter(@Param("user") User userId, @Param("date") LocalDate date,
+                                                     @Param("id") int id, Limit limit);
+
+    @Query(RESPONSE_SELECT + "WHERE t.accountId = :account AND t.transactionDate <= :date " +
+            "AND (t.transactionDate < :date OR t.transactionId < :id) " +
+            "ORDER BY t.transactionDate DESC, t.transactionId DESC")
+    List<TransactionResponseDTO> findPageByAccountAfter(@Param("account") Account accountId, @Param("date") LocalDate date,
+                                                        @Param("id") int id, Limit limit);
+
+    @Query(RESPONSE_SELECT + "WHERE t.categoryId = :category AND t.transactionDate <= :date " +
+            "AND (t.transactionDate < :date OR t.transactionId < :id) " +
+            "ORDER BY t.transactionDate DESC, t.transactionId DESC")
+    List<TransactionResponseDTO> findPageByCategoryAfter(@Param("category") Category categoryId, @Param("date") LocalDate date,
+                                                         @Param("id") int id, Limit limit);
+
+    @Query(RESPONSE_SELECT + "WHERE t.debtId = :debt AND t.transactionDate <= :date " +
+            "AND (t.transactionDate < :date OR t.transactionId < :id) " +
+            "ORDER BY t.transactionDate DESC, t.transactionId DESC")
+    List<TransactionResponseDTO> findPageByDebtAfter(@Param("debt") Debt debtId, @Param("date") LocalDate date,
+                                                     @Param("id") int id, Limit limit);
+
+    @Query(RESPONSE_SELECT + "WHERE t.type = :type AND t.transactionDate <= :date " +
+            "AND (t.transactionDate < :date OR t.transactionId < :id) " +
+            "ORDER BY t.transactionDate DESC, t.transactionId DESC")
+    List<TransactionResponseDTO> findPageByTypeAfter(@Param("type") String type, @Param("date") LocalDate date,
+                                                     @Param("id") int id, Limit limit);
+
+    /**
+     * Streams all of a user's transactions, oldest first, with their account, category and debt
+     * fetched in the same query. Must be consumed inside a transaction and closed afterwards.
+     * @param userId The user to export.
+     * @return A forward-only stream over the user's transactions.
+     */
+    @Query("SELECT t FROM Transaction t JOIN FETCH t.accountId JOIN FETCH t.categoryId LEFT JOIN FETCH t.debtId " +
+            "WHERE t.userId = :user ORDER BY t.transactionDate, t.transactionId")
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HINT_READ_ONLY, value = "true")
+    })
+    Stream<Transaction> streamByUserId(@Param("user") User userId);
 }
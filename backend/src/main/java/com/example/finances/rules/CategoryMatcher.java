@@ -0,0 +1,135 @@
+package com.example.finances.rules;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+import com.example.finances.dto.CategoryRuleDTO;
+
+/**
+ * A user's categorisation rules compiled for matching many transactions.
+ * All keywords go into one {@link KeywordAutomaton}, so a description is read once however many
+ * rules there are, and only rules whose keyword occurs in it (or that have no keyword) are
+ * checked further. Those are tried in priority order, cheapest condition first, and the first
+ * rule whose conditions all hold decides the category.
+ * Instances are immutable and safe to share between threads.
+ */
+public final class CategoryMatcher {
+    /**
+     * Returned by {@link #match} when no rule matches.
+     */
+    public static final int NO_MATCH = -1;
+
+    private static final CategoryMatcher EMPTY = new CategoryMatcher(new Rule[0], null, new int[0][], new BitSet());
+
+    // In the order they are tried
+    private final Rule[] rules;
+    private final KeywordAutomaton keywords;
+    // Indexes into rules of the rules with each keyword
+    private final int[][] rulesByKeyword;
+    private final BitSet rulesWithoutKeyword;
+
+    private CategoryMatcher(Rule[] rules, KeywordAutomaton keywords, int[][] rulesByKeyword, BitSet rulesWithoutKeyword) {
+        this.rules = rules;
+        this.keywords = keywords;
+        this.rulesByKeyword = rulesByKeyword;
+        this.rulesWithoutKeyword = rulesWithoutKeyword;
+    }
+
+    /**
+     * Compiles a user's rules.
+     * @param rules The rules in the order they are to be tried.
+     * @return The matcher.
+     * @throws java.util.regex.PatternSyntaxException if a rule's pattern is not a valid regular expression.
+     */
+    public static CategoryMatcher compile(List<CategoryRuleDTO> rules) {
+        if (rules.isEmpty()) {
+            return EMPTY;
+        }
+        Rule[] compiled = new Rule[rules.size()];
+        // Rules sharing a keyword share its entry in the automaton
+        Map<String, List<Integer>> byKeyword = new LinkedHashMap<>();
+        BitSet withoutKeyword = new BitSet(rules.size());
+        for (int i = 0; i < compiled.length; i++) {
+            CategoryRuleDTO rule = rules.get(i);
+            compiled[i] = new Rule(rule);
+            String keyword = rule.getKeyword();
+            if (keyword == null || keyword.isEmpty()) {
+                withoutKeyword.set(i);
+                continue;
+            }
+            byKeyword.computeIfAbsent(keyword, k -> new ArrayList<>()).add(i);
+        }
+
+        List<String> keywordList = List.copyOf(byKeyword.keySet());
+        int[][] rulesByKeyword = new int[keywordList.size()][];
+        for (int k = 0; k < rulesByKeyword.length; k++) {
+            rulesByKeyword[k] = byKeyword.get(keywordList.get(k)).stream().mapToInt(Integer::intValue).toArray();
+        }
+        KeywordAutomaton automaton = keywordList.isEmpty() ? null : KeywordAutomaton.compile(keywordList);
+        return new CategoryMatcher(compiled, automaton, rulesByKeyword, withoutKeyword);
+    }
+
+    /**
+     * Finds the category of a transaction.
+     * @param accountId The ID of the transaction's account.
+     * @param amountCents The transaction's amount in cents, which is never negative.
+     * @param description The transaction's description.
+     * @return The category ID of the first matching rule, or {@link #NO_MATCH}.
+     */
+    public int match(int accountId, long amountCents, String description) {
+        if (rules.length == 0) {
+            return NO_MATCH;
+        }
+        String text = description != null ? description : "";
+        BitSet candidates = (BitSet) rulesWithoutKeyword.clone();
+        if (keywords != null) {
+            keywords.forEachMatch(text, keyword -> {
+                for (int rule : rulesByKeyword[keyword]) {
+                    candidates.set(rule);
+                }
+            });
+        }
+        for (int i = candidates.nextSetBit(0); i >= 0; i = candidates.nextSetBit(i + 1)) {
+            if (rules[i].matches(accountId, amountCents, text)) {
+                return rules[i].categoryId;
+            }
+        }
+        return NO_MATCH;
+    }
+
+    /**
+     * @return The number of rules.
+     */
+    public int size() {
+        return rules.length;
+    }
+
+    private static final class Rule {
+        private final int categoryId;
+        // 0 matches every account
+        private final int accountId;
+        private final long minCents;
+        private final long maxCents;
+        private final Pattern pattern;
+
+        private Rule(CategoryRuleDTO rule) {
+            this.categoryId = rule.getCategoryId();
+            this.accountId = rule.getAccountId() != null ? rule.getAccountId() : 0;
+            this.minCents = rule.getMinAmount() != null ? rule.getMinAmount().getCents() : Long.MIN_VALUE;
+            this.maxCents = rule.getMaxAmount() != null ? rule.getMaxAmount().getCents() : Long.MAX_VALUE;
+            this.pattern = rule.getPattern() != null && !rule.getPattern().isEmpty()
+                    ? Pattern.compile(rule.getPattern(), Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE)
+                    : null;
+        }
+
+        private boolean matches(int accountId, long amountCents, String description) {
+            return (this.accountId == 0 || this.accountId == accountId)
+                    && amountCents >= minCents && amountCents <= maxCents
+                    && (pattern == null || pattern.matcher(description).find());
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package com.example.finances.rules;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.function.IntConsumer;
+
+/**
+ * An Aho–Corasick automaton over a fixed set of keywords. One pass over a text reports every
+ * occurrence of every keyword, so the cost of matching depends on the length of the text and
+ * not on the number of keywords. Matching ignores case, one character at a time.
+ * Instances are immutable and safe to share between threads.
+ */
+public final class KeywordAutomaton {
+    // Outgoing edges of each state, with labels sorted for binary search; state 0 is the root
+    private final char[][] labels;
+    private final int[][] targets;
+    // The longest proper suffix of each state's text that is also a state
+    private final int[] failure;
+    // Indexes of the keywords ending at each state, including those reached through failure links
+    private final int[][] outputs;
+
+    private KeywordAutomaton(char[][] labels, int[][] targets, int[] failure, int[][] outputs) {
+        this.labels = labels;
+        this.targets = targets;
+        this.failure = failure;
+        this.outputs = outputs;
+    }
+
+    /**
+     * Builds the automaton for a list of keywords.
+     * @param keywords The keywords; a keyword's index in the list is what {@link #forEachMatch} reports.
+     * @return The automaton.
+     * @throws IllegalArgumentException if a keyword is empty.
+     */
+    public static KeywordAutomaton compile(List<String> keywords) {
+        // Build the trie with sorted maps, then freeze it into arrays
+        List<TreeMap<Character, Integer>> edges = new ArrayList<>();
+        List<List<Integer>> ends = new ArrayList<>();
+        edges.add(new TreeMap<>());
+        ends.add(new ArrayList<>());
+        for (int index = 0; index < keywords.size(); index++) {
+            String keyword = keywords.get(index);
+            if (keyword.isEmpty()) {
+                throw new IllegalArgumentException("Keywords must not be empty");
+            }
+            int state = 0;
+            for (int i = 0; i < keyword.length(); i++) {
+                char c = fold(keyword.charAt(i));
+                Integer next = edges.get(state).get(c);
+                if (next == null) {
+                    next = edges.size();
+                    edges.add(new TreeMap<>());
+                    ends.add(new ArrayList<>());
+                    edges.get(state).put(c, next);
+                }
+                state = next;
+            }
+            ends.get(state).add(index);
+        }
+
+        int states = edges.size();
+        char[][] labels = new char[states][];
+        int[][] targets = new int[states][];
+        for (int state = 0; state < states; state++) {
+            TreeMap<Character, Integer> out = edges.get(state);
+            labels[state] = new char[out.size()];
+            targets[state] = new int[out.size()];
+            int i = 0;
+            for (var edge : out.entrySet()) {
+                labels[state][i] = edge.getKey();
+                targets[state][i] = edge.getValue();
+                i++;
+            }
+        }
+
+        // Breadth-first, so a state's failure target is finished before the state itself
+        int[] failure = new int[states];
+        int[][] outputs = new int[states][];
+        outputs[0] = toArray(ends.get(0));
+        ArrayDeque<Integer> queue = new ArrayDeque<>();
+        for (int child : targets[0]) {
+            queue.add(child);
+        }
+        while (!queue.isEmpty()) {
+            int state = queue.poll();
+            outputs[state] = merge(ends.get(state), outputs[failure[state]]);
+            for (int i = 0; i < labels[state].length; i++) {
+                int child = targets[state][i];
+                int fallback = failure[state];
+                int next;
+                while ((next = step(labels, targets, fallback, labels[state][i])) < 0 && fallback != 0) {
+                    fallback = failure[fallback];
+                }
+                failure[child] = Math.max(next, 0);
+                queue.add(child);
+            }
+        }
+        return new KeywordAutomaton(labels, targets, failure, outputs);
+    }
+
+    /**
+     * Reports every occurrence of every keyword in a text, in order of where the occurrence ends.
+     * A keyword that occurs several times is reported several times.
+     * @param text The text to search.
+     * @param onMatch Receives the index of the keyword of each occurrence.
+     */
+    public void forEachMatch(CharSequence text, IntConsumer onMatch) {
+        int state = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char c = fold(text.charAt(i));
+            int next;
+            while ((next = step(labels, targets, state, c)) < 0 && state != 0) {
+                state = failure[state];
+            }
+            state = Math.max(next, 0);
+            for (int keyword : outputs[state]) {
+                onMatch.accept(keyword);
+            }
+        }
+    }
+
+    /**
+     * @return The number of states, the root included.
+     */
+    public int size() {
+        return labels.length;
+    }
+
+    private static int step(char[][] labels, int[][] targets, int state, char c) {
+        int i = Arrays.binarySearch(labels[state], c);
+        return i >= 0 ? targets[state][i] : -1;
+    }
+
+    // Lower-cases the upper-cased character, so that e.g. the title-case and upper-case forms of a letter agree
+    private static char fold(char c) {
+        return Character.toLowerCase(Character.toUpperCase(c));
+    }
+
+    private static int[] toArray(List<Integer> values) {
+        return values.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    private static int[] merge(List<Integer> own, int[] inherited) {
+        int[] merged = Arrays.copyOf(toArray(own), own.size() + inherited.length);
+        System.arraycopy(inherited, 0, merged, own.size(), inherited.length);
+        return merged;
+    }
+}
@@ -2,24 +2,46 @@ package com.example.finances.service;
 
 import com.example.finances.dto.CreateAccountDTO;
 import com.example.finances.model.Account;
+import com.example.finances.model.Money;
 import com.example.finances.model.User;
 import com.example.finances.repository.AccountRepository;
+import com.example.finances.repository.CategoryRuleRepository;
 import com.example.finances.repository.UserRepository;
+import com.example.finances.service.UserDataChangedEvent.Change;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
 
+import java.time.LocalDate;
 import java.util.List;
 import java.util.NoSuchElementException;
 
 @Service
 public class AccountService {
+    public static final String ACCOUNTS_BY_USER_CACHE = "accountsByUser";
+
     private final UserRepository userRepository;
     private final AccountRepository accountRepository;
+    private final CategoryRuleRepository categoryRuleRepository;
+    private final NetWorthService netWorthService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final OptimisticLockRetry optimisticLockRetry;
 
     @Autowired
-    public AccountService(AccountRepository accountRepository, UserRepository userRepository) {
+    public AccountService(AccountRepository accountRepository, UserRepository userRepository, NetWorthService netWorthService,
+                          ApplicationEventPublisher eventPublisher, CategoryRuleRepository categoryRuleRepository,
+                          OptimisticLockRetry optimisticLockRetry) {
         this.accountRepository = accountRepository;
         this.userRepository = userRepository;
+        this.netWorthService = netWorthService;
+        this.eventPublisher = eventPublisher;
+        this.categoryRuleRepository = categoryRuleRepository;
+        this.optimisticLockRetry = optimisticLockRetry;
     }
 
     public List<Account> findAllAccounts() {
@@ -31,12 +53,20 @@ public class AccountService {
                 .orElseThrow(() -> new NoSuchElementException("No account found with ID: " + accountId));
     }
 
+    /**
+     * Finds a user's accounts. The list is cached until the next committed write to the user's data,
+     * since transactions move account balances as well as account writes.
+     * @param userId The ID of the user.
+     * @return The user's accounts.
+     * @throws NoSuchElementException if the user is not found.
+     */
+    @Cacheable(cacheNames = ACCOUNTS_BY_USER_CACHE, key = "#userId")
     public List<Account> findAccountByUserId(int userId) {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new NoSuchElementException("No user found for ID: " + userId));
 
-        return accountRepository.findByUserId(user)
-                .orElseThrow(() -> new NoSuchElementException("No accounts found for user: " + user));
+        return List.copyOf(accountRepository.findByUserId(user)
+                .orElseThrow(() -> new NoSuchElementException("No accounts found for user: " + user)));
     }
 
     public Account findByAccountName(String accountName) {
@@ -44,6 +74,13 @@ public class AccountService {
                 .orElseThrow(() -> new NoSuchElementException("No account found for name: " + accountName));
     }
 
+    /**
+     * Creates an account; its opening balance starts its balance history today.
+     * @param createAccountDTO The DTO containing the account details.
+     * @return The created Account object.
+     * @throws NoSuchElementException if the user is not found.
+     */
+    @Transactional
     public Account createAccount(CreateAccountDTO createAccountDTO) {
         // Step 1: Find the existing User entity by ID
         User user = userRepository.findById(createAccountDTO.getUserId())
@@ -55,28 +92,79 @@ public class AccountService {
         newAccount.setAccountName(createAccountDTO.getAccountName());
         newAccount.setAccountBalance(createAccountDTO.getAccountBalance());
 
-        // Step 3: Save the new Account
-        return accountRepository.save(newAccount);
+        // Step 3: Save the new Account and record its opening balance
+        Account saved = accountRepository.save(newAccount);
+        netWorthService.recordAccountChange(saved, LocalDate.now(), saved.getAccountBalance());
+        eventPublisher.publishEvent(new UserDataChangedEvent(user.getUserId(), Change.ACCOUNT_CREATED,
+                saved.getAccountId(), null));
+        return saved;
     }
 
+    /**
+     * Updates an account. A balance set by hand is recorded in its history as a change today.
+     * The update is retried if another write to the account commits first.
+     * @param accountId The ID of the account to update.
+     * @param updatedAccount The updated account details; if they have a version, it must be the account's current one.
+     * @return The updated Account object.
+     * @throws NoSuchElementException if the account is not found.
+     * @throws OptimisticLockingFailureException if the account has changed since the given version.
+     */
     public Account updateAccount(int accountId, Account updatedAccount) {
-        // Find the existing account or throw an exception if not found
-        Account existingAccount = accountRepository.findById(accountId)
-                .orElseThrow(() -> new NoSuchElementException("Account not found with ID: " + accountId));
-
-        // Update the account details
-        existingAccount.setAccountName(updatedAccount.getAccountName());
-        existingAccount.setAccountBalance(updatedAccount.getAccountBalance());
-        existingAccount.setUserId(updatedAccount.getUserId());
-
-        // Save and return the updated account
-        return accountRepository.save(existingAccount);
+        return optimisticLockRetry.execute(() -> {
+            // Find the existing account or throw an exception if not found
+            Account existingAccount = accountRepository.findById(accountId)
+                    .orElseThrow(() -> new NoSuchElementException("Account not found with ID: " + accountId));
+            if (updatedAccount.getVersion() != null && !updatedAccount.getVersion().equals(existingAccount.getVersion())) {
+                throw new OptimisticLockingFailureException("Account " + accountId + " has changed since version "
+                        + updatedAccount.getVersion() + "; it is now at version " + existingAccount.getVersion());
+            }
+
+            Money previousBalance = existingAccount.getAccountBalance();
+            int previousUserId = existingAccount.getUserId().getUserId();
+
+            // Update the account details
+            existingAccount.setAccountName(updatedAccount.getAccountName());
+            existingAccount.setAccountBalance(updatedAccount.getAccountBalance());
+            existingAccount.setUserId(updatedAccount.getUserId());
+
+            // Save the account, then move its history to the new owner and record any change in balance
+            Account saved = accountRepository.saveAndFlush(existingAccount);
+            if (saved.getUserId().getUserId() != previousUserId) {
+                netWorthService.recordAccountReassigned(saved);
+                eventPublisher.publishEvent(new UserDataChangedEvent(saved.getUserId().getUserId(), Change.ACCOUNT_CREATED,
+                        accountId, null));
+            }
+            netWorthService.recordAccountChange(saved, LocalDate.now(), saved.getAccountBalance().minus(previousBalance));
+            eventPublisher.publishEvent(new UserDataChangedEvent(previousUserId,
+                    saved.getUserId().getUserId() != previousUserId ? Change.ACCOUNT_DELETED : Change.ACCOUNT_UPDATED,
+                    accountId, null));
+            return saved;
+        });
     }
 
+    /**
+     * Deletes an account together with its balance history and the categorisation rules limited to it.
+     * @param accountId The ID of the account to delete.
+     * @throws NoSuchElementException if the account is not found.
+     */
+    @Transactional
     public void deleteAccount(int accountId) {
-        if (!accountRepository.existsById(accountId)) {
-            throw new NoSuchElementException("Account not found with ID: " + accountId);
-        }
-        accountRepository.deleteById(accountId);
+        Account account = accountRepository.findById(accountId)
+                .orElseThrow(() -> new NoSuchElementException("Account not found with ID: " + accountId));
+        netWorthService.recordAccountDeleted(accountId);
+        categoryRuleRepository.deleteByAccount(account);
+        accountRepository.delete(account);
+        eventPublisher.publishEvent(new UserDataChangedEvent(account.getUserId().getUserId(), Change.ACCOUNT_DELETED,
+                accountId, null));
+    }
+
+    /**
+     * Evicts a user's cached accounts once a write to their data has committed. Account writes
+     * here and transaction writes elsewhere both publish the event.
+     * @param event The write.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    @CacheEvict(cacheNames = ACCOUNTS_BY_USER_CACHE, key = "#event.userId()")
+    public void onUserDataChanged(UserDataChangedEvent event) {
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,209 @@
+package com.example.finances.service;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.finances.dto.AccountForecastDTO;
+import com.example.finances.dto.CashFlowForecastDTO;
+import com.example.finances.model.Account;
+import com.example.finances.model.Debt;
+import com.example.finances.model.Money;
+import com.example.finances.model.Recurrence;
+import com.example.finances.model.Transaction;
+import com.example.finances.model.User;
+import com.example.finances.repository.AccountRepository;
+import com.example.finances.repository.DebtRepository;
+import com.example.finances.repository.TransactionRepository;
+import com.example.finances.repository.UserRepository;
+
+/**
+ * Service class for cash-flow forecasts.
+ * Projects each account's daily balance from its current balance and the occurrences of its
+ * recurring templates that have not been created yet, and the user's total less the monthly
+ * payments of their active debts. All arithmetic is in cents on one array per account indexed
+ * by day, so the cost grows with days times accounts plus occurrences.
+ * Forecasts are cached per user and number of months until that user's next committed write, or
+ * until the day changes. Each is stored with the user's {@link DataVersionService} version read
+ * before its data, so a forecast computed while a write committed is never served afterwards.
+ */
+@Service
+public class CashFlowForecastService {
+    public static final int DEFAULT_MONTHS = 12;
+    public static final int MAX_MONTHS = 24;
+    public static final String CACHE = "cashFlowForecasts";
+
+    private final UserRepository userRepository;
+    private final AccountRepository accountRepository;
+    private final TransactionRepository transactionRepository;
+    private final DebtRepository debtRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final DataVersionService dataVersionService;
+    private final Cache cache;
+
+    @Autowired
+    public CashFlowForecastService(UserRepository userRepository, AccountRepository accountRepository,
+                                   TransactionRepository transactionRepository, DebtRepository debtRepository,
+                                   TransactionTemplate transactionTemplate, DataVersionService dataVersionService,
+                                   CacheManager cacheManager) {
+        this.userRepository = userRepository;
+        this.accountRepository = accountRepository;
+        this.transactionRepository = transactionRepository;
+        this.debtRepository = debtRepository;
+        this.dataVersionService = dataVersionService;
+        this.cache = Objects.requireNonNull(cacheManager.getCache(CACHE), "Cache " + CACHE + " is not configured");
+        this.readOnlyTransaction = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    /**
+     * Gets a user's projected daily balances from today.
+     * @param userId The ID of the user.
+     * @param months The number of months to project, or null for the default.
+     * @return The forecast.
+     * @throws NoSuchElementException if the user is not found.
+     * @throws IllegalArgumentException if the number of months is invalid.
+     */
+    public CashFlowForecastDTO getForecast(int userId, Integer months) {
+        int horizon = (months != null) ? months : DEFAULT_MONTHS;
+        if (horizon < 1 || horizon > MAX_MONTHS) {
+            throw new IllegalArgumentException("Months must be between 1 and " + MAX_MONTHS);
+        }
+        LocalDate today = LocalDate.now();
+        ForecastKey key = new ForecastKey(userId, horizon);
+        // Read before the data, so a forecast of data a write has since changed never matches it again
+        long version = dataVersionService.userVersion(userId);
+        CachedForecast cached = cache.get(key, CachedForecast.class);
+        if (cached != null && cached.from().equals(today) && cached.version() == version) {
+            return cached.forecast();
+        }
+
+        CashFlowForecastDTO forecast = readOnlyTransaction.execute(status -> {
+            User user = userRepository.findById(userId)
+                    .orElseThrow(() -> new NoSuchElementException("User not found with ID: " + userId));
+            return project(user, today, today.plusMonths(horizon));
+        });
+        cache.put(key, new CachedForecast(today, version, forecast));
+        return forecast;
+    }
+
+    /**
+     * Discards a user's cached forecasts once a write to their data has committed.
+     * @param event The write.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserDataChanged(UserDataChangedEvent event) {
+        for (int months = 1; months <= MAX_MONTHS; months++) {
+            cache.evict(new ForecastKey(event.userId(), months));
+        }
+    }
+
+    private CashFlowForecastDTO project(User user, LocalDate from, LocalDate to) {
+        int days = (int) ChronoUnit.DAYS.between(from, to) + 1;
+        List<Account> accounts = accountRepository.findByUserId(user).orElse(List.of());
+        Map<Integer, Integer> rows = new HashMap<>();
+        for (int row = 0; row < accounts.size(); row++) {
+            rows.put(accounts.get(row).getAccountId(), row);
+        }
+
+        // Per-day changes; occurrences already due but not yet created land on the first day
+        long[][] balances = new long[accounts.size()][days];
+        Set<Integer> debtsPaidByTemplates = new HashSet<>();
+        for (Transaction template : transactionRepository.findByUserIdAndRecurrenceIsNotNull(user)) {
+            Recurrence recurrence = Recurrence.of(template.getRecurrence());
+            Integer row = rows.get(template.getAccountId().getAccountId());
+            if (recurrence == null || row == null) {
+                continue;
+            }
+            if (template.getDebtId() != null) {
+                debtsPaidByTemplates.add(template.getDebtId().getDebtId());
+            }
+            long cents = template.getSignedAmount().getCents();
+            LocalDate anchor = template.getTransactionDate();
+            for (long index = RecurringTransactionService.firstPendingIndex(template, recurrence); ; index++) {
+                LocalDate date = recurrence.occurrence(anchor, index);
+                if (date.isAfter(to)) {
+                    break;
+                }
+                balances[row][Math.max(0, dayIndex(from, date))] += cents;
+            }
+        }
+
+        // Debts without a recurring payment are paid on the first of each month until paid off
+        long[] debtPayments = new long[days];
+        for (Debt debt : debtRepository.findActiveDebtsByUser(user)) {
+            long payment = debt.getMonthlyPayment().getCents();
+            if (payment <= 0 || debtsPaidByTemplates.contains(debt.getDebtId())) {
+                continue;
+            }
+            long remaining = debt.getRemainingBalance().getCents();
+            for (LocalDate due = from.withDayOfMonth(1).plusMonths(1); remaining > 0 && !due.isAfter(to); due = due.plusMonths(1)) {
+                long paid = Math.min(payment, remaining);
+                debtPayments[dayIndex(from, due)] += paid;
+                remaining -= paid;
+            }
+        }
+
+        // Running sums turn the changes into balances, in place
+        long[] total = new long[days];
+        for (int row = 0; row < accounts.size(); row++) {
+            long[] balance = balances[row];
+            long running = accounts.get(row).getAccountBalance().getCents();
+            for (int day = 0; day < days; day++) {
+                running += balance[day];
+                balance[day] = running;
+                total[day] += running;
+            }
+        }
+        long paid = 0;
+        int lowestDay = 0;
+        for (int day = 0; day < days; day++) {
+            paid += debtPayments[day];
+            debtPayments[day] = paid;
+            total[day] -= paid;
+            if (total[day] < total[lowestDay]) {
+                lowestDay = day;
+            }
+        }
+
+        List<AccountForecastDTO> accountForecasts = new ArrayList<>(accounts.size());
+        for (int row = 0; row < accounts.size(); row++) {
+            Account account = accounts.get(row);
+            accountForecasts.add(new AccountForecastDTO(account.getAccountId(), account.getAccountName(), toMoney(balances[row])));
+        }
+        return new CashFlowForecastDTO(from, to, accountForecasts, toMoney(debtPayments), toMoney(total),
+                Money.ofCents(total[lowestDay]), from.plusDays(lowestDay));
+    }
+
+    private static int dayIndex(LocalDate from, LocalDate day) {
+        return (int) ChronoUnit.DAYS.between(from, day);
+    }
+
+    private static List<Money> toMoney(long[] cents) {
+        List<Money> values = new ArrayList<>(cents.length);
+        for (long value : cents) {
+            values.add(Money.ofCents(value));
+        }
+        return values;
+    }
+
+    private record ForecastKey(int userId, int months) {
+    }
+
+    private record CachedForecast(LocalDate from, long version, CashFlowForecastDTO forecast) {
+    }
+}
@@ -0,0 +1,10 @@
+package com.example.finances.service;
+
+/**
+ * Published when a category is added, renamed or deleted. Cached categories and compiled rules
+ * are discarded and the category version bumped only once the write has committed, so a reader
+ * cannot cache the categories from before the write under the new version.
+ * @param categoryId The ID of the category that changed.
+ */
+public record CategoriesChangedEvent(int categoryId) {
+}
@@ -0,0 +1,233 @@
+package com.example.finances.service;
+
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.example.finances.dto.CategoryRuleDTO;
+import com.example.finances.dto.CreateCategoryRuleDTO;
+import com.example.finances.model.Account;
+import com.example.finances.model.Category;
+import com.example.finances.model.CategoryRule;
+import com.example.finances.model.Money;
+import com.example.finances.model.User;
+import com.example.finances.repository.AccountRepository;
+import com.example.finances.repository.CategoryRepository;
+import com.example.finances.repository.CategoryRuleRepository;
+import com.example.finances.repository.UserRepository;
+import com.example.finances.rules.CategoryMatcher;
+import com.example.finances.service.UserDataChangedEvent.Change;
+
+/**
+ * Service class for rules that categorise transactions created without a category.
+ * Each user's rules are compiled into a {@link CategoryMatcher} on first use and cached, so
+ * categorising a row costs one pass over its description. A transaction no rule matches goes
+ * to the "Other" category. A user's matcher is evicted once a write to their rules or the deletion of one of their
+ * accounts has committed, and every matcher when a category is deleted.
+ */
+@Service
+public class CategoryRuleService {
+    public static final String MATCHER_CACHE = "categoryMatchers";
+
+    private final CategoryRuleRepository categoryRuleRepository;
+    private final UserRepository userRepository;
+    private final CategoryRepository categoryRepository;
+    private final AccountRepository accountRepository;
+    private final CategoryService categoryService;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    public CategoryRuleService(CategoryRuleRepository categoryRuleRepository, UserRepository userRepository,
+                               CategoryRepository categoryRepository, AccountRepository accountRepository,
+                               CategoryService categoryService, ApplicationEventPublisher eventPublisher) {
+        this.categoryRuleRepository = categoryRuleRepository;
+        this.userRepository = userRepository;
+        this.categoryRepository = categoryRepository;
+        this.accountRepository = accountRepository;
+        this.categoryService = categoryService;
+        this.eventPublisher = eventPublisher;
+    }
+
+    /**
+     * Lists a user's rules in the order they are tried.
+     * @param userId The ID of the user.
+     * @return The user's rules.
+     * @throws NoSuchElementException if the user is not found.
+     */
+    @Transactional(readOnly = true)
+    public List<CategoryRuleDTO> findRulesByUserId(int userId) {
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new NoSuchElementException("User not found with ID: " + userId));
+        return categoryRuleRepository.findResponsesByUser(user);
+    }
+
+    /**
+     * Gets a user's compiled rules, building them on a cache miss.
+     * @param userId The ID of the user.
+     * @return The matcher; it matches nothing if the user has no rules or does not exist.
+     */
+    @Cacheable(cacheNames = MATCHER_CACHE, key = "#userId")
+    @Transactional(readOnly = true)
+    public CategoryMatcher matcherFor(int userId) {
+        return CategoryMatcher.compile(categoryRuleRepository.findResponsesByUser(userRepository.getReferenceById(userId)));
+    }
+
+    /**
+     * Finds the category a user's rules give a transaction.
+     * @param matcher The user's rules, from {@link #matcherFor}.
+     * @param accountId The ID of the transaction's account.
+     * @param amount The transaction's amount.
+     * @param description The transaction's description.
+     * @return The ID of the first matching rule's category, or of the "Other" category if none matches.
+     * @throws NoSuchElementException if no rule matches and there is no "Other" category.
+     */
+    public int categoryIdFor(CategoryMatcher matcher, int accountId, Money amount, String description) {
+        int categoryId = matcher.match(accountId, amount.abs().getCents(), description);
+        if (categoryId != CategoryMatcher.NO_MATCH) {
+            return categoryId;
+        }
+        return categoryService.findCategoryByName(CategoryService.DEFAULT_CATEGORY_NAME).getCategoryId();
+    }
+
+    /**
+     * Creates a rule.
+     * @param dto The rule.
+     * @return The created rule.
+     * @throws NoSuchElementException if the user, category or account is not found.
+     * @throws IllegalArgumentException if the rule has no condition, an invalid pattern, an empty
+     *         amount range or an account of another user.
+     */
+    @Transactional
+    public CategoryRuleDTO createRule(CreateCategoryRuleDTO dto) {
+        CategoryRule rule = categoryRuleRepository.save(apply(new CategoryRule(), dto));
+        eventPublisher.publishEvent(new UserDataChangedEvent(rule.getUserId().getUserId(), Change.CATEGORY_RULE_CREATED,
+                rule.getRuleId(), null));
+        return toResponse(rule);
+    }
+
+    /**
+     * Replaces a rule.
+     * @param ruleId The ID of the rule.
+     * @param dto The new rule.
+     * @return The updated rule.
+     * @throws NoSuchElementException if the rule, user, category or account is not found.
+     * @throws IllegalArgumentException if the rule has no condition, an invalid pattern, an empty
+     *         amount range or an account of another user.
+     */
+    @Transactional
+    public CategoryRuleDTO updateRule(int ruleId, CreateCategoryRuleDTO dto) {
+        CategoryRule rule = categoryRuleRepository.findById(ruleId)
+                .orElseThrow(() -> new NoSuchElementException("Category rule not found with ID: " + ruleId));
+        int previousUserId = rule.getUserId().getUserId();
+        CategoryRule saved = categoryRuleRepository.save(apply(rule, dto));
+        int userId = saved.getUserId().getUserId();
+        // Moving a rule to another user removes it from the previous user's rules
+        if (userId != previousUserId) {
+            eventPublisher.publishEvent(new UserDataChangedEvent(previousUserId, Change.CATEGORY_RULE_DELETED, ruleId, null));
+            eventPublisher.publishEvent(new UserDataChangedEvent(userId, Change.CATEGORY_RULE_CREATED, ruleId, null));
+        } else {
+            eventPublisher.publishEvent(new UserDataChangedEvent(userId, Change.CATEGORY_RULE_UPDATED, ruleId, null));
+        }
+        return toResponse(saved);
+    }
+
+    /**
+     * Deletes a rule.
+     * @param ruleId The ID of the rule.
+     * @throws NoSuchElementException if the rule is not found.
+     */
+    @Transactional
+    public void deleteRule(int ruleId) {
+        CategoryRule rule = categoryRuleRepository.findById(ruleId)
+                .orElseThrow(() -> new NoSuchElementException("Category rule not found with ID: " + ruleId));
+        categoryRuleRepository.delete(rule);
+        eventPublisher.publishEvent(new UserDataChangedEvent(rule.getUserId().getUserId(), Change.CATEGORY_RULE_DELETED,
+                ruleId, null));
+    }
+
+    /**
+     * Evicts a user's matcher once a write to their rules has committed, or the deletion of one of
+     * their accounts, whose rules are deleted with it. Evicting only after the commit keeps a
+     * concurrent read from caching the rules as they were before the write.
+     * @param event The write.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    @CacheEvict(cacheNames = MATCHER_CACHE, key = "#event.userId()",
+            condition = "T(com.example.finances.service.CategoryRuleService).changesRules(#event.change())")
+    public void onUserDataChanged(UserDataChangedEvent event) {
+    }
+
+    /**
+     * @param change A kind of write.
+     * @return Whether the write can change which rules a user's matcher holds.
+     */
+    public static boolean changesRules(Change change) {
+        return switch (change) {
+            case CATEGORY_RULE_CREATED, CATEGORY_RULE_UPDATED, CATEGORY_RULE_DELETED, ACCOUNT_DELETED -> true;
+            default -> false;
+        };
+    }
+
+    private CategoryRule apply(CategoryRule rule, CreateCategoryRuleDTO dto) {
+        String keyword = blankToNull(dto.getKeyword());
+        String pattern = blankToNull(dto.getPattern());
+        if (keyword == null && pattern == null && dto.getAccountId() == null
+                && dto.getMinAmount() == null && dto.getMaxAmount() == null) {
+            throw new IllegalArgumentException("A rule needs a keyword, pattern, account or amount range");
+        }
+        if (pattern != null) {
+            try {
+                Pattern.compile(pattern);
+            } catch (PatternSyntaxException e) {
+                throw new IllegalArgumentException("Invalid pattern: " + e.getDescription());
+            }
+        }
+        if (dto.getMinAmount() != null && dto.getMaxAmount() != null
+                && dto.getMinAmount().compareTo(dto.getMaxAmount()) > 0) {
+            throw new IllegalArgumentException("Minimum amount must not exceed maximum amount");
+        }
+
+        User user = userRepository.findById(dto.getUserId())
+                .orElseThrow(() -> new NoSuchElementException("User not found with ID: " + dto.getUserId()));
+        Category category = categoryRepository.findById(dto.getCategoryId())
+                .orElseThrow(() -> new NoSuchElementException("Category not found with ID: " + dto.getCategoryId()));
+        Account account = null;
+        if (dto.getAccountId() != null) {
+            account = accountRepository.findById(dto.getAccountId())
+                    .orElseThrow(() -> new NoSuchElementException("Account not found with ID: " + dto.getAccountId()));
+            if (account.getUserId().getUserId() != user.getUserId()) {
+                throw new IllegalArgumentException("Account " + account.getAccountId() + " does not belong to user " + user.getUserId());
+            }
+        }
+
+        rule.setUserId(user);
+        rule.setCategoryId(category);
+        rule.setAccountId(account);
+        rule.setKeyword(keyword);
+        rule.setPattern(pattern);
+        rule.setMinAmount(dto.getMinAmount());
+        rule.setMaxAmount(dto.getMaxAmount());
+        rule.setPriority(dto.getPriority());
+        return rule;
+    }
+
+    private static CategoryRuleDTO toResponse(CategoryRule rule) {
+        return new CategoryRuleDTO(rule.getRuleId(), rule.getUserId().getUserId(), rule.getCategoryId().getCategoryId(),
+                rule.getCategoryId().getCategoryName(),
+                rule.getAccountId() != null ? rule.getAccountId().getAccountId() : null,
+                rule.getKeyword(), rule.getPattern(), rule.getMinAmount(), rule.getMaxAmount(), rule.getPriority());
+    }
+
+    private static String blankToNull(String value) {
+        return value == null || value.isBlank() ? null : value;
+    }
+}
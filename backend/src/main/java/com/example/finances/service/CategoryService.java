@@ -2,8 +2,14 @@ package com.example.finances.service;
 
 import com.example.finances.model.Category;
 import com.example.finances.repository.CategoryRepository;
+import com.example.finances.repository.CategoryRuleRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
 
 import java.util.List;
 import java.util.NoSuchElementException;
@@ -11,22 +17,37 @@ import java.util.Optional;
 
 /**
  * Service class for handling Category-related business logic.
+ * Categories are read on every page load and every transaction write but rarely change, so the
+ * full list and each category by ID and by name are cached until the next category write has
+ * committed.
  */
 @Service
 public class CategoryService {
+    public static final String CACHE = "categories";
+    // Where transactions go when no category is given and no rule matches
+    public static final String DEFAULT_CATEGORY_NAME = "Other";
+
     private final CategoryRepository categoryRepository;
+    private final CategoryRuleRepository categoryRuleRepository;
+    private final DataVersionService dataVersionService;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Autowired
-    public CategoryService(CategoryRepository categoryRepository) {
+    public CategoryService(CategoryRepository categoryRepository, CategoryRuleRepository categoryRuleRepository,
+                           DataVersionService dataVersionService, ApplicationEventPublisher eventPublisher) {
         this.categoryRepository = categoryRepository;
+        this.categoryRuleRepository = categoryRuleRepository;
+        this.dataVersionService = dataVersionService;
+        this.eventPublisher = eventPublisher;
     }
 
     /**
      * Retrieves all categories from the database.
      * @return A list of all Category objects.
      */
+    @Cacheable(cacheNames = CACHE, key = "'all'")
     public List<Category> findAllCategories() {
-        return categoryRepository.findAll();
+        return List.copyOf(categoryRepository.findAll());
     }
 
     /**
@@ -35,6 +56,7 @@ public class CategoryService {
      * @return The Category object.
      * @throws NoSuchElementException if the category is not found.
      */
+    @Cacheable(cacheNames = CACHE, key = "#categoryId")
     public Category findCategoryById(int categoryId) {
         return categoryRepository.findById(categoryId)
                 .orElseThrow(() -> new NoSuchElementException("Category not found with ID: " + categoryId));
@@ -46,6 +68,7 @@ public class CategoryService {
      * @return The Category object.
      * @throws NoSuchElementException if the category is not found.
      */
+    @Cacheable(cacheNames = CACHE, key = "'name:' + #categoryName")
     public Category findCategoryByName(String categoryName) {
         return categoryRepository.findByCategoryName(categoryName)
                 .orElseThrow(() -> new NoSuchElementException("Category not found with name: " + categoryName));
@@ -62,7 +85,9 @@ public class CategoryService {
         if (existingCategory.isPresent()) {
             throw new IllegalStateException("A category with the name '" + category.getCategoryName() + "' already exists.");
         }
-        return categoryRepository.save(category);
+        Category saved = categoryRepository.save(category);
+        eventPublisher.publishEvent(new CategoriesChangedEvent(saved.getCategoryId()));
+        return saved;
     }
 
     /**
@@ -76,19 +101,36 @@ public class CategoryService {
         return categoryRepository.findById(categoryId)
                 .map(category -> {
                     category.setCategoryName(updatedCategory.getCategoryName());
-                    return categoryRepository.save(category);
+                    Category saved = categoryRepository.save(category);
+                    eventPublisher.publishEvent(new CategoriesChangedEvent(categoryId));
+                    return saved;
                 }).orElseThrow(() -> new NoSuchElementException("Cannot update. No category found with ID: " + categoryId));
     }
 
     /**
-     * Deletes a category from the database.
+     * Deletes a category from the database, together with the categorisation rules that file
+     * transactions under it. Every user's compiled rules are evicted.
      * @param categoryId The ID of the category to delete.
      * @throws NoSuchElementException if the category to be deleted is not found.
      */
+    @Transactional
     public void deleteCategory(int categoryId) {
-        if (!categoryRepository.existsById(categoryId)) {
-            throw new NoSuchElementException("Cannot delete. No category found with ID: " + categoryId);
-        }
-        categoryRepository.deleteById(categoryId);
+        Category category = categoryRepository.findById(categoryId)
+                .orElseThrow(() -> new NoSuchElementException("Cannot delete. No category found with ID: " + categoryId));
+        categoryRuleRepository.deleteByCategory(category);
+        categoryRepository.delete(category);
+        eventPublisher.publishEvent(new CategoriesChangedEvent(categoryId));
+    }
+
+    /**
+     * Evicts the cached categories and every user's compiled rules once a category write has
+     * committed, then bumps the category version. Evicting first means a reader that sees the new
+     * version can only load the categories as committed.
+     * @param event The write.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    @CacheEvict(cacheNames = {CACHE, CategoryRuleService.MATCHER_CACHE}, allEntries = true, beforeInvocation = true)
+    public void onCategoriesChanged(CategoriesChangedEvent event) {
+        dataVersionService.categoriesChanged();
     }
 }
@@ -0,0 +1,88 @@
+package com.example.finances.service;
+
+import java.time.LocalDate;
+import java.util.NoSuchElementException;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.finances.dto.DashboardSummaryDTO;
+import com.example.finances.model.Money;
+import com.example.finances.model.User;
+import com.example.finances.repository.AccountRepository;
+import com.example.finances.repository.DebtRepository;
+import com.example.finances.repository.TransactionRepository;
+import com.example.finances.repository.UserRepository;
+
+/**
+ * Service class for building the dashboard overview of a user.
+ * All totals are computed with aggregate queries instead of loading every
+ * account, debt and transaction into memory.
+ */
+@Service
+public class DashboardService {
+    private final UserRepository userRepository;
+    private final AccountRepository accountRepository;
+    private final DebtRepository debtRepository;
+    private final TransactionRepository transactionRepository;
+
+    @Autowired
+    public DashboardService(UserRepository userRepository, AccountRepository accountRepository,
+                            DebtRepository debtRepository, TransactionRepository transactionRepository) {
+        this.userRepository = userRepository;
+        this.accountRepository = accountRepository;
+        this.debtRepository = debtRepository;
+        this.transactionRepository = transactionRepository;
+    }
+
+    /**
+     * Builds the dashboard summary for a user for the current month.
+     * @param userId The ID of the user.
+     * @return The dashboard summary.
+     * @throws NoSuchElementException if the user is not found.
+     */
+    @Transactional(readOnly = true)
+    public DashboardSummaryDTO getDashboardSummary(int userId) {
+        return getDashboardSummary(userId, LocalDate.now());
+    }
+
+    /**
+     * Builds the dashboard summary for a user, with month-to-date figures relative to the given day.
+     * @param userId The ID of the user.
+     * @param asOf The day the month-to-date period ends on.
+     * @return The dashboard summary.
+     * @throws NoSuchElementException if the user is not found.
+     */
+    @Transactional(readOnly = true)
+    public DashboardSummaryDTO getDashboardSummary(int userId, LocalDate asOf) {
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new NoSuchElementException("User not found with ID: " + userId));
+
+        LocalDate periodStart = asOf.withDayOfMonth(1);
+
+        Money totalAssets = accountRepository.getTotalBalanceByUser(user)
+                .map(Money::ofCents)
+                .orElse(Money.ZERO);
+        Money totalDebts = debtRepository.getTotalRemainingDebtByUser(user)
+                .map(Money::ofCents)
+                .orElse(Money.ZERO);
+
+        DashboardSummaryDTO summary = new DashboardSummaryDTO();
+        summary.setUserId(user.getUserId());
+        summary.setTotalAssets(totalAssets);
+        summary.setTotalDebts(totalDebts);
+        summary.setNetWorth(totalAssets.minus(totalDebts));
+        summary.setPeriodStart(periodStart);
+        summary.setPeriodEnd(asOf);
+        summary.setMonthToDateIncome(transactionRepository
+                .sumAmountByUserAndTypeBetween(user, "income", periodStart, asOf)
+                .map(Money::ofCents)
+                .orElse(Money.ZERO));
+        summary.setMonthToDateExpense(transactionRepository
+                .sumAmountByUserAndTypeBetween(user, "expense", periodStart, asOf)
+                .map(Money::ofCents)
+                .orElse(Money.ZERO));
+        return summary;
+    }
+}
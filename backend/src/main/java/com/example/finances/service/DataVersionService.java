@@ -0,0 +1,85 @@
+package com.example.finances.service;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Service class for the version counters behind conditional GETs.
+ * Each user's counter is bumped once a write to their data has committed, and a separate counter
+ * once any category changes. A list endpoint reads the counter before its data and sends it as a
+ * strong ETag, so a request whose If-None-Match still matches can be answered with 304 Not
+ * Modified without querying or serialising anything. Counters live in memory, so every ETag also
+ * carries a per-process epoch that no tag issued before a restart can match.
+ */
+@Service
+public class DataVersionService {
+    private final String epoch = UUID.randomUUID().toString().substring(0, 8);
+    private final Map<Integer, AtomicLong> userVersions = new ConcurrentHashMap<>();
+    // Bumped with every user's counter, for lists that span all users
+    private final AtomicLong allUsersVersion = new AtomicLong();
+    private final AtomicLong categoriesVersion = new AtomicLong();
+
+    /**
+     * Gets the ETag of a user's data. Transaction listings show category names, so category
+     * changes are included.
+     * @param userId The ID of the user.
+     * @return A strong ETag, quoted.
+     */
+    public String userETag(int userId) {
+        return eTag("u" + userId + "." + userVersion(userId) + ".c" + categoriesVersion.get());
+    }
+
+    /**
+     * Gets a user's version, for caches that must not serve data read before the user's last write.
+     * @param userId The ID of the user.
+     * @return The number of committed writes to the user's data since startup.
+     */
+    public long userVersion(int userId) {
+        AtomicLong version = userVersions.get(userId);
+        return version != null ? version.get() : 0;
+    }
+
+    /**
+     * Gets the ETag of data spanning every user, such as the list of all accounts.
+     * @return A strong ETag, quoted.
+     */
+    public String allUsersETag() {
+        return eTag("a" + allUsersVersion.get());
+    }
+
+    /**
+     * Gets the ETag of the category list.
+     * @return A strong ETag, quoted.
+     */
+    public String categoriesETag() {
+        return eTag("c" + categoriesVersion.get());
+    }
+
+    /**
+     * Bumps a user's version once a write to their data has committed. Bumping before the commit
+     * would let a reader tag data from before the write with the new version.
+     * @param event The write.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserDataChanged(UserDataChangedEvent event) {
+        userVersions.computeIfAbsent(event.userId(), id -> new AtomicLong()).incrementAndGet();
+        allUsersVersion.incrementAndGet();
+    }
+
+    /**
+     * Bumps the category version once a category has been added, renamed or deleted and the write
+     * has committed.
+     */
+    public void categoriesChanged() {
+        categoriesVersion.incrementAndGet();
+    }
+
+    private String eTag(String version) {
+        return "\"" + epoch + "-" + version + "\"";
+    }
+}
@@ -0,0 +1,297 @@
+package com.example.finances.service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.finances.dto.DebtPayoffDTO;
+import com.example.finances.dto.PayoffPlanDTO;
+import com.example.finances.dto.PayoffSimulationDTO;
+import com.example.finances.model.Debt;
+import com.example.finances.model.Money;
+import com.example.finances.model.User;
+import com.example.finances.repository.DebtRepository;
+import com.example.finances.repository.UserRepository;
+
+/**
+ * Service class for debt payoff simulations.
+ * Every month each active debt accrues interest and receives its minimum payment; the rest of the
+ * budget (the sum of the minimum payments plus the extra amount) goes to the debts in the
+ * strategy's order. A paid-off debt's minimum payment therefore rolls over to the next target.
+ * The simulation runs on arrays of cents indexed by debt and allocates nothing per month.
+ */
+@Service
+public class DebtPayoffService {
+    public static final int MAX_MONTHS = 360;
+
+    private static final BigDecimal MAX_ANNUAL_RATE = BigDecimal.valueOf(100);
+
+    /**
+     * The order in which the budget left after the minimum payments is spent.
+     */
+    public enum Strategy {
+        // Highest interest rate first, then smallest balance
+        AVALANCHE,
+        // Smallest balance first, then highest interest rate
+        SNOWBALL,
+        // The order given in the request
+        CUSTOM;
+
+        /**
+         * Parses a strategy name.
+         * @param value "avalanche", "snowball" or "custom", in any case.
+         * @return The strategy.
+         * @throws IllegalArgumentException if the value is not a known strategy.
+         */
+        public static Strategy of(String value) {
+            if (value == null) {
+                throw new IllegalArgumentException("Strategy is mandatory");
+            }
+            return valueOf(value.trim().toUpperCase(Locale.ROOT));
+        }
+    }
+
+    private final DebtRepository debtRepository;
+    private final UserRepository userRepository;
+
+    @Autowired
+    public DebtPayoffService(DebtRepository debtRepository, UserRepository userRepository) {
+        this.debtRepository = debtRepository;
+        this.userRepository = userRepository;
+    }
+
+    /**
+     * Simulates paying off a user's active debts with each requested strategy, from next month on.
+     * @param userId The ID of the user.
+     * @param request The extra monthly payment, strategies, custom order and interest rates, or null for the defaults.
+     * @return One plan per strategy, in the order requested.
+     * @throws NoSuchElementException if the user is not found.
+     * @throws IllegalArgumentException if a strategy, rate or the custom order is invalid.
+     */
+    @Transactional(readOnly = true)
+    public List<PayoffPlanDTO> simulate(int userId, PayoffSimulationDTO request) {
+        PayoffSimulationDTO options = (request != null) ? request : new PayoffSimulationDTO();
+        long extra = (options.getExtraMonthly() != null) ? options.getExtraMonthly().getCents() : 0;
+        if (extra < 0) {
+            throw new IllegalArgumentException("Extra monthly payment cannot be negative");
+        }
+        Set<Strategy> strategies = parseStrategies(options);
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new NoSuchElementException("User not found with ID: " + userId));
+
+        List<Debt> debts = new ArrayList<>(debtRepository.findActiveDebtsByUser(user));
+        debts.sort(Comparator.comparingInt(Debt::getDebtId));
+        int count = debts.size();
+        long[] balances = new long[count];
+        long[] minimums = new long[count];
+        long[] rates = new long[count];
+        Map<Integer, Integer> indexes = new HashMap<>();
+        for (int i = 0; i < count; i++) {
+            Debt debt = debts.get(i);
+            indexes.put(debt.getDebtId(), i);
+            balances[i] = debt.getRemainingBalance().getCents();
+            minimums[i] = Math.max(0, debt.getMonthlyPayment().getCents());
+        }
+        if (options.getAnnualRates() != null) {
+            options.getAnnualRates().forEach((debtId, rate) -> {
+                Integer i = indexes.get(debtId);
+                if (i != null) {
+                    rates[i] = toBasisPoints(rate);
+                }
+            });
+        }
+
+        LocalDate firstPayment = LocalDate.now().withDayOfMonth(1).plusMonths(1);
+        List<PayoffPlanDTO> plans = new ArrayList<>(strategies.size());
+        for (Strategy strategy : strategies) {
+            int[] order = switch (strategy) {
+                case AVALANCHE -> order(count, Comparator
+                        .comparingLong((Integer i) -> -rates[i])
+                        .thenComparingLong(i -> balances[i]));
+                case SNOWBALL -> order(count, Comparator
+                        .comparingLong((Integer i) -> balances[i])
+                        .thenComparingLong(i -> -rates[i]));
+                case CUSTOM -> customOrder(options.getCustomOrder(), indexes, count);
+            };
+            Simulation result = simulate(balances, minimums, rates, order, extra, MAX_MONTHS);
+            plans.add(toPlan(strategy, debts, order, result, firstPayment));
+        }
+        return plans;
+    }
+
+    /**
+     * Simulates one strategy month by month.
+     * @param startingBalances The balance of each debt in cents.
+     * @param minimums The minimum monthly payment of each debt in cents.
+     * @param rates The annual interest rate of each debt in basis points.
+     * @param order The debt indexes in the order the budget left after the minimum payments is spent.
+     * @param extra The monthly payment on top of the minimum payments, in cents.
+     * @param maxMonths The number of months to simulate at most.
+     * @return The outcome per debt.
+     */
+    static Simulation simulate(long[] startingBalances, long[] minimums, long[] rates, int[] order,
+                               long extra, int maxMonths) {
+        int count = startingBalances.length;
+        long[] balances = startingBalances.clone();
+        long[] paid = new long[count];
+        long[] interest = new long[count];
+        int[] payoffMonths = new int[count];
+        long budget = extra;
+        int open = 0;
+        for (int i = 0; i < count; i++) {
+            budget += minimums[i];
+            if (balances[i] > 0) {
+                open++;
+            }
+        }
+
+        int month = 0;
+        while (open > 0 && month < maxMonths) {
+            month++;
+            long available = budget;
+            for (int i = 0; i < count; i++) {
+                if (balances[i] > 0 && rates[i] > 0) {
+                    // Monthly interest on the balance, rounded half up: balance * bp / 10,000 / 12
+                    long accrued = (balances[i] * rates[i] + 60_000) / 120_000;
+                    balances[i] += accrued;
+                    interest[i] += accrued;
+                }
+            }
+            for (int i = 0; i < count && available > 0; i++) {
+                if (balances[i] > 0) {
+                    long payment = Math.min(Math.min(minimums[i], balances[i]), available);
+                    balances[i] -= payment;
+                    paid[i] += payment;
+                    available -= payment;
+                }
+            }
+            for (int k = 0; k < count && available > 0; k++) {
+                int i = order[k];
+                if (balances[i] > 0) {
+                    long payment = Math.min(balances[i], available);
+                    balances[i] -= payment;
+                    paid[i] += payment;
+                    available -= payment;
+                }
+            }
+            for (int i = 0; i < count; i++) {
+                if (balances[i] == 0 && payoffMonths[i] == 0 && startingBalances[i] > 0) {
+                    payoffMonths[i] = month;
+                    open--;
+                }
+            }
+        }
+        return new Simulation(balances, paid, interest, payoffMonths);
+    }
+
+    private static Set<Strategy> parseStrategies(PayoffSimulationDTO options) {
+        Set<Strategy> strategies = new LinkedHashSet<>();
+        if (options.getStrategies() == null || options.getStrategies().isEmpty()) {
+            strategies.add(Strategy.AVALANCHE);
+            strategies.add(Strategy.SNOWBALL);
+            if (options.getCustomOrder() != null) {
+                strategies.add(Strategy.CUSTOM);
+            }
+            return strategies;
+        }
+        for (String value : options.getStrategies()) {
+            strategies.add(Strategy.of(value));
+        }
+        if (strategies.contains(Strategy.CUSTOM) && options.getCustomOrder() == null) {
+            throw new IllegalArgumentException("The custom strategy requires a custom order");
+        }
+        return strategies;
+    }
+
+    private static long toBasisPoints(BigDecimal annualRate) {
+        if (annualRate == null || annualRate.signum() < 0 || annualRate.compareTo(MAX_ANNUAL_RATE) > 0) {
+            throw new IllegalArgumentException("Annual rates must be between 0 and " + MAX_ANNUAL_RATE + " percent");
+        }
+        return annualRate.movePointRight(2).setScale(0, RoundingMode.HALF_UP).longValueExact();
+    }
+
+    // Sorts the debt indexes, which are in ID order, so ties keep the oldest debt first
+    private static int[] order(int count, Comparator<Integer> comparator) {
+        Integer[] indexes = new Integer[count];
+        for (int i = 0; i < count; i++) {
+            indexes[i] = i;
+        }
+        Arrays.sort(indexes, comparator);
+        int[] order = new int[count];
+        for (int i = 0; i < count; i++) {
+            order[i] = indexes[i];
+        }
+        return order;
+    }
+
+    private static int[] customOrder(List<Integer> debtIds, Map<Integer, Integer> indexes, int count) {
+        int[] order = new int[count];
+        boolean[] placed = new boolean[count];
+        int next = 0;
+        for (Integer debtId : debtIds) {
+            Integer i = indexes.get(debtId);
+            if (i == null) {
+                throw new IllegalArgumentException("Not an active debt of this user: " + debtId);
+            }
+            if (!placed[i]) {
+                placed[i] = true;
+                order[next++] = i;
+            }
+        }
+        for (int i = 0; i < count; i++) {
+            if (!placed[i]) {
+                order[next++] = i;
+            }
+        }
+        return order;
+    }
+
+    private static PayoffPlanDTO toPlan(Strategy strategy, List<Debt> debts, int[] order, Simulation result,
+                                        LocalDate firstPayment) {
+        List<DebtPayoffDTO> outcomes = new ArrayList<>(debts.size());
+        long totalPaid = 0;
+        long totalInterest = 0;
+        long remaining = 0;
+        int lastMonth = 0;
+        for (int i : order) {
+            Debt debt = debts.get(i);
+            int month = result.payoffMonths()[i];
+            outcomes.add(new DebtPayoffDTO(debt.getDebtId(), debt.getDebtName(),
+                    (month > 0) ? firstPayment.plusMonths(month - 1) : null,
+                    Money.ofCents(result.paid()[i]), Money.ofCents(result.interest()[i])));
+            totalPaid += result.paid()[i];
+            totalInterest += result.interest()[i];
+            remaining += result.balances()[i];
+            lastMonth = Math.max(lastMonth, month);
+        }
+        boolean paidOff = remaining == 0;
+        return new PayoffPlanDTO(strategy.name().toLowerCase(Locale.ROOT),
+                paidOff ? lastMonth : null,
+                (paidOff && lastMonth > 0) ? firstPayment.plusMonths(lastMonth - 1) : null,
+                Money.ofCents(totalPaid), Money.ofCents(totalInterest), Money.ofCents(remaining), outcomes);
+    }
+
+    /**
+     * The outcome of one simulation, indexed like its inputs.
+     * @param balances The balance left on each debt in cents.
+     * @param paid The total paid on each debt in cents.
+     * @param interest The interest accrued on each debt in cents.
+     * @param payoffMonths The month (from 1) each debt was paid off in, or 0 if it was not.
+     */
+    record Simulation(long[] balances, long[] paid, long[] interest, int[] payoffMonths) {
+    }
+}
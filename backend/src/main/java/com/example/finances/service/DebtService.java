@@ -1,17 +1,26 @@
 package com.example.finances.service;
 
-import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.util.List;
 import java.util.NoSuchElementException;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
 
 import com.example.finances.dto.CreateDebtDTO;
 import com.example.finances.model.Debt;
+import com.example.finances.model.Money;
 import com.example.finances.model.User;
 import com.example.finances.repository.DebtRepository;
 import com.example.finances.repository.UserRepository;
+import com.example.finances.service.UserDataChangedEvent.Change;
 
 /**
  * Service class for handling Debt-related business logic.
@@ -19,13 +28,22 @@ import com.example.finances.repository.UserRepository;
  */
 @Service
 public class DebtService {
+    public static final String DEBTS_BY_USER_CACHE = "debtsByUser";
+
     private final DebtRepository debtRepository;
     private final UserRepository userRepository;
+    private final NetWorthService netWorthService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final OptimisticLockRetry optimisticLockRetry;
 
     @Autowired
-    public DebtService(DebtRepository debtRepository, UserRepository userRepository) {
+    public DebtService(DebtRepository debtRepository, UserRepository userRepository, NetWorthService netWorthService,
+                       ApplicationEventPublisher eventPublisher, OptimisticLockRetry optimisticLockRetry) {
         this.debtRepository = debtRepository;
         this.userRepository = userRepository;
+        this.netWorthService = netWorthService;
+        this.eventPublisher = eventPublisher;
+        this.optimisticLockRetry = optimisticLockRetry;
     }
 
     /**
@@ -48,17 +66,18 @@ public class DebtService {
     }
 
     /**
-     * Finds all debts for a specific user.
+     * Finds all debts for a specific user, cached until the next committed write to the user's data.
      * @param userId The ID of the user.
      * @return A list of debts for the given user.
      * @throws NoSuchElementException if the user is not found.
      */
+    @Cacheable(cacheNames = DEBTS_BY_USER_CACHE, key = "#userId")
     public List<Debt> findDebtsByUserId(int userId) {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new NoSuchElementException("User not found with ID: " + userId));
 
-        return debtRepository.findByUserId(user)
-                .orElse(List.of()); // Return empty list instead of throwing exception
+        return List.copyOf(debtRepository.findByUserId(user)
+                .orElse(List.of())); // Return empty list instead of throwing exception
     }
 
     /**
@@ -90,23 +109,25 @@ public class DebtService {
      * @param userId The ID of the user.
      * @return The total remaining debt amount.
      */
-    public BigDecimal getTotalRemainingDebt(int userId) {
+    public Money getTotalRemainingDebt(int userId) {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new NoSuchElementException("User not found with ID: " + userId));
 
         return debtRepository.getTotalRemainingDebtByUser(user)
-                .orElse(BigDecimal.ZERO);
+                .map(Money::ofCents)
+                .orElse(Money.ZERO);
     }
 
     /**
-     * Adds a new debt to the database.
+     * Adds a new debt to the database and to its user's debt history.
      * @param debt The Debt object to be saved.
      * @return The saved Debt object.
      */
+    @Transactional
     public Debt addDebt(Debt debt) {
         // Ensure amount paid is not null and defaults to 0
         if (debt.getAmountPaid() == null) {
-            debt.setAmountPaid(BigDecimal.ZERO);
+            debt.setAmountPaid(Money.ZERO);
         }
 
         // Validate that amount paid doesn't exceed total owed
@@ -114,9 +135,13 @@ public class DebtService {
             throw new IllegalArgumentException("Amount paid cannot exceed total owed");
         }
 
-        return debtRepository.save(debt);
+        Debt saved = debtRepository.save(debt);
+        recordRemainingChange(saved, saved.getRemainingBalance());
+        publishChange(saved, Change.DEBT_CREATED, null);
+        return saved;
     }
 
+    @Transactional
     public Debt addDebtFromDTO(CreateDebtDTO createDebtDTO) {
         // Find the User entity by userId from the DTO
         User user = userRepository.findById(createDebtDTO.getUserId())
@@ -130,72 +155,133 @@ public class DebtService {
         newDebt.setMonthlyPayment(createDebtDTO.getMonthlyPayment());
         newDebt.setAmountPaid(createDebtDTO.getAmountPaid()); // Uses the default value from the DTO
 
-        // Save the new Debt entity
-        return debtRepository.save(newDebt);
+        // Save the new Debt entity and add it to the user's debt history
+        Debt saved = debtRepository.save(newDebt);
+        recordRemainingChange(saved, saved.getRemainingBalance());
+        publishChange(saved, Change.DEBT_CREATED, null);
+        return saved;
     }
 
     /**
-     * Updates an existing debt.
+     * Updates an existing debt. Its old remaining balance is reversed from its old user's debt
+     * history and the new one applied to the new user's. The update is retried if another write to
+     * the debt commits first.
      * @param debtId The ID of the debt to update.
-     * @param updatedDebt The updated Debt object.
+     * @param updatedDebt The updated Debt object; if it has a version, it must be the debt's current one.
      * @return The updated Debt object.
      * @throws NoSuchElementException if the debt to be updated is not found.
+     * @throws OptimisticLockingFailureException if the debt has changed since the given version.
      */
     public Debt updateDebt(int debtId, Debt updatedDebt) {
-        return debtRepository.findById(debtId)
+        return optimisticLockRetry.execute(() -> debtRepository.findById(debtId)
                 .map(debt -> {
+                    checkVersion(debt, updatedDebt.getVersion());
+                    recordRemainingChange(debt, debt.getRemainingBalance().negate());
+                    User previousUser = debt.getUserId();
                     debt.setUserId(updatedDebt.getUserId());
                     debt.setDebtName(updatedDebt.getDebtName());
                     debt.setTotalOwed(updatedDebt.getTotalOwed());
                     debt.setMonthlyPayment(updatedDebt.getMonthlyPayment());
 
                     // Ensure amount paid is not null and doesn't exceed total owed
-                    BigDecimal newAmountPaid = updatedDebt.getAmountPaid() != null ?
-                            updatedDebt.getAmountPaid() : BigDecimal.ZERO;
+                    Money newAmountPaid = updatedDebt.getAmountPaid() != null ?
+                            updatedDebt.getAmountPaid() : Money.ZERO;
 
                     if (newAmountPaid.compareTo(updatedDebt.getTotalOwed()) > 0) {
                         throw new IllegalArgumentException("Amount paid cannot exceed total owed");
                     }
 
                     debt.setAmountPaid(newAmountPaid);
-                    return debtRepository.save(debt);
-                }).orElseThrow(() -> new NoSuchElementException("Cannot update. No debt found with ID: " + debtId));
+                    Debt saved = debtRepository.saveAndFlush(debt);
+                    recordRemainingChange(saved, saved.getRemainingBalance());
+                    if (previousUser != null && (saved.getUserId() == null
+                            || previousUser.getUserId() != saved.getUserId().getUserId())) {
+                        eventPublisher.publishEvent(new UserDataChangedEvent(previousUser.getUserId(),
+                                Change.DEBT_DELETED, debtId, null));
+                    }
+                    publishChange(saved, Change.DEBT_UPDATED, null);
+                    return saved;
+                }).orElseThrow(() -> new NoSuchElementException("Cannot update. No debt found with ID: " + debtId)));
     }
 
     /**
-     * Makes a payment towards a debt, updating the amount paid.
+     * Makes a payment towards a debt, updating the amount paid and its user's debt history.
+     * The amount paid is read and written back under the debt's version, so if another payment to
+     * the same debt commits in between, this one is retried on the new amount instead of
+     * overwriting it. Payments to different debts never wait for each other's retries.
      * @param debtId The ID of the debt to make payment on.
      * @param paymentAmount The amount of the payment.
      * @return The updated Debt object.
      * @throws NoSuchElementException if the debt is not found.
      * @throws IllegalArgumentException if payment amount is invalid.
+     * @throws ObjectOptimisticLockingFailureException if other payments kept winning the race.
      */
-    public Debt makePayment(int debtId, BigDecimal paymentAmount) {
-        if (paymentAmount.compareTo(BigDecimal.ZERO) <= 0) {
+    public Debt makePayment(int debtId, Money paymentAmount) {
+        if (!paymentAmount.isPositive()) {
             throw new IllegalArgumentException("Payment amount must be positive");
         }
 
-        Debt debt = findDebtById(debtId);
-        BigDecimal newAmountPaid = debt.getAmountPaid().add(paymentAmount);
+        return optimisticLockRetry.execute(() -> {
+            Debt debt = findDebtById(debtId);
+            Money newAmountPaid = debt.getAmountPaid().plus(paymentAmount);
 
-        if (newAmountPaid.compareTo(debt.getTotalOwed()) > 0) {
-            throw new IllegalArgumentException("Payment would exceed total owed. Maximum payment: "
-                    + debt.getRemainingBalance());
-        }
+            if (newAmountPaid.compareTo(debt.getTotalOwed()) > 0) {
+                throw new IllegalArgumentException("Payment would exceed total owed. Maximum payment: "
+                        + debt.getRemainingBalance());
+            }
 
-        debt.setAmountPaid(newAmountPaid);
-        return debtRepository.save(debt);
+            debt.setAmountPaid(newAmountPaid);
+            // Flushed here so a conflict is detected inside the retried block
+            Debt saved = debtRepository.saveAndFlush(debt);
+            recordRemainingChange(saved, paymentAmount.negate());
+            publishChange(saved, Change.DEBT_PAYMENT, paymentAmount);
+            return saved;
+        });
     }
 
     /**
-     * Deletes a debt from the database.
+     * Deletes a debt from the database; its remaining balance leaves its user's debt history today.
      * @param debtId The ID of the debt to delete.
      * @throws NoSuchElementException if the debt to be deleted is not found.
      */
+    @Transactional
     public void deleteDebt(int debtId) {
-        if (!debtRepository.existsById(debtId)) {
-            throw new NoSuchElementException("Cannot delete. No debt found with ID: " + debtId);
+        Debt debt = debtRepository.findById(debtId)
+                .orElseThrow(() -> new NoSuchElementException("Cannot delete. No debt found with ID: " + debtId));
+        recordRemainingChange(debt, debt.getRemainingBalance().negate());
+        debtRepository.delete(debt);
+        publishChange(debt, Change.DEBT_DELETED, null);
+    }
+
+    /**
+     * Evicts a user's cached debts once a write to their data has committed.
+     * @param event The write.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    @CacheEvict(cacheNames = DEBTS_BY_USER_CACHE, key = "#event.userId()")
+    public void onUserDataChanged(UserDataChangedEvent event) {
+    }
+
+    // Records a change in a debt's remaining balance in its user's history
+    private void recordRemainingChange(Debt debt, Money delta) {
+        if (debt.getUserId() != null) {
+            netWorthService.recordDebtChange(debt.getUserId().getUserId(), LocalDate.now(), delta);
+        }
+    }
+
+    // Notifies listeners of a change to a debt owned by a user
+    private void publishChange(Debt debt, Change change, Money amount) {
+        if (debt.getUserId() != null) {
+            eventPublisher.publishEvent(new UserDataChangedEvent(debt.getUserId().getUserId(), change,
+                    debt.getDebtId(), amount));
+        }
+    }
+
+    // A client that sends the version it read must not overwrite a write it has not seen
+    private static void checkVersion(Debt debt, Long expectedVersion) {
+        if (expectedVersion != null && !expectedVersion.equals(debt.getVersion())) {
+            throw new OptimisticLockingFailureException("Debt " + debt.getDebtId() + " has changed since version "
+                    + expectedVersion + "; it is now at version " + debt.getVersion());
         }
-        debtRepository.deleteById(debtId);
     }
-}
\ No newline at end of file
+}
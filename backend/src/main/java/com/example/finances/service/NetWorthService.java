@@ -0,0 +1,434 @@
+package com.example.finances.service;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.TreeMap;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.finances.dto.BalancePointDTO;
+import com.example.finances.dto.DailyTotalDTO;
+import com.example.finances.dto.NetWorthPointDTO;
+import com.example.finances.model.Account;
+import com.example.finances.model.AccountBalanceSnapshot;
+import com.example.finances.model.DebtBalanceSnapshot;
+import com.example.finances.model.Money;
+import com.example.finances.model.Transaction;
+import com.example.finances.model.User;
+import com.example.finances.repository.AccountBalanceSnapshotRepository;
+import com.example.finances.repository.AccountRepository;
+import com.example.finances.repository.DebtBalanceSnapshotRepository;
+import com.example.finances.repository.DebtRepository;
+import com.example.finances.repository.TransactionRepository;
+import com.example.finances.repository.UserRepository;
+
+/**
+ * Service class for account balance and net-worth history.
+ * History is stored as end-of-day snapshots, one per account (and one per user for total debt)
+ * for each day on which the value changed; a day without a snapshot carries the previous value.
+ * The record methods keep the snapshots in step with account, transaction and debt writes and
+ * must be called in the same database transaction; rebuild recomputes them for backfills.
+ * Series are read as one value per day and downsampled on the server, so a chart over years of
+ * history receives a few hundred points.
+ */
+@Service
+public class NetWorthService {
+    public static final int DEFAULT_POINTS = 120;
+    public static final int MIN_POINTS = 3;
+    public static final int MAX_POINTS = 1000;
+    private static final int DEFAULT_RANGE_DAYS = 365;
+    private static final int MAX_RANGE_DAYS = 3660;
+
+    private final AccountBalanceSnapshotRepository accountBalanceSnapshotRepository;
+    private final DebtBalanceSnapshotRepository debtBalanceSnapshotRepository;
+    private final AccountRepository accountRepository;
+    private final DebtRepository debtRepository;
+    private final TransactionRepository transactionRepository;
+    private final UserRepository userRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    @Autowired
+    public NetWorthService(AccountBalanceSnapshotRepository accountBalanceSnapshotRepository,
+                           DebtBalanceSnapshotRepository debtBalanceSnapshotRepository,
+                           AccountRepository accountRepository, DebtRepository debtRepository,
+                           TransactionRepository transactionRepository, UserRepository userRepository,
+                           TransactionTemplate transactionTemplate) {
+        this.accountBalanceSnapshotRepository = accountBalanceSnapshotRepository;
+        this.debtBalanceSnapshotRepository = debtBalanceSnapshotRepository;
+        this.accountRepository = accountRepository;
+        this.debtRepository = debtRepository;
+        this.transactionRepository = transactionRepository;
+        this.userRepository = userRepository;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    /**
+     * Gets an account's end-of-day balances over a range of days.
+     * @param accountId The ID of the account.
+     * @param from The first day to include, or null for one year before {@code to}.
+     * @param to The last day to include, or null for today.
+     * @param points The maximum number of points to return, or null for the default.
+     * @return The balances in chronological order, downsampled to at most {@code points} days.
+     * @throws NoSuchElementException if the account is not found.
+     * @throws IllegalArgumentException if the range or number of points is invalid.
+     */
+    @Transactional(readOnly = true)
+    public List<BalancePointDTO> getAccountBalanceHistory(int accountId, LocalDate from, LocalDate to, Integer points) {
+        LocalDate end = (to != null) ? to : LocalDate.now();
+        LocalDate start = (from != null) ? from : end.minusDays(DEFAULT_RANGE_DAYS);
+        int days = rangeDays(start, end);
+        int maxPoints = resolvePoints(points);
+        if (!accountRepository.existsById(accountId)) {
+            throw new NoSuchElementException("Account not found with ID: " + accountId);
+        }
+
+        long[] balances = new long[days];
+        long opening = accountBalanceSnapshotRepository
+                .findFirstByAccountIdAndSnapshotDateLessThanOrderBySnapshotDateDesc(accountId, start)
+                .map(snapshot -> snapshot.getBalance().getCents())
+                .orElse(0L);
+        long[] changes = new long[days];
+        long previous = opening;
+        for (AccountBalanceSnapshot snapshot : accountBalanceSnapshotRepository
+                .findByAccountIdAndSnapshotDateBetweenOrderBySnapshotDate(accountId, start, end)) {
+            changes[dayIndex(start, snapshot.getSnapshotDate())] += snapshot.getBalance().getCents() - previous;
+            previous = snapshot.getBalance().getCents();
+        }
+        carryForward(opening, changes, balances);
+
+        List<BalancePointDTO> series = new ArrayList<>();
+        for (int day : downsample(balances, maxPoints)) {
+            series.add(new BalancePointDTO(start.plusDays(day), Money.ofCents(balances[day])));
+        }
+        return series;
+    }
+
+    /**
+     * Gets a user's end-of-day account total, remaining debt and net worth over a range of days.
+     * Downsampling picks days by the shape of the net-worth curve, and reports all three values
+     * for each picked day.
+     * @param userId The ID of the user.
+     * @param from The first day to include, or null for one year before {@code to}.
+     * @param to The last day to include, or null for today.
+     * @param points The maximum number of points to return, or null for the default.
+     * @return The values in chronological order, downsampled to at most {@code points} days.
+     * @throws NoSuchElementException if the user is not found.
+     * @throws IllegalArgumentException if the range or number of points is invalid.
+     */
+    @Transactional(readOnly = true)
+    public List<NetWorthPointDTO> getNetWorthHistory(int userId, LocalDate from, LocalDate to, Integer points) {
+        LocalDate end = (to != null) ? to : LocalDate.now();
+        LocalDate start = (from != null) ? from : end.minusDays(DEFAULT_RANGE_DAYS);
+        int days = rangeDays(start, end);
+        int maxPoints = resolvePoints(points);
+        if (!userRepository.existsById(userId)) {
+            throw new NoSuchElementException("User not found with ID: " + userId);
+        }
+
+        // Each snapshot contributes the change from its account's previous value on its day
+        Map<Integer, Long> previousByAccount = new HashMap<>();
+        long openingAssets = 0;
+        for (AccountBalanceSnapshot snapshot : accountBalanceSnapshotRepository.findOpeningBalances(userId, start)) {
+            previousByAccount.put(snapshot.getAccountId(), snapshot.getBalance().getCents());
+            openingAssets += snapshot.getBalance().getCents();
+        }
+        long[] assetChanges = new long[days];
+        for (AccountBalanceSnapshot snapshot : accountBalanceSnapshotRepository
+                .findByUserIdAndSnapshotDateBetweenOrderBySnapshotDate(userId, start, end)) {
+            long balance = snapshot.getBalance().getCents();
+            Long previous = previousByAccount.put(snapshot.getAccountId(), balance);
+            assetChanges[dayIndex(start, snapshot.getSnapshotDate())] += balance - (previous != null ? previous : 0);
+        }
+
+        long openingDebts = debtBalanceSnapshotRepository
+                .findFirstByUserIdAndSnapshotDateLessThanOrderBySnapshotDateDesc(userId, start)
+                .map(snapshot -> snapshot.getTotalRemaining().getCents())
+                .orElse(0L);
+        long[] debtChanges = new long[days];
+        long previousDebts = openingDebts;
+        for (DebtBalanceSnapshot snapshot : debtBalanceSnapshotRepository
+                .findByUserIdAndSnapshotDateBetweenOrderBySnapshotDate(userId, start, end)) {
+            debtChanges[dayIndex(start, snapshot.getSnapshotDate())] += snapshot.getTotalRemaining().getCents() - previousDebts;
+            previousDebts = snapshot.getTotalRemaining().getCents();
+        }
+
+        long[] assets = new long[days];
+        long[] debts = new long[days];
+        carryForward(openingAssets, assetChanges, assets);
+        carryForward(openingDebts, debtChanges, debts);
+        long[] netWorth = new long[days];
+        for (int day = 0; day < days; day++) {
+            netWorth[day] = assets[day] - debts[day];
+        }
+
+        List<NetWorthPointDTO> series = new ArrayList<>();
+        for (int day : downsample(netWorth, maxPoints)) {
+            series.add(new NetWorthPointDTO(start.plusDays(day), Money.ofCents(assets[day]), Money.ofCents(debts[day])));
+        }
+        return series;
+    }
+
+    /**
+     * Applies a saved transaction to its account's balance history.
+     * @param transaction The saved transaction.
+     */
+    public void recordTransactionAdded(Transaction transaction) {
+        recordAccountChange(transaction.getAccountId(), transaction.getTransactionDate(), transaction.getSignedAmount());
+    }
+
+    /**
+     * Applies saved transactions to their accounts' balance histories, with one write per distinct
+     * account and day rather than one per transaction.
+     * @param transactions The saved transactions.
+     */
+    public void recordTransactionsAdded(Collection<Transaction> transactions) {
+        Map<Account, Map<LocalDate, Long>> changes = new LinkedHashMap<>();
+        for (Transaction transaction : transactions) {
+            changes.computeIfAbsent(transaction.getAccountId(), account -> new TreeMap<>())
+                    .merge(transaction.getTransactionDate(), transaction.getSignedAmount().getCents(), Math::addExact);
+        }
+        changes.forEach((account, byDay) -> byDay.forEach(
+                (day, cents) -> recordAccountChange(account, day, Money.ofCents(cents))));
+    }
+
+    /**
+     * Reverses a transaction from its account's balance history. For updates, call this before
+     * changing the transaction and {@link #recordTransactionAdded} after.
+     * @param transaction The transaction as it is currently stored.
+     */
+    public void recordTransactionRemoved(Transaction transaction) {
+        recordAccountChange(transaction.getAccountId(), transaction.getTransactionDate(),
+                transaction.getSignedAmount().negate());
+    }
+
+    /**
+     * Applies a change to an account's balance from a day onwards, e.g. its opening balance or a
+     * balance edited by hand.
+     * @param account The account.
+     * @param day The day of the change.
+     * @param delta The change in balance.
+     */
+    public void recordAccountChange(Account account, LocalDate day, Money delta) {
+        if (delta.isZero()) {
+            return;
+        }
+        int accountId = account.getAccountId();
+        accountBalanceSnapshotRepository.shiftFrom(accountId, day, delta);
+        if (!accountBalanceSnapshotRepository.existsByAccountIdAndSnapshotDate(accountId, day)) {
+            Money previous = accountBalanceSnapshotRepository
+                    .findFirstByAccountIdAndSnapshotDateLessThanOrderBySnapshotDateDesc(accountId, day)
+                    .map(AccountBalanceSnapshot::getBalance)
+                    .orElse(Money.ZERO);
+            accountBalanceSnapshotRepository.save(new AccountBalanceSnapshot(
+                    accountId, account.getUserId().getUserId(), day, previous.plus(delta)));
+        }
+    }
+
+    /**
+     * Moves an account's history to its new owner.
+     * @param account The account, with its new user set.
+     */
+    public void recordAccountReassigned(Account account) {
+        accountBalanceSnapshotRepository.reassignUser(account.getAccountId(), account.getUserId().getUserId());
+    }
+
+    /**
+     * Removes a deleted account's history.
+     * @param accountId The ID of the account.
+     */
+    public void recordAccountDeleted(int accountId) {
+        accountBalanceSnapshotRepository.deleteByAccountId(accountId);
+    }
+
+    /**
+     * Applies a change to a user's total remaining debt from a day onwards, e.g. a new debt or a payment.
+     * @param userId The ID of the user.
+     * @param day The day of the change.
+     * @param delta The change in remaining debt; negative for payments.
+     */
+    public void recordDebtChange(int userId, LocalDate day, Money delta) {
+        if (delta.isZero()) {
+            return;
+        }
+        debtBalanceSnapshotRepository.shiftFrom(userId, day, delta);
+        if (!debtBalanceSnapshotRepository.existsByUserIdAndSnapshotDate(userId, day)) {
+            Money previous = debtBalanceSnapshotRepository
+                    .findFirstByUserIdAndSnapshotDateLessThanOrderBySnapshotDateDesc(userId, day)
+                    .map(DebtBalanceSnapshot::getTotalRemaining)
+                    .orElse(Money.ZERO);
+            debtBalanceSnapshotRepository.save(new DebtBalanceSnapshot(userId, day, previous.plus(delta)));
+        }
+    }
+
+    /**
+     * Recomputes a user's history, in its own database transaction. Account balances are walked
+     * back from their current values through their transactions; debt history, which has no
+     * ledger to replay, restarts from today's total.
+     * @param userId The ID of the user.
+     * @return The number of snapshots written.
+     * @throws NoSuchElementException if the user is not found.
+     */
+    public int rebuild(int userId) {
+        return transactionTemplate.execute(status -> {
+            User user = userRepository.findById(userId)
+                    .orElseThrow(() -> new NoSuchElementException("User not found with ID: " + userId));
+            accountBalanceSnapshotRepository.deleteByUserId(userId);
+            debtBalanceSnapshotRepository.deleteByUserId(userId);
+
+            List<AccountBalanceSnapshot> snapshots = new ArrayList<>();
+            for (Account account : accountRepository.findByUserId(user).orElse(List.of())) {
+                // Net change per day, newest first
+                Map<LocalDate, Long> changes = new LinkedHashMap<>();
+                for (DailyTotalDTO total : transactionRepository.sumByDayAndType(account)) {
+                    changes.merge(total.getDate(), total.getSignedTotal().getCents(), Math::addExact);
+                }
+
+                long balance = account.getAccountBalance().getCents();
+                LocalDate earliest = LocalDate.now();
+                for (Map.Entry<LocalDate, Long> change : changes.entrySet()) {
+                    snapshots.add(new AccountBalanceSnapshot(account.getAccountId(), userId, change.getKey(),
+                            Money.ofCents(balance)));
+                    balance -= change.getValue();
+                    earliest = change.getKey();
+                }
+                // The balance before the first transaction, or the current balance if there are none
+                snapshots.add(new AccountBalanceSnapshot(account.getAccountId(), userId,
+                        changes.isEmpty() ? earliest : earliest.minusDays(1), Money.ofCents(balance)));
+            }
+            accountBalanceSnapshotRepository.saveAll(snapshots);
+
+            int written = snapshots.size();
+            Long remaining = debtRepository.getTotalRemainingDebtByUser(user).orElse(null);
+            if (remaining != null && remaining != 0) {
+                debtBalanceSnapshotRepository.save(new DebtBalanceSnapshot(userId, LocalDate.now(), Money.ofCents(remaining)));
+                written++;
+            }
+            return written;
+        });
+    }
+
+    /**
+     * Recomputes the history of every user, one user per database transaction.
+     * @return The number of snapshots written.
+     */
+    public int rebuildAll() {
+        int rows = 0;
+        for (User user : userRepository.findAll()) {
+            rows += rebuild(user.getUserId());
+        }
+        return rows;
+    }
+
+    /**
+     * Backfills the history on startup when it is empty but there are accounts or debts, e.g. on
+     * a database created before snapshots existed.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillIfEmpty() {
+        if (accountBalanceSnapshotRepository.count() == 0 && debtBalanceSnapshotRepository.count() == 0
+                && (accountRepository.count() > 0 || debtRepository.count() > 0)) {
+            rebuildAll();
+        }
+    }
+
+    private static int rangeDays(LocalDate start, LocalDate end) {
+        if (start.isAfter(end)) {
+            throw new IllegalArgumentException("'from' must not be after 'to'");
+        }
+        long days = ChronoUnit.DAYS.between(start, end) + 1;
+        if (days > MAX_RANGE_DAYS) {
+            throw new IllegalArgumentException("Range must not exceed " + MAX_RANGE_DAYS + " days");
+        }
+        return (int) days;
+    }
+
+    private static int resolvePoints(Integer points) {
+        if (points == null) {
+            return DEFAULT_POINTS;
+        }
+        if (points < MIN_POINTS || points > MAX_POINTS) {
+            throw new IllegalArgumentException("Points must be between " + MIN_POINTS + " and " + MAX_POINTS);
+        }
+        return points;
+    }
+
+    private static int dayIndex(LocalDate start, LocalDate day) {
+        return (int) ChronoUnit.DAYS.between(start, day);
+    }
+
+    private static void carryForward(long opening, long[] changes, long[] values) {
+        long value = opening;
+        for (int day = 0; day < values.length; day++) {
+            value += changes[day];
+            values[day] = value;
+        }
+    }
+
+    /**
+     * Picks the days to plot with Largest-Triangle-Three-Buckets: the first and last days are
+     * kept, the rest are split into equal buckets, and each bucket keeps the day that forms the
+     * largest triangle with the day kept before it and the average of the next bucket. Unlike
+     * fixed-interval sampling, this keeps the peaks and dips of the curve.
+     * @param values One value per day.
+     * @param points The maximum number of days to keep; at least 3.
+     * @return The indexes of the kept days, in ascending order.
+     */
+    static int[] downsample(long[] values, int points) {
+        int n = values.length;
+        if (n <= points) {
+            int[] all = new int[n];
+            for (int i = 0; i < n; i++) {
+                all[i] = i;
+            }
+            return all;
+        }
+
+        int[] kept = new int[points];
+        double bucketSize = (double) (n - 2) / (points - 2);
+        int previous = 0;
+        kept[0] = 0;
+        for (int bucket = 0; bucket < points - 2; bucket++) {
+            int bucketStart = (int) (bucket * bucketSize) + 1;
+            int bucketEnd = (int) ((bucket + 1) * bucketSize) + 1;
+
+            // Average of the next bucket; the last bucket looks ahead to the final day
+            int nextStart = bucketEnd;
+            int nextEnd = Math.min((int) ((bucket + 2) * bucketSize) + 1, n);
+            double averageX = 0;
+            double averageY = 0;
+            for (int i = nextStart; i < nextEnd; i++) {
+                averageX += i;
+                averageY += values[i];
+            }
+            averageX /= (nextEnd - nextStart);
+            averageY /= (nextEnd - nextStart);
+
+            double largestArea = -1;
+            int chosen = bucketStart;
+            for (int i = bucketStart; i < bucketEnd; i++) {
+                double area = Math.abs((previous - averageX) * (values[i] - values[previous])
+                        - (previous - i) * (averageY - values[previous]));
+                if (area > largestArea) {
+                    largestArea = area;
+                    chosen = i;
+                }
+            }
+            kept[bucket + 1] = chosen;
+            previous = chosen;
+        }
+        kept[points - 1] = n - 1;
+        return kept;
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.finances.service;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import jakarta.persistence.OptimisticLockException;
+
+/**
+ * Runs a read-modify-write of versioned rows in its own transaction, and runs it again when another
+ * transaction changed one of those rows first. Each attempt reads the rows again, so the change is
+ * applied to their latest version rather than lost. Only writes to the same rows conflict, so writes
+ * to other debts or accounts never cause a retry. After {@code finances.optimistic-lock.max-attempts}
+ * conflicts the last one is thrown.
+ */
+@Component
+public class OptimisticLockRetry {
+    private final TransactionTemplate transactionTemplate;
+    private final int maxAttempts;
+    private final long backoffMs;
+
+    @Autowired
+    public OptimisticLockRetry(TransactionTemplate transactionTemplate,
+                               @Value("${finances.optimistic-lock.max-attempts:5}") int maxAttempts,
+                               @Value("${finances.optimistic-lock.backoff-ms:10}") long backoffMs) {
+        if (maxAttempts < 1) {
+            throw new IllegalArgumentException("finances.optimistic-lock.max-attempts must be at least 1");
+        }
+        this.transactionTemplate = transactionTemplate;
+        this.maxAttempts = maxAttempts;
+        this.backoffMs = backoffMs;
+    }
+
+    /**
+     * Runs a write, retrying it on an optimistic lock conflict. Inside a caller's transaction it runs
+     * once, since a conflict rolls back the whole transaction, which only the caller can retry.
+     * @param write The write; it must read what it changes, so a retry sees the latest rows.
+     * @return The write's result.
+     * @throws ObjectOptimisticLockingFailureException if every attempt conflicted.
+     */
+    public <T> T execute(Supplier<T> write) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return write.get();
+        }
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return transactionTemplate.execute(status -> write.get());
+            } catch (ObjectOptimisticLockingFailureException | OptimisticLockException e) {
+                if (attempt >= maxAttempts) {
+                    throw e;
+                }
+                backOff(attempt);
+            }
+        }
+    }
+
+    // A random wait that grows with each attempt, so conflicting writers do not retry in lockstep
+    private void backOff(int attempt) {
+        if (backoffMs <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(backoffMs * attempt + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while retrying a write", e);
+        }
+    }
+}
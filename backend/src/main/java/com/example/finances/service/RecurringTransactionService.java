@@ -0,0 +1,238 @@
+package com.example.finances.service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.finances.dto.CreateTransactionDTO;
+import com.example.finances.dto.RecurringOccurrenceDTO;
+import com.example.finances.model.Recurrence;
+import com.example.finances.model.Transaction;
+import com.example.finances.model.User;
+import com.example.finances.repository.TransactionRepository;
+import com.example.finances.repository.UserRepository;
+
+/**
+ * Service class for recurring transactions.
+ * A transaction with a recurrence is a template: its own date is the first occurrence and later
+ * occurrences are created as ordinary one-off transactions. Each template records the last day
+ * its occurrences were created through, in the same database transaction as the occurrences,
+ * so expansion can be rerun or interrupted at any point without creating duplicates.
+ */
+@Service
+public class RecurringTransactionService {
+    public static final int DEFAULT_FORECAST_MONTHS = 3;
+    public static final int MAX_FORECAST_MONTHS = 24;
+    public static final int DEFAULT_FORECAST_LIMIT = 500;
+    public static final int MAX_FORECAST_LIMIT = 5_000;
+
+    private final TransactionRepository transactionRepository;
+    private final TransactionService transactionService;
+    private final UserRepository userRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    // Occurrences are created this many days ahead of today; 0 creates them on the day they fall due
+    @Value("${finances.recurrence.horizon-days:0}")
+    private int horizonDays;
+
+    // Templates expanded per database transaction
+    @Value("${finances.recurrence.batch-size:100}")
+    private int batchSize;
+
+    @Autowired
+    public RecurringTransactionService(TransactionRepository transactionRepository, TransactionService transactionService,
+                                       UserRepository userRepository, TransactionTemplate transactionTemplate) {
+        this.transactionRepository = transactionRepository;
+        this.transactionService = transactionService;
+        this.userRepository = userRepository;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    /**
+     * Creates the occurrences that have fallen due since the last run, once a day.
+     */
+    @Scheduled(cron = "${finances.recurrence.cron:0 15 0 * * *}")
+    public void expandOnSchedule() {
+        expandDue();
+    }
+
+    /**
+     * Catches up on occurrences that fell due while the application was stopped.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void expandOnStartup() {
+        expandDue();
+    }
+
+    /**
+     * Creates every occurrence of every user's templates up to the configured horizon.
+     * @return The number of transactions created.
+     */
+    public int expandDue() {
+        return expandThrough(LocalDate.now().plusDays(horizonDays));
+    }
+
+    /**
+     * Creates every occurrence of every user's templates up to a day. Templates are processed in
+     * chunks of the configured batch size, each in its own database transaction, so the writer is
+     * released between chunks however many templates there are.
+     * @param through The last day to create occurrences for.
+     * @return The number of transactions created.
+     */
+    public int expandThrough(LocalDate through) {
+        int created = 0;
+        int afterId = 0;
+        while (true) {
+            int previousId = afterId;
+            ChunkResult chunk = transactionTemplate.execute(status -> expandChunk(previousId, through));
+            if (chunk == null) {
+                return created;
+            }
+            created += chunk.created();
+            afterId = chunk.lastTemplateId();
+        }
+    }
+
+    /**
+     * Projects a user's recurring transactions that have not been created yet, without writing
+     * anything. Occurrences are generated lazily in date order across all templates, so only as
+     * many are computed as are returned.
+     * @param userId The ID of the user.
+     * @param to The last day to project, or null for three months from today.
+     * @param limit The maximum number of occurrences to return, or null for the default.
+     * @return The projected occurrences, earliest first.
+     * @throws NoSuchElementException if the user is not found.
+     * @throws IllegalArgumentException if the day is in the past or too far ahead, or the limit is invalid.
+     */
+    @Transactional(readOnly = true)
+    public List<RecurringOccurrenceDTO> forecast(int userId, LocalDate to, Integer limit) {
+        LocalDate today = LocalDate.now();
+        LocalDate end = (to != null) ? to : today.plusMonths(DEFAULT_FORECAST_MONTHS);
+        if (end.isBefore(today) || end.isAfter(today.plusMonths(MAX_FORECAST_MONTHS))) {
+            throw new IllegalArgumentException("'to' must be within " + MAX_FORECAST_MONTHS + " months from today");
+        }
+        int maxOccurrences = (limit != null) ? limit : DEFAULT_FORECAST_LIMIT;
+        if (maxOccurrences < 1 || maxOccurrences > MAX_FORECAST_LIMIT) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + MAX_FORECAST_LIMIT);
+        }
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new NoSuchElementException("User not found with ID: " + userId));
+
+        PriorityQueue<OccurrenceCursor> next = new PriorityQueue<>(Comparator
+                .comparing((OccurrenceCursor cursor) -> cursor.date)
+                .thenComparingInt(cursor -> cursor.template.getTransactionId()));
+        for (Transaction template : transactionRepository.findByUserIdAndRecurrenceIsNotNull(user)) {
+            Recurrence recurrence = Recurrence.of(template.getRecurrence());
+            if (recurrence != null) {
+                OccurrenceCursor cursor = new OccurrenceCursor(template, recurrence);
+                if (!cursor.date.isAfter(end)) {
+                    next.add(cursor);
+                }
+            }
+        }
+
+        List<RecurringOccurrenceDTO> occurrences = new ArrayList<>();
+        while (!next.isEmpty() && occurrences.size() < maxOccurrences) {
+            OccurrenceCursor cursor = next.poll();
+            occurrences.add(new RecurringOccurrenceDTO(cursor.template, cursor.date));
+            cursor.advance();
+            if (!cursor.date.isAfter(end)) {
+                next.add(cursor);
+            }
+        }
+        return occurrences;
+    }
+
+    // Expands one page of due templates; returns null when there are none left.
+    private ChunkResult expandChunk(int afterId, LocalDate through) {
+        List<Transaction> templates = transactionRepository.findDueTemplatesAfter(afterId, through, Limit.of(batchSize));
+        if (templates.isEmpty()) {
+            return null;
+        }
+
+        List<CreateTransactionDTO> occurrences = new ArrayList<>();
+        List<Integer> templateIds = new ArrayList<>(templates.size());
+        for (Transaction template : templates) {
+            templateIds.add(template.getTransactionId());
+            Recurrence recurrence = Recurrence.of(template.getRecurrence());
+            if (recurrence == null) {
+                continue;
+            }
+            for (OccurrenceCursor cursor = new OccurrenceCursor(template, recurrence);
+                 !cursor.date.isAfter(through); cursor.advance()) {
+                occurrences.add(toOccurrence(template, cursor.date));
+            }
+        }
+
+        // Created together with the templates' progress, so a crash leaves neither behind
+        if (!occurrences.isEmpty()) {
+            transactionService.createTransactions(occurrences);
+        }
+        transactionRepository.markGeneratedThrough(templateIds, through);
+        return new ChunkResult(templateIds.get(templateIds.size() - 1), occurrences.size());
+    }
+
+    private static CreateTransactionDTO toOccurrence(Transaction template, LocalDate date) {
+        CreateTransactionDTO dto = new CreateTransactionDTO();
+        dto.setUserId(template.getUserId().getUserId());
+        dto.setAccountId(template.getAccountId().getAccountId());
+        dto.setCategoryId(template.getCategoryId().getCategoryId());
+        dto.setDebtId(template.getDebtId() != null ? template.getDebtId().getDebtId() : null);
+        dto.setAmount(template.getAmount());
+        dto.setDescription(template.getDescription());
+        dto.setType(template.getType());
+        dto.setTransactionDate(date);
+        return dto;
+    }
+
+    /**
+     * Finds a template's first occurrence that has not been created yet.
+     * @param template The recurring template.
+     * @param recurrence The template's parsed recurrence.
+     * @return The index of the occurrence (see {@link Recurrence#occurrence}).
+     */
+    static long firstPendingIndex(Transaction template, Recurrence recurrence) {
+        LocalDate anchor = template.getTransactionDate();
+        LocalDate generatedThrough = template.getGeneratedThrough();
+        return recurrence.firstIndexAfter(anchor,
+                (generatedThrough != null && generatedThrough.isAfter(anchor)) ? generatedThrough : anchor);
+    }
+
+    private record ChunkResult(int lastTemplateId, int created) {
+    }
+
+    /**
+     * Walks the occurrences of one template that have not been created yet.
+     */
+    private static class OccurrenceCursor {
+        private final Transaction template;
+        private final Recurrence recurrence;
+        private long index;
+        private LocalDate date;
+
+        OccurrenceCursor(Transaction template, Recurrence recurrence) {
+            this.template = template;
+            this.recurrence = recurrence;
+            this.index = firstPendingIndex(template, recurrence);
+            this.date = recurrence.occurrence(template.getTransactionDate(), index);
+        }
+
+        void advance() {
+            index++;
+            date = recurrence.occurrence(template.getTransactionDate(), index);
+        }
+    }
+}
@@ -0,0 +1,183 @@
+package com.example.finances.service;
+
+import java.time.YearMonth;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.finances.dto.MonthlySpendingDTO;
+import com.example.finances.model.Money;
+import com.example.finances.model.MonthlyCategoryTotal;
+import com.example.finances.model.Transaction;
+import com.example.finances.model.User;
+import com.example.finances.repository.MonthlyCategoryTotalRepository;
+import com.example.finances.repository.TransactionRepository;
+import com.example.finances.repository.UserRepository;
+
+/**
+ * Service class for the monthly spending reports.
+ * Reports read only the monthly_category_totals rollup, which holds one row per user, month,
+ * category and type. The record methods keep it in step with the ledger and must be called in
+ * the same database transaction as the transaction writes they describe; rebuild recomputes it
+ * from the ledger for backfills.
+ */
+@Service
+public class SpendingReportService {
+    private static final int DEFAULT_REPORT_MONTHS = 12;
+
+    private final MonthlyCategoryTotalRepository monthlyCategoryTotalRepository;
+    private final TransactionRepository transactionRepository;
+    private final UserRepository userRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    @Autowired
+    public SpendingReportService(MonthlyCategoryTotalRepository monthlyCategoryTotalRepository,
+                                 TransactionRepository transactionRepository, UserRepository userRepository,
+                                 TransactionTemplate transactionTemplate) {
+        this.monthlyCategoryTotalRepository = monthlyCategoryTotalRepository;
+        this.transactionRepository = transactionRepository;
+        this.userRepository = userRepository;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    /**
+     * Gets a user's monthly totals per category over a range of months.
+     * @param userId The ID of the user.
+     * @param type "income" or "expense".
+     * @param from The first month to include, or null for eleven months before {@code to}.
+     * @param to The last month to include, or null for the current month.
+     * @return One row per month and category, in chronological order.
+     * @throws NoSuchElementException if the user is not found.
+     * @throws IllegalArgumentException if the type is unknown or the range ends before it starts.
+     */
+    @Transactional(readOnly = true)
+    public List<MonthlySpendingDTO> getSpendingReport(int userId, String type, YearMonth from, YearMonth to) {
+        if (!"income".equals(type) && !"expense".equals(type)) {
+            throw new IllegalArgumentException("Type must be 'income' or 'expense'");
+        }
+        YearMonth end = (to != null) ? to : YearMonth.now();
+        YearMonth start = (from != null) ? from : end.minusMonths(DEFAULT_REPORT_MONTHS - 1);
+        if (start.isAfter(end)) {
+            throw new IllegalArgumentException("'from' must not be after 'to'");
+        }
+        if (!userRepository.existsById(userId)) {
+            throw new NoSuchElementException("User not found with ID: " + userId);
+        }
+        return monthlyCategoryTotalRepository.findReport(userId, type, start.toString(), end.toString());
+    }
+
+    /**
+     * Adds a newly saved transaction to its month's total.
+     * @param transaction The saved transaction.
+     */
+    public void recordAdded(Transaction transaction) {
+        addToTotal(transaction, transaction.getAmount().getCents(), 1);
+    }
+
+    /**
+     * Adds newly saved transactions to their months' totals, with one write per distinct month,
+     * category and type rather than one per transaction.
+     * @param transactions The saved transactions.
+     */
+    public void recordAddedAll(Collection<Transaction> transactions) {
+        // Keyed by user ID, year-month, category ID and type; values are {cents, count}
+        Map<List<Object>, long[]> totals = new LinkedHashMap<>();
+        for (Transaction transaction : transactions) {
+            long[] total = totals.computeIfAbsent(List.of(transaction.getUserId().getUserId(),
+                    yearMonthOf(transaction), transaction.getCategoryId().getCategoryId(), transaction.getType()),
+                    key -> new long[2]);
+            total[0] = Math.addExact(total[0], transaction.getAmount().getCents());
+            total[1]++;
+        }
+        totals.forEach((key, total) -> addToTotal((Integer) key.get(0), (String) key.get(1),
+                (Integer) key.get(2), (String) key.get(3), total[0], total[1]));
+    }
+
+    /**
+     * Takes a transaction out of its month's total. For updates, call this before changing the
+     * transaction and {@link #recordAdded} after.
+     * @param transaction The transaction as it is currently stored.
+     */
+    public void recordRemoved(Transaction transaction) {
+        addToTotal(transaction, -transaction.getAmount().getCents(), -1);
+        monthlyCategoryTotalRepository.deleteEmptyByUserId(transaction.getUserId().getUserId());
+    }
+
+    /**
+     * Recomputes a user's rollup rows from their transactions, in its own database transaction.
+     * @param userId The ID of the user.
+     * @return The number of rollup rows written.
+     * @throws NoSuchElementException if the user is not found.
+     */
+    public int rebuild(int userId) {
+        return transactionTemplate.execute(status -> {
+            User user = userRepository.findById(userId)
+                    .orElseThrow(() -> new NoSuchElementException("User not found with ID: " + userId));
+            monthlyCategoryTotalRepository.deleteByUserId(userId);
+
+            // Fold the per-day totals into one row per month, category and type
+            Map<List<Object>, MonthlyCategoryTotal> totals = new LinkedHashMap<>();
+            for (MonthlyCategoryTotal day : transactionRepository.sumByDayAndCategory(user)) {
+                totals.merge(List.of(day.getYearMonth(), day.getCategoryId(), day.getType()), day, (month, more) -> {
+                    month.setTotalAmount(month.getTotalAmount().plus(more.getTotalAmount()));
+                    month.setTransactionCount(month.getTransactionCount() + more.getTransactionCount());
+                    return month;
+                });
+            }
+            monthlyCategoryTotalRepository.saveAll(totals.values());
+            return totals.size();
+        });
+    }
+
+    /**
+     * Recomputes the rollup for every user, one user per database transaction so writers are
+     * never held up for the whole backfill.
+     * @return The number of rollup rows written.
+     */
+    public int rebuildAll() {
+        int rows = 0;
+        for (User user : userRepository.findAll()) {
+            rows += rebuild(user.getUserId());
+        }
+        return rows;
+    }
+
+    /**
+     * Backfills the rollup on startup when it is empty but the ledger is not, e.g. on a database
+     * created before the rollup existed.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillIfEmpty() {
+        if (monthlyCategoryTotalRepository.count() == 0 && transactionRepository.count() > 0) {
+            rebuildAll();
+        }
+    }
+
+    private void addToTotal(Transaction transaction, long cents, long count) {
+        addToTotal(transaction.getUserId().getUserId(), yearMonthOf(transaction),
+                transaction.getCategoryId().getCategoryId(), transaction.getType(), cents, count);
+    }
+
+    // Updates the row in place, or creates it on the month's first transaction of that category and type.
+    // The single writer connection serialises writers, so no other transaction can insert the row in between.
+    private void addToTotal(int userId, String yearMonth, int categoryId, String type, long cents, long count) {
+        Money amount = Money.ofCents(cents);
+        if (monthlyCategoryTotalRepository.addToTotal(userId, yearMonth, categoryId, type, amount, count) == 0) {
+            monthlyCategoryTotalRepository.save(
+                    new MonthlyCategoryTotal(userId, yearMonth, categoryId, type, amount, count));
+        }
+    }
+
+    private static String yearMonthOf(Transaction transaction) {
+        return YearMonth.from(transaction.getTransactionDate()).toString();
+    }
+}
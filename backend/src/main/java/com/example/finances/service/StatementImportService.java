@@ -0,0 +1,224 @@
+package com.example.finances.service;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.finances.dto.ImportResultDTO;
+import com.example.finances.importer.ImportListener;
+import com.example.finances.importer.StatementParseException;
+import com.example.finances.importer.StatementParser;
+import com.example.finances.importer.StatementRow;
+import com.example.finances.model.Account;
+import com.example.finances.model.Category;
+import com.example.finances.model.Money;
+import com.example.finances.model.Transaction;
+import com.example.finances.model.User;
+import com.example.finances.repository.AccountRepository;
+import com.example.finances.repository.CategoryRepository;
+import com.example.finances.repository.TransactionRepository;
+import com.example.finances.repository.UserRepository;
+import com.example.finances.rules.CategoryMatcher;
+import com.example.finances.service.UserDataChangedEvent.Change;
+
+import jakarta.persistence.EntityManager;
+
+/**
+ * Service class for importing bank statements.
+ * Rows are read one at a time from the parser and written in fixed-size chunks, each in its
+ * own database transaction, so memory use does not depend on the size of the statement.
+ */
+@Service
+public class StatementImportService {
+    private final TransactionRepository transactionRepository;
+    private final UserRepository userRepository;
+    private final AccountRepository accountRepository;
+    private final CategoryRepository categoryRepository;
+    private final CategoryService categoryService;
+    private final CategoryRuleService categoryRuleService;
+    private final SpendingReportService spendingReportService;
+    private final NetWorthService netWorthService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManager entityManager;
+    // Rows written per database transaction; kept in step with Hibernate's batch size.
+    private final int chunkSize;
+
+    @Autowired
+    public StatementImportService(TransactionRepository transactionRepository, UserRepository userRepository,
+                                  AccountRepository accountRepository, CategoryRepository categoryRepository,
+                                  CategoryService categoryService, CategoryRuleService categoryRuleService,
+                                  SpendingReportService spendingReportService, NetWorthService netWorthService,
+                                  ApplicationEventPublisher eventPublisher, TransactionTemplate transactionTemplate,
+                                  EntityManager entityManager,
+                                  @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:500}") int chunkSize) {
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("spring.jpa.properties.hibernate.jdbc.batch_size must be at least 1");
+        }
+        this.transactionRepository = transactionRepository;
+        this.userRepository = userRepository;
+        this.accountRepository = accountRepository;
+        this.categoryRepository = categoryRepository;
+        this.categoryService = categoryService;
+        this.categoryRuleService = categoryRuleService;
+        this.spendingReportService = spendingReportService;
+        this.netWorthService = netWorthService;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = transactionTemplate;
+        this.entityManager = entityManager;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Resolves the user, account and category imported rows are attached to.
+     * Called before the import starts so that invalid IDs are reported up front.
+     * @param userId The ID of the user.
+     * @param accountId The ID of the account.
+     * @param categoryId The ID of the category, or null to categorise each row by the user's rules
+     *                   and fall back to the "Other" category.
+     * @return The resolved import target.
+     * @throws NoSuchElementException if the user, account or category is not found.
+     */
+    public ImportTarget resolveTarget(int userId, int accountId, Integer categoryId) {
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new NoSuchElementException("User not found with ID: " + userId));
+
+        Account account = accountRepository.findById(accountId)
+                .orElseThrow(() -> new NoSuchElementException("Account not found with ID: " + accountId));
+
+        if (categoryId != null) {
+            Category category = categoryRepository.findById(categoryId)
+                    .orElseThrow(() -> new NoSuchElementException("Category not found with ID: " + categoryId));
+            return new ImportTarget(user, account, category, null);
+        }
+        // Fail up front, not on the first row no rule matches
+        categoryService.findCategoryByName(CategoryService.DEFAULT_CATEGORY_NAME);
+        return new ImportTarget(user, account, null, categoryRuleService.matcherFor(userId));
+    }
+
+    /**
+     * Imports every row of a statement.
+     * Malformed rows are skipped and reported to the listener; the rest of the statement is still imported.
+     * @param target The user, account and category to attach the rows to.
+     * @param parser The statement parser to read rows from.
+     * @param listener Receives progress after each chunk and an event for each skipped row.
+     * @return The final totals of the import.
+     * @throws IOException if the statement cannot be read; chunks committed so far are kept.
+     */
+    public ImportResultDTO importStatement(ImportTarget target, StatementParser parser, ImportListener listener) throws IOException {
+        List<Transaction> chunk = new ArrayList<>(chunkSize);
+        long rowsRead = 0;
+        long imported = 0;
+        long failed = 0;
+
+        while (true) {
+            StatementRow row;
+            try {
+                row = parser.next();
+                if (row == null) {
+                    break;
+                }
+                rowsRead++;
+                chunk.add(toTransaction(target, row));
+            } catch (StatementParseException e) {
+                rowsRead++;
+                failed++;
+                listener.onRowError(e.getLineNumber(), e.getMessage());
+                continue;
+            }
+
+            if (chunk.size() == chunkSize) {
+                imported += saveChunk(target, chunk);
+                listener.onProgress(new ImportResultDTO(rowsRead, imported, failed, false));
+            }
+        }
+
+        imported += saveChunk(target, chunk);
+        ImportResultDTO result = new ImportResultDTO(rowsRead, imported, failed, true);
+        listener.onProgress(result);
+        return result;
+    }
+
+    private Transaction toTransaction(ImportTarget target, StatementRow row) {
+        if (row.getAmount().isZero()) {
+            throw new StatementParseException(row.getLineNumber(), "Amount must not be zero");
+        }
+
+        Transaction transaction = new Transaction();
+        transaction.setUserId(target.user);
+        transaction.setAccountId(target.account);
+        transaction.setCategoryId(categoryOf(target, row));
+        transaction.setAmount(row.getAmount().abs());
+        transaction.setDescription(row.getDescription());
+        transaction.setType(row.getType());
+        transaction.setTransactionDate(row.getDate());
+        return transaction;
+    }
+
+    private Category categoryOf(ImportTarget target, StatementRow row) {
+        if (target.category != null) {
+            return target.category;
+        }
+        int categoryId = categoryRuleService.categoryIdFor(target.matcher, target.account.getAccountId(),
+                row.getAmount(), row.getDescription());
+        return target.categories.computeIfAbsent(categoryId, categoryService::findCategoryById);
+    }
+
+    // Commits one chunk, together with its net effect on the account balance, balance history and
+    // monthly totals, and detaches its entities so they can be garbage collected.
+    private int saveChunk(ImportTarget target, List<Transaction> chunk) {
+        int size = chunk.size();
+        if (size > 0) {
+            long balanceDelta = 0;
+            for (Transaction transaction : chunk) {
+                balanceDelta = Math.addExact(balanceDelta, transaction.getSignedAmount().getCents());
+            }
+            long netCents = balanceDelta;
+            transactionTemplate.executeWithoutResult(status -> {
+                transactionRepository.saveAll(chunk);
+                int userId = target.user.getUserId();
+                if (netCents != 0) {
+                    accountRepository.adjustBalance(target.account.getAccountId(), Money.ofCents(netCents));
+                    eventPublisher.publishEvent(new UserDataChangedEvent(userId, Change.ACCOUNT_BALANCE_CHANGED,
+                            target.account.getAccountId(), Money.ofCents(netCents)));
+                }
+                spendingReportService.recordAddedAll(chunk);
+                netWorthService.recordTransactionsAdded(chunk);
+                eventPublisher.publishEvent(new UserDataChangedEvent(userId, Change.TRANSACTIONS_CREATED, null, null));
+                entityManager.flush();
+                entityManager.clear();
+            });
+            chunk.clear();
+        }
+        return size;
+    }
+
+    /**
+     * The user, account and category a statement is imported into. Without a category, rows are
+     * categorised by the user's rules as compiled when the import started.
+     */
+    public static class ImportTarget {
+        private final User user;
+        private final Account account;
+        private final Category category;
+        private final CategoryMatcher matcher;
+        // The categories rows have been put in so far, so each is looked up once per import
+        private final Map<Integer, Category> categories = new HashMap<>();
+
+        private ImportTarget(User user, Account account, Category category, CategoryMatcher matcher) {
+            this.user = user;
+            this.account = account;
+            this.category = category;
+            this.matcher = matcher;
+        }
+    }
+}
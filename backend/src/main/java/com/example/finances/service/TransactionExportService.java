@@ -0,0 +1,154 @@
+package com.example.finances.service;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.NoSuchElementException;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.finances.dto.TransactionResponseDTO;
+import com.example.finances.model.Transaction;
+import com.example.finances.model.User;
+import com.example.finances.repository.TransactionRepository;
+import com.example.finances.repository.UserRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.persistence.EntityManager;
+
+/**
+ * Service class for exporting a user's full ledger.
+ * Rows are read through a forward-only database cursor and written to the output as they
+ * arrive, then detached, so exports run in constant memory regardless of ledger size.
+ */
+@Service
+public class TransactionExportService {
+    private static final int WRITE_BUFFER_SIZE = 64 * 1024;
+    private static final String CSV_HEADER = "id,date,type,amount,description,account_id,account_name,"
+            + "category_id,category_name,debt_id,debt_name,recurrence\n";
+
+    private final TransactionRepository transactionRepository;
+    private final UserRepository userRepository;
+    private final ObjectMapper objectMapper;
+    private final EntityManager entityManager;
+
+    @Autowired
+    public TransactionExportService(TransactionRepository transactionRepository, UserRepository userRepository,
+                                    ObjectMapper objectMapper, EntityManager entityManager) {
+        this.transactionRepository = transactionRepository;
+        this.userRepository = userRepository;
+        this.objectMapper = objectMapper;
+        this.entityManager = entityManager;
+    }
+
+    /**
+     * Supported export formats.
+     */
+    public enum Format {
+        NDJSON("application/x-ndjson", "ndjson"),
+        CSV("text/csv", "csv");
+
+        private final String contentType;
+        private final String fileExtension;
+
+        Format(String contentType, String fileExtension) {
+            this.contentType = contentType;
+            this.fileExtension = fileExtension;
+        }
+
+        public String getContentType() { return contentType; }
+        public String getFileExtension() { return fileExtension; }
+
+        /**
+         * @throws IllegalArgumentException if the format is not supported.
+         */
+        public static Format fromName(String name) {
+            try {
+                return valueOf(name.toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Unsupported export format: " + name);
+            }
+        }
+    }
+
+    /**
+     * Finds the user to export, so a missing user can be reported before the response starts streaming.
+     * @param userId The ID of the user.
+     * @return The User object.
+     * @throws NoSuchElementException if the user is not found.
+     */
+    public User findExportUser(int userId) {
+        return userRepository.findById(userId)
+                .orElseThrow(() -> new NoSuchElementException("User not found with ID: " + userId));
+    }
+
+    /**
+     * Writes all of a user's transactions, oldest first, to the given stream.
+     * @param user The user to export.
+     * @param format The output format.
+     * @param out The stream to write to; it is flushed but not closed.
+     * @throws IOException if writing to the stream fails.
+     */
+    @Transactional(readOnly = true)
+    public void exportUserTransactions(User user, Format format, OutputStream out) throws IOException {
+        BufferedOutputStream buffered = new BufferedOutputStream(out, WRITE_BUFFER_SIZE);
+        if (format == Format.CSV) {
+            buffered.write(CSV_HEADER.getBytes(StandardCharsets.UTF_8));
+        }
+
+        try (Stream<Transaction> transactions = transactionRepository.streamByUserId(user)) {
+            transactions.forEach(transaction -> {
+                try {
+                    writeRow(new TransactionResponseDTO(transaction), format, buffered);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                // Keep the persistence context from growing with every row read
+                entityManager.detach(transaction);
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        buffered.flush();
+    }
+
+    private void writeRow(TransactionResponseDTO row, Format format, OutputStream out) throws IOException {
+        if (format == Format.NDJSON) {
+            out.write(objectMapper.writeValueAsBytes(row));
+            out.write('\n');
+            return;
+        }
+
+        StringBuilder line = new StringBuilder(160)
+                .append(row.getTransactionId()).append(',')
+                .append(row.getTransactionDate()).append(',')
+                .append(row.getType()).append(',')
+                .append(row.getAmount()).append(',')
+                .append(csvField(row.getDescription())).append(',')
+                .append(row.getAccountId()).append(',')
+                .append(csvField(row.getAccountName())).append(',')
+                .append(row.getCategoryId()).append(',')
+                .append(csvField(row.getCategoryName())).append(',')
+                .append(row.getDebtId() != null ? row.getDebtId() : "").append(',')
+                .append(csvField(row.getDebtName())).append(',')
+                .append(row.getRecurrence() != null ? row.getRecurrence() : "")
+                .append('\n');
+        out.write(line.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String csvField(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') == -1 && value.indexOf('"') == -1 && value.indexOf('\n') == -1 && value.indexOf('\r') == -1) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
@@ -0,0 +1,389 @@
+package com.example.finances.service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.finances.dto.CreateTransactionDTO;
+import com.example.finances.dto.IngestStatusDTO;
+import com.example.finances.ingest.TransactionJournal;
+import com.example.finances.ingest.TransactionJournal.Entry;
+import com.example.finances.model.IngestCheckpoint;
+import com.example.finances.repository.DebtRepository;
+import com.example.finances.repository.IngestCheckpointRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Service class for write-behind ingestion of transactions, enabled with {@code finances.ingest.enabled}.
+ * An accepted transaction is validated against the cached accounts and categories, appended to a
+ * journal file and acknowledged once the journal is synced, without waiting for the database. A
+ * single writer thread takes everything accepted since its last commit and writes it in one
+ * database transaction, so the busier the feed, the more transactions share a commit.
+ * Each commit also records the last journal entry it covers in {@code ingest_checkpoints}. On
+ * startup the entries after the checkpoint are written again, so an acknowledged transaction is
+ * written exactly once however the process stopped. The journal is emptied whenever everything
+ * in it has been written.
+ * The checkpoint row is created with a random epoch before anything is accepted, and every journal
+ * entry carries it. If the database is recreated (as {@code ddl-auto=create-drop} does on every
+ * start) the row is gone, a new epoch is chosen and the old journal is moved aside instead of
+ * being replayed into a database that no longer has its accounts.
+ * Only failures that may pass, such as a locked or unreachable database or an unwritable journal,
+ * hold the queue and are retried after {@code finances.ingest.retry-delay-ms}. Any other failure
+ * marks the entries it affects failed, with a fixed reason, and the writer moves on.
+ */
+@Service
+@ConditionalOnProperty(name = "finances.ingest.enabled", havingValue = "true")
+public class TransactionIngestService {
+    // How many finished entries are remembered for status lookups
+    private static final int MAX_STATUSES = 100_000;
+    private static final long IDLE_POLL_MS = 100;
+
+    private final TransactionService transactionService;
+    private final AccountService accountService;
+    private final CategoryService categoryService;
+    private final DebtRepository debtRepository;
+    private final IngestCheckpointRepository checkpointRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final Path journalPath;
+    private final int batchSize;
+    private final int maxPending;
+    private final long retryDelayMs;
+
+    private final BlockingQueue<Entry> queue = new LinkedBlockingQueue<>();
+    private final AtomicInteger pending = new AtomicInteger();
+    private final Map<Long, IngestStatusDTO> statuses = Collections.synchronizedMap(
+            new LinkedHashMap<>() {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Long, IngestStatusDTO> eldest) {
+                    return size() > MAX_STATUSES;
+                }
+            });
+
+    private TransactionJournal journal;
+    private String epoch;
+    // Written only by the writer thread once started
+    private volatile long appliedThrough;
+    private volatile boolean running;
+    private Thread writer;
+
+    @Autowired
+    public TransactionIngestService(TransactionService transactionService, AccountService accountService,
+                                    CategoryService categoryService, DebtRepository debtRepository,
+                                    IngestCheckpointRepository checkpointRepository,
+                                    TransactionTemplate transactionTemplate, ObjectMapper objectMapper,
+                                    @Value("${finances.ingest.journal-path:ingest-journal.ndjson}") Path journalPath,
+                                    @Value("${finances.ingest.batch-size:500}") int batchSize,
+                                    @Value("${finances.ingest.max-pending:100000}") int maxPending,
+                                    @Value("${finances.ingest.retry-delay-ms:1000}") long retryDelayMs) {
+        if (batchSize < 1 || maxPending < 1) {
+            throw new IllegalArgumentException("finances.ingest.batch-size and max-pending must be at least 1");
+        }
+        this.transactionService = transactionService;
+        this.accountService = accountService;
+        this.categoryService = categoryService;
+        this.debtRepository = debtRepository;
+        this.checkpointRepository = checkpointRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.objectMapper = objectMapper;
+        this.journalPath = journalPath;
+        this.batchSize = batchSize;
+        this.maxPending = maxPending;
+        this.retryDelayMs = retryDelayMs;
+    }
+
+    /**
+     * Opens the journal and queues the entries that the database does not have yet. They are
+     * written once the application is ready. A journal for another epoch is moved aside.
+     * @throws IOException if the journal cannot be opened, read or moved aside.
+     */
+    @PostConstruct
+    public void open() throws IOException {
+        // Recorded before the first entry is accepted, so every journal entry has a checkpoint row to match
+        IngestCheckpoint saved = transactionTemplate.execute(status -> checkpointRepository.findById(journalName())
+                .orElseGet(() -> checkpointRepository.save(
+                        new IngestCheckpoint(journalName(), UUID.randomUUID().toString(), 0))));
+        epoch = saved.getEpoch();
+        long checkpoint = saved.getLastSequence();
+        appliedThrough = checkpoint;
+        journal = new TransactionJournal(journalPath, objectMapper, epoch, checkpoint + 1);
+        for (Entry entry : journal.readEntries()) {
+            if (entry.seq() > checkpoint) {
+                pending.incrementAndGet();
+                statuses.put(entry.seq(), new IngestStatusDTO(entry.seq(), IngestStatusDTO.PENDING, null, null));
+                queue.add(entry);
+            }
+        }
+    }
+
+    /**
+     * Starts the writer thread.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        writer = new Thread(this::drain, "transaction-ingest-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * Stops the writer after its current commit and closes the journal. Entries not written yet
+     * stay in the journal and are written on the next start.
+     * @throws InterruptedException if interrupted while waiting for the writer.
+     * @throws IOException if the journal cannot be closed.
+     */
+    @PreDestroy
+    public synchronized void close() throws InterruptedException, IOException {
+        running = false;
+        if (writer != null) {
+            writer.join(TimeUnit.SECONDS.toMillis(30));
+        }
+        if (journal != null) {
+            journal.close();
+        }
+    }
+
+    /**
+     * Accepts a transaction for writing. Returns once it is in the journal.
+     * @param dto The transaction; a missing date is set to today, so a replay does not change it.
+     * @return The pending status, with the ID to look it up by.
+     * @throws NoSuchElementException if the user, account, category or debt is not found.
+     * @throws IllegalStateException if {@code finances.ingest.max-pending} transactions are already waiting.
+     * @throws IOException if the journal cannot be written or synced; the transaction may still be
+     *         written if it reached the journal.
+     */
+    public IngestStatusDTO accept(CreateTransactionDTO dto) throws IOException {
+        validate(dto);
+        if (pending.incrementAndGet() > maxPending) {
+            pending.decrementAndGet();
+            throw new IllegalStateException("Too many transactions waiting to be written");
+        }
+        if (dto.getTransactionDate() == null) {
+            dto.setTransactionDate(LocalDate.now());
+        }
+        IngestStatusDTO[] status = new IngestStatusDTO[1];
+        try {
+            // Queued while the journal is locked, so the writer sees entries in sequence order
+            journal.append(dto, entry -> {
+                status[0] = new IngestStatusDTO(entry.seq(), IngestStatusDTO.PENDING, null, null);
+                statuses.put(entry.seq(), status[0]);
+                queue.add(entry);
+            });
+        } catch (IOException | RuntimeException e) {
+            // Once queued, the entry is written and counted off by the writer
+            if (status[0] == null) {
+                pending.decrementAndGet();
+            }
+            throw e;
+        }
+        return status[0];
+    }
+
+    /**
+     * Looks up an accepted transaction.
+     * @param ingestId The ID returned when it was accepted.
+     * @return Its status, with the transaction ID once written.
+     * @throws NoSuchElementException if the ID is unknown or has been forgotten.
+     */
+    public IngestStatusDTO findStatus(long ingestId) {
+        IngestStatusDTO status = statuses.get(ingestId);
+        if (status == null) {
+            throw new NoSuchElementException("No ingested transaction with ID: " + ingestId);
+        }
+        return status;
+    }
+
+    /**
+     * @return The number of accepted transactions not written yet.
+     */
+    public int pendingCount() {
+        return pending.get();
+    }
+
+    /**
+     * @return The number of entries for another database moved aside when the journal was opened.
+     */
+    public int discardedCount() {
+        return journal.discardedCount();
+    }
+
+    // Checks the references a transaction needs with the same cached reads as TransactionService
+    private void validate(CreateTransactionDTO dto) {
+        boolean ownAccount = accountService.findAccountByUserId(dto.getUserId()).stream()
+                .anyMatch(account -> account.getAccountId() == dto.getAccountId());
+        if (!ownAccount) {
+            accountService.findAccountById(dto.getAccountId());
+        }
+        if (dto.getCategoryId() != null) {
+            categoryService.findCategoryById(dto.getCategoryId());
+        }
+        if (dto.getDebtId() != null && !debtRepository.existsById(dto.getDebtId())) {
+            throw new NoSuchElementException("Debt not found with ID: " + dto.getDebtId());
+        }
+    }
+
+    private void drain() {
+        List<Entry> batch = new ArrayList<>(batchSize);
+        while (running) {
+            try {
+                if (batch.isEmpty()) {
+                    Entry first = queue.poll(IDLE_POLL_MS, TimeUnit.MILLISECONDS);
+                    if (first == null) {
+                        compact();
+                        continue;
+                    }
+                    // Everything that arrived during the previous commit goes into this one
+                    batch.add(first);
+                    queue.drainTo(batch, batchSize - 1);
+                }
+                apply(batch);
+                batch.clear();
+            } catch (InterruptedException e) {
+                return;
+            } catch (RuntimeException e) {
+                // The database or journal is unavailable, or a failed entry's checkpoint could not be
+                // saved; the batch is kept and tried again
+                try {
+                    Thread.sleep(retryDelayMs);
+                } catch (InterruptedException interrupted) {
+                    return;
+                }
+            }
+        }
+    }
+
+    private void apply(List<Entry> batch) {
+        // Entries written one at a time before a failed retry are already in
+        List<Entry> entries = batch.stream().filter(entry -> entry.seq() > appliedThrough).toList();
+        if (entries.isEmpty()) {
+            return;
+        }
+        long last = entries.get(entries.size() - 1).seq();
+        syncJournal(last);
+        List<Integer> transactionIds;
+        try {
+            transactionIds = transactionTemplate.execute(status -> {
+                List<Integer> created = transactionService.createTransactions(
+                        entries.stream().map(Entry::transaction).toList());
+                saveCheckpoint(last);
+                return created;
+            });
+        } catch (RuntimeException e) {
+            if (isTransient(e)) {
+                throw e;
+            }
+            // One bad entry rolls back the whole batch, so write them one at a time and fail only it
+            entries.forEach(this::applyOne);
+            return;
+        }
+        appliedThrough = last;
+        for (int i = 0; i < entries.size(); i++) {
+            finish(new IngestStatusDTO(entries.get(i).seq(), IngestStatusDTO.COMMITTED, transactionIds.get(i), null));
+        }
+    }
+
+    private void applyOne(Entry entry) {
+        IngestStatusDTO result;
+        try {
+            Integer transactionId = transactionTemplate.execute(status -> {
+                int id = transactionService.createTransaction(entry.transaction()).getTransactionId();
+                saveCheckpoint(entry.seq());
+                return id;
+            });
+            result = new IngestStatusDTO(entry.seq(), IngestStatusDTO.COMMITTED, transactionId, null);
+        } catch (RuntimeException e) {
+            if (isTransient(e)) {
+                throw e;
+            }
+            // E.g. the account was deleted after the transaction was accepted
+            transactionTemplate.executeWithoutResult(status -> saveCheckpoint(entry.seq()));
+            result = new IngestStatusDTO(entry.seq(), IngestStatusDTO.FAILED, null, failureReason(e));
+        }
+        appliedThrough = entry.seq();
+        finish(result);
+    }
+
+    // Failures worth waiting out; anything else would fail the same way however often it is retried
+    private static boolean isTransient(RuntimeException e) {
+        return e instanceof TransientDataAccessException || e instanceof CannotCreateTransactionException
+                || e instanceof DataAccessResourceFailureException || e instanceof UncheckedIOException;
+    }
+
+    // Exception messages can carry SQL, so clients only get one of these
+    private static String failureReason(RuntimeException e) {
+        if (e instanceof NoSuchElementException) {
+            return "A referenced user, account, category or debt no longer exists";
+        }
+        if (e instanceof DataIntegrityViolationException) {
+            return "The transaction conflicts with data already stored";
+        }
+        if (e instanceof ArithmeticException) {
+            return "The amount is too large for the account";
+        }
+        if (e instanceof IllegalArgumentException) {
+            return "The transaction is invalid";
+        }
+        return "The transaction could not be written";
+    }
+
+    // Entries are queued before they are synced; none is written to the database until it is on disk
+    private void syncJournal(long seq) {
+        try {
+            journal.sync(seq);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void saveCheckpoint(long seq) {
+        checkpointRepository.save(new IngestCheckpoint(journalName(), epoch, seq));
+    }
+
+    private void finish(IngestStatusDTO status) {
+        statuses.put(status.getIngestId(), status);
+        pending.decrementAndGet();
+    }
+
+    private void compact() {
+        try {
+            journal.truncateIfApplied(appliedThrough);
+        } catch (IOException e) {
+            // Tried again the next time the writer is idle
+        }
+    }
+
+    private String journalName() {
+        return journalPath.getFileName().toString();
+    }
+}
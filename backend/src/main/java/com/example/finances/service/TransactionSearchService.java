@@ -0,0 +1,213 @@
+package com.example.finances.service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.finances.dto.CursorPageDTO;
+import com.example.finances.dto.TransactionResponseDTO;
+import com.example.finances.repository.TransactionRepository;
+import com.example.finances.repository.UserRepository;
+
+import jakarta.persistence.EntityManager;
+
+/**
+ * Service class for full-text search over transaction descriptions.
+ * Descriptions are indexed in {@code transactions_fts}, an FTS5 table that reads its text from
+ * {@code transactions} and is kept in sync by triggers on insert, update and delete. Hibernate
+ * creates the schema from the entities, so the table and triggers are created on startup. When
+ * the triggers are missing (a fresh database, or {@code transactions} was recreated) the index
+ * is rebuilt from the ledger.
+ * Results are ranked with BM25 and paged by offset, since ranks have no stable order to seek on.
+ */
+@Service
+public class TransactionSearchService {
+    public static final int MAX_QUERY_LENGTH = 200;
+
+    private static final String[] INDEX_DDL = {
+            "CREATE VIRTUAL TABLE IF NOT EXISTS transactions_fts USING fts5(description, "
+                    + "content='transactions', content_rowid='transaction_id', tokenize='unicode61 remove_diacritics 2')",
+            "CREATE TRIGGER transactions_fts_insert AFTER INSERT ON transactions BEGIN "
+                    + "INSERT INTO transactions_fts(rowid, description) VALUES (new.transaction_id, new.description); END",
+            "CREATE TRIGGER transactions_fts_delete AFTER DELETE ON transactions BEGIN "
+                    + "INSERT INTO transactions_fts(transactions_fts, rowid, description) "
+                    + "VALUES ('delete', old.transaction_id, old.description); END",
+            "CREATE TRIGGER transactions_fts_update AFTER UPDATE OF description ON transactions BEGIN "
+                    + "INSERT INTO transactions_fts(transactions_fts, rowid, description) "
+                    + "VALUES ('delete', old.transaction_id, old.description); "
+                    + "INSERT INTO transactions_fts(rowid, description) VALUES (new.transaction_id, new.description); END",
+            "INSERT INTO transactions_fts(transactions_fts) VALUES ('rebuild')"
+    };
+
+    private final TransactionRepository transactionRepository;
+    private final UserRepository userRepository;
+    private final EntityManager entityManager;
+
+    @Autowired
+    public TransactionSearchService(TransactionRepository transactionRepository, UserRepository userRepository,
+                                    EntityManager entityManager) {
+        this.transactionRepository = transactionRepository;
+        this.userRepository = userRepository;
+        this.entityManager = entityManager;
+    }
+
+    /**
+     * Creates the search index and its triggers if they are missing, and fills the index from
+     * the ledger in the same database transaction, so no write falls between the two.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void createIndexIfMissing() {
+        Number triggers = (Number) entityManager.createNativeQuery(
+                "SELECT count(*) FROM sqlite_master WHERE type = 'trigger' AND name LIKE 'transactions_fts_%'")
+                .getSingleResult();
+        if (triggers.intValue() == 3) {
+            return;
+        }
+        entityManager.createNativeQuery("DROP TRIGGER IF EXISTS transactions_fts_insert").executeUpdate();
+        entityManager.createNativeQuery("DROP TRIGGER IF EXISTS transactions_fts_delete").executeUpdate();
+        entityManager.createNativeQuery("DROP TRIGGER IF EXISTS transactions_fts_update").executeUpdate();
+        for (String statement : INDEX_DDL) {
+            entityManager.createNativeQuery(statement).executeUpdate();
+        }
+    }
+
+    /**
+     * Searches a user's transaction descriptions. Words match whole tokens, a word ending in *
+     * matches any token starting with it, and text in double quotes matches as a phrase; all
+     * terms must match. Case and accents are ignored.
+     * @param userId The ID of the user.
+     * @param query The search text, e.g. {@code groc* "whole foods"}.
+     * @param cursor The cursor returned with the previous page, or null for the first page.
+     * @param limit The maximum number of transactions to return, or null for the default page size.
+     * @return The requested page, best match first.
+     * @throws NoSuchElementException if the user is not found.
+     * @throws IllegalArgumentException if the query, cursor or limit is invalid.
+     */
+    @Transactional(readOnly = true)
+    public CursorPageDTO<TransactionResponseDTO> search(int userId, String query, String cursor, Integer limit) {
+        String match = toMatchExpression(query);
+        int offset = decodeOffset(cursor);
+        int pageSize = resolvePageSize(limit);
+        if (!userRepository.existsById(userId)) {
+            throw new NoSuchElementException("User not found with ID: " + userId);
+        }
+
+        List<Integer> ids = transactionRepository.searchIdsByUser(match, userId, pageSize + 1, offset);
+        boolean more = ids.size() > pageSize;
+        if (more) {
+            ids = ids.subList(0, pageSize);
+        }
+        if (ids.isEmpty()) {
+            return new CursorPageDTO<>(List.of(), null, pageSize);
+        }
+        Map<Integer, TransactionResponseDTO> rows = transactionRepository.findResponsesByIds(ids).stream()
+                .collect(Collectors.toMap(TransactionResponseDTO::getTransactionId, Function.identity()));
+        List<TransactionResponseDTO> items = new ArrayList<>(ids.size());
+        for (Integer id : ids) {
+            TransactionResponseDTO row = rows.get(id);
+            if (row != null) {
+                items.add(row);
+            }
+        }
+        return new CursorPageDTO<>(items, more ? encodeOffset(offset + pageSize) : null, pageSize);
+    }
+
+    /**
+     * Translates search text into an FTS5 match expression. Every term is quoted, so FTS5
+     * operators and column filters typed by the user are searched for as plain text.
+     * @param query The search text.
+     * @return The match expression.
+     * @throws IllegalArgumentException if the text is blank, too long or has no searchable term.
+     */
+    static String toMatchExpression(String query) {
+        if (query == null || query.isBlank()) {
+            throw new IllegalArgumentException("Search query must not be blank");
+        }
+        if (query.length() > MAX_QUERY_LENGTH) {
+            throw new IllegalArgumentException("Search query must be at most " + MAX_QUERY_LENGTH + " characters");
+        }
+        List<String> terms = new ArrayList<>();
+        int i = 0;
+        while (i < query.length()) {
+            char c = query.charAt(i);
+            if (Character.isWhitespace(c)) {
+                i++;
+            } else if (c == '"') {
+                // A phrase runs to the closing quote, or to the end of the text if there is none
+                int end = query.indexOf('"', i + 1);
+                if (end < 0) {
+                    end = query.length();
+                }
+                addTerm(terms, query.substring(i + 1, end), false);
+                i = end + 1;
+            } else {
+                int end = i;
+                while (end < query.length() && !Character.isWhitespace(query.charAt(end)) && query.charAt(end) != '"') {
+                    end++;
+                }
+                String word = query.substring(i, end);
+                boolean prefix = word.endsWith("*");
+                addTerm(terms, prefix ? word.replaceAll("\\*+$", "") : word, prefix);
+                i = end;
+            }
+        }
+        if (terms.isEmpty()) {
+            throw new IllegalArgumentException("Search query has no searchable terms: " + query);
+        }
+        return String.join(" ", terms);
+    }
+
+    // Adds a quoted term unless it holds no letters or digits, which the tokenizer would drop anyway
+    private static void addTerm(List<String> terms, String text, boolean prefix) {
+        if (text.codePoints().noneMatch(Character::isLetterOrDigit)) {
+            return;
+        }
+        terms.add("\"" + text + "\"" + (prefix ? "*" : ""));
+    }
+
+    private static int resolvePageSize(Integer limit) {
+        if (limit == null) {
+            return TransactionService.DEFAULT_PAGE_SIZE;
+        }
+        if (limit < 1) {
+            throw new IllegalArgumentException("Limit must be a positive integer");
+        }
+        return Math.min(limit, TransactionService.MAX_PAGE_SIZE);
+    }
+
+    private static String encodeOffset(int offset) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(("search:" + offset).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static int decodeOffset(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return 0;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            if (!raw.startsWith("search:")) {
+                throw new IllegalArgumentException("Invalid cursor: " + cursor);
+            }
+            int offset = Integer.parseInt(raw.substring("search:".length()));
+            if (offset < 0) {
+                throw new IllegalArgumentException("Invalid cursor: " + cursor);
+            }
+            return offset;
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor);
+        }
+    }
+}
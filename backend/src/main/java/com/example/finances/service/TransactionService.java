@@ -1,16 +1,33 @@
 package com.example.finances.service;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.example.finances.dto.CreateTransactionDTO;
+import com.example.finances.dto.CursorPageDTO;
+import com.example.finances.dto.TransactionCursor;
+import com.example.finances.dto.TransactionResponseDTO;
 import com.example.finances.model.Account;
 import com.example.finances.model.Category;
 import com.example.finances.model.Debt;
+import com.example.finances.model.Money;
 import com.example.finances.model.Transaction;
 import com.example.finances.model.User;
 import com.example.finances.repository.AccountRepository;
@@ -18,26 +35,51 @@ import com.example.finances.repository.CategoryRepository;
 import com.example.finances.repository.DebtRepository;
 import com.example.finances.repository.TransactionRepository;
 import com.example.finances.repository.UserRepository;
+import com.example.finances.rules.CategoryMatcher;
+import com.example.finances.service.UserDataChangedEvent.Change;
+
+import jakarta.persistence.EntityManager;
 
 @Service
 public class TransactionService {
+    public static final int DEFAULT_PAGE_SIZE = 50;
+    public static final int MAX_PAGE_SIZE = 500;
+
     private TransactionRepository transactionRepository;
     private AccountRepository accountRepository;
     private CategoryRepository categoryRepository;
     private UserRepository userRepository;
     private DebtRepository debtRepository;
+    private SpendingReportService spendingReportService;
+    private NetWorthService netWorthService;
+    private AccountService accountService;
+    private CategoryService categoryService;
+    private CategoryRuleService categoryRuleService;
+    private ApplicationEventPublisher eventPublisher;
+    private EntityManager entityManager;
+
+    // Rows flushed per JDBC batch during bulk inserts; kept in step with Hibernate's batch size.
+    private final int batchSize;
 
     @Autowired
-    public TransactionService(TransactionRepository transactionRepository, UserRepository userRepository, CategoryRepository categoryRepository, AccountRepository accountRepository, DebtRepository debtRepository) {
+    public TransactionService(TransactionRepository transactionRepository, UserRepository userRepository, CategoryRepository categoryRepository, AccountRepository accountRepository, DebtRepository debtRepository, SpendingReportService spendingReportService, NetWorthService netWorthService, AccountService accountService, CategoryService categoryService, CategoryRuleService categoryRuleService, ApplicationEventPublisher eventPublisher, EntityManager entityManager,
+                              @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:500}") int batchSize) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("spring.jpa.properties.hibernate.jdbc.batch_size must be at least 1");
+        }
         this.transactionRepository = transactionRepository;
         this.accountRepository = accountRepository;
         this.categoryRepository = categoryRepository;
         this.userRepository = userRepository;
         this.debtRepository = debtRepository;
-    }
-
-    public List<Transaction> findAllTransactions() {
-        return transactionRepository.findAll();
+        this.spendingReportService = spendingReportService;
+        this.netWorthService = netWorthService;
+        this.accountService = accountService;
+        this.categoryService = categoryService;
+        this.categoryRuleService = categoryRuleService;
+        this.eventPublisher = eventPublisher;
+        this.entityManager = entityManager;
+        this.batchSize = batchSize;
     }
 
     public Transaction findByTransactionID(int transactionID) {
@@ -45,81 +87,129 @@ public class TransactionService {
                 .orElseThrow(() -> new NoSuchElementException("No transactions found for ID: " + transactionID));
     }
 
-    public List<Transaction> findByAccountID(int accountId) {
+    /**
+     * Retrieves one page of all transactions, newest first.
+     * @param cursor The cursor returned with the previous page, or null for the first page.
+     * @param limit The maximum number of transactions to return, or null for the default page size.
+     * @return The requested page.
+     * @throws IllegalArgumentException if the cursor or limit is invalid.
+     */
+    @Transactional(readOnly = true)
+    public CursorPageDTO<TransactionResponseDTO> findAllTransactions(String cursor, Integer limit) {
+        TransactionCursor after = TransactionCursor.decode(cursor);
+        int pageSize = resolvePageSize(limit);
+        return toPage(transactionRepository.findPageAfter(after.getTransactionDate(), after.getTransactionId(),
+                Limit.of(pageSize + 1)), pageSize);
+    }
+
+    /**
+     * Retrieves one page of an account's transactions, newest first.
+     * @param accountId The ID of the account.
+     * @param cursor The cursor returned with the previous page, or null for the first page.
+     * @param limit The maximum number of transactions to return, or null for the default page size.
+     * @return The requested page.
+     * @throws NoSuchElementException if the account is not found.
+     * @throws IllegalArgumentException if the cursor or limit is invalid.
+     */
+    @Transactional(readOnly = true)
+    public CursorPageDTO<TransactionResponseDTO> findByAccountID(int accountId, String cursor, Integer limit) {
         Account account = accountRepository.findById(accountId)
                 .orElseThrow(() -> new NoSuchElementException("No account found with ID: " + accountId));
 
-        List<Transaction> transactions = transactionRepository.findByAccountId(account)
-                .orElseThrow(() -> new NoSuchElementException("No transactions found for account: " + account));
-
-        if (transactions.isEmpty()) {
-            throw new NoSuchElementException("No transactions found for account: " + accountId);
-        }
-        return transactions;
+        TransactionCursor after = TransactionCursor.decode(cursor);
+        int pageSize = resolvePageSize(limit);
+        return toPage(transactionRepository.findPageByAccountAfter(account, after.getTransactionDate(),
+                after.getTransactionId(), Limit.of(pageSize + 1)), pageSize);
     }
 
-    public List<Transaction> findByDebtID(int debtId) {
+    /**
+     * Retrieves one page of the transactions paying off a debt, newest first.
+     * @param debtId The ID of the debt.
+     * @param cursor The cursor returned with the previous page, or null for the first page.
+     * @param limit The maximum number of transactions to return, or null for the default page size.
+     * @return The requested page.
+     * @throws NoSuchElementException if the debt is not found.
+     * @throws IllegalArgumentException if the cursor or limit is invalid.
+     */
+    @Transactional(readOnly = true)
+    public CursorPageDTO<TransactionResponseDTO> findByDebtID(int debtId, String cursor, Integer limit) {
         Debt debt = debtRepository.findById(debtId)
                 .orElseThrow(() -> new NoSuchElementException("Debt not found with ID: " + debtId));
 
-        List<Transaction> transactions = transactionRepository.findByDebtId(debt)
-                .orElseThrow(() -> new NoSuchElementException("No transactions found for debt: " + debt));
-
-        if (transactions.isEmpty()) {
-            throw new NoSuchElementException("No transactions found for debt: " + debtId);
-        }
-        return transactions;
+        TransactionCursor after = TransactionCursor.decode(cursor);
+        int pageSize = resolvePageSize(limit);
+        return toPage(transactionRepository.findPageByDebtAfter(debt, after.getTransactionDate(),
+                after.getTransactionId(), Limit.of(pageSize + 1)), pageSize);
     }
 
-    public List<Transaction> findByUserID(int userId) {
+    /**
+     * Retrieves one page of a user's transactions, newest first.
+     * @param userId The ID of the user.
+     * @param cursor The cursor returned with the previous page, or null for the first page.
+     * @param limit The maximum number of transactions to return, or null for the default page size.
+     * @return The requested page.
+     * @throws NoSuchElementException if the user is not found.
+     * @throws IllegalArgumentException if the cursor or limit is invalid.
+     */
+    @Transactional(readOnly = true)
+    public CursorPageDTO<TransactionResponseDTO> findByUserID(int userId, String cursor, Integer limit) {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new NoSuchElementException("User not found with ID: " + userId));
 
-        List<Transaction> transactions = transactionRepository.findByUserId(user)
-                .orElse(null);
-
-        // Return an empty list if no transactions are found, instead of throwing an exception
-        if (transactions == null || transactions.isEmpty()) {
-            return List.of();
-        }
-        return transactions;
+        TransactionCursor after = TransactionCursor.decode(cursor);
+        int pageSize = resolvePageSize(limit);
+        return toPage(transactionRepository.findPageByUserAfter(user, after.getTransactionDate(),
+                after.getTransactionId(), Limit.of(pageSize + 1)), pageSize);
     }
 
-    public List<Transaction> findByCategoryId(int categoryId) {
-        // use int id to get Category id
+    /**
+     * Retrieves one page of a category's transactions, newest first.
+     * @param categoryId The ID of the category.
+     * @param cursor The cursor returned with the previous page, or null for the first page.
+     * @param limit The maximum number of transactions to return, or null for the default page size.
+     * @return The requested page.
+     * @throws NoSuchElementException if the category is not found.
+     * @throws IllegalArgumentException if the cursor or limit is invalid.
+     */
+    @Transactional(readOnly = true)
+    public CursorPageDTO<TransactionResponseDTO> findByCategoryId(int categoryId, String cursor, Integer limit) {
         Category category = categoryRepository.findById(categoryId)
                 .orElseThrow(() -> new NoSuchElementException("Category not found with ID: " + categoryId));
 
-        List<Transaction> transactions = transactionRepository.findByCategoryId(category)
-                .orElseThrow(() -> new NoSuchElementException("No transactions found for category: " + category));
-
-        if (transactions.isEmpty()) {
-            throw new NoSuchElementException("No transactions found for category: " + categoryId);
-        }
-        return transactions;
+        TransactionCursor after = TransactionCursor.decode(cursor);
+        int pageSize = resolvePageSize(limit);
+        return toPage(transactionRepository.findPageByCategoryAfter(category, after.getTransactionDate(),
+                after.getTransactionId(), Limit.of(pageSize + 1)), pageSize);
     }
 
-    public List<Transaction> findByTransactionDate(LocalDate transactionDate) {
-        List<Transaction> transactions = transactionRepository.findByTransactionDate(transactionDate)
-                .orElseThrow(() -> new NoSuchElementException("No transactions found for date: " + transactionDate));
+    @Transactional(readOnly = true)
+    public List<TransactionResponseDTO> findByTransactionDate(LocalDate transactionDate) {
+        List<TransactionResponseDTO> transactions = transactionRepository.findResponsesByTransactionDate(transactionDate);
         if (transactions.isEmpty()) {
             throw new NoSuchElementException("No transactions found for date: " + transactionDate);
         }
         return transactions;
     }
 
-    public List<Transaction> findByType(String type) {
-        List<Transaction> transactions = transactionRepository.findByType(type)
-                .orElseThrow(() -> new NoSuchElementException("No transactions found for type: " + type));
-        if (transactions.isEmpty()) {
-            throw new NoSuchElementException("No transactions found for type: " + type);
-        }
-        return transactions;
+    /**
+     * Retrieves one page of the transactions of one type, newest first.
+     * @param type The transaction type, e.g. "income" or "expense".
+     * @param cursor The cursor returned with the previous page, or null for the first page.
+     * @param limit The maximum number of transactions to return, or null for the default page size.
+     * @return The requested page.
+     * @throws IllegalArgumentException if the cursor or limit is invalid.
+     */
+    @Transactional(readOnly = true)
+    public CursorPageDTO<TransactionResponseDTO> findByType(String type, String cursor, Integer limit) {
+        TransactionCursor after = TransactionCursor.decode(cursor);
+        int pageSize = resolvePageSize(limit);
+        return toPage(transactionRepository.findPageByTypeAfter(type, after.getTransactionDate(),
+                after.getTransactionId(), Limit.of(pageSize + 1)), pageSize);
     }
 
-    public List<Transaction> findByRecurrence(String recurrence) {
-        List<Transaction> transactions = transactionRepository.findByRecurrence(recurrence)
-                .orElseThrow(() -> new NoSuchElementException("No transactions found for recurrence: " + recurrence));
+    @Transactional(readOnly = true)
+    public List<TransactionResponseDTO> findByRecurrence(String recurrence) {
+        List<TransactionResponseDTO> transactions = transactionRepository.findResponsesByRecurrence(recurrence);
         if (transactions.isEmpty()) {
             throw new NoSuchElementException("No transactions found for recurrence: " + recurrence);
         }
@@ -127,21 +217,129 @@ public class TransactionService {
     }
 
     /**
-     * Creates a new transaction.
+     * Creates a new transaction and applies it to its account's balance, balance history and monthly totals.
+     * Without a category ID the user's categorisation rules choose the category.
      * @param createTransactionDTO The DTO containing the transaction details.
      * @return The created Transaction object.
      * @throws NoSuchElementException if a related entity (Account, User, Category, or Debt) is not found.
      */
+    @Transactional
     public Transaction createTransaction(CreateTransactionDTO dto) {
-        // Find related entities by their IDs, throwing NoSuchElementException if not found.
+        // Find related entities by their IDs, throwing NoSuchElementException if not found. The user's
+        // accounts and the categories are cached, so these only reach the database on a cache miss.
+        List<Account> userAccounts = accountService.findAccountByUserId(dto.getUserId());
+        User user = userRepository.getReferenceById(dto.getUserId());
+
+        Account account = userAccounts.stream()
+                .filter(candidate -> candidate.getAccountId() == dto.getAccountId())
+                .findFirst()
+                .orElseGet(() -> accountRepository.findById(dto.getAccountId())
+                        .orElseThrow(() -> new NoSuchElementException("Account not found with ID: " + dto.getAccountId())));
+
+        Category category = categoryService.findCategoryById(dto.getCategoryId() != null ? dto.getCategoryId()
+                : categoryRuleService.categoryIdFor(categoryRuleService.matcherFor(dto.getUserId()),
+                        dto.getAccountId(), dto.getAmount(), dto.getDescription()));
+
+        Debt debt = null;
+        if (dto.getDebtId() != null) {
+            debt = debtRepository.findById(dto.getDebtId())
+                    .orElseThrow(() -> new NoSuchElementException("Debt not found with ID: " + dto.getDebtId()));
+        }
+
+        // Create the new transaction entity with the retrieved objects
+        Transaction transaction = buildTransaction(dto, user, account, category, debt);
+
+        // Save the new transaction and move the account balance by the same amount
+        Transaction saved = transactionRepository.save(transaction);
+        adjustBalance(account, saved.getSignedAmount());
+        spendingReportService.recordAdded(saved);
+        netWorthService.recordTransactionAdded(saved);
+        eventPublisher.publishEvent(new UserDataChangedEvent(user.getUserId(), Change.TRANSACTION_CREATED,
+                saved.getTransactionId(), saved.getSignedAmount()));
+        return saved;
+    }
+
+    /**
+     * Creates many transactions in a single database transaction.
+     * Related entities are loaded once per distinct ID rather than once per row, and the
+     * persistence context is flushed and cleared every batch so memory stays bounded.
+     * Account balances are updated once per account with the net amount of the batch, and monthly
+     * totals and balance history once per month, category and type or account and day of each
+     * flushed batch. Rows without a category ID are categorised by their user's rules.
+     * @param dtos The DTOs containing the transaction details.
+     * @return The IDs of the created transactions, in request order.
+     * @throws NoSuchElementException if a related entity (Account, User, Category, or Debt) is not found.
+     */
+    @Transactional
+    public List<Integer> createTransactions(List<CreateTransactionDTO> dtos) {
+        Map<Integer, User> users = findAllByIds(userRepository, dtos, CreateTransactionDTO::getUserId,
+                User::getUserId, "User");
+        Map<Integer, Account> accounts = findAllByIds(accountRepository, dtos, CreateTransactionDTO::getAccountId,
+                Account::getAccountId, "Account");
+        List<Integer> categoryIds = resolveCategoryIds(dtos);
+        Map<Integer, Category> categories = findAllByIds(categoryRepository, new HashSet<>(categoryIds),
+                Category::getCategoryId, "Category");
+        Map<Integer, Debt> debts = findAllByIds(debtRepository, dtos, CreateTransactionDTO::getDebtId,
+                Debt::getDebtId, "Debt");
+
+        List<Integer> transactionIds = new ArrayList<>(dtos.size());
+        List<Transaction> unrecorded = new ArrayList<>(Math.min(dtos.size(), batchSize));
+        Map<Integer, Long> balanceDeltas = new HashMap<>();
+        for (int i = 0; i < dtos.size(); i++) {
+            CreateTransactionDTO dto = dtos.get(i);
+            Transaction transaction = buildTransaction(dto, users.get(dto.getUserId()),
+                    accounts.get(dto.getAccountId()), categories.get(categoryIds.get(i)),
+                    dto.getDebtId() != null ? debts.get(dto.getDebtId()) : null);
+            transactionIds.add(transactionRepository.save(transaction).getTransactionId());
+            unrecorded.add(transaction);
+            balanceDeltas.merge(dto.getAccountId(), transaction.getSignedAmount().getCents(), Math::addExact);
+
+            if (transactionIds.size() % batchSize == 0) {
+                spendingReportService.recordAddedAll(unrecorded);
+                netWorthService.recordTransactionsAdded(unrecorded);
+                unrecorded.clear();
+                entityManager.flush();
+                entityManager.clear();
+            }
+        }
+        spendingReportService.recordAddedAll(unrecorded);
+        netWorthService.recordTransactionsAdded(unrecorded);
+        balanceDeltas.forEach((accountId, cents) -> adjustBalance(accounts.get(accountId), Money.ofCents(cents)));
+        users.keySet().forEach(userId -> eventPublisher.publishEvent(
+                new UserDataChangedEvent(userId, Change.TRANSACTIONS_CREATED, null, null)));
+        return transactionIds;
+    }
+
+    /**
+     * Updates an existing transaction. Its old amount is reversed from the old account's balance
+     * balance history and monthly totals, and the new amount applied to the new ones. Without a
+     * category ID the user's categorisation rules choose the category again.
+     * @param transactionId The ID of the transaction to update.
+     * @param dto The DTO containing the updated transaction details.
+     * @return The updated Transaction object.
+     * @throws NoSuchElementException if the transaction or a related entity (Account, User, Category, or Debt) is not found.
+     */
+    @Transactional
+    public Transaction updateTransaction(int transactionId, CreateTransactionDTO dto) {
+        Transaction existingTransaction = transactionRepository.findById(transactionId)
+                .orElseThrow(() -> new NoSuchElementException("Transaction not found with ID: " + transactionId));
+        Account previousAccount = existingTransaction.getAccountId();
+        int previousUserId = existingTransaction.getUserId().getUserId();
+        Money previousAmount = existingTransaction.getSignedAmount();
+        spendingReportService.recordRemoved(existingTransaction);
+        netWorthService.recordTransactionRemoved(existingTransaction);
+
         User user = userRepository.findById(dto.getUserId())
                 .orElseThrow(() -> new NoSuchElementException("User not found with ID: " + dto.getUserId()));
 
         Account account = accountRepository.findById(dto.getAccountId())
                 .orElseThrow(() -> new NoSuchElementException("Account not found with ID: " + dto.getAccountId()));
 
-        Category category = categoryRepository.findById(dto.getCategoryId())
-                .orElseThrow(() -> new NoSuchElementException("Category not found with ID: " + dto.getCategoryId()));
+        int categoryId = dto.getCategoryId() != null ? dto.getCategoryId()
+                : categoryRuleService.categoryIdFor(categoryRuleService.matcherFor(dto.getUserId()),
+                        dto.getAccountId(), dto.getAmount(), dto.getDescription());
+        Category category = categoryRepository.findById(categoryId)
+                .orElseThrow(() -> new NoSuchElementException("Category not found with ID: " + categoryId));
 
         Debt debt = null;
         if (dto.getDebtId() != null) {
@@ -149,7 +347,69 @@ public class TransactionService {
                     .orElseThrow(() -> new NoSuchElementException("Debt not found with ID: " + dto.getDebtId()));
         }
 
-        // Create the new transaction entity with the retrieved objects
+        existingTransaction.setAccountId(account);
+        existingTransaction.setUserId(user);
+        existingTransaction.setAmount(dto.getAmount());
+        existingTransaction.setDescription(dto.getDescription());
+        existingTransaction.setCategoryId(category);
+        existingTransaction.setDebtId(debt);
+        if (dto.getTransactionDate() != null) {
+            existingTransaction.setTransactionDate(dto.getTransactionDate());
+        }
+        existingTransaction.setType(dto.getType());
+        existingTransaction.setRecurrence(dto.getRecurrence());
+
+        Transaction saved = transactionRepository.save(existingTransaction);
+        if (previousAccount.getAccountId() == account.getAccountId()) {
+            adjustBalance(account, saved.getSignedAmount().minus(previousAmount));
+        } else {
+            adjustBalance(previousAccount, previousAmount.negate());
+            adjustBalance(account, saved.getSignedAmount());
+        }
+        spendingReportService.recordAdded(saved);
+        netWorthService.recordTransactionAdded(saved);
+        // Moving a transaction to another user removes it from the previous user's ledger
+        if (user.getUserId() != previousUserId) {
+            eventPublisher.publishEvent(new UserDataChangedEvent(previousUserId, Change.TRANSACTION_DELETED,
+                    transactionId, null));
+        }
+        eventPublisher.publishEvent(new UserDataChangedEvent(user.getUserId(), Change.TRANSACTION_UPDATED,
+                transactionId, saved.getSignedAmount()));
+        return saved;
+    }
+
+    /**
+     * Deletes a transaction by its ID and reverses it from its account's balance, balance history and
+     * monthly totals.
+     * @param transactionId The ID of the transaction to delete.
+     * @throws NoSuchElementException if the transaction is not found.
+     */
+    @Transactional
+    public void deleteTransaction(int transactionId) {
+        Transaction transaction = transactionRepository.findById(transactionId)
+                .orElseThrow(() -> new NoSuchElementException("Transaction not found with ID: " + transactionId));
+        adjustBalance(transaction.getAccountId(), transaction.getSignedAmount().negate());
+        spendingReportService.recordRemoved(transaction);
+        netWorthService.recordTransactionRemoved(transaction);
+        transactionRepository.delete(transaction);
+        eventPublisher.publishEvent(new UserDataChangedEvent(transaction.getUserId().getUserId(),
+                Change.TRANSACTION_DELETED, transactionId, null));
+    }
+
+    // Moves an account balance with a bulk update and tells its owner's listeners by how much
+    private void adjustBalance(Account account, Money delta) {
+        if (delta.isZero()) {
+            return;
+        }
+        accountRepository.adjustBalance(account.getAccountId(), delta);
+        if (account.getUserId() != null) {
+            eventPublisher.publishEvent(new UserDataChangedEvent(account.getUserId().getUserId(),
+                    Change.ACCOUNT_BALANCE_CHANGED, account.getAccountId(), delta));
+        }
+    }
+
+    private Transaction buildTransaction(CreateTransactionDTO dto, User user, Account account,
+                                         Category category, Debt debt) {
         Transaction transaction = new Transaction();
         transaction.setUserId(user);
         transaction.setAccountId(account);
@@ -159,45 +419,67 @@ public class TransactionService {
         transaction.setDescription(dto.getDescription());
         transaction.setType(dto.getType());
         transaction.setRecurrence(dto.getRecurrence());
-        transaction.setTransactionDate(LocalDate.now());
+        transaction.setTransactionDate(dto.getTransactionDate() != null ? dto.getTransactionDate() : LocalDate.now());
+        return transaction;
+    }
 
-        // Save and return the new transaction
-        return transactionRepository.save(transaction);
+    // The category ID of each DTO, in order; rules are compiled (or fetched from the cache) once per user
+    private List<Integer> resolveCategoryIds(List<CreateTransactionDTO> dtos) {
+        Map<Integer, CategoryMatcher> matchers = new HashMap<>();
+        List<Integer> categoryIds = new ArrayList<>(dtos.size());
+        for (CreateTransactionDTO dto : dtos) {
+            if (dto.getCategoryId() != null) {
+                categoryIds.add(dto.getCategoryId());
+                continue;
+            }
+            CategoryMatcher matcher = matchers.computeIfAbsent(dto.getUserId(), categoryRuleService::matcherFor);
+            categoryIds.add(categoryRuleService.categoryIdFor(matcher, dto.getAccountId(), dto.getAmount(),
+                    dto.getDescription()));
+        }
+        return categoryIds;
     }
 
-    /**
-     * Updates an existing transaction.
-     * @param transactionId The ID of the transaction to update.
-     * @param transactionDetails The updated details of the transaction.
-     * @return The updated Transaction object.
-     * @throws NoSuchElementException if the transaction is not found.
-     */
-    public Transaction updateTransaction(int transactionId, Transaction transactionDetails) {
-        Transaction existingTransaction = transactionRepository.findById(transactionId)
-                .orElseThrow(() -> new NoSuchElementException("Transaction not found with ID: " + transactionId));
+    // Loads every distinct non-null ID referenced by the DTOs with a single query per entity type.
+    private <T> Map<Integer, T> findAllByIds(JpaRepository<T, Integer> repository, List<CreateTransactionDTO> dtos,
+                                             Function<CreateTransactionDTO, Integer> idOfDto,
+                                             Function<T, Integer> idOfEntity, String entityName) {
+        Set<Integer> ids = dtos.stream()
+                .map(idOfDto)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        return findAllByIds(repository, ids, idOfEntity, entityName);
+    }
 
-        existingTransaction.setAccountId(transactionDetails.getAccountId());
-        existingTransaction.setUserId(transactionDetails.getUserId());
-        existingTransaction.setAmount(transactionDetails.getAmount());
-        existingTransaction.setDescription(transactionDetails.getDescription());
-        existingTransaction.setCategoryId(transactionDetails.getCategoryId());
-        existingTransaction.setDebtId(transactionDetails.getDebtId());
-        existingTransaction.setTransactionDate(transactionDetails.getTransactionDate());
-        existingTransaction.setType(transactionDetails.getType());
-        existingTransaction.setRecurrence(transactionDetails.getRecurrence());
+    private <T> Map<Integer, T> findAllByIds(JpaRepository<T, Integer> repository, Set<Integer> ids,
+                                             Function<T, Integer> idOfEntity, String entityName) {
+        Map<Integer, T> entities = repository.findAllById(ids).stream()
+                .collect(Collectors.toMap(idOfEntity, Function.identity()));
 
-        return transactionRepository.save(existingTransaction);
+        for (Integer id : ids) {
+            if (!entities.containsKey(id)) {
+                throw new NoSuchElementException(entityName + " not found with ID: " + id);
+            }
+        }
+        return entities;
     }
 
-    /**
-     * Deletes a transaction by its ID.
-     * @param transactionId The ID of the transaction to delete.
-     * @throws NoSuchElementException if the transaction is not found.
-     */
-    public void deleteTransaction(int transactionId) {
-        if (!transactionRepository.existsById(transactionId)) {
-            throw new NoSuchElementException("Transaction not found with ID: " + transactionId);
+    private int resolvePageSize(Integer limit) {
+        if (limit == null) {
+            return DEFAULT_PAGE_SIZE;
+        }
+        if (limit < 1) {
+            throw new IllegalArgumentException("Limit must be a positive integer");
+        }
+        return Math.min(limit, MAX_PAGE_SIZE);
+    }
+
+    // Queries fetch one row more than the page size so the last page can be detected without a count.
+    private CursorPageDTO<TransactionResponseDTO> toPage(List<TransactionResponseDTO> rows, int pageSize) {
+        if (rows.size() <= pageSize) {
+            return new CursorPageDTO<>(rows, null, pageSize);
         }
-        transactionRepository.deleteById(transactionId);
+        List<TransactionResponseDTO> items = rows.subList(0, pageSize);
+        String nextCursor = TransactionCursor.after(items.get(pageSize - 1)).encode();
+        return new CursorPageDTO<>(items, nextCursor, pageSize);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,49 @@
+package com.example.finances.service;
+
+import com.example.finances.model.Money;
+
+/**
+ * Published when a write changes a user's transactions, accounts, debts or categorisation rules, so that anything
+ * derived from them (e.g. cached forecasts) can be discarded and open event streams notified.
+ * A write may publish several events, e.g. a transaction and the balance change of its account.
+ * Listeners that must not see uncommitted data should use {@code @TransactionalEventListener}.
+ * @param userId The ID of the user whose data changed.
+ * @param change What changed.
+ * @param id The ID of the transaction, account, debt or rule that changed, or null for a batch of transactions.
+ * @param amount The signed amount of a created transaction, the change in an account balance, the
+ *               amount of a debt payment, or null.
+ */
+public record UserDataChangedEvent(int userId, Change change, Integer id, Money amount) {
+
+    /**
+     * The kinds of change, named as they appear in event streams.
+     */
+    public enum Change {
+        TRANSACTION_CREATED("transaction.created"),
+        TRANSACTION_UPDATED("transaction.updated"),
+        TRANSACTION_DELETED("transaction.deleted"),
+        // A batch, an import chunk or recurring occurrences
+        TRANSACTIONS_CREATED("transactions.created"),
+        ACCOUNT_CREATED("account.created"),
+        ACCOUNT_UPDATED("account.updated"),
+        ACCOUNT_DELETED("account.deleted"),
+        ACCOUNT_BALANCE_CHANGED("account.balance"),
+        DEBT_CREATED("debt.created"),
+        DEBT_UPDATED("debt.updated"),
+        DEBT_DELETED("debt.deleted"),
+        DEBT_PAYMENT("debt.payment"),
+        CATEGORY_RULE_CREATED("category-rule.created"),
+        CATEGORY_RULE_UPDATED("category-rule.updated"),
+        CATEGORY_RULE_DELETED("category-rule.deleted");
+
+        private final String eventName;
+
+        Change(String eventName) {
+            this.eventName = eventName;
+        }
+
+        public String getEventName() {
+            return eventName;
+        }
+    }
+}
@@ -0,0 +1,233 @@
+package com.example.finances.service;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter.SseEventBuilder;
+
+import com.example.finances.dto.ChangeEventDTO;
+import com.example.finances.repository.UserRepository;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Service class for per-user Server-Sent Event streams of ledger changes.
+ * Every committed write publishes one or more {@link UserDataChangedEvent}s; each is put into the
+ * buffer of every open stream of its user and the committing thread moves on. A stream's buffer
+ * is written to the client by a task on a separate pool, one task per stream at a time, so a slow
+ * or stalled client only ever delays itself. A full buffer drops its oldest event and the client
+ * is told how many it missed before the next event it does get.
+ * The pool has {@code finances.events.sender-threads} threads (virtual ones when
+ * {@code spring.threads.virtual.enabled}) and queues at most {@code finances.events.max-queued-streams}
+ * streams waiting for one. A stream that finds the queue full is ended, and its client reconnects.
+ */
+@Service
+public class UserEventStreamService {
+    static final String OVERFLOW_EVENT = "overflow";
+
+    private final UserRepository userRepository;
+    private final int bufferSize;
+
+    private final Map<Integer, Set<Subscriber>> subscribers = new ConcurrentHashMap<>();
+    // Sends block while a client's socket buffer is full, so they never run on a request or scheduler thread
+    private final ThreadPoolExecutor senders;
+
+    @Autowired
+    public UserEventStreamService(UserRepository userRepository,
+                                  @Value("${finances.events.buffer-size:256}") int bufferSize,
+                                  @Value("${finances.events.sender-threads:16}") int senderThreads,
+                                  @Value("${finances.events.max-queued-streams:1024}") int maxQueuedStreams,
+                                  @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        if (bufferSize < 1 || senderThreads < 1 || maxQueuedStreams < 1) {
+            throw new IllegalArgumentException(
+                    "finances.events.buffer-size, sender-threads and max-queued-streams must be at least 1");
+        }
+        this.userRepository = userRepository;
+        this.bufferSize = bufferSize;
+        ThreadFactory threads = virtualThreads
+                ? new VirtualThreadTaskExecutor("user-event-sender-").getVirtualThreadFactory()
+                : runnable -> {
+                    Thread thread = new Thread(runnable, "user-event-sender");
+                    thread.setDaemon(true);
+                    return thread;
+                };
+        // Rejects rather than queueing without limit when clients stop reading faster than events arrive
+        this.senders = new ThreadPoolExecutor(senderThreads, senderThreads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(maxQueuedStreams), threads);
+        this.senders.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * Opens an event stream of a user's ledger changes. The stream ends after the MVC async request
+     * timeout, when browsers reconnect on their own.
+     * @param userId The ID of the user.
+     * @return The emitter to return from the controller.
+     * @throws NoSuchElementException if the user is not found.
+     */
+    public SseEmitter subscribe(int userId) {
+        if (!userRepository.existsById(userId)) {
+            throw new NoSuchElementException("User not found with ID: " + userId);
+        }
+        SseEmitter emitter = new SseEmitter();
+        Subscriber subscriber = new Subscriber(emitter, bufferSize, senders);
+        subscribers.computeIfAbsent(userId, id -> ConcurrentHashMap.newKeySet()).add(subscriber);
+        Runnable unsubscribe = () -> unsubscribe(userId, subscriber);
+        emitter.onCompletion(unsubscribe);
+        emitter.onTimeout(unsubscribe);
+        emitter.onError(error -> unsubscribe.run());
+        return emitter;
+    }
+
+    /**
+     * Gets the number of open streams of a user.
+     * @param userId The ID of the user.
+     * @return The number of streams.
+     */
+    public int subscriberCount(int userId) {
+        Set<Subscriber> streams = subscribers.get(userId);
+        return streams != null ? streams.size() : 0;
+    }
+
+    /**
+     * Queues a change for every open stream of its user once the write has committed, so a client
+     * never hears of a change that was rolled back.
+     * @param event The write.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserDataChanged(UserDataChangedEvent event) {
+        Set<Subscriber> streams = subscribers.get(event.userId());
+        if (streams == null) {
+            return;
+        }
+        String type = event.change().getEventName();
+        ChangeEventDTO data = new ChangeEventDTO(type, event.id(), event.amount());
+        for (Subscriber subscriber : streams) {
+            subscriber.enqueue(SseEmitter.event().name(type).data(data));
+        }
+    }
+
+    /**
+     * Sends a comment on every open stream, so that proxies keep idle streams open and streams of
+     * clients that have gone away fail and are removed.
+     */
+    @Scheduled(fixedDelayString = "${finances.events.heartbeat-ms:30000}",
+            initialDelayString = "${finances.events.heartbeat-ms:30000}")
+    public void sendHeartbeats() {
+        subscribers.values().forEach(streams -> streams.forEach(
+                subscriber -> subscriber.enqueue(SseEmitter.event().comment("heartbeat"))));
+    }
+
+    /**
+     * Ends every open stream on shutdown.
+     */
+    @PreDestroy
+    public void close() {
+        senders.shutdownNow();
+        subscribers.values().forEach(streams -> streams.forEach(subscriber -> subscriber.emitter.complete()));
+        subscribers.clear();
+    }
+
+    private void unsubscribe(int userId, Subscriber subscriber) {
+        subscriber.close();
+        subscribers.computeIfPresent(userId, (id, streams) -> {
+            streams.remove(subscriber);
+            return streams.isEmpty() ? null : streams;
+        });
+    }
+
+    /**
+     * One open stream: a bounded buffer that drops its oldest event when full, drained to the
+     * client by at most one task at a time.
+     */
+    static final class Subscriber implements Runnable {
+        private final SseEmitter emitter;
+        private final int capacity;
+        private final Executor executor;
+
+        // Guarded by this
+        private final ArrayDeque<SseEventBuilder> buffer = new ArrayDeque<>();
+        private long dropped;
+        private boolean draining;
+        private boolean closed;
+
+        Subscriber(SseEmitter emitter, int capacity, Executor executor) {
+            this.emitter = emitter;
+            this.capacity = capacity;
+            this.executor = executor;
+        }
+
+        void enqueue(SseEventBuilder event) {
+            synchronized (this) {
+                if (closed) {
+                    return;
+                }
+                if (buffer.size() == capacity) {
+                    buffer.pollFirst();
+                    dropped++;
+                }
+                buffer.addLast(event);
+                if (draining) {
+                    return;
+                }
+                draining = true;
+            }
+            try {
+                executor.execute(this);
+            } catch (RejectedExecutionException e) {
+                // Every sender is busy and the queue is full, or shutting down; the client reconnects
+                close();
+                emitter.complete();
+            }
+        }
+
+        @Override
+        public void run() {
+            while (true) {
+                SseEventBuilder event;
+                long missed;
+                synchronized (this) {
+                    event = buffer.pollFirst();
+                    if (event == null || closed) {
+                        draining = false;
+                        return;
+                    }
+                    missed = dropped;
+                    dropped = 0;
+                }
+                try {
+                    if (missed > 0) {
+                        emitter.send(SseEmitter.event().name(OVERFLOW_EVENT).data(Map.of("dropped", missed)));
+                    }
+                    emitter.send(event);
+                } catch (IOException | IllegalStateException e) {
+                    // The client has gone away or the stream has ended
+                    close();
+                    emitter.completeWithError(e);
+                    return;
+                }
+            }
+        }
+
+        synchronized void close() {
+            closed = true;
+            buffer.clear();
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.finances.validation;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+import jakarta.validation.Constraint;
+import jakarta.validation.Payload;
+
+/**
+ * The annotated {@link com.example.finances.model.Money} must be less than or equal to the
+ * given decimal amount. Null values are valid; combine with {@code @NotNull} where required.
+ * This is the Money counterpart of {@code @DecimalMax}.
+ */
+@Documented
+@Constraint(validatedBy = MaxMoneyValidator.class)
+@Target({ElementType.FIELD, ElementType.PARAMETER})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface MaxMoney {
+    /**
+     * The inclusive upper bound, as a decimal string such as "1000000.00".
+     */
+    String value();
+
+    String message() default "must be less than or equal to {value}";
+
+    Class<?>[] groups() default {};
+
+    Class<? extends Payload>[] payload() default {};
+}
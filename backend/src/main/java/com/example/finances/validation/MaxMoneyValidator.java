@@ -0,0 +1,20 @@
+package com.example.finances.validation;
+
+import com.example.finances.model.Money;
+
+import jakarta.validation.ConstraintValidator;
+import jakarta.validation.ConstraintValidatorContext;
+
+public class MaxMoneyValidator implements ConstraintValidator<MaxMoney, Money> {
+    private Money maximum;
+
+    @Override
+    public void initialize(MaxMoney constraint) {
+        maximum = Money.parse(constraint.value());
+    }
+
+    @Override
+    public boolean isValid(Money value, ConstraintValidatorContext context) {
+        return value == null || value.compareTo(maximum) <= 0;
+    }
+}
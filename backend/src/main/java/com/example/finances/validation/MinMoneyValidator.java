@@ -0,0 +1,20 @@
+package com.example.finances.validation;
+
+import com.example.finances.model.Money;
+
+import jakarta.validation.ConstraintValidator;
+import jakarta.validation.ConstraintValidatorContext;
+
+public class MinMoneyValidator implements ConstraintValidator<MinMoney, Money> {
+    private Money minimum;
+
+    @Override
+    public void initialize(MinMoney constraint) {
+        minimum = Money.parse(constraint.value());
+    }
+
+    @Override
+    public boolean isValid(Money value, ConstraintValidatorContext context) {
+        return value == null || value.compareTo(minimum) >= 0;
+    }
+}
@@ -1,6 +1,12 @@
 -- SQLite schema for finances application
+-- Monetary columns hold whole cents (see Money / MoneyConverter).
 PRAGMA foreign_keys = ON;
 
+DROP TABLE IF EXISTS ingest_checkpoints;
+DROP TABLE IF EXISTS category_rules;
+DROP TABLE IF EXISTS debt_balance_snapshots;
+DROP TABLE IF EXISTS account_balance_snapshots;
+DROP TABLE IF EXISTS monthly_category_totals;
 DROP TABLE IF EXISTS transactions;
 DROP TABLE IF EXISTS user_accounts;
 DROP TABLE IF EXISTS categories;
@@ -18,7 +24,8 @@ CREATE TABLE accounts (
     account_id INTEGER PRIMARY KEY AUTOINCREMENT,
     user_id INTEGER NOT NULL,
     account_name TEXT NOT NULL,
-    account_balance REAL NOT NULL,
+    account_balance INTEGER NOT NULL,
+    version INTEGER NOT NULL DEFAULT 0,
     FOREIGN KEY (user_id) REFERENCES users(user_id) ON DELETE CASCADE
 );
 
@@ -33,9 +40,10 @@ CREATE TABLE debts (
     debt_id INTEGER PRIMARY KEY AUTOINCREMENT,
     user_id INTEGER NOT NULL,
     debt_name TEXT NOT NULL,
-    total_owed REAL NOT NULL,
-    amount_paid REAL NOT NULL,
-    monthly_payment REAL NOT NULL,
+    total_owed INTEGER NOT NULL,
+    amount_paid INTEGER NOT NULL,
+    monthly_payment INTEGER NOT NULL,
+    version INTEGER NOT NULL DEFAULT 0,
     FOREIGN KEY (user_id) REFERENCES users(user_id) ON DELETE CASCADE
 );
 
@@ -43,15 +51,88 @@ CREATE TABLE transactions (
     transaction_id INTEGER PRIMARY KEY AUTOINCREMENT,
     account_id INTEGER NOT NULL,
     user_id INTEGER NOT NULL,
-    amount REAL NOT NULL,
+    amount INTEGER NOT NULL,
     description TEXT NOT NULL,
     category_id INTEGER,
     debt_id INTEGER,
     transaction_date DATE NOT NULL,
     type TEXT NOT NULL CHECK (type IN ('income', 'expense')),
     recurrence TEXT CHECK (recurrence IN ('weekly', 'monthly', 'yearly') OR recurrence IS NULL),
+    generated_through DATE,
     FOREIGN KEY (user_id) REFERENCES users(user_id) ON DELETE CASCADE,
     FOREIGN KEY (account_id) REFERENCES accounts(account_id) ON DELETE CASCADE,
     FOREIGN KEY (category_id) REFERENCES categories(category_id) ON DELETE SET NULL,
     FOREIGN KEY (debt_id) REFERENCES debts(debt_id) ON DELETE SET NULL
-);
\ No newline at end of file
+);
+
+-- Rollup of transactions per user, month, category and type, maintained alongside every
+-- transaction write. Reports read only this table.
+CREATE TABLE monthly_category_totals (
+    monthly_category_total_id INTEGER PRIMARY KEY AUTOINCREMENT,
+    user_id INTEGER NOT NULL,
+    year_month TEXT NOT NULL,
+    category_id INTEGER NOT NULL,
+    type TEXT NOT NULL,
+    total_amount INTEGER NOT NULL,
+    transaction_count INTEGER NOT NULL
+);
+
+-- End-of-day balance of an account, one row per day on which it changed (see NetWorthService).
+CREATE TABLE account_balance_snapshots (
+    account_balance_snapshot_id INTEGER PRIMARY KEY AUTOINCREMENT,
+    account_id INTEGER NOT NULL,
+    user_id INTEGER NOT NULL,
+    snapshot_date DATE NOT NULL,
+    balance INTEGER NOT NULL
+);
+
+-- End-of-day total remaining debt of a user, one row per day on which it changed.
+CREATE TABLE debt_balance_snapshots (
+    debt_balance_snapshot_id INTEGER PRIMARY KEY AUTOINCREMENT,
+    user_id INTEGER NOT NULL,
+    snapshot_date DATE NOT NULL,
+    total_remaining INTEGER NOT NULL
+);
+
+-- Auto-categorisation rule of a user (see CategoryRuleService). Null conditions match anything.
+-- Rules are deleted with their category or account by the services.
+CREATE TABLE category_rules (
+    rule_id INTEGER PRIMARY KEY AUTOINCREMENT,
+    user_id INTEGER NOT NULL,
+    category_id INTEGER NOT NULL,
+    account_id INTEGER,
+    keyword TEXT,
+    pattern TEXT,
+    min_amount INTEGER,
+    max_amount INTEGER,
+    priority INTEGER NOT NULL
+);
+
+-- How far each write-behind ingest journal has been applied (see TransactionIngestService).
+CREATE TABLE ingest_checkpoints (
+    journal TEXT PRIMARY KEY,
+    epoch TEXT NOT NULL,
+    last_sequence INTEGER NOT NULL
+);
+
+-- Secondary indexes. Keep in sync with the @Table(indexes = ...) declarations on the entities;
+-- QueryPlanTest fails if a repository query falls back to a full table scan.
+CREATE INDEX idx_accounts_user ON accounts (user_id);
+CREATE INDEX idx_debts_user ON debts (user_id);
+CREATE INDEX idx_transactions_user_date ON transactions (user_id, transaction_date);
+CREATE INDEX idx_transactions_user_type_date ON transactions (user_id, type, transaction_date, category_id, amount);
+CREATE INDEX idx_transactions_account_date ON transactions (account_id, transaction_date);
+CREATE INDEX idx_transactions_category_date ON transactions (category_id, transaction_date);
+CREATE INDEX idx_transactions_debt_date ON transactions (debt_id, transaction_date);
+-- Not tied to a user: the unfiltered listing and the date, type and recurrence lookups
+-- (findPageAfter and findResponsesByTransactionDate, findPageByTypeAfter, findResponsesByRecurrence).
+CREATE INDEX idx_transactions_date ON transactions (transaction_date);
+CREATE INDEX idx_transactions_type_date ON transactions (type, transaction_date);
+CREATE INDEX idx_transactions_recurrence ON transactions (recurrence);
+CREATE INDEX idx_monthly_category_totals_key ON monthly_category_totals (user_id, year_month, category_id, type);
+CREATE INDEX idx_account_balance_snapshots_account_date ON account_balance_snapshots (account_id, snapshot_date);
+CREATE INDEX idx_account_balance_snapshots_user_date ON account_balance_snapshots (user_id, snapshot_date);
+CREATE INDEX idx_debt_balance_snapshots_user_date ON debt_balance_snapshots (user_id, snapshot_date);
+CREATE INDEX idx_category_rules_user_priority ON category_rules (user_id, priority);
+CREATE INDEX idx_category_rules_category ON category_rules (category_id);
+CREATE INDEX idx_category_rules_account ON category_rules (account_id);
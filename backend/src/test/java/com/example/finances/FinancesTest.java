@@ -0,0 +1,32 @@
+package com.example.finances;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+/**
+ * An integration test against the full application and a SQLite database, with MockMvc and
+ * {@link TestFixtures} available. Classes with no properties of their own share one context and
+ * the database in application-test.properties. A class that needs other properties adds
+ * {@code @TestPropertySource}, including a {@code spring.datasource.url} of its own, since its
+ * context is separate and two contexts must not write to one SQLite file.
+ * One instance serves every test in a class, so {@code @BeforeAll} methods can seed through it.
+ */
+@Documented
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@Import(TestFixtures.class)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public @interface FinancesTest {
+}
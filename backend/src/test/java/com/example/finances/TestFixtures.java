@@ -0,0 +1,75 @@
+package com.example.finances;
+
+import java.time.LocalDate;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.TestComponent;
+
+import com.example.finances.dto.CreateAccountDTO;
+import com.example.finances.dto.CreateDebtDTO;
+import com.example.finances.dto.CreateTransactionDTO;
+import com.example.finances.model.Account;
+import com.example.finances.model.Category;
+import com.example.finances.model.Debt;
+import com.example.finances.model.Money;
+import com.example.finances.model.User;
+import com.example.finances.repository.UserRepository;
+import com.example.finances.service.AccountService;
+import com.example.finances.service.CategoryService;
+import com.example.finances.service.DebtService;
+
+/**
+ * Creates the users, accounts, categories and debts tests seed, through the same services the API
+ * uses, so caches, balances and events see them as they would in production.
+ */
+@TestComponent
+public class TestFixtures {
+    private final UserRepository userRepository;
+    private final AccountService accountService;
+    private final CategoryService categoryService;
+    private final DebtService debtService;
+
+    @Autowired
+    public TestFixtures(UserRepository userRepository, AccountService accountService,
+                        CategoryService categoryService, DebtService debtService) {
+        this.userRepository = userRepository;
+        this.accountService = accountService;
+        this.categoryService = categoryService;
+        this.debtService = debtService;
+    }
+
+    public User user() {
+        return userRepository.save(new User());
+    }
+
+    public Account account(User user, String name, Money balance) {
+        return accountService.createAccount(new CreateAccountDTO(user.getUserId(), name, balance));
+    }
+
+    public Category category(String name) {
+        return categoryService.addCategory(new Category(name));
+    }
+
+    /**
+     * @return A debt with nothing paid yet.
+     */
+    public Debt debt(User user, String name, Money totalOwed, Money monthlyPayment) {
+        return debtService.addDebtFromDTO(new CreateDebtDTO(user.getUserId(), name, totalOwed, Money.ZERO, monthlyPayment));
+    }
+
+    /**
+     * @return An unsaved transaction of the account's user.
+     */
+    public CreateTransactionDTO transaction(Account account, Category category, String type, long cents,
+                                            String description, LocalDate date) {
+        CreateTransactionDTO dto = new CreateTransactionDTO();
+        dto.setUserId(account.getUserId().getUserId());
+        dto.setAccountId(account.getAccountId());
+        dto.setCategoryId(category.getCategoryId());
+        dto.setAmount(Money.ofCents(cents));
+        dto.setDescription(description);
+        dto.setType(type);
+        dto.setTransactionDate(date);
+        return dto;
+    }
+}
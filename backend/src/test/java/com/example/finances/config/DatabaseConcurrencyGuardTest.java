@@ -0,0 +1,72 @@
+package com.example.finances.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.Connection;
+import java.sql.SQLTransientConnectionException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.Test;
+import org.sqlite.SQLiteDataSource;
+
+/**
+ * Checks that {@link DatabaseConcurrencyGuard} hands out no more connections than it has permits,
+ * returns each permit once however often a connection is closed, and turns away requests once
+ * too many are waiting.
+ */
+class DatabaseConcurrencyGuardTest {
+
+    @Test
+    void waitsForAPermitAndReturnsItOnce() throws Exception {
+        DatabaseConcurrencyGuard guard = new DatabaseConcurrencyGuard(memory(), 2, 10, 100);
+        Connection first = guard.getConnection();
+        Connection second = guard.getConnection();
+        assertEquals(0, guard.availablePermits());
+
+        assertThrows(SQLTransientConnectionException.class, guard::getConnection);
+
+        first.close();
+        first.close();
+        assertEquals(1, guard.availablePermits());
+        guard.getConnection().close();
+        second.close();
+        assertEquals(2, guard.availablePermits());
+    }
+
+    @Test
+    void rejectsAtOnceWhenTooManyAreWaiting() throws Exception {
+        DatabaseConcurrencyGuard guard = new DatabaseConcurrencyGuard(memory(), 1, 1, 10_000);
+        Connection held = guard.getConnection();
+        AtomicReference<Thread> waiter = new AtomicReference<>();
+        CompletableFuture<Connection> waiting = CompletableFuture.supplyAsync(() -> {
+            waiter.set(Thread.currentThread());
+            try {
+                return guard.getConnection();
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        for (int attempt = 0; attempt < 100 && (waiter.get() == null
+                || waiter.get().getState() != Thread.State.TIMED_WAITING); attempt++) {
+            Thread.sleep(20);
+        }
+
+        long start = System.nanoTime();
+        assertThrows(SQLTransientConnectionException.class, guard::getConnection);
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 1_000, "rejection waited");
+
+        held.close();
+        waiting.get(5, TimeUnit.SECONDS).close();
+        assertEquals(1, guard.availablePermits());
+    }
+
+    private SQLiteDataSource memory() {
+        SQLiteDataSource dataSource = new SQLiteDataSource();
+        dataSource.setUrl("jdbc:sqlite::memory:");
+        return dataSource;
+    }
+}
@@ -0,0 +1,153 @@
+package com.example.finances.config;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import com.example.finances.dto.CreateTransactionDTO;
+import com.example.finances.model.Account;
+import com.example.finances.model.Category;
+import com.example.finances.model.Money;
+import com.example.finances.model.User;
+import com.example.finances.repository.AccountRepository;
+import com.example.finances.repository.CategoryRepository;
+import com.example.finances.repository.UserRepository;
+import com.example.finances.service.TransactionService;
+
+/**
+ * Measures throughput and latency percentiles of {@code GET /transactions/user/{id}} with 1,000
+ * concurrent clients, each sending its next request as soon as the last one is answered.
+ * Skipped unless {@code -Dbenchmark=true}. Run it once per threading mode and compare:
+ * <pre>
+ * mvn test -Dtest=RequestThreadingBenchmark -Dbenchmark=true
+ * mvn -Pjava21 test -Dtest=RequestThreadingBenchmark -Dbenchmark=true -Dspring.threads.virtual.enabled=true
+ * </pre>
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.datasource.url=jdbc:sqlite:target/request-threading-benchmark.db",
+        "spring.jpa.show-sql=false"
+})
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class RequestThreadingBenchmark {
+
+    private static final int CLIENTS = 1_000;
+    private static final int TRANSACTIONS = 2_000;
+    private static final Duration WARM_UP = Duration.ofSeconds(5);
+    private static final Duration MEASURE = Duration.ofSeconds(20);
+
+    @LocalServerPort
+    private int port;
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    private User user;
+
+    @BeforeAll
+    void seed() {
+        user = userRepository.save(new User());
+        Account account = accountRepository.save(new Account(user, "Chequing", Money.ZERO));
+        Category category = categoryRepository.save(new Category("Benchmark"));
+        List<CreateTransactionDTO> dtos = new ArrayList<>(TRANSACTIONS);
+        for (int i = 0; i < TRANSACTIONS; i++) {
+            CreateTransactionDTO dto = new CreateTransactionDTO();
+            dto.setUserId(user.getUserId());
+            dto.setAccountId(account.getAccountId());
+            dto.setCategoryId(category.getCategoryId());
+            dto.setAmount(Money.ofCents(1_000 + i));
+            dto.setDescription("Benchmark " + i);
+            dto.setType("expense");
+            dto.setTransactionDate(LocalDate.of(2024, 1, 1).plusDays(i % 365));
+            dtos.add(dto);
+        }
+        transactionService.createTransactions(dtos);
+    }
+
+    @Test
+    void listUserTransactionsUnderLoad() throws Exception {
+        HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        HttpRequest request = HttpRequest.newBuilder(
+                URI.create("http://localhost:" + port + "/transactions/user/" + user.getUserId() + "?limit=50"))
+                .timeout(Duration.ofSeconds(60))
+                .build();
+
+        run(client, request, WARM_UP, new ConcurrentLinkedQueue<>(), new AtomicLong());
+        ConcurrentLinkedQueue<Long> latencies = new ConcurrentLinkedQueue<>();
+        AtomicLong errors = new AtomicLong();
+        run(client, request, MEASURE, latencies, errors);
+
+        long[] sorted = latencies.stream().mapToLong(Long::longValue).sorted().toArray();
+        System.out.printf("%s threads, %d clients: %.0f requests/s, p50 %.1f ms, p99 %.1f ms, max %.1f ms, %d errors%n",
+                virtualThreads ? "Virtual" : "Platform", CLIENTS, sorted.length * 1000.0 / MEASURE.toMillis(),
+                percentile(sorted, 50), percentile(sorted, 99), percentile(sorted, 100), errors.get());
+        assertTrue(sorted.length > 0, "no requests completed");
+    }
+
+    // Runs every client in a closed loop until the deadline and waits for the last responses
+    private void run(HttpClient client, HttpRequest request, Duration duration,
+                     ConcurrentLinkedQueue<Long> latencies, AtomicLong errors) {
+        long deadline = System.nanoTime() + duration.toNanos();
+        CompletableFuture<?>[] clients = new CompletableFuture<?>[CLIENTS];
+        Arrays.setAll(clients, i -> loop(client, request, deadline, latencies, errors));
+        CompletableFuture.allOf(clients).join();
+    }
+
+    private CompletableFuture<Void> loop(HttpClient client, HttpRequest request, long deadline,
+                                         ConcurrentLinkedQueue<Long> latencies, AtomicLong errors) {
+        if (System.nanoTime() >= deadline) {
+            return CompletableFuture.completedFuture(null);
+        }
+        long start = System.nanoTime();
+        return client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                .handle((response, failure) -> {
+                    if (failure == null && response.statusCode() == 200) {
+                        latencies.add(System.nanoTime() - start);
+                    } else {
+                        errors.incrementAndGet();
+                    }
+                    return null;
+                })
+                .thenCompose(ignored -> loop(client, request, deadline, latencies, errors));
+    }
+
+    private double percentile(long[] sortedNanos, int percentile) {
+        if (sortedNanos.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(percentile / 100.0 * sortedNanos.length) - 1;
+        return sortedNanos[Math.max(index, 0)] / 1_000_000.0;
+    }
+}
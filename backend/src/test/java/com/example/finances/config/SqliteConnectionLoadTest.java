@@ -0,0 +1,230 @@
+package com.example.finances.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessException;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.finances.FinancesTest;
+import com.example.finances.TestFixtures;
+import com.example.finances.dto.CreateTransactionDTO;
+import com.example.finances.model.Account;
+import com.example.finances.model.Category;
+import com.example.finances.model.Money;
+import com.example.finances.model.User;
+import com.example.finances.repository.AccountRepository;
+import com.example.finances.repository.CategoryRepository;
+import com.example.finances.service.TransactionService;
+
+/**
+ * Exercises the SQLite connection strategy from {@link SqliteDataSourceConfig}:
+ * read-only transactions must keep being served while the single writer connection is busy.
+ */
+@FinancesTest
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:sqlite:target/sqlite-load-test.db",
+        "finances.datasource.reader-pool-size=4"
+})
+class SqliteConnectionLoadTest {
+
+    private static final int READER_THREADS = 4;
+    private static final long LOAD_MILLIS = 3_000;
+    private static final int WRITE_BATCH = 50;
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(READER_THREADS + 1);
+
+    private User user;
+    private Account account;
+    private Category category;
+
+    @BeforeAll
+    void seed() {
+        user = fixtures.user();
+        account = fixtures.account(user, "Chequing", Money.ZERO);
+        category = fixtures.category("Load");
+        transactionService.createTransactions(batch(500));
+    }
+
+    @AfterAll
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void databaseRunsInWalMode() throws Exception {
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet result = statement.executeQuery("PRAGMA journal_mode")) {
+            result.next();
+            assertEquals("wal", result.getString(1));
+        }
+    }
+
+    @Test
+    void readOnlyTransactionsCannotWrite() {
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+
+        assertThrows(DataAccessException.class, () -> readOnly.executeWithoutResult(
+                status -> accountRepository.adjustBalance(account.getAccountId(), Money.ofCents(1))));
+    }
+
+    @Test
+    void requestCanWriteAfterReadOnlyTransaction() throws Exception {
+        Category scratch = fixtures.category("Scratch");
+
+        // The delete checks existence in a read-only transaction, then deletes in a read-write one
+        mockMvc.perform(delete("/categories/" + scratch.getCategoryId()))
+                .andExpect(status().isNoContent());
+        assertFalse(categoryRepository.existsById(scratch.getCategoryId()));
+    }
+
+    @Test
+    void readsCompleteWhileWriteTransactionIsOpen() throws Exception {
+        int committedRows = countUserTransactions();
+        CountDownLatch written = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        // Holds the writer connection, with an uncommitted row, until released
+        Future<?> writer = executor.submit(() -> new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            transactionService.createTransaction(batch(1).get(0));
+            written.countDown();
+            try {
+                release.await(30, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }));
+        try {
+            assertTrue(written.await(10, TimeUnit.SECONDS), "writer did not start");
+
+            Future<Integer> read = executor.submit(this::countUserTransactions);
+            // Readers see the last committed snapshot instead of waiting for the writer
+            assertEquals(committedRows, read.get(5, TimeUnit.SECONDS));
+        } finally {
+            release.countDown();
+        }
+        writer.get(10, TimeUnit.SECONDS);
+        assertEquals(committedRows + 1, countUserTransactions());
+    }
+
+    @Test
+    void concurrentReadThroughputDuringWrites() throws Exception {
+        AtomicBoolean running = new AtomicBoolean(true);
+        AtomicLong reads = new AtomicLong();
+        AtomicLong writes = new AtomicLong();
+        Queue<Throwable> errors = new ConcurrentLinkedQueue<>();
+
+        List<Future<?>> workers = new ArrayList<>();
+        workers.add(executor.submit(() -> {
+            while (running.get()) {
+                try {
+                    transactionService.createTransactions(batch(WRITE_BATCH));
+                    writes.addAndGet(WRITE_BATCH);
+                } catch (RuntimeException e) {
+                    errors.add(e);
+                }
+            }
+        }));
+        for (int i = 0; i < READER_THREADS; i++) {
+            workers.add(executor.submit(() -> {
+                while (running.get()) {
+                    try {
+                        transactionService.findByUserID(user.getUserId(), null, 100);
+                        reads.incrementAndGet();
+                    } catch (RuntimeException e) {
+                        errors.add(e);
+                    }
+                }
+            }));
+        }
+
+        Thread.sleep(LOAD_MILLIS);
+        running.set(false);
+        for (Future<?> worker : workers) {
+            worker.get(30, TimeUnit.SECONDS);
+        }
+
+        assertTrue(errors.isEmpty(), () -> "errors under load: " + errors);
+        assertTrue(writes.get() > 0, "no writes completed");
+        assertTrue(reads.get() > READER_THREADS, "reads stalled behind the writer");
+    }
+
+    private int countUserTransactions() {
+        int rows = 0;
+        String cursor = null;
+        do {
+            var page = transactionService.findByUserID(user.getUserId(), cursor, 500);
+            rows += page.getItems().size();
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+        return rows;
+    }
+
+    private List<CreateTransactionDTO> batch(int size) {
+        List<CreateTransactionDTO> dtos = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            CreateTransactionDTO dto = new CreateTransactionDTO();
+            dto.setUserId(user.getUserId());
+            dto.setAccountId(account.getAccountId());
+            dto.setCategoryId(category.getCategoryId());
+            dto.setAmount(Money.ofCents(1_000 + i));
+            dto.setDescription("Load " + i);
+            dto.setType("expense");
+            dto.setTransactionDate(LocalDate.of(2024, 1, 1).plusDays(i % 365));
+            dtos.add(dto);
+        }
+        return dtos;
+    }
+}
@@ -0,0 +1,139 @@
+package com.example.finances.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.time.LocalDate;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.example.finances.FinancesTest;
+import com.example.finances.TestFixtures;
+import com.example.finances.dto.CreateTransactionDTO;
+import com.example.finances.model.Account;
+import com.example.finances.model.Category;
+import com.example.finances.model.Debt;
+import com.example.finances.model.Money;
+import com.example.finances.model.User;
+import com.example.finances.service.DebtService;
+import com.example.finances.service.TransactionService;
+
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Checks that the list endpoints answer a matching If-None-Match with 304 Not Modified without
+ * querying the database, and that every write to the listed data changes the ETag.
+ */
+@FinancesTest
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:sqlite:target/conditional-get-test.db",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+class ConditionalGetTest {
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private DebtService debtService;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    private User user;
+    private User otherUser;
+    private Account account;
+    private Category category;
+    private Debt debt;
+
+    @BeforeAll
+    void seed() {
+        user = fixtures.user();
+        otherUser = fixtures.user();
+        account = fixtures.account(user, "Chequing", Money.ZERO);
+        category = fixtures.category("Conditional");
+        debt = fixtures.debt(user, "Card", Money.ofCents(100_000), Money.ofCents(5_000));
+        transactionService.createTransaction(transaction(2_500));
+    }
+
+    @Test
+    void matchingETagIsNotModifiedWithoutQueries() throws Exception {
+        String uri = "/transactions/user/" + user.getUserId() + "?limit=10";
+        String eTag = fetchETag(uri);
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        mockMvc.perform(get(uri).header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+        assertEquals(0, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void transactionWriteChangesOnlyItsUsersETag() throws Exception {
+        String transactions = "/transactions/user/" + user.getUserId();
+        String otherDebts = "/debts/user/" + otherUser.getUserId();
+        String before = fetchETag(transactions);
+        String accountsBefore = fetchETag("/accounts");
+        String otherBefore = fetchETag(otherDebts);
+
+        transactionService.createTransaction(transaction(1_000));
+
+        mockMvc.perform(get(transactions).header(HttpHeaders.IF_NONE_MATCH, before)).andExpect(status().isOk());
+        assertNotEquals(before, fetchETag(transactions));
+        assertNotEquals(accountsBefore, fetchETag("/accounts"));
+        mockMvc.perform(get(otherDebts).header(HttpHeaders.IF_NONE_MATCH, otherBefore)).andExpect(status().isNotModified());
+    }
+
+    @Test
+    void debtAndCategoryWritesChangeTheirETags() throws Exception {
+        String debts = "/debts/user/" + user.getUserId();
+        String debtsBefore = fetchETag(debts);
+        debtService.makePayment(debt.getDebtId(), Money.ofCents(1_000));
+        mockMvc.perform(get(debts).header(HttpHeaders.IF_NONE_MATCH, debtsBefore)).andExpect(status().isOk());
+
+        String categoriesBefore = fetchETag("/categories");
+        mockMvc.perform(get("/categories").header(HttpHeaders.IF_NONE_MATCH, categoriesBefore))
+                .andExpect(status().isNotModified());
+        fixtures.category("Added later");
+        mockMvc.perform(get("/categories").header(HttpHeaders.IF_NONE_MATCH, categoriesBefore))
+                .andExpect(status().isOk());
+    }
+
+    private String fetchETag(String uri) throws Exception {
+        String eTag = mockMvc.perform(get(uri))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotNull(eTag, "no ETag on " + uri);
+        return eTag;
+    }
+
+    private CreateTransactionDTO transaction(long cents) {
+        CreateTransactionDTO dto = new CreateTransactionDTO();
+        dto.setUserId(user.getUserId());
+        dto.setAccountId(account.getAccountId());
+        dto.setCategoryId(category.getCategoryId());
+        dto.setAmount(Money.ofCents(cents));
+        dto.setDescription("Conditional GET");
+        dto.setType("expense");
+        dto.setTransactionDate(LocalDate.now());
+        return dto;
+    }
+}
@@ -0,0 +1,161 @@
+package com.example.finances.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import com.example.finances.FinancesTest;
+import com.example.finances.TestFixtures;
+import com.example.finances.dto.CreateTransactionDTO;
+import com.example.finances.model.Account;
+import com.example.finances.model.Category;
+import com.example.finances.model.Debt;
+import com.example.finances.model.Money;
+import com.example.finances.model.User;
+import com.example.finances.service.AccountService;
+import com.example.finances.service.DebtService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Checks that retries sent with the same Idempotency-Key get the first response without writing
+ * again, also when they arrive while the first request is running, and that a key cannot be
+ * reused for a different request.
+ */
+@FinancesTest
+class IdempotencyKeyTest {
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private DebtService debtService;
+
+    private User user;
+    private Category category;
+
+    @BeforeAll
+    void seed() {
+        user = fixtures.user();
+        category = fixtures.category("Retried");
+    }
+
+    @Test
+    void retriedTransactionIsCreatedOnce() throws Exception {
+        Account account = fixtures.account(user, "Retries", Money.ZERO);
+        String body = objectMapper.writeValueAsString(transaction(account, 1_234));
+
+        MockHttpServletResponse first = postTransaction(body, "txn-1")
+                .andExpect(status().isCreated())
+                .andReturn().getResponse();
+        MockHttpServletResponse retry = postTransaction(body, "txn-1")
+                .andExpect(status().isCreated())
+                .andExpect(header().string(IdempotencyStore.REPLAYED_HEADER, "true"))
+                .andReturn().getResponse();
+        assertEquals(objectMapper.readTree(first.getContentAsString()), objectMapper.readTree(retry.getContentAsString()));
+        assertEquals(Money.ofCents(-1_234), accountService.findAccountById(account.getAccountId()).getAccountBalance());
+
+        // The same key with another body is refused; another key or no key writes again
+        postTransaction(objectMapper.writeValueAsString(transaction(account, 999)), "txn-1")
+                .andExpect(status().isUnprocessableEntity());
+        postTransaction(body, "txn-2").andExpect(status().isCreated());
+        mockMvc.perform(post("/transactions").contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isCreated())
+                .andExpect(header().doesNotExist(IdempotencyStore.REPLAYED_HEADER));
+        assertEquals(Money.ofCents(-3 * 1_234), accountService.findAccountById(account.getAccountId()).getAccountBalance());
+
+        postTransaction(body, " ").andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void concurrentRetriesApplyAPaymentOnce() throws Exception {
+        Debt debt = fixtures.debt(user, "Loan", Money.ofCents(100_000), Money.ofCents(5_000));
+        String body = "{\"paymentAmount\": 250.00}";
+        int retries = 16;
+        ExecutorService clients = Executors.newFixedThreadPool(retries);
+        List<Future<MockHttpServletResponse>> responses = new ArrayList<>();
+        for (int i = 0; i < retries; i++) {
+            responses.add(clients.submit(() -> postPayment(debt, body, "payment-1")));
+        }
+        Set<String> bodies = new HashSet<>();
+        int replayed = 0;
+        for (Future<MockHttpServletResponse> future : responses) {
+            MockHttpServletResponse response = future.get();
+            assertEquals(200, response.getStatus());
+            bodies.add(objectMapper.readTree(response.getContentAsString()).get("amountPaid").asText());
+            if (response.getHeader(IdempotencyStore.REPLAYED_HEADER) != null) {
+                replayed++;
+            }
+        }
+        clients.shutdown();
+
+        assertEquals(Set.of("250.0"), bodies);
+        assertEquals(retries - 1, replayed);
+        assertEquals(Money.ofCents(25_000), debtService.findDebtById(debt.getDebtId()).getAmountPaid());
+    }
+
+    @Test
+    void rejectedPaymentIsReplayedWithItsMessage() throws Exception {
+        Debt debt = fixtures.debt(user, "Small loan", Money.ofCents(10_000), Money.ofCents(1_000));
+        String tooMuch = "{\"paymentAmount\": 500.00}";
+        MockHttpServletResponse first = postPayment(debt, tooMuch, "payment-2");
+        MockHttpServletResponse retry = postPayment(debt, tooMuch, "payment-2");
+        assertEquals(400, first.getStatus());
+        assertEquals(400, retry.getStatus());
+        assertEquals(first.getContentAsString(), retry.getContentAsString());
+        assertEquals("true", retry.getHeader(IdempotencyStore.REPLAYED_HEADER));
+
+        // Keys are scoped to the endpoint, so the same key on another debt is a new payment
+        Debt other = fixtures.debt(user, "Other loan", Money.ofCents(100_000), Money.ofCents(1_000));
+        assertEquals(200, postPayment(other, tooMuch, "payment-2").getStatus());
+    }
+
+    private ResultActions postTransaction(String body, String key) throws Exception {
+        return mockMvc.perform(post("/transactions").contentType(MediaType.APPLICATION_JSON)
+                .header(IdempotencyStore.HEADER, key).content(body));
+    }
+
+    private MockHttpServletResponse postPayment(Debt debt, String body, String key) throws Exception {
+        return mockMvc.perform(post("/debts/" + debt.getDebtId() + "/payment").contentType(MediaType.APPLICATION_JSON)
+                .header(IdempotencyStore.HEADER, key).content(body))
+                .andReturn().getResponse();
+    }
+
+    private CreateTransactionDTO transaction(Account account, long cents) {
+        CreateTransactionDTO dto = new CreateTransactionDTO();
+        dto.setUserId(user.getUserId());
+        dto.setAccountId(account.getAccountId());
+        dto.setCategoryId(category.getCategoryId());
+        dto.setAmount(Money.ofCents(cents));
+        dto.setDescription("Retried purchase");
+        dto.setType("expense");
+        dto.setTransactionDate(LocalDate.of(2024, 5, 1));
+        return dto;
+    }
+}
@@ -0,0 +1,158 @@
+package com.example.finances.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import com.example.finances.FinancesTest;
+import com.example.finances.TestFixtures;
+import com.example.finances.dto.TransactionResponseDTO;
+import com.example.finances.model.Account;
+import com.example.finances.model.Category;
+import com.example.finances.model.Money;
+import com.example.finances.model.User;
+import com.example.finances.service.AccountService;
+import com.example.finances.service.TransactionService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Checks that a statement import writes every well-formed row, moves the account balance by their
+ * net amount and streams a progress event per committed chunk, an error event per skipped row and
+ * a final complete event, and that a failed import reports how many rows were committed but not why.
+ */
+@FinancesTest
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:sqlite:target/statement-import-test.db",
+        "spring.jpa.properties.hibernate.jdbc.batch_size=2"
+})
+class StatementImportTest {
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    private User user;
+    private Category category;
+
+    @BeforeAll
+    void seed() {
+        user = fixtures.user();
+        category = fixtures.category("Imported");
+    }
+
+    @Test
+    void importsRowsAndStreamsProgress() throws Exception {
+        Account account = fixtures.account(user, "Statement", Money.ofCents(10_000));
+        String csv = """
+                Date,Description,Amount
+                2024-04-01,Salary,"1,000.00"
+                2024-04-02,Groceries,-82.15
+                2024-04-03,Broken row,not a number
+                2024-04-04,Rent,(600.00)
+                2024-04-05,"Refund, partial",12.50
+                """;
+
+        List<JsonNode> events = importStatement(account, "csv", csv);
+
+        assertEquals(List.of("progress", "error", "progress", "complete"),
+                events.stream().map(event -> event.get("event").asText()).toList());
+        assertEquals(4, events.get(1).get("lineNumber").asLong());
+        assertProgress(events.get(0), 2, 2, 0);
+        assertProgress(events.get(2), 5, 4, 1);
+        assertProgress(events.get(3), 5, 4, 1);
+
+        List<TransactionResponseDTO> rows = transactionService.findByAccountID(account.getAccountId(), null, 500).getItems();
+        assertEquals(4, rows.size());
+        assertEquals(Money.ofCents(10_000 + 100_000 - 8_215 - 60_000 + 1_250),
+                accountService.findAccountById(account.getAccountId()).getAccountBalance());
+    }
+
+    @Test
+    void ofxStatementsImportTheSameWay() throws Exception {
+        Account account = fixtures.account(user, "OFX", Money.ZERO);
+        String ofx = """
+                <OFX><BANKTRANLIST>
+                <STMTTRN><DTPOSTED>20240401<TRNAMT>-20.00<NAME>Fuel</STMTTRN>
+                <STMTTRN><DTPOSTED>20240402<TRNAMT>5.25<NAME>Cashback</STMTTRN>
+                <STMTTRN><DTPOSTED>20240403<TRNAMT>-1.00<MEMO>Fee</STMTTRN>
+                </BANKTRANLIST></OFX>
+                """;
+
+        List<JsonNode> events = importStatement(account, "ofx", ofx);
+
+        assertEquals(List.of("progress", "complete"), events.stream().map(event -> event.get("event").asText()).toList());
+        assertProgress(events.get(1), 3, 3, 0);
+        assertEquals(3, transactionService.findByAccountID(account.getAccountId(), null, 500).getItems().size());
+        assertEquals(Money.ofCents(-1_575), accountService.findAccountById(account.getAccountId()).getAccountBalance());
+    }
+
+    @Test
+    void failureReportsOnlyHowFarTheImportGot() throws Exception {
+        Account account = fixtures.account(user, "Truncated", Money.ZERO);
+        // Cut off inside a tag after the first chunk is committed
+        String ofx = """
+                <OFX><BANKTRANLIST>
+                <STMTTRN><DTPOSTED>20240401<TRNAMT>-1.00<NAME>One</STMTTRN>
+                <STMTTRN><DTPOSTED>20240402<TRNAMT>-2.00<NAME>Two</STMTTRN>
+                <STMTTRN><DTPOSTED>20240403<TRN""";
+
+        List<JsonNode> events = importStatement(account, "ofx", ofx);
+
+        assertEquals(List.of("progress", "failed"), events.stream().map(event -> event.get("event").asText()).toList());
+        assertEquals(2, events.get(1).get("imported").asLong());
+        assertEquals("Import failed after 2 rows", events.get(1).get("message").asText());
+        assertEquals(Money.ofCents(-300), accountService.findAccountById(account.getAccountId()).getAccountBalance());
+    }
+
+    private List<JsonNode> importStatement(Account account, String format, String statement) throws Exception {
+        MvcResult started = mockMvc.perform(post("/transactions/import")
+                        .param("userId", String.valueOf(user.getUserId()))
+                        .param("accountId", String.valueOf(account.getAccountId()))
+                        .param("categoryId", String.valueOf(category.getCategoryId()))
+                        .param("format", format)
+                        .contentType(MediaType.TEXT_PLAIN)
+                        .content(statement))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        String body = mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        List<JsonNode> events = new ArrayList<>();
+        for (String line : body.split("\n")) {
+            events.add(objectMapper.readTree(line));
+        }
+        return events;
+    }
+
+    private static void assertProgress(JsonNode event, long rowsRead, long imported, long failed) {
+        assertEquals(rowsRead, event.get("rowsRead").asLong());
+        assertEquals(imported, event.get("imported").asLong());
+        assertEquals(failed, event.get("failed").asLong());
+    }
+}
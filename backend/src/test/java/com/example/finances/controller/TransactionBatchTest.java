@@ -0,0 +1,122 @@
+package com.example.finances.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.example.finances.FinancesTest;
+import com.example.finances.TestFixtures;
+import com.example.finances.dto.CreateTransactionDTO;
+import com.example.finances.model.Account;
+import com.example.finances.model.Category;
+import com.example.finances.model.Money;
+import com.example.finances.model.User;
+import com.example.finances.service.AccountService;
+import com.example.finances.service.TransactionService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Checks that POST /transactions/batch returns the created IDs in request order across several
+ * flushed batches, moves each account's balance by the net amount of its rows, and refuses a batch
+ * referencing an unknown entity with 400 without writing any of it.
+ */
+@FinancesTest
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:sqlite:target/transaction-batch-test.db",
+        "spring.jpa.properties.hibernate.jdbc.batch_size=2"
+})
+class TransactionBatchTest {
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    private User user;
+    private Category category;
+
+    @BeforeAll
+    void seed() {
+        user = fixtures.user();
+        category = fixtures.category("Batched");
+    }
+
+    @Test
+    void idsAreReturnedInRequestOrderAndBalancesMoveByTheirNet() throws Exception {
+        Account checking = fixtures.account(user, "Checking", Money.ofCents(10_000));
+        Account card = fixtures.account(user, "Card", Money.ZERO);
+        // Interleaved accounts, more rows than one flushed batch
+        List<CreateTransactionDTO> batch = List.of(
+                transaction(checking.getAccountId(), "Row 0", "expense", 1_250),
+                transaction(card.getAccountId(), "Row 1", "expense", 400),
+                transaction(checking.getAccountId(), "Row 2", "income", 5_000),
+                transaction(card.getAccountId(), "Row 3", "income", 150),
+                transaction(checking.getAccountId(), "Row 4", "expense", 99));
+
+        String response = mockMvc.perform(post("/transactions/batch").contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(batch)))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+
+        List<Integer> ids = new ArrayList<>();
+        for (JsonNode id : objectMapper.readTree(response).get("transactionIds")) {
+            ids.add(id.asInt());
+        }
+        assertEquals(batch.size(), ids.size());
+        for (int i = 0; i < ids.size(); i++) {
+            assertEquals("Row " + i, transactionService.findByTransactionID(ids.get(i)).getDescription());
+        }
+        assertEquals(Money.ofCents(10_000 - 1_250 + 5_000 - 99), accountService.findAccountById(checking.getAccountId()).getAccountBalance());
+        assertEquals(Money.ofCents(-400 + 150), accountService.findAccountById(card.getAccountId()).getAccountBalance());
+    }
+
+    @Test
+    void unknownReferenceIsABadRequest() throws Exception {
+        Account account = fixtures.account(user, "Untouched", Money.ofCents(2_000));
+        List<CreateTransactionDTO> batch = List.of(
+                transaction(account.getAccountId(), "Valid", "expense", 500),
+                transaction(999_999, "Nowhere", "expense", 500));
+
+        mockMvc.perform(post("/transactions/batch").contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(batch)))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string(""));
+
+        assertEquals(Money.ofCents(2_000), accountService.findAccountById(account.getAccountId()).getAccountBalance());
+    }
+
+    private CreateTransactionDTO transaction(int accountId, String description, String type, long cents) {
+        CreateTransactionDTO dto = new CreateTransactionDTO();
+        dto.setUserId(user.getUserId());
+        dto.setAccountId(accountId);
+        dto.setCategoryId(category.getCategoryId());
+        dto.setAmount(Money.ofCents(cents));
+        dto.setDescription(description);
+        dto.setType(type);
+        dto.setTransactionDate(LocalDate.now());
+        return dto;
+    }
+}
@@ -0,0 +1,179 @@
+package com.example.finances.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.hibernate.Hibernate;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.finances.FinancesTest;
+import com.example.finances.TestFixtures;
+import com.example.finances.dto.CreateTransactionDTO;
+import com.example.finances.model.Account;
+import com.example.finances.model.Category;
+import com.example.finances.model.Debt;
+import com.example.finances.model.Money;
+import com.example.finances.model.Transaction;
+import com.example.finances.model.User;
+import com.example.finances.repository.TransactionRepository;
+import com.example.finances.service.TransactionService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Checks that a ledger export streams a user's transactions oldest first as NDJSON or CSV, with
+ * CSV fields quoted where they hold commas, quotes or line breaks, and is offered as a download.
+ */
+@FinancesTest
+class TransactionExportTest {
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private User user;
+    private Account account;
+    private Category category;
+    private Debt debt;
+    // In export order
+    private final List<Transaction> ledger = new ArrayList<>();
+
+    @BeforeAll
+    void seed() {
+        user = fixtures.user();
+        account = fixtures.account(user, "Main, chequing", Money.ZERO);
+        category = fixtures.category("Exported");
+        debt = fixtures.debt(user, "Car loan", Money.ofCents(500_000), Money.ofCents(20_000));
+
+        Transaction salary = create("Salary", "income", 100_000, LocalDate.of(2024, 1, 5), null);
+        Transaction lunch = create("Lunch, \"the usual\"", "expense", 1_250, LocalDate.of(2024, 1, 3), null);
+        Transaction payment = create("Loan payment\nJanuary", "expense", 20_000, LocalDate.of(2024, 1, 7), debt);
+        ledger.addAll(List.of(lunch, salary, payment));
+
+        // Another user's transactions are never exported
+        User other = fixtures.user();
+        Account otherAccount = fixtures.account(other, "Other", Money.ZERO);
+        CreateTransactionDTO dto = dto("Not mine", "expense", 100, LocalDate.of(2024, 1, 4), null);
+        dto.setUserId(other.getUserId());
+        dto.setAccountId(otherAccount.getAccountId());
+        transactionService.createTransaction(dto);
+    }
+
+    @Test
+    void streamsTheUsersTransactionsOldestFirst() {
+        List<Integer> ids = transactionTemplate.execute(status -> {
+            try (Stream<Transaction> rows = transactionRepository.streamByUserId(user)) {
+                return rows.peek(row -> {
+                    // Fetched with the row, so writing it does not query again
+                    assertTrue(Hibernate.isInitialized(row.getAccountId()));
+                    assertTrue(Hibernate.isInitialized(row.getCategoryId()));
+                }).map(Transaction::getTransactionId).toList();
+            }
+        });
+        assertEquals(ledger.stream().map(Transaction::getTransactionId).toList(), ids);
+    }
+
+    @Test
+    void exportsNdjson() throws Exception {
+        MvcResult result = export("").andReturn();
+        assertEquals("application/x-ndjson", result.getResponse().getContentType());
+        assertEquals("attachment; filename=\"transactions-user-" + user.getUserId() + ".ndjson\"",
+                result.getResponse().getHeader(HttpHeaders.CONTENT_DISPOSITION));
+
+        String[] lines = result.getResponse().getContentAsString().split("\n");
+        assertEquals(ledger.size(), lines.length);
+        for (int i = 0; i < lines.length; i++) {
+            JsonNode row = objectMapper.readTree(lines[i]);
+            Transaction expected = ledger.get(i);
+            assertEquals(expected.getTransactionId(), row.get("transactionId").asInt());
+            assertEquals(expected.getDescription(), row.get("description").asText());
+            assertEquals(expected.getAmount(), Money.of(row.get("amount").decimalValue()));
+            assertEquals(expected.getTransactionDate().toString(), row.get("transactionDate").asText());
+            assertEquals("Main, chequing", row.get("accountName").asText());
+        }
+        assertEquals("Car loan", objectMapper.readTree(lines[2]).get("debtName").asText());
+    }
+
+    @Test
+    void exportsCsvWithQuotedFields() throws Exception {
+        int accountId = account.getAccountId();
+        int categoryId = category.getCategoryId();
+        String expected = "id,date,type,amount,description,account_id,account_name,"
+                + "category_id,category_name,debt_id,debt_name,recurrence\n"
+                + ledger.get(0).getTransactionId() + ",2024-01-03,expense,12.50,\"Lunch, \"\"the usual\"\"\","
+                + accountId + ",\"Main, chequing\"," + categoryId + ",Exported,,,\n"
+                + ledger.get(1).getTransactionId() + ",2024-01-05,income,1000.00,Salary,"
+                + accountId + ",\"Main, chequing\"," + categoryId + ",Exported,,,\n"
+                + ledger.get(2).getTransactionId() + ",2024-01-07,expense,200.00,\"Loan payment\nJanuary\","
+                + accountId + ",\"Main, chequing\"," + categoryId + ",Exported," + debt.getDebtId() + ",Car loan,\n";
+
+        export("?format=csv")
+                .andExpect(content().contentType("text/csv"))
+                .andExpect(header().string(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"transactions-user-" + user.getUserId() + ".csv\""))
+                .andExpect(content().string(expected));
+    }
+
+    @Test
+    void rejectsUnknownUsersAndFormats() throws Exception {
+        mockMvc.perform(get("/transactions/user/999999/export")).andExpect(status().isNotFound());
+        mockMvc.perform(get("/transactions/user/" + user.getUserId() + "/export?format=xlsx"))
+                .andExpect(status().isBadRequest());
+    }
+
+    private ResultActions export(String query) throws Exception {
+        MvcResult started = mockMvc.perform(get("/transactions/user/" + user.getUserId() + "/export" + query))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        return mockMvc.perform(asyncDispatch(started)).andExpect(status().isOk());
+    }
+
+    private Transaction create(String description, String type, long cents, LocalDate date, Debt debt) {
+        return transactionService.createTransaction(dto(description, type, cents, date, debt));
+    }
+
+    private CreateTransactionDTO dto(String description, String type, long cents, LocalDate date, Debt debt) {
+        CreateTransactionDTO dto = new CreateTransactionDTO();
+        dto.setUserId(user.getUserId());
+        dto.setAccountId(account.getAccountId());
+        dto.setCategoryId(category.getCategoryId());
+        dto.setDebtId(debt != null ? debt.getDebtId() : null);
+        dto.setAmount(Money.ofCents(cents));
+        dto.setDescription(description);
+        dto.setType(type);
+        dto.setTransactionDate(date);
+        return dto;
+    }
+}
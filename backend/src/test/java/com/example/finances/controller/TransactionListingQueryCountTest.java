@@ -0,0 +1,152 @@
+package com.example.finances.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultMatcher;
+
+import com.example.finances.FinancesTest;
+import com.example.finances.TestFixtures;
+import com.example.finances.dto.CreateTransactionDTO;
+import com.example.finances.model.Account;
+import com.example.finances.model.Category;
+import com.example.finances.model.Debt;
+import com.example.finances.model.Money;
+import com.example.finances.model.User;
+import com.example.finances.repository.DebtRepository;
+import com.example.finances.service.TransactionService;
+
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Checks that the transaction listing endpoints issue a fixed number of SQL statements
+ * however many rows they return, i.e. that related entities are not lazily loaded per row.
+ */
+@FinancesTest
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:sqlite:target/listing-query-count-test.db",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+class TransactionListingQueryCountTest {
+
+    private static final int LARGE_LISTING = 1_000;
+    private static final int SMALL_LISTING = 10;
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private DebtRepository debtRepository;
+
+    private User largeUser;
+    private User smallUser;
+    private Debt largeDebt;
+    private Debt smallDebt;
+
+    @BeforeAll
+    void seed() {
+        largeUser = fixtures.user();
+        smallUser = fixtures.user();
+
+        // Many distinct accounts, categories and debts, so per-row lazy loading would show up as extra queries
+        List<Category> categories = new ArrayList<>();
+        for (int i = 0; i < 25; i++) {
+            categories.add(fixtures.category("Category " + i));
+        }
+        largeDebt = seedTransactions(largeUser, LARGE_LISTING, categories);
+        smallDebt = seedTransactions(smallUser, SMALL_LISTING, categories);
+    }
+
+    @Test
+    void userListingIssuesConstantNumberOfQueries() throws Exception {
+        long small = countStatements("/transactions/user/" + smallUser.getUserId() + "?limit=500", SMALL_LISTING);
+        long firstPage = countStatements("/transactions/user/" + largeUser.getUserId() + "?limit=500", 500);
+
+        assertEquals(small, firstPage);
+        assertEquals(2, firstPage, "expected one lookup for the user and one query for the page");
+    }
+
+    @Test
+    void debtListingIssuesConstantNumberOfQueries() throws Exception {
+        long small = countStatements("/transactions/debt/" + smallDebt.getDebtId() + "?limit=500", SMALL_LISTING / 2);
+        long large = countStatements("/transactions/debt/" + largeDebt.getDebtId() + "?limit=500", LARGE_LISTING / 2);
+
+        assertEquals(small, large);
+        assertEquals(2, large, "expected one lookup for the debt and one query for the page");
+    }
+
+    @Test
+    void typeListingIssuesSingleQuery() throws Exception {
+        long statements = countStatements("/transactions/type/expense?limit=500", 500);
+
+        assertEquals(1, statements, "expected one query for the page");
+    }
+
+    // Performs the request and returns the number of JDBC statements Hibernate prepared for it
+    private long countStatements(String uri, int expectedRows) throws Exception {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        ResultMatcher rowCount = uri.contains("?")
+                ? jsonPath("$.items.length()").value(expectedRows)
+                : jsonPath("$.length()").value(expectedRows);
+        mockMvc.perform(get(uri))
+                .andExpect(status().isOk())
+                .andExpect(rowCount);
+
+        return statistics.getPrepareStatementCount();
+    }
+
+    // Spreads the user's transactions over distinct accounts and a debt that every other row pays into
+    private Debt seedTransactions(User user, int count, List<Category> categories) {
+        List<Account> accounts = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            accounts.add(fixtures.account(user, "Account " + i, Money.ZERO));
+        }
+
+        Debt debt = new Debt();
+        debt.setUserId(user);
+        debt.setDebtName("Loan");
+        debt.setTotalOwed(Money.ofCents(100_000));
+        debt.setMonthlyPayment(Money.ofCents(5_000));
+        debt = debtRepository.save(debt);
+
+        List<CreateTransactionDTO> dtos = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            CreateTransactionDTO dto = new CreateTransactionDTO();
+            dto.setUserId(user.getUserId());
+            dto.setAccountId(accounts.get(i % accounts.size()).getAccountId());
+            dto.setCategoryId(categories.get(i % categories.size()).getCategoryId());
+            dto.setDebtId(i % 2 == 0 ? debt.getDebtId() : null);
+            dto.setAmount(Money.ofCents(1_000 + i));
+            dto.setDescription("Transaction " + i);
+            dto.setType("expense");
+            dto.setTransactionDate(LocalDate.of(2024, 1, 1).plusDays(i % 365));
+            dtos.add(dto);
+        }
+        transactionService.createTransactions(dtos);
+        return debt;
+    }
+}
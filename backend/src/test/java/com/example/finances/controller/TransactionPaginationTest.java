@@ -0,0 +1,183 @@
+package com.example.finances.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import com.example.finances.FinancesTest;
+import com.example.finances.TestFixtures;
+import com.example.finances.dto.CreateTransactionDTO;
+import com.example.finances.model.Account;
+import com.example.finances.model.Category;
+import com.example.finances.model.Debt;
+import com.example.finances.model.Money;
+import com.example.finances.model.User;
+import com.example.finances.service.TransactionService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Checks that following nextCursor through a keyset-paginated listing returns every row once, in
+ * (transaction_date DESC, transaction_id DESC) order, including rows that share a date across a
+ * page boundary, and that malformed cursors and limits below 1 are refused while larger limits
+ * are clamped.
+ */
+@FinancesTest
+class TransactionPaginationTest {
+
+    // Later than any other class writes, so these rows lead the type listing shared by all users
+    private static final LocalDate LATEST = LocalDate.of(2999, 1, 31);
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    private Account account;
+    private Account debtAccount;
+    private Category category;
+    private Debt debt;
+    private List<Integer> accountIds;
+    private List<Integer> debtIds;
+
+    @BeforeAll
+    void seed() {
+        User user = fixtures.user();
+        account = fixtures.account(user, "Paged", Money.ZERO);
+        debtAccount = fixtures.account(user, "Paged payments", Money.ZERO);
+        category = fixtures.category("Paged");
+        debt = fixtures.debt(user, "Paged loan", Money.ofCents(1_000_000), Money.ofCents(10_000));
+
+        // Five rows on one day, so every page boundary falls between rows with equal dates
+        List<CreateTransactionDTO> rows = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            rows.add(transaction(account, "income", LATEST, null));
+        }
+        rows.add(transaction(account, "income", LATEST.minusDays(1), null));
+        accountIds = newestFirst(transactionService.createTransactions(rows));
+
+        debtIds = newestFirst(transactionService.createTransactions(List.of(
+                transaction(debtAccount, "expense", LATEST.minusDays(3), debt),
+                transaction(debtAccount, "expense", LATEST.minusDays(2), debt),
+                transaction(debtAccount, "expense", LATEST.minusDays(2), debt))));
+    }
+
+    @Test
+    void equalDatesAreSplitAcrossPagesByTransactionId() throws Exception {
+        assertEquals(accountIds, readAllPages("/transactions/account/" + account.getAccountId(), 2));
+    }
+
+    @Test
+    void debtListingFollowsItsCursor() throws Exception {
+        assertEquals(debtIds, readAllPages("/transactions/debt/" + debt.getDebtId(), 2));
+    }
+
+    @Test
+    void typeListingFollowsItsCursor() throws Exception {
+        // The first rows of the income listing are this class's, newest first
+        List<Integer> ids = new ArrayList<>();
+        String cursor = null;
+        while (ids.size() < accountIds.size()) {
+            JsonNode page = page(get("/transactions/type/income"), cursor, 4);
+            page.get("items").forEach(item -> ids.add(item.get("transactionId").asInt()));
+            cursor = page.get("nextCursor").asText();
+        }
+        assertEquals(accountIds, ids.subList(0, accountIds.size()));
+    }
+
+    @Test
+    void malformedOrTamperedCursorIsABadRequest() throws Exception {
+        String url = "/transactions/account/" + account.getAccountId();
+        for (String cursor : List.of("not a cursor!", encode(LATEST + ":last"), encode(LATEST.toString()),
+                encode("2999-13-01:1"))) {
+            mockMvc.perform(get(url).param("cursor", cursor))
+                    .andExpect(status().isBadRequest());
+        }
+        mockMvc.perform(get("/transactions/debt/" + debt.getDebtId()).param("cursor", "%%%"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/transactions/type/income").param("cursor", encode("yesterday:1")))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void limitBelowOneIsRejectedAndAboveTheMaximumIsClamped() throws Exception {
+        String url = "/transactions/account/" + account.getAccountId();
+        for (String limit : List.of("0", "-1")) {
+            mockMvc.perform(get(url).param("limit", limit))
+                    .andExpect(status().isBadRequest());
+        }
+
+        JsonNode page = page(get(url), null, TransactionService.MAX_PAGE_SIZE + 1);
+
+        assertEquals(TransactionService.MAX_PAGE_SIZE, page.get("limit").asInt());
+        assertEquals(accountIds.size(), page.get("items").size());
+        assertFalse(page.get("hasMore").asBoolean());
+    }
+
+    // Follows nextCursor until the last page, checking that only the last page has no cursor
+    private List<Integer> readAllPages(String url, int limit) throws Exception {
+        List<Integer> ids = new ArrayList<>();
+        String cursor = null;
+        do {
+            JsonNode page = page(get(url), cursor, limit);
+            assertTrue(page.get("items").size() <= limit);
+            page.get("items").forEach(item -> ids.add(item.get("transactionId").asInt()));
+            cursor = page.hasNonNull("nextCursor") ? page.get("nextCursor").asText() : null;
+            assertEquals(cursor != null, page.get("hasMore").asBoolean());
+        } while (cursor != null);
+        return ids;
+    }
+
+    private JsonNode page(MockHttpServletRequestBuilder request, String cursor, int limit) throws Exception {
+        if (cursor != null) {
+            request.param("cursor", cursor);
+        }
+        String body = mockMvc.perform(request.param("limit", String.valueOf(limit)))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(body);
+    }
+
+    private CreateTransactionDTO transaction(Account to, String type, LocalDate date, Debt paidOff) {
+        CreateTransactionDTO dto = fixtures.transaction(to, category, type, 1_000, type + " " + date, date);
+        if (paidOff != null) {
+            dto.setDebtId(paidOff.getDebtId());
+        }
+        return dto;
+    }
+
+    // The listing order of the created rows, whose IDs grow in creation order
+    private List<Integer> newestFirst(List<Integer> ids) {
+        List<Integer> sorted = new ArrayList<>(ids);
+        sorted.sort(Comparator.comparing((Integer id) -> transactionService.findByTransactionID(id).getTransactionDate())
+                .thenComparing(id -> id)
+                .reversed());
+        return sorted;
+    }
+
+    private static String encode(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
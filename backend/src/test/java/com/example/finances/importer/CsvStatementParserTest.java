@@ -0,0 +1,129 @@
+package com.example.finances.importer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.time.LocalDate;
+
+import org.junit.jupiter.api.Test;
+
+import com.example.finances.model.Money;
+
+/**
+ * Checks RFC 4180 quoting across commas and line breaks, the amount and header formats banks
+ * export, and that a malformed row is reported with its line number without stopping the parse.
+ */
+class CsvStatementParserTest {
+
+    @Test
+    void quotedFieldsMayContainCommasQuotesAndLineBreaks() throws IOException {
+        StatementParser parser = parser("""
+                Date,Description,Amount\r
+                2024-03-01,"Coffee, croissant",-4.50\r
+                2024-03-02,"Refund for ""broken"" kettle",25.00\r
+                2024-03-03,"Rent
+                March",-1200\r
+                2024-03-04,Plain,1\r
+                """);
+
+        assertEquals("Coffee, croissant", parser.next().getDescription());
+        assertEquals("Refund for \"broken\" kettle", parser.next().getDescription());
+        StatementRow rent = parser.next();
+        assertEquals("Rent\nMarch", rent.getDescription());
+        assertEquals(4, rent.getLineNumber());
+        // The row after a multi-line field is numbered from the line it starts on
+        assertEquals(6, parser.next().getLineNumber());
+        assertNull(parser.next());
+    }
+
+    @Test
+    void amountsMayBeSignedOrParenthesised() throws IOException {
+        StatementParser parser = parser("""
+                Date,Description,Amount
+                2024-03-01,Signed,-12.50
+                2024-03-01,Parenthesised,"(1,234.56)"
+                2024-03-01,Currency,"$1,000.00"
+                2024-03-01,Positive,+7
+                """);
+
+        StatementRow signed = parser.next();
+        assertEquals(Money.ofCents(-1_250), signed.getAmount());
+        assertEquals("expense", signed.getType());
+        assertEquals(Money.ofCents(-123_456), parser.next().getAmount());
+        StatementRow currency = parser.next();
+        assertEquals(Money.ofCents(100_000), currency.getAmount());
+        assertEquals("income", currency.getType());
+        assertEquals(Money.ofCents(700), parser.next().getAmount());
+        assertNull(parser.next());
+    }
+
+    @Test
+    void recognisesHeaderVariants() throws IOException {
+        // Byte order mark, other column names and order, separate debit and credit columns
+        StatementParser parser = parser("""
+                \uFEFFTransaction Date,Reference,Details,Withdrawals,Deposits,Type
+                2024/03/01,A1,Salary,,"2,500.00",Credit
+                20240302,A2,Groceries,(84.10),,
+                2024-03-03,A3,Correction,5,5,expense
+                """);
+
+        StatementRow salary = parser.next();
+        assertEquals(LocalDate.of(2024, 3, 1), salary.getDate());
+        assertEquals("Salary", salary.getDescription());
+        assertEquals(Money.ofCents(250_000), salary.getAmount());
+        assertEquals("income", salary.getType());
+        // A debit is an outflow whether or not the bank writes it as negative
+        StatementRow groceries = parser.next();
+        assertEquals(LocalDate.of(2024, 3, 2), groceries.getDate());
+        assertEquals(Money.ofCents(-8_410), groceries.getAmount());
+        assertEquals("expense", groceries.getType());
+        StatementRow correction = parser.next();
+        assertTrue(correction.getAmount().isZero());
+        assertEquals("expense", correction.getType());
+
+        IOException missing = assertThrows(IOException.class, () -> parser("Date,Description\n2024-03-01,No amount\n").next());
+        assertTrue(missing.getMessage().contains("amount"), missing.getMessage());
+        assertThrows(IOException.class, () -> parser("Date,Description,Debit\n").next());
+        assertNull(parser("").next());
+    }
+
+    @Test
+    void malformedRowsAreReportedAndSkipped() throws IOException {
+        StatementParser parser = parser("""
+                Date,Description,Amount,Type
+                2024-02-30,Bad date,1,
+                2024-03-01,Bad amount,12.3.4,
+                2024-03-01,,1,
+                2024-03-01,Too short
+                2024-03-01,Bad type,1,transfer
+
+                2024-03-02,Good,1,
+                """);
+
+        assertRowError(parser, 2, "Invalid date");
+        assertRowError(parser, 3, "Invalid amount");
+        assertRowError(parser, 4, "Description is empty");
+        assertRowError(parser, 5, "Expected at least");
+        assertRowError(parser, 6, "Unknown type");
+        // Blank lines are skipped rather than reported
+        StatementRow good = parser.next();
+        assertEquals("Good", good.getDescription());
+        assertEquals(8, good.getLineNumber());
+        assertNull(parser.next());
+    }
+
+    private static void assertRowError(StatementParser parser, long lineNumber, String message) {
+        StatementParseException e = assertThrows(StatementParseException.class, parser::next);
+        assertEquals(lineNumber, e.getLineNumber());
+        assertTrue(e.getMessage().startsWith(message), e.getMessage());
+    }
+
+    private static StatementParser parser(String csv) {
+        return new CsvStatementParser(new BufferedReader(new StringReader(csv)));
+    }
+}
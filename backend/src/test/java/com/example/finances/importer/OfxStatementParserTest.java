@@ -0,0 +1,140 @@
+package com.example.finances.importer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.time.LocalDate;
+
+import org.junit.jupiter.api.Test;
+
+import com.example.finances.model.Money;
+
+/**
+ * Checks that OFX 1.x (SGML, leaf elements left open) and OFX 2.x (XML) statements read the same,
+ * and that a malformed transaction is reported with its line number without stopping the parse.
+ */
+class OfxStatementParserTest {
+
+    @Test
+    void readsSgmlStatements() throws IOException {
+        StatementParser parser = parser("""
+                OFXHEADER:100
+                DATA:OFXSGML
+                VERSION:102
+
+                <OFX>
+                <BANKMSGSRSV1><STMTTRNRS><STMTRS>
+                <CURDEF>CAD
+                <BANKTRANLIST>
+                <DTSTART>20240301
+                <STMTTRN>
+                <TRNTYPE>DEBIT
+                <DTPOSTED>20240301120000[-5:EST]
+                <TRNAMT>-12.50
+                <FITID>1
+                <NAME>Coffee Shop
+                <MEMO>Card purchase
+                </STMTTRN>
+                <STMTTRN>
+                <TRNTYPE>CREDIT
+                <DTPOSTED>20240302
+                <TRNAMT>1500,00
+                <MEMO>Payroll deposit
+                </STMTTRN>
+                </BANKTRANLIST>
+                </STMTRS></STMTTRNRS></BANKMSGSRSV1>
+                </OFX>
+                """);
+
+        StatementRow coffee = parser.next();
+        assertEquals(LocalDate.of(2024, 3, 1), coffee.getDate());
+        assertEquals("Coffee Shop", coffee.getDescription());
+        assertEquals(Money.ofCents(-1_250), coffee.getAmount());
+        assertEquals("expense", coffee.getType());
+        assertEquals(10, coffee.getLineNumber());
+        // Without a NAME the memo describes the transaction; a comma may be the decimal separator
+        StatementRow payroll = parser.next();
+        assertEquals("Payroll deposit", payroll.getDescription());
+        assertEquals(Money.ofCents(150_000), payroll.getAmount());
+        assertEquals("income", payroll.getType());
+        assertNull(parser.next());
+    }
+
+    @Test
+    void readsXmlStatements() throws IOException {
+        StatementParser parser = parser("""
+                <?xml version="1.0" encoding="UTF-8"?>
+                <?OFX OFXHEADER="200" VERSION="220"?>
+                <OFX>
+                  <BANKMSGSRSV1><STMTTRNRS><STMTRS>
+                    <BANKTRANLIST>
+                      <stmttrn>
+                        <trntype>DEBIT</trntype>
+                        <dtposted>20240305000000.000</dtposted>
+                        <trnamt>-42.00</trnamt>
+                        <name>Smith &amp; Sons &lt;Hardware&gt;</name>
+                      </stmttrn>
+                      <STMTTRN>
+                        <TRNTYPE>FEE</TRNTYPE>
+                        <DTPOSTED>20240306</DTPOSTED>
+                        <TRNAMT>-3</TRNAMT>
+                        <NAME></NAME>
+                      </STMTTRN>
+                    </BANKTRANLIST>
+                  </STMTRS></STMTTRNRS></BANKMSGSRSV1>
+                </OFX>
+                """);
+
+        // Tags are case-insensitive and entities are decoded
+        StatementRow hardware = parser.next();
+        assertEquals(LocalDate.of(2024, 3, 5), hardware.getDate());
+        assertEquals("Smith & Sons <Hardware>", hardware.getDescription());
+        assertEquals(Money.ofCents(-4_200), hardware.getAmount());
+        // With neither a NAME nor a MEMO the transaction type describes it
+        assertEquals("FEE", parser.next().getDescription());
+        assertNull(parser.next());
+    }
+
+    @Test
+    void malformedTransactionsAreReportedAndSkipped() throws IOException {
+        StatementParser parser = parser("""
+                <OFX>
+                <STMTTRN><TRNAMT>-1<NAME>No date</STMTTRN>
+                <STMTTRN><DTPOSTED>2024-03-01<TRNAMT>-1<NAME>Bad date</STMTTRN>
+                <STMTTRN><DTPOSTED>20240301<TRNAMT>ten<NAME>Bad amount</STMTTRN>
+                <STMTTRN><DTPOSTED>20240301<TRNAMT>-1</STMTTRN>
+                <STMTTRN><DTPOSTED>20240301<TRNAMT>-1<NAME>Good</STMTTRN>
+                <STMTTRN><DTPOSTED>20240301<TRNAMT>-1<NAME>Cut off
+                """);
+
+        assertRowError(parser, 2, "Missing or invalid DTPOSTED");
+        assertRowError(parser, 3, "Invalid DTPOSTED");
+        assertRowError(parser, 4, "Missing or invalid TRNAMT");
+        assertRowError(parser, 5, "Transaction has no NAME or MEMO");
+        assertEquals("Good", parser.next().getDescription());
+        assertRowError(parser, 7, "Unterminated <STMTTRN> element");
+        assertNull(parser.next());
+    }
+
+    @Test
+    void statementWithoutTransactionsIsEmpty() throws IOException {
+        assertNull(parser("<OFX><BANKTRANLIST></BANKTRANLIST></OFX>").next());
+        assertNull(parser("").next());
+        assertThrows(IOException.class, () -> parser("<OFX><STMTTRN").next());
+    }
+
+    private static void assertRowError(StatementParser parser, long lineNumber, String message) {
+        StatementParseException e = assertThrows(StatementParseException.class, parser::next);
+        assertEquals(lineNumber, e.getLineNumber());
+        assertTrue(e.getMessage().startsWith(message), e.getMessage());
+    }
+
+    private static StatementParser parser(String ofx) {
+        return new OfxStatementParser(new BufferedReader(new StringReader(ofx)));
+    }
+}
@@ -0,0 +1,207 @@
+package com.example.finances.repository;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.fail;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Parameter;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.TestFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.finances.FinancesTest;
+import com.example.finances.model.Account;
+import com.example.finances.model.Category;
+import com.example.finances.model.Debt;
+import com.example.finances.model.Money;
+import com.example.finances.model.User;
+
+import jakarta.persistence.EntityManager;
+
+/**
+ * Runs every query declared on {@link TransactionRepository}, {@link DebtRepository} and
+ * {@link MonthlyCategoryTotalRepository},
+ * captures the SQL Hibernate generates for it and fails if SQLite's
+ * {@code EXPLAIN QUERY PLAN} reports a full scan of any table. A virtual table queried through a
+ * MATCH constraint (the FTS5 search index) is a lookup, not a scan.
+ */
+@FinancesTest
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:sqlite:target/query-plan-test.db",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                + "com.example.finances.repository.CapturingStatementInspector"
+})
+class QueryPlanTest {
+
+    /**
+     * Queries that cannot use a B-tree index by design, with the reason.
+     */
+    private static final Map<String, String> ALLOWED_SCANS = Map.of(
+            "findByDebtNameContainingIgnoreCase", "LIKE '%...%' on upper(debt_name) cannot use an index"
+    );
+
+    // FTS5 reports a MATCH constraint as an "M" in the index string, e.g. "SCAN transactions_fts VIRTUAL TABLE INDEX 0:M1"
+    private static final Pattern FULL_TEXT_MATCH = Pattern.compile("SCAN \\S+ VIRTUAL TABLE INDEX \\d+:.*M.*");
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private DebtRepository debtRepository;
+
+    @Autowired
+    private MonthlyCategoryTotalRepository monthlyCategoryTotalRepository;
+
+    @Autowired
+    private AccountBalanceSnapshotRepository accountBalanceSnapshotRepository;
+
+    @Autowired
+    private DebtBalanceSnapshotRepository debtBalanceSnapshotRepository;
+
+    @Autowired
+    private CategoryRuleRepository categoryRuleRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @TestFactory
+    Stream<DynamicTest> transactionRepositoryQueriesUseIndexes() {
+        return queryPlanTests(TransactionRepository.class, transactionRepository);
+    }
+
+    @TestFactory
+    Stream<DynamicTest> debtRepositoryQueriesUseIndexes() {
+        return queryPlanTests(DebtRepository.class, debtRepository);
+    }
+
+    @TestFactory
+    Stream<DynamicTest> monthlyCategoryTotalRepositoryQueriesUseIndexes() {
+        return queryPlanTests(MonthlyCategoryTotalRepository.class, monthlyCategoryTotalRepository);
+    }
+
+    @TestFactory
+    Stream<DynamicTest> accountBalanceSnapshotRepositoryQueriesUseIndexes() {
+        return queryPlanTests(AccountBalanceSnapshotRepository.class, accountBalanceSnapshotRepository);
+    }
+
+    @TestFactory
+    Stream<DynamicTest> debtBalanceSnapshotRepositoryQueriesUseIndexes() {
+        return queryPlanTests(DebtBalanceSnapshotRepository.class, debtBalanceSnapshotRepository);
+    }
+
+    @TestFactory
+    Stream<DynamicTest> categoryRuleRepositoryQueriesUseIndexes() {
+        return queryPlanTests(CategoryRuleRepository.class, categoryRuleRepository);
+    }
+
+    private Stream<DynamicTest> queryPlanTests(Class<?> repositoryType, Object repository) {
+        return Arrays.stream(repositoryType.getDeclaredMethods())
+                .filter(method -> !method.isDefault() && !method.isSynthetic())
+                .filter(method -> !ALLOWED_SCANS.containsKey(method.getName()))
+                .sorted(Comparator.comparing(Method::getName))
+                .map(method -> DynamicTest.dynamicTest(method.getName(), () -> assertNoFullScan(method, repository)));
+    }
+
+    private void assertNoFullScan(Method method, Object repository) throws SQLException {
+        List<String> statements = captureStatements(method, repository);
+        assertFalse(statements.isEmpty(), method.getName() + " did not execute any SQL");
+
+        for (String sql : statements) {
+            for (String step : explainQueryPlan(sql)) {
+                if (step.startsWith("SCAN ") && !FULL_TEXT_MATCH.matcher(step).matches()) {
+                    fail(method.getName() + " performs a full scan (" + step + ")\n" + sql);
+                }
+            }
+        }
+    }
+
+    private List<String> captureStatements(Method method, Object repository) {
+        return transactionTemplate.execute(status -> {
+            Object[] arguments = Arrays.stream(method.getParameters()).map(this::sampleArgument).toArray();
+            CapturingStatementInspector.clear();
+            try {
+                Object result = method.invoke(repository, arguments);
+                if (result instanceof Stream<?> stream) {
+                    stream.close();
+                }
+            } catch (ReflectiveOperationException e) {
+                throw new IllegalStateException("Could not invoke " + method.getName(), e);
+            }
+            List<String> statements = CapturingStatementInspector.statements();
+            status.setRollbackOnly();
+            return statements;
+        });
+    }
+
+    private Object sampleArgument(Parameter parameter) {
+        Class<?> type = parameter.getType();
+        if (type == User.class || type == Account.class || type == Category.class || type == Debt.class) {
+            return entityManager.getReference(type, 1);
+        }
+        if (type == int.class || type == Integer.class) {
+            return 1;
+        }
+        if (type == long.class) {
+            return 1L;
+        }
+        if (type == String.class) {
+            return "expense";
+        }
+        if (type == LocalDate.class) {
+            return LocalDate.of(2024, 1, 31);
+        }
+        if (type == Money.class) {
+            return Money.ofCents(1);
+        }
+        if (type == Collection.class) {
+            return List.of(1);
+        }
+        if (type == Limit.class) {
+            return Limit.of(10);
+        }
+        throw new IllegalArgumentException("No sample value for parameter of type " + type.getName()
+                + "; extend QueryPlanTest.sampleArgument");
+    }
+
+    private List<String> explainQueryPlan(String sql) throws SQLException {
+        List<String> steps = new ArrayList<>();
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement("EXPLAIN QUERY PLAN " + sql)) {
+            int parameterCount = statement.getParameterMetaData().getParameterCount();
+            for (int i = 1; i <= parameterCount; i++) {
+                statement.setInt(i, 1);
+            }
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    steps.add(resultSet.getString("detail"));
+                }
+            }
+        }
+        return steps;
+    }
+}
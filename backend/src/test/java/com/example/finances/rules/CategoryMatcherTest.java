@@ -0,0 +1,85 @@
+package com.example.finances.rules;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.example.finances.dto.CategoryRuleDTO;
+import com.example.finances.model.Money;
+
+/**
+ * Checks the keyword automaton against overlapping keywords, and that the matcher applies every
+ * condition of a rule and picks the first matching rule in priority order.
+ */
+class CategoryMatcherTest {
+
+    @Test
+    void automatonReportsOverlappingKeywords() {
+        KeywordAutomaton automaton = KeywordAutomaton.compile(List.of("he", "she", "his", "hers"));
+        List<Integer> found = new ArrayList<>();
+        automaton.forEachMatch("USHERS", found::add);
+        // "she" and "he" end at the same character, then "hers"
+        assertEquals(List.of(1, 0, 3), found);
+
+        found.clear();
+        automaton.forEachMatch("ahishers", found::add);
+        assertEquals(List.of(2, 1, 0, 3), found);
+    }
+
+    @Test
+    void firstMatchingRuleWins() {
+        CategoryMatcher matcher = CategoryMatcher.compile(List.of(
+                rule(10, null, "coffee", null, null, 500L),
+                rule(11, 7, "coffee", null, null, null),
+                rule(12, null, "COFFEE", null, null, null),
+                rule(13, null, null, "^uber\\b.*trip", null, null),
+                rule(14, null, null, null, 100_000L, null)));
+
+        assertEquals(10, matcher.match(1, 450, "Morning Coffee"));
+        // Too large for the first rule and on the wrong account for the second
+        assertEquals(12, matcher.match(1, 900, "Morning coffee"));
+        assertEquals(11, matcher.match(7, 900, "morning COFFEE"));
+        assertEquals(13, matcher.match(1, 2_000, "Uber *trip 1234"));
+        assertEquals(CategoryMatcher.NO_MATCH, matcher.match(1, 2_000, "Ubertrip"));
+        assertEquals(14, matcher.match(1, 150_000, "Rent"));
+        assertEquals(CategoryMatcher.NO_MATCH, matcher.match(1, 99_999, "Rent"));
+        assertEquals(CategoryMatcher.NO_MATCH, matcher.match(1, 99_999, null));
+        assertEquals(CategoryMatcher.NO_MATCH, CategoryMatcher.compile(List.of()).match(1, 1, "coffee"));
+    }
+
+    @Test
+    void categorisesLargeImportsQuickly() {
+        List<CategoryRuleDTO> rules = new ArrayList<>();
+        for (int i = 0; i < 1_000; i++) {
+            rules.add(rule(i + 1, null, "merchant" + i + " ", null, null, null));
+        }
+        CategoryMatcher matcher = CategoryMatcher.compile(rules);
+        String[] descriptions = new String[50_000];
+        for (int i = 0; i < descriptions.length; i++) {
+            descriptions[i] = "POS PURCHASE MERCHANT" + (i % 2_000) + " STORE #" + i;
+        }
+
+        int matched = 0;
+        long start = System.nanoTime();
+        for (String description : descriptions) {
+            if (matcher.match(1, 1_000, description) != CategoryMatcher.NO_MATCH) {
+                matched++;
+            }
+        }
+        long nanosPerRow = (System.nanoTime() - start) / descriptions.length;
+
+        assertEquals(25_000, matched);
+        // Generous, so a slow or busy machine does not fail the build; a per-rule scan would not come close
+        assertTrue(nanosPerRow < 50_000, nanosPerRow + " ns per row");
+    }
+
+    private static CategoryRuleDTO rule(int categoryId, Integer accountId, String keyword, String pattern,
+                                        Long minCents, Long maxCents) {
+        return new CategoryRuleDTO(categoryId, 1, categoryId, "Category " + categoryId, accountId, keyword, pattern,
+                minCents != null ? Money.ofCents(minCents) : null, maxCents != null ? Money.ofCents(maxCents) : null, 0);
+    }
+}
@@ -0,0 +1,131 @@
+package com.example.finances.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.TestPropertySource;
+
+import com.example.finances.FinancesTest;
+import com.example.finances.TestFixtures;
+import com.example.finances.dto.CashFlowForecastDTO;
+import com.example.finances.dto.CreateTransactionDTO;
+import com.example.finances.model.Account;
+import com.example.finances.model.Category;
+import com.example.finances.model.Money;
+import com.example.finances.model.User;
+
+/**
+ * Checks the projected balances against hand-computed values, and that a cached forecast is
+ * reused for its horizon until the user's next write, and never once the user's version has moved.
+ */
+@FinancesTest
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:sqlite:target/cash-flow-test.db",
+        "finances.recurrence.cron=-"
+})
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+class CashFlowForecastServiceTest {
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    @Autowired
+    private CashFlowForecastService cashFlowForecastService;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private DataVersionService dataVersionService;
+
+    private User user;
+    private Account account;
+    private Category category;
+
+    @BeforeAll
+    void seed() {
+        user = fixtures.user();
+        account = fixtures.account(user, "Chequing", Money.ofCents(100_000));
+        category = fixtures.category("Forecast");
+        // The template itself is today's transaction; its next occurrence is a week from today
+        CreateTransactionDTO weekly = transaction("expense", 5_000, LocalDate.now());
+        weekly.setRecurrence("weekly");
+        transactionService.createTransaction(weekly);
+        fixtures.debt(user, "Loan", Money.ofCents(30_000), Money.ofCents(20_000));
+    }
+
+    @Test
+    @Order(1)
+    void projectsRecurrencesAndDebtPayments() {
+        LocalDate today = LocalDate.now();
+        CashFlowForecastDTO forecast = cashFlowForecastService.getForecast(user.getUserId(), 2);
+
+        int days = forecast.getTotal().size();
+        assertEquals(today.plusMonths(2), forecast.getTo());
+        assertEquals(days, forecast.getAccounts().get(0).getBalances().size());
+        int weeks = (days - 1) / 7;
+        assertEquals(95_000, forecast.getAccounts().get(0).getBalances().get(0).getCents());
+        assertEquals(95_000 - 5_000L * weeks, forecast.getAccounts().get(0).getBalances().get(days - 1).getCents());
+
+        // 200.00 on the first of next month, the remaining 100.00 on the first of the month after
+        int firstPayment = (int) ChronoUnit.DAYS.between(today, today.withDayOfMonth(1).plusMonths(1));
+        assertEquals(0, forecast.getDebtPayments().get(firstPayment - 1).getCents());
+        assertEquals(20_000, forecast.getDebtPayments().get(firstPayment).getCents());
+        assertEquals(30_000, forecast.getDebtPayments().get(days - 1).getCents());
+
+        long lastTotal = 95_000 - 5_000L * weeks - 30_000;
+        assertEquals(lastTotal, forecast.getTotal().get(days - 1).getCents());
+        assertEquals(lastTotal, forecast.getLowestTotal().getCents());
+    }
+
+    @Test
+    @Order(2)
+    void cachedUntilNextWrite() {
+        CashFlowForecastDTO first = cashFlowForecastService.getForecast(user.getUserId(), 3);
+        CashFlowForecastDTO longer = cashFlowForecastService.getForecast(user.getUserId(), 6);
+        // Each horizon is cached on its own
+        assertSame(first, cashFlowForecastService.getForecast(user.getUserId(), 3));
+        assertSame(longer, cashFlowForecastService.getForecast(user.getUserId(), 6));
+
+        transactionService.createTransaction(transaction("income", 10_000, LocalDate.now()));
+
+        CashFlowForecastDTO second = cashFlowForecastService.getForecast(user.getUserId(), 3);
+        assertNotSame(first, second);
+        assertEquals(first.getTotal().get(0).getCents() + 10_000, second.getTotal().get(0).getCents());
+        assertNotSame(longer, cashFlowForecastService.getForecast(user.getUserId(), 6));
+    }
+
+    @Test
+    @Order(3)
+    void forecastReadBeforeAWriteIsNotServedAfterIt() {
+        CashFlowForecastDTO before = cashFlowForecastService.getForecast(user.getUserId(), 4);
+        // The version moves on without the forecast cache hearing of the write, as when a read
+        // that started before the commit stores its result after the eviction
+        dataVersionService.onUserDataChanged(new UserDataChangedEvent(user.getUserId(),
+                UserDataChangedEvent.Change.TRANSACTIONS_CREATED, null, null));
+
+        assertNotSame(before, cashFlowForecastService.getForecast(user.getUserId(), 4));
+    }
+
+    private CreateTransactionDTO transaction(String type, long cents, LocalDate date) {
+        CreateTransactionDTO dto = new CreateTransactionDTO();
+        dto.setUserId(user.getUserId());
+        dto.setAccountId(account.getAccountId());
+        dto.setCategoryId(category.getCategoryId());
+        dto.setAmount(Money.ofCents(cents));
+        dto.setDescription(type + " " + date);
+        dto.setType(type);
+        dto.setTransactionDate(date);
+        return dto;
+    }
+}
@@ -0,0 +1,206 @@
+package com.example.finances.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.BufferedReader;
+import java.io.StringReader;
+import java.time.LocalDate;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import com.example.finances.FinancesTest;
+import com.example.finances.TestFixtures;
+import com.example.finances.dto.CategoryRuleDTO;
+import com.example.finances.dto.CreateCategoryRuleDTO;
+import com.example.finances.dto.CreateTransactionDTO;
+import com.example.finances.dto.ImportResultDTO;
+import com.example.finances.importer.CsvStatementParser;
+import com.example.finances.importer.ImportListener;
+import com.example.finances.model.Account;
+import com.example.finances.model.Category;
+import com.example.finances.model.Money;
+import com.example.finances.model.User;
+import com.example.finances.repository.TransactionRepository;
+import com.example.finances.rules.CategoryMatcher;
+
+/**
+ * Checks that transactions created, batched or imported without a category are filed by their
+ * user's rules, that other transactions keep their category, and that rule, account and category
+ * writes evict the compiled rules.
+ */
+@FinancesTest
+class CategoryRuleServiceTest {
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    @Autowired
+    private CategoryRuleService categoryRuleService;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private StatementImportService statementImportService;
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private CategoryService categoryService;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    private User user;
+    private User otherUser;
+    private Account account;
+    private Account otherAccount;
+    private Category coffee;
+    private Category rides;
+    private Category other;
+
+    @BeforeAll
+    void seed() {
+        user = fixtures.user();
+        otherUser = fixtures.user();
+        account = fixtures.account(user, "Chequing", Money.ZERO);
+        otherAccount = fixtures.account(otherUser, "Chequing", Money.ZERO);
+        coffee = fixtures.category("Coffee");
+        rides = fixtures.category("Rides");
+        other = categoryService.findCategoryByName(CategoryService.DEFAULT_CATEGORY_NAME);
+
+        categoryRuleService.createRule(new CreateCategoryRuleDTO(user.getUserId(), coffee.getCategoryId(), null,
+                "starbucks", null, null, Money.ofCents(2_000), 1));
+        categoryRuleService.createRule(new CreateCategoryRuleDTO(user.getUserId(), rides.getCategoryId(), null,
+                null, "^uber\\b", null, null, 2));
+    }
+
+    @Test
+    void transactionsWithoutCategoryAreFiledByRules() {
+        assertEquals(coffee.getCategoryId(), categoryOf(transactionService.createTransaction(
+                transaction(user, account, "STARBUCKS #123", 450, null)).getTransactionId()));
+        // Over the rule's maximum amount
+        assertEquals(other.getCategoryId(), categoryOf(transactionService.createTransaction(
+                transaction(user, account, "Starbucks catering", 25_000, null)).getTransactionId()));
+        // An explicit category always wins
+        assertEquals(rides.getCategoryId(), categoryOf(transactionService.createTransaction(
+                transaction(user, account, "Starbucks", 450, rides.getCategoryId())).getTransactionId()));
+        // Rules only apply to their own user
+        assertEquals(other.getCategoryId(), categoryOf(transactionService.createTransaction(
+                transaction(otherUser, otherAccount, "Starbucks", 450, null)).getTransactionId()));
+
+        List<Integer> ids = transactionService.createTransactions(List.of(
+                transaction(user, account, "Uber trip", 1_500, null),
+                transaction(otherUser, otherAccount, "Uber trip", 1_500, null),
+                transaction(user, account, "starbucks", 300, null)));
+        assertEquals(List.of(rides.getCategoryId(), other.getCategoryId(), coffee.getCategoryId()),
+                ids.stream().map(this::categoryOf).toList());
+    }
+
+    @Test
+    void importsAreFiledByRules() throws Exception {
+        String csv = "date,description,amount\n"
+                + "2025-01-02,Starbucks Reserve,-5.25\n"
+                + "2025-01-03,UBER *EATS,-30.00\n"
+                + "2025-01-04,Bookshop,-12.00\n";
+        ImportResultDTO result = statementImportService.importStatement(
+                statementImportService.resolveTarget(user.getUserId(), account.getAccountId(), null),
+                new CsvStatementParser(new BufferedReader(new StringReader(csv))), new ImportListener() {
+                    @Override
+                    public void onProgress(ImportResultDTO progress) {
+                    }
+
+                    @Override
+                    public void onRowError(long lineNumber, String message) {
+                    }
+                });
+        assertEquals(3, result.getImported());
+
+        assertEquals(coffee.getCategoryId(), categoryOfLatest("Starbucks Reserve"));
+        assertEquals(rides.getCategoryId(), categoryOfLatest("UBER *EATS"));
+        assertEquals(other.getCategoryId(), categoryOfLatest("Bookshop"));
+    }
+
+    @Test
+    void ruleWritesEvictTheCompiledRules() {
+        CategoryMatcher before = categoryRuleService.matcherFor(otherUser.getUserId());
+        assertSame(before, categoryRuleService.matcherFor(otherUser.getUserId()));
+
+        CategoryRuleDTO rule = categoryRuleService.createRule(new CreateCategoryRuleDTO(otherUser.getUserId(),
+                coffee.getCategoryId(), otherAccount.getAccountId(), "tea", null, null, null, 0));
+        CategoryMatcher after = categoryRuleService.matcherFor(otherUser.getUserId());
+        assertNotSame(before, after);
+        assertEquals(coffee.getCategoryId(), after.match(otherAccount.getAccountId(), 100, "Green tea"));
+
+        categoryRuleService.updateRule(rule.getRuleId(), new CreateCategoryRuleDTO(otherUser.getUserId(),
+                rides.getCategoryId(), otherAccount.getAccountId(), "tea", null, null, null, 0));
+        assertEquals(rides.getCategoryId(), categoryRuleService.matcherFor(otherUser.getUserId())
+                .match(otherAccount.getAccountId(), 100, "Green tea"));
+
+        categoryRuleService.deleteRule(rule.getRuleId());
+        assertEquals(CategoryMatcher.NO_MATCH, categoryRuleService.matcherFor(otherUser.getUserId())
+                .match(otherAccount.getAccountId(), 100, "Green tea"));
+    }
+
+    @Test
+    void deletingACategoryOrAccountDeletesItsRules() {
+        User owner = fixtures.user();
+        Account closing = fixtures.account(owner, "Closing", Money.ZERO);
+        Category temporary = fixtures.category("Temporary");
+        categoryRuleService.createRule(new CreateCategoryRuleDTO(owner.getUserId(), temporary.getCategoryId(), null,
+                "gym", null, null, null, 0));
+        categoryRuleService.createRule(new CreateCategoryRuleDTO(owner.getUserId(), coffee.getCategoryId(),
+                closing.getAccountId(), null, null, null, null, 0));
+        assertEquals(2, categoryRuleService.matcherFor(owner.getUserId()).size());
+
+        categoryService.deleteCategory(temporary.getCategoryId());
+        assertEquals(1, categoryRuleService.matcherFor(owner.getUserId()).size());
+        accountService.deleteAccount(closing.getAccountId());
+        assertEquals(0, categoryRuleService.matcherFor(owner.getUserId()).size());
+        assertTrue(categoryRuleService.findRulesByUserId(owner.getUserId()).isEmpty());
+    }
+
+    @Test
+    void invalidRulesAreRejected() {
+        int userId = user.getUserId();
+        int categoryId = coffee.getCategoryId();
+        assertThrows(IllegalArgumentException.class, () -> categoryRuleService.createRule(
+                new CreateCategoryRuleDTO(userId, categoryId, null, " ", null, null, null, 0)));
+        assertThrows(IllegalArgumentException.class, () -> categoryRuleService.createRule(
+                new CreateCategoryRuleDTO(userId, categoryId, null, null, "([a-z", null, null, 0)));
+        assertThrows(IllegalArgumentException.class, () -> categoryRuleService.createRule(
+                new CreateCategoryRuleDTO(userId, categoryId, null, "x", null, Money.ofCents(500), Money.ofCents(100), 0)));
+        assertThrows(IllegalArgumentException.class, () -> categoryRuleService.createRule(
+                new CreateCategoryRuleDTO(userId, categoryId, otherAccount.getAccountId(), "x", null, null, null, 0)));
+    }
+
+    private int categoryOf(int transactionId) {
+        return transactionRepository.findResponsesByIds(List.of(transactionId)).get(0).getCategoryId();
+    }
+
+    private int categoryOfLatest(String description) {
+        return transactionService.findByUserID(user.getUserId(), null, 500).getItems().stream()
+                .filter(row -> row.getDescription().equals(description))
+                .findFirst().orElseThrow().getCategoryId();
+    }
+
+    private CreateTransactionDTO transaction(User owner, Account target, String description, long cents, Integer categoryId) {
+        CreateTransactionDTO dto = new CreateTransactionDTO();
+        dto.setUserId(owner.getUserId());
+        dto.setAccountId(target.getAccountId());
+        dto.setCategoryId(categoryId);
+        dto.setAmount(Money.ofCents(cents));
+        dto.setDescription(description);
+        dto.setType("expense");
+        dto.setTransactionDate(LocalDate.now());
+        return dto;
+    }
+}
@@ -0,0 +1,226 @@
+package com.example.finances.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntFunction;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.finances.FinancesTest;
+import com.example.finances.TestFixtures;
+import com.example.finances.model.Account;
+import com.example.finances.model.Debt;
+import com.example.finances.model.Money;
+import com.example.finances.model.User;
+import com.example.finances.repository.AccountRepository;
+import com.example.finances.repository.DebtRepository;
+import com.example.finances.repository.UserRepository;
+
+/**
+ * Checks that concurrent payments to one debt all count, that every write bumps the version of the
+ * debt or account it changes, that writes based on an older version are rejected, and that
+ * conflicting writes are retried a bounded number of times.
+ */
+@FinancesTest
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:sqlite:target/debt-payment-concurrency-test.db",
+        "finances.optimistic-lock.max-attempts=3",
+        "finances.optimistic-lock.backoff-ms=1"
+})
+class DebtPaymentConcurrencyTest {
+
+    private static final int THREADS = 64;
+    private static final int PAYMENTS_PER_THREAD = 25;
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    @Autowired
+    private DebtService debtService;
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private OptimisticLockRetry optimisticLockRetry;
+
+    @Autowired
+    private DebtRepository debtRepository;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private NetWorthService netWorthService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    private User user;
+
+    @BeforeAll
+    void seed() {
+        user = fixtures.user();
+    }
+
+    @Test
+    void concurrentPaymentsToOneDebtAreNotLost() throws Exception {
+        // Spread over a debt per thread, no two payments touch the same row
+        List<Debt> debts = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            debts.add(newDebt("Own " + i));
+        }
+        pay(index -> debts.get(index).getDebtId());
+        for (Debt own : debts) {
+            assertEquals(Money.ofCents(PAYMENTS_PER_THREAD * 100L), debtService.findDebtById(own.getDebtId()).getAmountPaid());
+        }
+
+        Debt debt = newDebt("Shared");
+        pay(index -> debt.getDebtId());
+
+        Debt paid = debtService.findDebtById(debt.getDebtId());
+        assertEquals(Money.ofCents((long) THREADS * PAYMENTS_PER_THREAD * 100), paid.getAmountPaid());
+        assertEquals(debt.getVersion() + THREADS * PAYMENTS_PER_THREAD, paid.getVersion());
+    }
+
+    @Test
+    void staleWritesAreRejected() {
+        Debt debt = newDebt("Stale");
+        Debt stale = debtService.findDebtById(debt.getDebtId());
+        debtService.makePayment(debt.getDebtId(), Money.ofCents(500));
+
+        // Saving the copy read before the payment would undo it
+        stale.setAmountPaid(Money.ofCents(100));
+        assertThrows(ObjectOptimisticLockingFailureException.class, () -> debtRepository.save(stale));
+        // A client sending the version it read is refused rather than retried
+        assertThrows(OptimisticLockingFailureException.class, () -> debtService.updateDebt(debt.getDebtId(), stale));
+        assertEquals(Money.ofCents(500), debtService.findDebtById(debt.getDebtId()).getAmountPaid());
+
+        stale.setVersion(debtService.findDebtById(debt.getDebtId()).getVersion());
+        assertEquals(Money.ofCents(100), debtService.updateDebt(debt.getDebtId(), stale).getAmountPaid());
+    }
+
+    @Test
+    void balanceAdjustmentsBumpTheAccountVersion() {
+        Account account = fixtures.account(user, "Versioned", Money.ZERO);
+        Account read = accountService.findAccountById(account.getAccountId());
+        transactionTemplate.executeWithoutResult(status -> accountRepository.adjustBalance(account.getAccountId(), Money.ofCents(1_000)));
+
+        Account adjusted = accountService.findAccountById(account.getAccountId());
+        assertEquals(read.getVersion() + 1, adjusted.getVersion());
+        read.setAccountName("Renamed");
+        assertThrows(OptimisticLockingFailureException.class, () -> accountService.updateAccount(account.getAccountId(), read));
+
+        read.setVersion(null);
+        read.setAccountBalance(adjusted.getAccountBalance());
+        assertEquals("Renamed", accountService.updateAccount(account.getAccountId(), read).getAccountName());
+    }
+
+    @Test
+    void conflictingPaymentIsReappliedToTheLatestDebt() {
+        Debt debt = newDebt("Conflicting");
+        Debt stale = debtService.findDebtById(debt.getDebtId());
+        // Another payment commits after the first attempt has read the debt but before it writes
+        debtService.makePayment(debt.getDebtId(), Money.ofCents(3_000));
+
+        AtomicInteger reads = new AtomicInteger();
+        DebtRepository readsStaleFirst = (DebtRepository) Proxy.newProxyInstance(DebtRepository.class.getClassLoader(),
+                new Class<?>[] {DebtRepository.class}, (proxy, method, args) -> {
+                    if (method.getName().equals("findById") && reads.incrementAndGet() == 1) {
+                        return Optional.of(stale);
+                    }
+                    try {
+                        return method.invoke(debtRepository, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                });
+        DebtService payer = new DebtService(readsStaleFirst, userRepository, netWorthService, eventPublisher, optimisticLockRetry);
+
+        Debt paid = payer.makePayment(debt.getDebtId(), Money.ofCents(1_250));
+
+        // The stale write was refused and the retry read the debt again
+        assertEquals(2, reads.get());
+        assertEquals(Money.ofCents(4_250), paid.getAmountPaid());
+        Debt stored = debtService.findDebtById(debt.getDebtId());
+        assertEquals(Money.ofCents(4_250), stored.getAmountPaid());
+        assertEquals(stale.getVersion() + 2, stored.getVersion());
+    }
+
+    @Test
+    void conflictsAreRetriedABoundedNumberOfTimes() {
+        AtomicInteger attempts = new AtomicInteger();
+        assertEquals("written", optimisticLockRetry.execute(() -> {
+            if (attempts.incrementAndGet() < 3) {
+                throw new ObjectOptimisticLockingFailureException(Debt.class, 1);
+            }
+            return "written";
+        }));
+        assertEquals(3, attempts.get());
+
+        attempts.set(0);
+        assertThrows(ObjectOptimisticLockingFailureException.class, () -> optimisticLockRetry.execute(() -> {
+            attempts.incrementAndGet();
+            throw new ObjectOptimisticLockingFailureException(Debt.class, 1);
+        }));
+        assertEquals(3, attempts.get());
+
+        // Other failures are not retried
+        attempts.set(0);
+        assertThrows(IllegalArgumentException.class, () -> optimisticLockRetry.execute(() -> {
+            attempts.incrementAndGet();
+            throw new IllegalArgumentException("Invalid");
+        }));
+        assertEquals(1, attempts.get());
+    }
+
+    // Makes PAYMENTS_PER_THREAD payments of 1.00 from each of THREADS threads, all starting together
+    private void pay(IntFunction<Integer> debtIdForThread) throws Exception {
+        ExecutorService payers = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> done = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            int debtId = debtIdForThread.apply(t);
+            done.add(payers.submit(() -> {
+                start.await();
+                for (int i = 0; i < PAYMENTS_PER_THREAD; i++) {
+                    debtService.makePayment(debtId, Money.ofCents(100));
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : done) {
+            future.get();
+        }
+        payers.shutdown();
+    }
+
+    private Debt newDebt(String name) {
+        return fixtures.debt(user, name, Money.ofCents(1_000_000), Money.ofCents(1_000));
+    }
+}
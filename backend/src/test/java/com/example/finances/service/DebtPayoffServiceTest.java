@@ -0,0 +1,92 @@
+package com.example.finances.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import com.example.finances.FinancesTest;
+import com.example.finances.TestFixtures;
+import com.example.finances.dto.PayoffPlanDTO;
+import com.example.finances.dto.PayoffSimulationDTO;
+import com.example.finances.model.Debt;
+import com.example.finances.model.Money;
+import com.example.finances.model.User;
+
+/**
+ * Checks the payoff strategies against hand-computed schedules for a user's debts. The simulation
+ * itself is checked in {@link DebtPayoffSimulationTest}.
+ */
+@FinancesTest
+class DebtPayoffServiceTest {
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    @Autowired
+    private DebtPayoffService debtPayoffService;
+
+    private User user;
+    private Debt card;
+    private Debt loan;
+
+    @BeforeAll
+    void seed() {
+        user = fixtures.user();
+        card = fixtures.debt(user, "Card", Money.ofCents(100_000), Money.ofCents(10_000));
+        loan = fixtures.debt(user, "Loan", Money.ofCents(30_000), Money.ofCents(5_000));
+    }
+
+    @Test
+    void snowballRollsOverPaidOffMinimums() {
+        PayoffSimulationDTO request = new PayoffSimulationDTO(Money.ofCents(5_000), List.of("snowball"), null, null);
+        PayoffPlanDTO plan = debtPayoffService.simulate(user.getUserId(), request).get(0);
+
+        // 200.00 a month: the loan is gone after 3 months, the card after 700.00 more at 200.00
+        LocalDate firstPayment = LocalDate.now().withDayOfMonth(1).plusMonths(1);
+        assertEquals(7, plan.getMonths());
+        assertEquals(firstPayment.plusMonths(6), plan.getPayoffDate());
+        assertEquals(loan.getDebtId(), plan.getDebts().get(0).getDebtId());
+        assertEquals(firstPayment.plusMonths(2), plan.getDebts().get(0).getPayoffDate());
+        assertEquals(130_000, plan.getTotalPaid().getCents());
+        assertEquals(0, plan.getTotalInterest().getCents());
+    }
+
+    @Test
+    void avalanchePaysLessInterestThanSnowball() {
+        PayoffSimulationDTO request = new PayoffSimulationDTO(Money.ofCents(2_000), null, null,
+                Map.of(card.getDebtId(), new BigDecimal("24.99"), loan.getDebtId(), new BigDecimal("4.5")));
+        List<PayoffPlanDTO> plans = debtPayoffService.simulate(user.getUserId(), request);
+
+        assertEquals(List.of("avalanche", "snowball"), plans.stream().map(PayoffPlanDTO::getStrategy).toList());
+        PayoffPlanDTO avalanche = plans.get(0);
+        PayoffPlanDTO snowball = plans.get(1);
+        assertEquals(card.getDebtId(), avalanche.getDebts().get(0).getDebtId());
+        assertTrue(avalanche.getTotalInterest().getCents() < snowball.getTotalInterest().getCents());
+        for (PayoffPlanDTO plan : plans) {
+            assertEquals(130_000 + plan.getTotalInterest().getCents(), plan.getTotalPaid().getCents());
+        }
+    }
+
+    @Test
+    void customOrderMustNameActiveDebts() {
+        PayoffSimulationDTO unknown = new PayoffSimulationDTO(null, List.of("custom"), List.of(-1), null);
+        assertThrows(IllegalArgumentException.class, () -> debtPayoffService.simulate(user.getUserId(), unknown));
+
+        PayoffSimulationDTO missing = new PayoffSimulationDTO(null, List.of("custom"), null, null);
+        assertThrows(IllegalArgumentException.class, () -> debtPayoffService.simulate(user.getUserId(), missing));
+
+        PayoffSimulationDTO custom = new PayoffSimulationDTO(null, List.of("custom"), List.of(card.getDebtId()), null);
+        PayoffPlanDTO plan = debtPayoffService.simulate(user.getUserId(), custom).get(0);
+        assertEquals(List.of(card.getDebtId(), loan.getDebtId()),
+                plan.getDebts().stream().map(debt -> debt.getDebtId()).toList());
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.finances.service;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+import com.example.finances.service.DebtPayoffService.Simulation;
+
+/**
+ * Checks the month-by-month simulation on its own, without debts in a database: minimums roll over
+ * to the next debt in order, interest compounds monthly and rounds half up, the horizon stops an
+ * underpaid debt, and many debts over the full horizon stay cheap.
+ */
+class DebtPayoffSimulationTest {
+
+    @Test
+    void paidOffMinimumsRollOverToTheNextDebtInOrder() {
+        // 200.00 a month, loan first: the loan is gone after 3 months, the card after 700.00 more at 200.00
+        Simulation result = DebtPayoffService.simulate(new long[] {100_000, 30_000}, new long[] {10_000, 5_000},
+                new long[] {0, 0}, new int[] {1, 0}, 5_000, DebtPayoffService.MAX_MONTHS);
+
+        assertArrayEquals(new int[] {7, 3}, result.payoffMonths());
+        assertArrayEquals(new long[] {100_000, 30_000}, result.paid());
+        assertArrayEquals(new long[] {0, 0}, result.balances());
+        assertArrayEquals(new long[] {0, 0}, result.interest());
+    }
+
+    @Test
+    void unpaidInterestCompoundsUntilTheHorizon() {
+        // 12% a year is 1% a month: 1,000.00 then 1% of 1,010.00
+        Simulation result = DebtPayoffService.simulate(new long[] {100_000}, new long[] {0}, new long[] {1_200},
+                new int[] {0}, 0, 2);
+
+        assertArrayEquals(new long[] {2_010}, result.interest());
+        assertArrayEquals(new long[] {102_010}, result.balances());
+        assertArrayEquals(new int[] {0}, result.payoffMonths());
+    }
+
+    @Test
+    void manyDebtsOverThirtyYearsStayFast() {
+        int count = 200;
+        long[] balances = new long[count];
+        long[] minimums = new long[count];
+        long[] rates = new long[count];
+        int[] order = new int[count];
+        for (int i = 0; i < count; i++) {
+            balances[i] = 500_000 + 7_919L * i;
+            minimums[i] = 2_500;
+            rates[i] = 300 + (i * 37) % 2_500;
+            order[i] = count - 1 - i;
+        }
+
+        for (int warmup = 0; warmup < 20; warmup++) {
+            DebtPayoffService.simulate(balances, minimums, rates, order, 0, DebtPayoffService.MAX_MONTHS);
+        }
+        long start = System.nanoTime();
+        Simulation result = null;
+        for (int strategy = 0; strategy < 3; strategy++) {
+            result = DebtPayoffService.simulate(balances, minimums, rates, order, 10_000, DebtPayoffService.MAX_MONTHS);
+        }
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        // Every cent owed is either paid or still owed
+        for (int i = 0; i < count; i++) {
+            assertEquals(balances[i] + result.interest()[i], result.paid()[i] + result.balances()[i]);
+            assertEquals(result.balances()[i] == 0, result.payoffMonths()[i] > 0);
+        }
+        // Generous, so a slow or busy machine does not fail the build; a few milliseconds is typical
+        assertTrue(elapsedMillis < 1_000, "three strategies took " + elapsedMillis + " ms");
+    }
+}
@@ -0,0 +1,151 @@
+package com.example.finances.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import com.example.finances.FinancesTest;
+import com.example.finances.TestFixtures;
+import com.example.finances.dto.BalancePointDTO;
+import com.example.finances.dto.CreateTransactionDTO;
+import com.example.finances.dto.NetWorthPointDTO;
+import com.example.finances.model.Account;
+import com.example.finances.model.Category;
+import com.example.finances.model.Debt;
+import com.example.finances.model.Money;
+import com.example.finances.model.Transaction;
+import com.example.finances.model.User;
+
+/**
+ * Checks that the snapshots kept up to date on every write agree with a rebuild from the ledger,
+ * and that downsampling keeps the shape of the series.
+ */
+@FinancesTest
+class NetWorthServiceTest {
+
+    private static final LocalDate START = LocalDate.now().minusDays(90);
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    @Autowired
+    private NetWorthService netWorthService;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private DebtService debtService;
+
+    private User user;
+    private Account account;
+    private Category category;
+
+    @BeforeAll
+    void seed() {
+        user = fixtures.user();
+        account = fixtures.account(user, "Chequing", Money.ZERO);
+        category = fixtures.category("Net worth");
+
+        // Backdated and out-of-order writes, an edit that moves a transaction to another day, and a delete
+        transactionService.createTransactions(List.of(
+                transaction("income", 250_000, START.plusDays(30)),
+                transaction("expense", 4_500, START.plusDays(31)),
+                transaction("expense", 12_000, START.plusDays(60))));
+        transactionService.createTransaction(transaction("expense", 1_999, START.plusDays(5)));
+        Transaction moved = transactionService.createTransaction(transaction("expense", 7_500, START.plusDays(45)));
+        transactionService.updateTransaction(moved.getTransactionId(), transaction("expense", 8_000, START.plusDays(20)));
+        Transaction deleted = transactionService.createTransaction(transaction("income", 50_000, START.plusDays(70)));
+        transactionService.deleteTransaction(deleted.getTransactionId());
+
+        Debt debt = fixtures.debt(user, "Card", Money.ofCents(300_000), Money.ofCents(10_000));
+        debtService.makePayment(debt.getDebtId(), Money.ofCents(25_000));
+    }
+
+    @Test
+    void incrementalSnapshotsMatchRebuild() {
+        LocalDate today = LocalDate.now();
+        List<BalancePointDTO> balances = netWorthService.getAccountBalanceHistory(
+                account.getAccountId(), START, today, NetWorthService.MAX_POINTS);
+        List<NetWorthPointDTO> netWorth = netWorthService.getNetWorthHistory(
+                user.getUserId(), START, today, NetWorthService.MAX_POINTS);
+
+        netWorthService.rebuild(user.getUserId());
+
+        assertEquals(toCents(balances), toCents(netWorthService.getAccountBalanceHistory(
+                account.getAccountId(), START, today, NetWorthService.MAX_POINTS)));
+        assertEquals(toNetWorthCents(netWorth), toNetWorthCents(netWorthService.getNetWorthHistory(
+                user.getUserId(), START, today, NetWorthService.MAX_POINTS)));
+
+        // 2500.00 - 45.00 - 120.00 - 19.99 - 80.00 in the account, 3000.00 - 250.00 owed
+        NetWorthPointDTO last = netWorth.get(netWorth.size() - 1);
+        assertEquals(223_501, last.getAssets().getCents());
+        assertEquals(275_000, last.getDebts().getCents());
+        assertEquals(223_501 - 275_000, last.getNetWorth().getCents());
+        assertEquals(0, balances.get(0).getBalance().getCents());
+        assertEquals(-1_999, balances.get(5).getBalance().getCents());
+    }
+
+    @Test
+    void seriesIsDownsampledToRequestedPoints() {
+        LocalDate today = LocalDate.now();
+        List<BalancePointDTO> series = netWorthService.getAccountBalanceHistory(account.getAccountId(), START, today, 10);
+
+        assertEquals(10, series.size());
+        assertEquals(START, series.get(0).getDate());
+        assertEquals(today, series.get(series.size() - 1).getDate());
+    }
+
+    @Test
+    void downsampleKeepsEndpointsAndSpikes() {
+        long[] values = new long[1_000];
+        values[437] = 1_000_000;
+        values[812] = -1_000_000;
+
+        int[] kept = NetWorthService.downsample(values, 50);
+
+        assertEquals(50, kept.length);
+        assertEquals(0, kept[0]);
+        assertEquals(values.length - 1, kept[kept.length - 1]);
+        for (int i = 1; i < kept.length; i++) {
+            assertTrue(kept[i] > kept[i - 1], "indexes must be strictly increasing");
+        }
+        assertTrue(contains(kept, 437), "peak was dropped");
+        assertTrue(contains(kept, 812), "dip was dropped");
+    }
+
+    private CreateTransactionDTO transaction(String type, long cents, LocalDate date) {
+        CreateTransactionDTO dto = new CreateTransactionDTO();
+        dto.setUserId(user.getUserId());
+        dto.setAccountId(account.getAccountId());
+        dto.setCategoryId(category.getCategoryId());
+        dto.setAmount(Money.ofCents(cents));
+        dto.setDescription(type + " " + date);
+        dto.setType(type);
+        dto.setTransactionDate(date);
+        return dto;
+    }
+
+    private static List<Long> toCents(List<BalancePointDTO> series) {
+        return series.stream().map(point -> point.getBalance().getCents()).toList();
+    }
+
+    private static List<Long> toNetWorthCents(List<NetWorthPointDTO> series) {
+        return series.stream().map(point -> point.getNetWorth().getCents()).toList();
+    }
+
+    private static boolean contains(int[] values, int value) {
+        for (int v : values) {
+            if (v == value) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,132 @@
+package com.example.finances.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.TestPropertySource;
+
+import com.example.finances.FinancesTest;
+import com.example.finances.TestFixtures;
+import com.example.finances.dto.CreateTransactionDTO;
+import com.example.finances.dto.RecurringOccurrenceDTO;
+import com.example.finances.model.Account;
+import com.example.finances.model.Category;
+import com.example.finances.model.Money;
+import com.example.finances.model.Recurrence;
+import com.example.finances.model.User;
+import com.example.finances.repository.AccountRepository;
+
+/**
+ * Checks that recurring templates expand into transactions exactly once, and that the forecast
+ * lists only the occurrences that have not been created yet.
+ */
+@FinancesTest
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:sqlite:target/recurring-test.db",
+        "finances.recurrence.cron=-",
+        "finances.recurrence.batch-size=2"
+})
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+class RecurringTransactionServiceTest {
+
+    private static final LocalDate ANCHOR = LocalDate.of(2024, 1, 31);
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    @Autowired
+    private RecurringTransactionService recurringTransactionService;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    private User user;
+    private Account account;
+    private Category category;
+
+    @BeforeAll
+    void seed() {
+        user = fixtures.user();
+        account = fixtures.account(user, "Chequing", Money.ZERO);
+        category = fixtures.category("Recurring");
+        // Three templates with a batch size of two, so expansion spans more than one chunk
+        transactionService.createTransaction(template("income", 300_000, "monthly"));
+        transactionService.createTransaction(template("expense", 2_500, "weekly"));
+        transactionService.createTransaction(template("expense", 12_000, "yearly"));
+    }
+
+    @Test
+    void monthlyOccurrencesStayOnTheAnchorDay() {
+        assertEquals(LocalDate.of(2024, 2, 29), Recurrence.MONTHLY.occurrence(ANCHOR, 1));
+        assertEquals(LocalDate.of(2024, 3, 31), Recurrence.MONTHLY.occurrence(ANCHOR, 2));
+        assertEquals(2, Recurrence.MONTHLY.firstIndexAfter(ANCHOR, LocalDate.of(2024, 2, 29)));
+        assertEquals(1, Recurrence.WEEKLY.firstIndexAfter(ANCHOR, ANCHOR));
+        assertEquals(53, Recurrence.WEEKLY.firstIndexAfter(ANCHOR, LocalDate.of(2025, 1, 29)));
+    }
+
+    @Test
+    @Order(1)
+    void expansionIsIdempotent() {
+        LocalDate through = LocalDate.of(2024, 6, 30);
+        long before = countTransactions();
+
+        // Feb-Jun monthly, 21 weeks (Feb 7 - Jun 26) weekly, no yearly occurrence yet
+        assertEquals(5 + 21, recurringTransactionService.expandThrough(through));
+        assertEquals(0, recurringTransactionService.expandThrough(through));
+        assertEquals(before + 26, countTransactions());
+
+        Money expected = Money.ofCents(6 * 300_000 - 22 * 2_500 - 12_000);
+        assertEquals(expected, accountRepository.findById(account.getAccountId()).orElseThrow().getAccountBalance());
+    }
+
+    @Test
+    @Order(2)
+    void forecastSkipsCreatedOccurrences() {
+        recurringTransactionService.expandThrough(LocalDate.now());
+        List<RecurringOccurrenceDTO> forecast = recurringTransactionService.forecast(user.getUserId(), LocalDate.now().plusMonths(24), 50);
+
+        assertEquals(50, forecast.size());
+        for (int i = 0; i < forecast.size(); i++) {
+            assertTrue(forecast.get(i).getDate().isAfter(LocalDate.now()), "occurrence already created");
+            if (i > 0) {
+                assertTrue(!forecast.get(i).getDate().isBefore(forecast.get(i - 1).getDate()), "not in date order");
+            }
+        }
+    }
+
+    private long countTransactions() {
+        long rows = 0;
+        String cursor = null;
+        do {
+            var page = transactionService.findByUserID(user.getUserId(), cursor, 500);
+            rows += page.getItems().size();
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+        return rows;
+    }
+
+    private CreateTransactionDTO template(String type, long cents, String recurrence) {
+        CreateTransactionDTO dto = new CreateTransactionDTO();
+        dto.setUserId(user.getUserId());
+        dto.setAccountId(account.getAccountId());
+        dto.setCategoryId(category.getCategoryId());
+        dto.setAmount(Money.ofCents(cents));
+        dto.setDescription(recurrence + " " + type);
+        dto.setType(type);
+        dto.setTransactionDate(ANCHOR);
+        dto.setRecurrence(recurrence);
+        return dto;
+    }
+}
@@ -0,0 +1,155 @@
+package com.example.finances.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.finances.FinancesTest;
+import com.example.finances.TestFixtures;
+import com.example.finances.dto.CreateTransactionDTO;
+import com.example.finances.model.Account;
+import com.example.finances.model.Category;
+import com.example.finances.model.Debt;
+import com.example.finances.model.Money;
+import com.example.finances.model.User;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Checks that categories, accounts and debts are served from the cache between writes, that the
+ * corresponding writes evict them once they commit, and that the hit/miss counts reach the metrics
+ * registry.
+ */
+@FinancesTest
+class ReferenceDataCacheTest {
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    @Autowired
+    private CategoryService categoryService;
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private DebtService debtService;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private DataVersionService dataVersionService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private User user;
+    private Account account;
+    private Category category;
+
+    @BeforeAll
+    void seed() {
+        user = fixtures.user();
+        account = fixtures.account(user, "Chequing", Money.ZERO);
+        category = fixtures.category("Cached");
+    }
+
+    @Test
+    void categoriesAreCachedUntilACategoryWrite() {
+        List<Category> first = categoryService.findAllCategories();
+        long hits = hitCount(CategoryService.CACHE);
+        assertSame(first, categoryService.findAllCategories());
+        assertEquals(hits + 1, hitCount(CategoryService.CACHE));
+
+        fixtures.category("Added after caching");
+        assertEquals(first.size() + 1, categoryService.findAllCategories().size());
+
+        assertNotNull(meterRegistry.find("cache.gets")
+                .tag("cache", CategoryService.CACHE).tag("result", "hit").functionCounter());
+    }
+
+    @Test
+    void categoryDeletesEvictAndBumpTheVersionAfterCommit() throws Exception {
+        Category deleted = fixtures.category("Deleted in a transaction");
+        String etag = dataVersionService.categoriesETag();
+
+        transactionTemplate.executeWithoutResult(status -> {
+            categoryService.deleteCategory(deleted.getCategoryId());
+            // Another request reading before the commit still sees the category, and caches it
+            List<Category> uncommitted = CompletableFuture.supplyAsync(categoryService::findAllCategories)
+                    .orTimeout(10, TimeUnit.SECONDS).join();
+            assertTrue(uncommitted.stream().anyMatch(c -> c.getCategoryId() == deleted.getCategoryId()));
+            assertEquals(etag, dataVersionService.categoriesETag());
+        });
+
+        assertFalse(etag.equals(dataVersionService.categoriesETag()));
+        assertFalse(categoryService.findAllCategories().stream()
+                .anyMatch(c -> c.getCategoryId() == deleted.getCategoryId()));
+    }
+
+    @Test
+    void transactionWritesEvictTheUsersAccounts() {
+        List<Account> before = accountService.findAccountByUserId(user.getUserId());
+        assertSame(before, accountService.findAccountByUserId(user.getUserId()));
+
+        // Resolves the category from the cache rather than the database
+        categoryService.findCategoryById(category.getCategoryId());
+        long categoryHits = hitCount(CategoryService.CACHE);
+        transactionService.createTransaction(transaction(12_345));
+        assertTrue(hitCount(CategoryService.CACHE) > categoryHits);
+
+        List<Account> after = accountService.findAccountByUserId(user.getUserId());
+        assertEquals(before.get(0).getAccountBalance().plus(Money.ofCents(12_345)), after.get(0).getAccountBalance());
+    }
+
+    @Test
+    void debtWritesEvictTheUsersDebts() {
+        Debt debt = fixtures.debt(user, "Card", Money.ofCents(50_000), Money.ofCents(5_000));
+        List<Debt> before = debtService.findDebtsByUserId(user.getUserId());
+        assertSame(before, debtService.findDebtsByUserId(user.getUserId()));
+
+        debtService.makePayment(debt.getDebtId(), Money.ofCents(5_000));
+
+        Debt paid = debtService.findDebtsByUserId(user.getUserId()).stream()
+                .filter(candidate -> candidate.getDebtId() == debt.getDebtId())
+                .findFirst().orElseThrow();
+        assertEquals(5_000, paid.getAmountPaid().getCents());
+    }
+
+    private long hitCount(String cacheName) {
+        return ((CaffeineCache) cacheManager.getCache(cacheName)).getNativeCache().stats().hitCount();
+    }
+
+    private CreateTransactionDTO transaction(long cents) {
+        CreateTransactionDTO dto = new CreateTransactionDTO();
+        dto.setUserId(user.getUserId());
+        dto.setAccountId(account.getAccountId());
+        dto.setCategoryId(category.getCategoryId());
+        dto.setAmount(Money.ofCents(cents));
+        dto.setDescription("Cached lookups");
+        dto.setType("income");
+        dto.setTransactionDate(LocalDate.now());
+        return dto;
+    }
+}
@@ -0,0 +1,159 @@
+package com.example.finances.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.example.finances.FinancesTest;
+import com.example.finances.TestFixtures;
+import com.example.finances.dto.CreateTransactionDTO;
+import com.example.finances.dto.ImportResultDTO;
+import com.example.finances.dto.MonthlySpendingDTO;
+import com.example.finances.importer.ImportListener;
+import com.example.finances.importer.StatementFormat;
+import com.example.finances.model.Account;
+import com.example.finances.model.Category;
+import com.example.finances.model.Money;
+import com.example.finances.model.Transaction;
+import com.example.finances.model.User;
+import com.example.finances.repository.MonthlyCategoryTotalRepository;
+
+/**
+ * Checks that the monthly rollup kept up to date on every write agrees with a rebuild from the
+ * ledger, across single, batched and imported writes, updates that move a transaction to another
+ * category, month or type, and deletes, and that invalid report requests are refused.
+ */
+@FinancesTest
+class SpendingReportServiceTest {
+
+    private static final LocalDate MARCH = LocalDate.of(2024, 3, 1);
+    private static final LocalDate APRIL = LocalDate.of(2024, 4, 1);
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private SpendingReportService spendingReportService;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private StatementImportService statementImportService;
+
+    @Autowired
+    private MonthlyCategoryTotalRepository monthlyCategoryTotalRepository;
+
+    private User user;
+    private Account account;
+    private Category groceries;
+    private Category rent;
+
+    @BeforeAll
+    void seed() throws Exception {
+        user = fixtures.user();
+        account = fixtures.account(user, "Chequing", Money.ZERO);
+        groceries = fixtures.category("Rollup groceries");
+        rent = fixtures.category("Rollup rent");
+
+        transactionService.createTransaction(transaction(groceries, "expense", 4_000, MARCH.plusDays(2)));
+        transactionService.createTransaction(transaction(rent, "income", 200_000, MARCH));
+        List<Integer> batch = transactionService.createTransactions(List.of(
+                transaction(groceries, "expense", 2_550, MARCH.plusDays(9)),
+                transaction(rent, "expense", 120_000, MARCH),
+                transaction(groceries, "income", 1_000, APRIL.plusDays(1)),
+                transaction(groceries, "expense", 800, MARCH.plusDays(20))));
+        String csv = """
+                Date,Description,Amount
+                2024-03-28,Market,-12.40
+                2024-04-03,Market,-30.00
+                2024-04-04,Refund,5.00
+                """;
+        statementImportService.importStatement(
+                statementImportService.resolveTarget(user.getUserId(), account.getAccountId(), groceries.getCategoryId()),
+                StatementFormat.CSV.open(new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8))),
+                new ImportListener() {
+                    @Override
+                    public void onProgress(ImportResultDTO progress) {
+                    }
+
+                    @Override
+                    public void onRowError(long lineNumber, String message) {
+                    }
+                });
+
+        // Another category, another month and another type, then a delete that leaves its row empty
+        transactionService.updateTransaction(batch.get(0), transaction(rent, "expense", 2_550, MARCH.plusDays(9)));
+        transactionService.updateTransaction(batch.get(3), transaction(groceries, "expense", 800, APRIL.plusDays(20)));
+        transactionService.updateTransaction(batch.get(2), transaction(groceries, "expense", 1_000, APRIL.plusDays(1)));
+        Transaction deleted = transactionService.createTransaction(transaction(rent, "expense", 9_900, APRIL));
+        transactionService.deleteTransaction(deleted.getTransactionId());
+    }
+
+    @Test
+    void incrementalRowsMatchRebuild() {
+        List<String> incremental = rollupRows();
+
+        spendingReportService.rebuild(user.getUserId());
+
+        assertEquals(rollupRows(), incremental);
+        // 40.00 + 12.40 in March; 30.00 + 8.00 + 10.00 in April, whose only income is the refund
+        assertEquals(Stream.of(
+                "2024-03 " + groceries.getCategoryId() + " expense 5240 2",
+                "2024-03 " + rent.getCategoryId() + " expense 122550 2",
+                "2024-03 " + rent.getCategoryId() + " income 200000 1",
+                "2024-04 " + groceries.getCategoryId() + " expense 4800 3",
+                "2024-04 " + groceries.getCategoryId() + " income 500 1").sorted().toList(), incremental);
+        List<MonthlySpendingDTO> report = spendingReportService.getSpendingReport(
+                user.getUserId(), "expense", YearMonth.from(MARCH), YearMonth.from(APRIL));
+        assertEquals(3, report.size());
+        assertEquals(Money.ofCents(122_550), report.get(0).getTotal());
+    }
+
+    @Test
+    void invalidTypeOrRangeIsABadRequest() throws Exception {
+        mockMvc.perform(get("/reports/spending")
+                        .param("userId", String.valueOf(user.getUserId()))
+                        .param("type", "transfer"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/reports/spending")
+                        .param("userId", String.valueOf(user.getUserId()))
+                        .param("from", "2024-05")
+                        .param("to", "2024-03"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/reports/spending")
+                        .param("userId", String.valueOf(user.getUserId()))
+                        .param("from", "2024-03")
+                        .param("to", "2024-04"))
+                .andExpect(status().isOk());
+    }
+
+    // One "month category type cents count" line per rollup row of the user, in key order
+    private List<String> rollupRows() {
+        return monthlyCategoryTotalRepository.findAll().stream()
+                .filter(row -> row.getUserId() == user.getUserId())
+                .map(row -> row.getYearMonth() + " " + row.getCategoryId() + " " + row.getType() + " "
+                        + row.getTotalAmount().getCents() + " " + row.getTransactionCount())
+                .sorted()
+                .toList();
+    }
+
+    private CreateTransactionDTO transaction(Category category, String type, long cents, LocalDate date) {
+        return fixtures.transaction(account, category, type, cents, type + " " + date, date);
+    }
+}
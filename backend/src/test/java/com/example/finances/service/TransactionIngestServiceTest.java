@@ -0,0 +1,288 @@
+package com.example.finances.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.IntSupplier;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.finances.FinancesTest;
+import com.example.finances.TestFixtures;
+import com.example.finances.dto.CreateTransactionDTO;
+import com.example.finances.dto.IngestStatusDTO;
+import com.example.finances.ingest.TransactionJournal;
+import com.example.finances.model.Account;
+import com.example.finances.model.Category;
+import com.example.finances.model.IngestCheckpoint;
+import com.example.finances.model.Money;
+import com.example.finances.model.User;
+import com.example.finances.repository.DebtRepository;
+import com.example.finances.repository.IngestCheckpointRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Checks that accepted transactions are all written exactly once, that the HTTP endpoint answers
+ * 202 with a status URL, and that a journal left behind by a crash is replayed from its checkpoint,
+ * ignoring a torn last line and failing only the entries that can no longer be written, while a
+ * journal left behind by a database that has since been recreated is moved aside, not replayed.
+ * An entry that can never be written is failed with a fixed reason instead of holding the queue.
+ */
+@FinancesTest
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:sqlite:target/transaction-ingest-test.db",
+        "finances.ingest.enabled=true",
+        "finances.ingest.journal-path=target/ingest-test/journal.ndjson"
+})
+class TransactionIngestServiceTest {
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    @Autowired
+    private TransactionIngestService transactionIngestService;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private CategoryService categoryService;
+
+    @Autowired
+    private DebtRepository debtRepository;
+
+    @Autowired
+    private IngestCheckpointRepository checkpointRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    private User user;
+    private Account account;
+    private Category category;
+
+    @BeforeAll
+    void seed() {
+        user = fixtures.user();
+        account = fixtures.account(user, "Card", Money.ZERO);
+        category = fixtures.category("Ingested");
+    }
+
+    @Test
+    void concurrentFeedsAreWrittenExactlyOnce() throws Exception {
+        Account feedAccount = fixtures.account(user, "Feed", Money.ZERO);
+        int threads = 16;
+        int perThread = 250;
+        ExecutorService feeds = Executors.newFixedThreadPool(threads);
+        List<Future<List<Long>>> accepted = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            int feed = t;
+            accepted.add(feeds.submit(() -> {
+                List<Long> ids = new ArrayList<>();
+                for (int i = 0; i < perThread; i++) {
+                    ids.add(transactionIngestService.accept(transaction(feedAccount.getAccountId(), "Feed " + feed + " #" + i, 100))
+                            .getIngestId());
+                }
+                return ids;
+            }));
+        }
+        Set<Long> ingestIds = new HashSet<>();
+        for (Future<List<Long>> future : accepted) {
+            ingestIds.addAll(future.get());
+        }
+        feeds.shutdown();
+        awaitZero(transactionIngestService::pendingCount);
+
+        assertEquals(threads * perThread, ingestIds.size());
+        Set<Integer> transactionIds = new HashSet<>();
+        for (long ingestId : ingestIds) {
+            IngestStatusDTO status = transactionIngestService.findStatus(ingestId);
+            assertEquals(IngestStatusDTO.COMMITTED, status.getStatus());
+            assertTrue(transactionIds.add(status.getTransactionId()));
+        }
+        assertEquals(Money.ofCents(-100L * threads * perThread), accountService.findAccountById(feedAccount.getAccountId()).getAccountBalance());
+    }
+
+    @Test
+    void endpointAcceptsAndReportsStatus() throws Exception {
+        String body = objectMapper.writeValueAsString(transaction(account.getAccountId(), "Over HTTP", 250));
+        String response = mockMvc.perform(post("/transactions/ingest").contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isAccepted())
+                .andExpect(header().exists("Location"))
+                .andExpect(jsonPath("$.status").value(IngestStatusDTO.PENDING))
+                .andReturn().getResponse().getContentAsString();
+        long ingestId = objectMapper.readTree(response).get("ingestId").asLong();
+
+        awaitZero(transactionIngestService::pendingCount);
+        mockMvc.perform(get("/transactions/ingest/" + ingestId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value(IngestStatusDTO.COMMITTED))
+                .andExpect(jsonPath("$.transactionId").isNumber());
+
+        String unknownAccount = objectMapper.writeValueAsString(transaction(999_999, "Nowhere", 250));
+        mockMvc.perform(post("/transactions/ingest").contentType(MediaType.APPLICATION_JSON).content(unknownAccount))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/transactions/ingest/999999999")).andExpect(status().isNotFound());
+
+        String tooLarge = objectMapper.writeValueAsString(transaction(account.getAccountId(), "Too large", 100_000_000_001L));
+        mockMvc.perform(post("/transactions/ingest").contentType(MediaType.APPLICATION_JSON).content(tooLarge))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void journalIsReplayedFromTheCheckpointAfterACrash() throws Exception {
+        // A journal left by a process that committed entry 1, but not 2 and 3, and was cut off writing 4
+        Path path = Path.of("target/ingest-test/crashed.ndjson");
+        Files.deleteIfExists(path);
+        try (TransactionJournal crashed = new TransactionJournal(path, objectMapper, "crashed-epoch", 1)) {
+            crashed.append(transaction(account.getAccountId(), "Replayed 1", 100), entry -> { });
+            crashed.append(transaction(account.getAccountId(), "Replayed 2", 200), entry -> { });
+            crashed.append(transaction(999_999, "Account deleted since", 300), entry -> { });
+        }
+        Files.writeString(path, "{\"seq\":4,\"transaction\":{\"accou", StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+        transactionTemplate.executeWithoutResult(status -> checkpointRepository.save(new IngestCheckpoint("crashed.ndjson", "crashed-epoch", 1)));
+
+        TransactionIngestService restarted = new TransactionIngestService(transactionService, accountService,
+                categoryService, debtRepository, checkpointRepository, transactionTemplate, objectMapper, path, 500, 1000, 50);
+        restarted.open();
+        assertEquals(2, restarted.pendingCount());
+        restarted.start();
+        awaitZero(restarted::pendingCount);
+
+        assertThrows(NoSuchElementException.class, () -> restarted.findStatus(1));
+        assertEquals(IngestStatusDTO.COMMITTED, restarted.findStatus(2).getStatus());
+        IngestStatusDTO failed = restarted.findStatus(3);
+        assertEquals(IngestStatusDTO.FAILED, failed.getStatus());
+        assertEquals("A referenced user, account, category or debt no longer exists", failed.getError());
+        assertEquals(3, checkpointRepository.findById("crashed.ndjson").orElseThrow().getLastSequence());
+
+        List<String> descriptions = transactionService.findByUserID(user.getUserId(), null, 500).getItems().stream()
+                .map(row -> row.getDescription()).toList();
+        assertEquals(0, descriptions.stream().filter("Replayed 1"::equals).count());
+        assertEquals(1, descriptions.stream().filter("Replayed 2"::equals).count());
+
+        // The next entry continues the sequence, and the journal is emptied once everything is written
+        assertEquals(4, restarted.accept(transaction(account.getAccountId(), "After restart", 100)).getIngestId());
+        awaitZero(restarted::pendingCount);
+        awaitZero(() -> (int) path.toFile().length());
+        restarted.close();
+    }
+
+    @Test
+    void journalForARecreatedDatabaseIsNotReplayed() throws Exception {
+        // Entries acknowledged before the database was dropped and created again, so no checkpoint matches them
+        Path path = Path.of("target/ingest-test/recreated.ndjson");
+        Files.deleteIfExists(path);
+        Files.deleteIfExists(Path.of("target/ingest-test/recreated.ndjson.discarded"));
+        try (TransactionJournal previous = new TransactionJournal(path, objectMapper, "previous-database", 1)) {
+            previous.append(transaction(account.getAccountId(), "From the old database", 100), entry -> { });
+            previous.append(transaction(account.getAccountId(), "Also from the old database", 100), entry -> { });
+        }
+
+        TransactionIngestService restarted = new TransactionIngestService(transactionService, accountService,
+                categoryService, debtRepository, checkpointRepository, transactionTemplate, objectMapper, path, 500, 1000, 50);
+        restarted.open();
+        assertEquals(0, restarted.pendingCount());
+        assertEquals(2, restarted.discardedCount());
+        assertTrue(Files.exists(Path.of("target/ingest-test/recreated.ndjson.discarded")));
+        IngestCheckpoint checkpoint = checkpointRepository.findById("recreated.ndjson").orElseThrow();
+        assertNotEquals("previous-database", checkpoint.getEpoch());
+        assertEquals(0, checkpoint.getLastSequence());
+
+        // The sequence starts again under the new epoch
+        restarted.start();
+        assertEquals(1, restarted.accept(transaction(account.getAccountId(), "In the new database", 100)).getIngestId());
+        awaitZero(restarted::pendingCount);
+        restarted.close();
+
+        List<String> descriptions = transactionService.findByUserID(user.getUserId(), null, 500).getItems().stream()
+                .map(row -> row.getDescription()).toList();
+        assertFalse(descriptions.contains("From the old database"));
+        assertTrue(descriptions.contains("In the new database"));
+    }
+
+    @Test
+    void entryThatCanNeverBeWrittenDoesNotHoldTheQueue() throws Exception {
+        Account account = fixtures.account(user, "Poisoned", Money.ZERO);
+        Path path = Path.of("target/ingest-test/poison.ndjson");
+        Files.deleteIfExists(path);
+        transactionTemplate.executeWithoutResult(status -> checkpointRepository.save(new IngestCheckpoint("poison.ndjson", "poison-epoch", 0)));
+        // Written past validation; applying it overflows, which no retry can fix
+        try (TransactionJournal journal = new TransactionJournal(path, objectMapper, "poison-epoch", 1)) {
+            journal.append(transaction(account.getAccountId(), "Behind nothing", 100), entry -> { });
+            journal.append(transaction(account.getAccountId(), "Overflowing", Long.MIN_VALUE), entry -> { });
+            journal.append(transaction(account.getAccountId(), "Behind the overflow", 200), entry -> { });
+        }
+
+        TransactionIngestService restarted = new TransactionIngestService(transactionService, accountService,
+                categoryService, debtRepository, checkpointRepository, transactionTemplate, objectMapper, path, 500, 1000, 60_000);
+        restarted.open();
+        restarted.start();
+        // Well within the retry delay, so nothing was retried
+        awaitZero(restarted::pendingCount);
+
+        assertEquals(IngestStatusDTO.COMMITTED, restarted.findStatus(1).getStatus());
+        IngestStatusDTO failed = restarted.findStatus(2);
+        assertEquals(IngestStatusDTO.FAILED, failed.getStatus());
+        assertEquals("The amount is too large for the account", failed.getError());
+        assertEquals(IngestStatusDTO.COMMITTED, restarted.findStatus(3).getStatus());
+        assertEquals(Money.ofCents(-300), accountService.findAccountById(account.getAccountId()).getAccountBalance());
+        assertEquals(3, checkpointRepository.findById("poison.ndjson").orElseThrow().getLastSequence());
+        restarted.close();
+    }
+
+    private void awaitZero(IntSupplier value) throws InterruptedException {
+        for (int attempt = 0; attempt < 300 && value.getAsInt() != 0; attempt++) {
+            Thread.sleep(50);
+        }
+        assertEquals(0, value.getAsInt());
+    }
+
+    private CreateTransactionDTO transaction(int accountId, String description, long cents) {
+        CreateTransactionDTO dto = new CreateTransactionDTO();
+        dto.setUserId(user.getUserId());
+        dto.setAccountId(accountId);
+        dto.setCategoryId(category.getCategoryId());
+        dto.setAmount(Money.ofCents(cents));
+        dto.setDescription(description);
+        dto.setType("expense");
+        dto.setTransactionDate(LocalDate.now());
+        return dto;
+    }
+}
@@ -0,0 +1,156 @@
+package com.example.finances.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import com.example.finances.FinancesTest;
+import com.example.finances.TestFixtures;
+import com.example.finances.dto.CreateTransactionDTO;
+import com.example.finances.dto.CursorPageDTO;
+import com.example.finances.dto.TransactionResponseDTO;
+import com.example.finances.model.Account;
+import com.example.finances.model.Category;
+import com.example.finances.model.Money;
+import com.example.finances.model.Transaction;
+import com.example.finances.model.User;
+
+/**
+ * Checks that the full-text index follows transaction writes, and that searches support prefixes
+ * and phrases, rank their results, stay within one user and page through every match.
+ */
+@FinancesTest
+class TransactionSearchServiceTest {
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    @Autowired
+    private TransactionSearchService transactionSearchService;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    private User user;
+    private User otherUser;
+    private Account account;
+    private Account otherAccount;
+    private Category category;
+
+    @BeforeAll
+    void seed() {
+        user = fixtures.user();
+        otherUser = fixtures.user();
+        account = fixtures.account(user, "Chequing", Money.ZERO);
+        otherAccount = fixtures.account(otherUser, "Chequing", Money.ZERO);
+        category = fixtures.category("Searched");
+
+        List<CreateTransactionDTO> batch = new ArrayList<>();
+        batch.add(transaction(user, account, "Whole Foods Market"));
+        batch.add(transaction(user, account, "Foods of the world, whole grains"));
+        batch.add(transaction(user, account, "Grocery run"));
+        batch.add(transaction(user, account, "Café groceries"));
+        batch.add(transaction(user, account, "Coffee coffee coffee"));
+        batch.add(transaction(user, account, "Coffee and a bagel with extra cream cheese on the side"));
+        for (int i = 0; i < 7; i++) {
+            batch.add(transaction(user, account, "Parking meter " + i));
+        }
+        batch.add(transaction(otherUser, otherAccount, "Whole Foods Market"));
+        transactionService.createTransactions(batch);
+    }
+
+    @Test
+    void prefixAndPhraseQueries() {
+        assertEquals(Set.of("Grocery run", "Café groceries"), descriptions(search("groc*")));
+        assertEquals(List.of("Whole Foods Market"), List.copyOf(descriptions(search("\"whole foods\""))));
+        // Without quotes the words may appear anywhere, in any order
+        assertEquals(2, search("foods whole").getItems().size());
+        // Accents and case are ignored
+        assertEquals(Set.of("Café groceries"), descriptions(search("CAFE")));
+    }
+
+    @Test
+    void resultsAreRankedAndScopedToTheUser() {
+        List<TransactionResponseDTO> items = search("coffee").getItems();
+        assertEquals("Coffee coffee coffee", items.get(0).getDescription());
+        assertEquals(2, items.size());
+        assertTrue(items.stream().allMatch(item -> item.getUserId() == user.getUserId()));
+    }
+
+    @Test
+    void pagesThroughEveryMatch() {
+        Set<Integer> seen = new HashSet<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            CursorPageDTO<TransactionResponseDTO> page = transactionSearchService.search(user.getUserId(), "parking", cursor, 3);
+            page.getItems().forEach(item -> assertTrue(seen.add(item.getTransactionId())));
+            cursor = page.getNextCursor();
+            pages++;
+        } while (cursor != null);
+        assertEquals(7, seen.size());
+        assertEquals(3, pages);
+    }
+
+    @Test
+    void indexFollowsUpdatesAndDeletes() {
+        Transaction created = transactionService.createTransaction(transaction(user, account, "Bookshop"));
+        assertEquals(1, search("bookshop").getItems().size());
+
+        CreateTransactionDTO renamed = transaction(user, account, "Hardware store");
+        transactionService.updateTransaction(created.getTransactionId(), renamed);
+        assertTrue(search("bookshop").getItems().isEmpty());
+        assertEquals(1, search("hardware").getItems().size());
+
+        transactionService.deleteTransaction(created.getTransactionId());
+        assertTrue(search("hardware").getItems().isEmpty());
+    }
+
+    @Test
+    void userInputCannotInjectQuerySyntax() {
+        assertEquals("\"groc\"* \"whole foods\"", TransactionSearchService.toMatchExpression("groc* \"whole foods\""));
+        assertEquals("\"description:coffee\" \"OR\" \"NEAR(a\"", TransactionSearchService.toMatchExpression("description:coffee OR NEAR(a"));
+        assertNotNull(search("coffee OR parking"));
+        assertTrue(search("coffee OR parking").getItems().isEmpty());
+        assertEquals(2, search("coffee)").getItems().size());
+
+        assertThrows(IllegalArgumentException.class, () -> TransactionSearchService.toMatchExpression("  "));
+        assertThrows(IllegalArgumentException.class, () -> TransactionSearchService.toMatchExpression("* \"\" -"));
+        assertThrows(IllegalArgumentException.class, () -> transactionSearchService.search(user.getUserId(), "x", "bogus", null));
+        assertNull(search("nothing-matches-this").getNextCursor());
+    }
+
+    private CursorPageDTO<TransactionResponseDTO> search(String query) {
+        return transactionSearchService.search(user.getUserId(), query, null, null);
+    }
+
+    private Set<String> descriptions(CursorPageDTO<TransactionResponseDTO> page) {
+        Set<String> descriptions = new HashSet<>();
+        page.getItems().forEach(item -> descriptions.add(item.getDescription()));
+        return descriptions;
+    }
+
+    private CreateTransactionDTO transaction(User owner, Account target, String description) {
+        CreateTransactionDTO dto = new CreateTransactionDTO();
+        dto.setUserId(owner.getUserId());
+        dto.setAccountId(target.getAccountId());
+        dto.setCategoryId(category.getCategoryId());
+        dto.setAmount(Money.ofCents(1_000));
+        dto.setDescription(description);
+        dto.setType("expense");
+        dto.setTransactionDate(LocalDate.now());
+        return dto;
+    }
+}
@@ -0,0 +1,105 @@
+package com.example.finances.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.LocalDate;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import com.example.finances.FinancesTest;
+import com.example.finances.TestFixtures;
+import com.example.finances.dto.CreateTransactionDTO;
+import com.example.finances.model.Account;
+import com.example.finances.model.Category;
+import com.example.finances.model.Money;
+import com.example.finances.model.Transaction;
+import com.example.finances.model.User;
+
+/**
+ * Checks that every transaction write moves the stored account balances by exactly its effect on
+ * the ledger: updates that change the amount or flip the type, updates that move a transaction to
+ * another account, and deletes.
+ */
+@FinancesTest
+class TransactionServiceTest {
+
+    private static final LocalDate DAY = LocalDate.of(2024, 5, 10);
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private AccountService accountService;
+
+    private User user;
+    private Category category;
+
+    @BeforeAll
+    void seed() {
+        user = fixtures.user();
+        category = fixtures.category("Balanced");
+    }
+
+    @Test
+    void updateOnTheSameAccountAppliesTheDifference() {
+        Account account = fixtures.account(user, "Amount", Money.ofCents(10_000));
+        Transaction transaction = transactionService.createTransaction(transaction(account, "expense", 2_500));
+        assertBalance(7_500, account);
+
+        transactionService.updateTransaction(transaction.getTransactionId(), transaction(account, "expense", 4_000));
+
+        assertBalance(6_000, account);
+    }
+
+    @Test
+    void updateThatFlipsTheTypeReversesTheSign() {
+        Account account = fixtures.account(user, "Flipped", Money.ofCents(10_000));
+        Transaction transaction = transactionService.createTransaction(transaction(account, "expense", 1_500));
+
+        transactionService.updateTransaction(transaction.getTransactionId(), transaction(account, "income", 1_500));
+        assertBalance(11_500, account);
+
+        transactionService.updateTransaction(transaction.getTransactionId(), transaction(account, "expense", 2_000));
+        assertBalance(8_000, account);
+    }
+
+    @Test
+    void updateThatMovesAccountsMovesTheAmountWithIt() {
+        Account from = fixtures.account(user, "Moved from", Money.ofCents(10_000));
+        Account to = fixtures.account(user, "Moved to", Money.ofCents(3_000));
+        Transaction transaction = transactionService.createTransaction(transaction(from, "expense", 2_500));
+
+        // A different amount and type as well, so neither side can be right by accident
+        transactionService.updateTransaction(transaction.getTransactionId(), transaction(to, "income", 4_000));
+
+        assertBalance(10_000, from);
+        assertBalance(7_000, to);
+    }
+
+    @Test
+    void deleteReversesTheAmount() {
+        Account account = fixtures.account(user, "Deleted", Money.ofCents(10_000));
+        Transaction expense = transactionService.createTransaction(transaction(account, "expense", 2_500));
+        Transaction income = transactionService.createTransaction(transaction(account, "income", 900));
+        assertBalance(8_400, account);
+
+        transactionService.deleteTransaction(expense.getTransactionId());
+        assertBalance(10_900, account);
+
+        transactionService.deleteTransaction(income.getTransactionId());
+        assertBalance(10_000, account);
+    }
+
+    private CreateTransactionDTO transaction(Account account, String type, long cents) {
+        return fixtures.transaction(account, category, type, cents, type + " " + cents, DAY);
+    }
+
+    private void assertBalance(long cents, Account account) {
+        assertEquals(Money.ofCents(cents), accountService.findAccountById(account.getAccountId()).getAccountBalance());
+    }
+}
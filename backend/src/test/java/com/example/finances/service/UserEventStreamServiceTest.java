@@ -0,0 +1,182 @@
+package com.example.finances.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.BooleanSupplier;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.example.finances.FinancesTest;
+import com.example.finances.TestFixtures;
+import com.example.finances.dto.CreateTransactionDTO;
+import com.example.finances.model.Account;
+import com.example.finances.model.Category;
+import com.example.finances.model.Debt;
+import com.example.finances.model.Money;
+import com.example.finances.model.User;
+
+/**
+ * Checks that committed writes reach the writing user's event stream and no one else's, and that
+ * a stream that falls behind drops its oldest events and reports how many it dropped.
+ */
+@FinancesTest
+class UserEventStreamServiceTest {
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private DebtService debtService;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    private User user;
+    private User otherUser;
+    private Account account;
+    private Category category;
+    private Debt debt;
+
+    @BeforeAll
+    void seed() {
+        user = fixtures.user();
+        otherUser = fixtures.user();
+        account = fixtures.account(user, "Chequing", Money.ZERO);
+        category = fixtures.category("Streamed");
+        debt = fixtures.debt(user, "Loan", Money.ofCents(100_000), Money.ofCents(10_000));
+    }
+
+    @Test
+    void committedWritesAreStreamedToTheirUser() throws Exception {
+        MockHttpServletResponse stream = mockMvc.perform(get("/users/" + user.getUserId() + "/events"))
+                .andExpect(request().asyncStarted())
+                .andReturn().getResponse();
+        MockHttpServletResponse otherStream = mockMvc.perform(get("/users/" + otherUser.getUserId() + "/events"))
+                .andExpect(request().asyncStarted())
+                .andReturn().getResponse();
+
+        int transactionId = transactionService.createTransaction(transaction(4_200)).getTransactionId();
+        debtService.makePayment(debt.getDebtId(), Money.ofCents(2_500));
+
+        awaitContent(stream, "event:debt.payment");
+        String content = stream.getContentAsString();
+        assertTrue(content.contains("event:transaction.created"), content);
+        assertTrue(content.contains("\"id\":" + transactionId + ",\"amount\":-42.00"), content);
+        assertTrue(content.contains("event:account.balance"), content);
+        assertTrue(content.contains("\"amount\":25.00"), content);
+        assertTrue(content.indexOf("transaction.created") < content.indexOf("debt.payment"), content);
+        assertEquals("", otherStream.getContentAsString());
+    }
+
+    @Test
+    void unknownUserIsNotFound() throws Exception {
+        mockMvc.perform(get("/users/999999/events")).andExpect(status().isNotFound());
+    }
+
+    @Test
+    void slowSubscriberDropsOldestEvents() {
+        RecordingEmitter emitter = new RecordingEmitter();
+        List<Runnable> drains = new ArrayList<>();
+        UserEventStreamService.Subscriber subscriber = new UserEventStreamService.Subscriber(emitter, 3, drains::add);
+
+        for (int i = 1; i <= 5; i++) {
+            subscriber.enqueue(SseEmitter.event().name("event-" + i));
+        }
+        // Only the first event schedules a drain; the rest wait for it
+        assertEquals(1, drains.size());
+        drains.get(0).run();
+
+        assertEquals(List.of(UserEventStreamService.OVERFLOW_EVENT, "event-3", "event-4", "event-5"), emitter.names);
+        assertTrue(emitter.sent.get(0).contains("dropped=2"));
+
+        // Once drained, the next event schedules a new drain and carries no overflow
+        subscriber.enqueue(SseEmitter.event().name("event-6"));
+        assertEquals(2, drains.size());
+        drains.get(1).run();
+        assertEquals("event-6", emitter.names.get(emitter.names.size() - 1));
+        assertFalse(emitter.names.subList(1, emitter.names.size()).contains(UserEventStreamService.OVERFLOW_EVENT));
+    }
+
+    @Test
+    void streamRejectedBySaturatedSendersIsClosed() {
+        RecordingEmitter emitter = new RecordingEmitter();
+        List<Runnable> drains = new ArrayList<>();
+        UserEventStreamService.Subscriber subscriber = new UserEventStreamService.Subscriber(emitter, 3, drain -> {
+            drains.add(drain);
+            throw new RejectedExecutionException("Sender queue is full");
+        });
+
+        subscriber.enqueue(SseEmitter.event().name("event-1"));
+        assertTrue(emitter.completed);
+
+        // A closed stream no longer schedules drains
+        subscriber.enqueue(SseEmitter.event().name("event-2"));
+        assertEquals(1, drains.size());
+        assertTrue(emitter.names.isEmpty());
+    }
+
+    private void awaitContent(MockHttpServletResponse response, String expected) throws Exception {
+        BooleanSupplier received = () -> {
+            try {
+                return response.getContentAsString().contains(expected);
+            } catch (Exception e) {
+                return false;
+            }
+        };
+        for (int attempt = 0; attempt < 100 && !received.getAsBoolean(); attempt++) {
+            Thread.sleep(50);
+        }
+        assertTrue(received.getAsBoolean(), "no " + expected + " in " + response.getContentAsString());
+    }
+
+    private CreateTransactionDTO transaction(long cents) {
+        CreateTransactionDTO dto = new CreateTransactionDTO();
+        dto.setUserId(user.getUserId());
+        dto.setAccountId(account.getAccountId());
+        dto.setCategoryId(category.getCategoryId());
+        dto.setAmount(Money.ofCents(cents));
+        dto.setDescription("Streamed");
+        dto.setType("expense");
+        dto.setTransactionDate(LocalDate.now());
+        return dto;
+    }
+
+    // Records what would have been written to the client instead of writing it
+    private static final class RecordingEmitter extends SseEmitter {
+        private final List<String> names = new ArrayList<>();
+        private final List<String> sent = new ArrayList<>();
+        private boolean completed;
+
+        @Override
+        public void complete() {
+            completed = true;
+        }
+
+        @Override
+        public void send(SseEventBuilder builder) {
+            StringBuilder text = new StringBuilder();
+            builder.build().forEach(part -> text.append(part.getData()));
+            String event = text.toString();
+            sent.add(event);
+            int start = event.indexOf("event:") + "event:".length();
+            names.add(event.substring(start, event.indexOf('\n', start)));
+        }
+    }
+}
@@ -21,6 +21,7 @@ export function AccountsPage() {
   const [showTransferModal, setShowTransferModal] = useState(false);
   const [editingAccount, setEditingAccount] = useState<Account | null>(null);
   const [selectedAccount, setSelectedAccount] = useState<Account | null>(null);
+  const [growthData, setGrowthData] = useState<{ date: string; balance: number }[]>([]);
   
   // Transfer state
   const [transferData, setTransferData] = useState({
@@ -34,6 +35,20 @@ export function AccountsPage() {
     loadData();
   }, []);
 
+  // Balance history is recorded and downsampled by the server; refetched whenever the accounts reload
+  useEffect(() => {
+    if (!selectedAccount) {
+      setGrowthData([]);
+      return;
+    }
+    apiService.getAccountBalanceHistory(selectedAccount.accountId)
+      .then(points => setGrowthData(points.map(point => ({
+        date: formatDate(point.date),
+        balance: point.balance,
+      }))))
+      .catch(error => console.error('Error loading balance history:', error));
+  }, [selectedAccount, accounts]);
+
   const loadData = async () => {
     try {
       const [accountsRes, transactionsRes] = await Promise.all([
@@ -135,7 +150,7 @@ export function AccountsPage() {
   };
 
   const getAccountTransactions = (accountId: number) => {
-    return transactions.filter(t => t.accountId.accountId === accountId);
+    return transactions.filter(t => t.accountId === accountId);
   };
 
   // Calculate monthly growth for an account
@@ -192,50 +207,6 @@ export function AccountsPage() {
     ? accounts.reduce((sum, account) => sum + calculateMonthlyGrowth(account).percentage, 0) / accounts.length
     : 0;
 
-  // Generate account growth data based on actual transactions
-  const generateGrowthData = (account: Account) => {
-    const accountTransactions = getAccountTransactions(account.accountId);
-    const sortedTransactions = accountTransactions.sort((a, b) => 
-      new Date(a.transactionDate).getTime() - new Date(b.transactionDate).getTime()
-    );
-
-    let runningBalance = account.accountBalance;
-    const data = [];
-
-    // Start with current balance and work backwards
-    for (let i = sortedTransactions.length - 1; i >= 0; i--) {
-      const transaction = sortedTransactions[i];
-      if (transaction.type === 'income') {
-        runningBalance -= transaction.amount;
-      } else {
-        runningBalance += transaction.amount;
-      }
-    }
-
-    // Now build the growth data forward
-    let currentBalance = runningBalance;
-    for (const transaction of sortedTransactions) {
-      if (transaction.type === 'income') {
-        currentBalance += transaction.amount;
-      } else {
-        currentBalance -= transaction.amount;
-      }
-      
-      data.push({
-        date: formatDate(transaction.transactionDate),
-        balance: currentBalance
-      });
-    }
-
-    // Add current balance as the latest point
-    data.push({
-      date: formatDate(new Date()),
-      balance: account.accountBalance
-    });
-
-    return data.slice(-12); // Show last 12 data points
-  };
-
   const handleAccountClick = (account: Account) => {
     setSelectedAccount(selectedAccount?.accountId === account.accountId ? null : account);
   };
@@ -334,7 +305,7 @@ export function AccountsPage() {
       {selectedAccount && (
         <div className="mb-8">
           <AccountGrowthChart 
-            data={generateGrowthData(selectedAccount)} 
+            data={growthData} 
             title={`${selectedAccount.accountName} Growth`}
           />
         </div>
@@ -556,7 +527,7 @@ export function AccountsPage() {
                         {transaction.description}
                       </TableCell>
                       <TableCell>
-                        {transaction.categoryId.categoryName}
+                        {transaction.categoryName}
                       </TableCell>
                       <TableCell className={`text-right font-medium ${
                         transaction.type === 'income' ? 'text-green-600' : 'text-red-600'
@@ -4,26 +4,30 @@ import { NetWorthCard } from '@/components/dashboard/NetWorthCard';
 import { AccountsList } from '@/components/dashboard/AccountsList';
 import { DebtsSummary } from '@/components/dashboard/DebtsSummary';
 import { SpendingChart } from '@/components/charts/SpendingChart';
-import { type Account, type Debt, type Transaction } from '@/types/api';
+import { type Account, type Debt, type DashboardSummary, type MonthlySpending } from '@/types/api';
 import { apiService } from '@/services/api';
 
 export function HomePage() {
   const [accounts, setAccounts] = useState<Account[]>([]);
   const [debts, setDebts] = useState<Debt[]>([]);
-  const [transactions, setTransactions] = useState<Transaction[]>([]);
+  const [summary, setSummary] = useState<DashboardSummary | null>(null);
+  const [spending, setSpending] = useState<MonthlySpending[]>([]);
   const [loading, setLoading] = useState(true);
 
   useEffect(() => {
     const loadData = async () => {
       try {
-        const [accountsRes, debtsRes, transactionsRes] = await Promise.all([
+        const thisMonth = new Date().toLocaleDateString('en-CA').slice(0, 7); // local yyyy-MM
+        const [accountsRes, debtsRes, summaryRes, spendingRes] = await Promise.all([
           apiService.getAccountsByUserId(1),
           apiService.getActiveDebtsByUserId(1),
-          apiService.getTransactionsByUserId(1),
+          apiService.getDashboardSummary(1),
+          apiService.getSpendingReport(1, thisMonth, thisMonth),
         ]);
         setAccounts(accountsRes);
         setDebts(debtsRes);
-        setTransactions(transactionsRes);
+        setSummary(summaryRes);
+        setSpending(spendingRes);
       } catch (error) {
         console.error('Error loading dashboard data:', error);
       } finally {
@@ -38,29 +42,14 @@ export function HomePage() {
     return <div className="flex items-center justify-center h-64">Loading...</div>;
   }
 
-  const totalAssets = accounts.reduce((sum, account) => sum + account.accountBalance, 0);
-  const totalDebts = debts.reduce((sum, debt) => sum + debt.remainingBalance, 0);
+  // Totals are aggregated server-side by the dashboard endpoint
+  const totalAssets = summary?.totalAssets ?? 0;
+  const totalDebts = summary?.totalDebts ?? 0;
 
-  // Get spending data for current month
-  const currentMonth = new Date().getMonth();
-  const currentYear = new Date().getFullYear();
-  const monthlyExpenses = transactions.filter(t => {
-    const transactionDate = new Date(t.transactionDate);
-    return t.type === 'expense' && 
-           transactionDate.getMonth() === currentMonth && 
-           transactionDate.getFullYear() === currentYear;
-  });
-
-  // Group expenses by category
-  const spendingByCategory = monthlyExpenses.reduce((acc, transaction) => {
-    const category = transaction.categoryId.categoryName;
-    acc[category] = (acc[category] || 0) + transaction.amount;
-    return acc;
-  }, {} as Record<string, number>);
-
-  const spendingData = Object.entries(spendingByCategory).map(([category, amount], index) => ({
-    category,
-    amount,
+  // Read from the monthly rollup; a single month comes back largest total first
+  const spendingData = spending.map(({ categoryName, total }, index) => ({
+    category: categoryName,
+    amount: total,
     color: ['#0088FE', '#00C49F', '#FFBB28', '#FF8042', '#8884d8', '#82ca9d'][index % 6]
   }));
 
@@ -59,8 +59,12 @@ export function TransactionsPage() {
     if (!editingTransaction) return;
     
     try {
-      const updatedTransaction: Transaction = {
-        ...editingTransaction,
+      const updatedTransaction: CreateTransactionDTO = {
+        accountId: editingTransaction.accountId,
+        userId: editingTransaction.userId,
+        categoryId: editingTransaction.categoryId,
+        debtId: editingTransaction.debtId ?? undefined,
+        transactionDate: editingTransaction.transactionDate,
         amount: transactionData.amount,
         description: transactionData.description,
         type: transactionData.type,
@@ -94,7 +98,7 @@ export function TransactionsPage() {
     const transactionDate = new Date(transaction.transactionDate);
     const transactionMonth = `${transactionDate.getFullYear()}-${(transactionDate.getMonth() + 1).toString().padStart(2, '0')}`;
     
-    const matchesCategory = !selectedCategory || transaction.categoryId.categoryId.toString() === selectedCategory;
+    const matchesCategory = !selectedCategory || transaction.categoryId.toString() === selectedCategory;
     const matchesType = !selectedType || transaction.type === selectedType;
     const matchesMonth = !selectedMonth || transactionMonth === selectedMonth;
     
@@ -104,7 +108,7 @@ export function TransactionsPage() {
   // Calculate spending by category for the chart
   const expenseTransactions = filteredTransactions.filter(t => t.type === 'expense');
   const spendingByCategory = expenseTransactions.reduce((acc, transaction) => {
-    const category = transaction.categoryId.categoryName;
+    const category = transaction.categoryName;
     acc[category] = (acc[category] || 0) + transaction.amount;
     return acc;
   }, {} as Record<string, number>);
@@ -138,14 +142,14 @@ export function TransactionsPage() {
             setEditingTransaction(null);
           }}
           initialData={editingTransaction ? {
-            accountId: editingTransaction.accountId.accountId,
-            userId: editingTransaction.userId.userId,
+            accountId: editingTransaction.accountId,
+            userId: editingTransaction.userId,
             amount: editingTransaction.amount,
             description: editingTransaction.description,
-            categoryId: editingTransaction.categoryId.categoryId,
-            debtId: editingTransaction.debtId?.debtId,
+            categoryId: editingTransaction.categoryId,
+            debtId: editingTransaction.debtId ?? undefined,
             type: editingTransaction.type,
-            recurrence: editingTransaction.recurrence,
+            recurrence: editingTransaction.recurrence ?? undefined,
           } : undefined}
         />
       </div>
@@ -312,10 +316,10 @@ export function TransactionsPage() {
                     {transaction.description}
                   </TableCell>
                   <TableCell>
-                    {transaction.categoryId.categoryName}
+                    {transaction.categoryName}
                   </TableCell>
                   <TableCell>
-                    {transaction.accountId.accountName}
+                    {transaction.accountName}
                   </TableCell>
                   <TableCell>
                     <span className={`inline-flex items-center px-2.5 py-0.5 rounded-full text-xs font-medium ${
@@ -2,12 +2,23 @@ import type {
   User, 
   Account, 
   Category, 
+  CategoryRule, 
   Debt, 
   Transaction, 
+  CursorPage, 
+  DashboardSummary, 
+  MonthlySpending, 
+  BalancePoint, 
+  NetWorthPoint, 
+  CashFlowForecast, 
   CreateAccountDTO, 
   CreateTransactionDTO, 
   CreateDebtDTO, 
-  PaymentRequest 
+  CreateCategoryRuleDTO, 
+  PaymentRequest, 
+  PayoffSimulationRequest, 
+  PayoffPlan, 
+  LedgerChange 
 } from '@/types/api';
 
 const API_BASE = 'http://localhost:8080';
@@ -15,11 +26,11 @@ const API_BASE = 'http://localhost:8080';
 class ApiService {
   private async request<T>(endpoint: string, options?: RequestInit): Promise<T> {
     const response = await fetch(`${API_BASE}${endpoint}`, {
+      ...options,
       headers: {
         'Content-Type': 'application/json',
         ...options?.headers,
       },
-      ...options,
     });
 
     if (!response.ok) {
@@ -29,11 +40,51 @@ class ApiService {
     return response.json();
   }
 
+  // Follows nextCursor until the last page of a keyset-paginated listing
+  private async requestAllPages<T>(endpoint: string): Promise<T[]> {
+    const items: T[] = [];
+    let cursor: string | null = null;
+    do {
+      const separator = endpoint.includes('?') ? '&' : '?';
+      const query = cursor ? `${separator}cursor=${encodeURIComponent(cursor)}&limit=500` : `${separator}limit=500`;
+      const page: CursorPage<T> = await this.request<CursorPage<T>>(`${endpoint}${query}`);
+      items.push(...page.items);
+      cursor = page.nextCursor;
+    } while (cursor);
+    return items;
+  }
+
   // User APIs
   async getUser(): Promise<User> {
     return this.request<User>('/users/1');
   }
 
+  async getDashboardSummary(userId: number): Promise<DashboardSummary> {
+    return this.request<DashboardSummary>(`/users/${userId}/dashboard`);
+  }
+
+  async getNetWorthHistory(userId: number, from?: string, to?: string, points?: number): Promise<NetWorthPoint[]> {
+    const params = new URLSearchParams();
+    if (from) params.set('from', from);
+    if (to) params.set('to', to);
+    if (points) params.set('points', String(points));
+    return this.request<NetWorthPoint[]>(`/users/${userId}/net-worth?${params}`);
+  }
+
+  // Report APIs
+  async getSpendingReport(userId: number, from?: string, to?: string, type: 'income' | 'expense' = 'expense'): Promise<MonthlySpending[]> {
+    const params = new URLSearchParams({ userId: String(userId), type });
+    if (from) params.set('from', from);
+    if (to) params.set('to', to);
+    return this.request<MonthlySpending[]>(`/reports/spending?${params}`);
+  }
+
+  async getCashFlowForecast(userId: number, months?: number): Promise<CashFlowForecast> {
+    const params = new URLSearchParams({ userId: String(userId) });
+    if (months) params.set('months', String(months));
+    return this.request<CashFlowForecast>(`/reports/cash-flow?${params}`);
+  }
+
   // Account APIs
   async getAccounts(): Promise<Account[]> {
     return this.request<Account[]>('/accounts');
@@ -43,6 +94,14 @@ class ApiService {
     return this.request<Account>(`/accounts/${id}`);
   }
 
+  async getAccountBalanceHistory(id: number, from?: string, to?: string, points?: number): Promise<BalancePoint[]> {
+    const params = new URLSearchParams();
+    if (from) params.set('from', from);
+    if (to) params.set('to', to);
+    if (points) params.set('points', String(points));
+    return this.request<BalancePoint[]>(`/accounts/${id}/balance-history?${params}`);
+  }
+
   async getAccountsByUserId(userId: number): Promise<Account[]> {
     return this.request<Account[]>(`/accounts/user/${userId}`);
   }
@@ -69,33 +128,52 @@ class ApiService {
 
   // Transaction APIs
   async getTransactions(): Promise<Transaction[]> {
-    return this.request<Transaction[]>('/transactions');
+    return this.requestAllPages<Transaction>('/transactions');
   }
 
   async getTransactionById(id: number): Promise<Transaction> {
     return this.request<Transaction>(`/transactions/${id}`);
   }
 
+  async getTransactionsPageByUserId(userId: number, cursor?: string, limit?: number): Promise<CursorPage<Transaction>> {
+    const params = new URLSearchParams();
+    if (cursor) params.set('cursor', cursor);
+    if (limit) params.set('limit', limit.toString());
+    const query = params.toString();
+    return this.request<CursorPage<Transaction>>(`/transactions/user/${userId}${query ? `?${query}` : ''}`);
+  }
+
   async getTransactionsByUserId(userId: number): Promise<Transaction[]> {
-    return this.request<Transaction[]>(`/transactions/user/${userId}`);
+    return this.requestAllPages<Transaction>(`/transactions/user/${userId}`);
+  }
+
+  // One page of matches, best first; pass the previous page's nextCursor to continue
+  async searchTransactions(userId: number, query: string, cursor?: string): Promise<CursorPage<Transaction>> {
+    const params = new URLSearchParams({ userId: String(userId), q: query });
+    if (cursor) {
+      params.set('cursor', cursor);
+    }
+    return this.request<CursorPage<Transaction>>(`/transactions/search?${params}`);
   }
 
   async getTransactionsByAccountId(accountId: number): Promise<Transaction[]> {
-    return this.request<Transaction[]>(`/transactions/account/${accountId}`);
+    return this.requestAllPages<Transaction>(`/transactions/account/${accountId}`);
   }
 
   async getTransactionsByCategoryId(categoryId: number): Promise<Transaction[]> {
-    return this.request<Transaction[]>(`/transactions/category/${categoryId}`);
+    return this.requestAllPages<Transaction>(`/transactions/category/${categoryId}`);
   }
 
-  async createTransaction(transaction: CreateTransactionDTO): Promise<Transaction> {
+  // Retrying with the same idempotencyKey returns the first response instead of creating a duplicate
+  async createTransaction(transaction: CreateTransactionDTO, idempotencyKey?: string): Promise<Transaction> {
     return this.request<Transaction>('/transactions', {
       method: 'POST',
+      headers: idempotencyKey ? { 'Idempotency-Key': idempotencyKey } : undefined,
       body: JSON.stringify(transaction),
     });
   }
 
-  async updateTransaction(id: number, transaction: Transaction): Promise<Transaction> {
+  async updateTransaction(id: number, transaction: CreateTransactionDTO): Promise<Transaction> {
     return this.request<Transaction>(`/transactions/${id}`, {
       method: 'PUT',
       body: JSON.stringify(transaction),
@@ -137,6 +215,31 @@ class ApiService {
     });
   }
 
+  // Categorisation rule APIs
+  async getCategoryRules(userId: number): Promise<CategoryRule[]> {
+    return this.request<CategoryRule[]>(`/category-rules/user/${userId}`);
+  }
+
+  async createCategoryRule(rule: CreateCategoryRuleDTO): Promise<CategoryRule> {
+    return this.request<CategoryRule>('/category-rules', {
+      method: 'POST',
+      body: JSON.stringify(rule),
+    });
+  }
+
+  async updateCategoryRule(id: number, rule: CreateCategoryRuleDTO): Promise<CategoryRule> {
+    return this.request<CategoryRule>(`/category-rules/${id}`, {
+      method: 'PUT',
+      body: JSON.stringify(rule),
+    });
+  }
+
+  async deleteCategoryRule(id: number): Promise<void> {
+    await this.request<void>(`/category-rules/${id}`, {
+      method: 'DELETE',
+    });
+  }
+
   // Debt APIs
   async getDebts(): Promise<Debt[]> {
     return this.request<Debt[]>('/debts');
@@ -176,18 +279,43 @@ class ApiService {
     });
   }
 
-  async makeDebtPayment(id: number, payment: PaymentRequest): Promise<Debt> {
+  async makeDebtPayment(id: number, payment: PaymentRequest, idempotencyKey?: string): Promise<Debt> {
     return this.request<Debt>(`/debts/${id}/payment`, {
       method: 'POST',
+      headers: idempotencyKey ? { 'Idempotency-Key': idempotencyKey } : undefined,
       body: JSON.stringify(payment),
     });
   }
 
+  async simulateDebtPayoff(userId: number, request: PayoffSimulationRequest = {}): Promise<PayoffPlan[]> {
+    return this.request<PayoffPlan[]>(`/debts/user/${userId}/payoff-plan`, {
+      method: 'POST',
+      body: JSON.stringify(request),
+    });
+  }
+
   async deleteDebt(id: number): Promise<void> {
     await this.request<void>(`/debts/${id}`, {
       method: 'DELETE',
     });
   }
+
+  // Calls onChange for each committed change to the user's ledger; close the returned source to stop
+  subscribeToLedgerChanges(
+    userId: number,
+    types: string[],
+    onChange: (change: LedgerChange) => void,
+    onOverflow?: (dropped: number) => void,
+  ): EventSource {
+    const source = new EventSource(`${API_BASE}/users/${userId}/events`);
+    types.forEach(type => source.addEventListener(type, event => {
+      onChange(JSON.parse((event as MessageEvent).data) as LedgerChange);
+    }));
+    source.addEventListener('overflow', event => {
+      onOverflow?.(JSON.parse((event as MessageEvent).data).dropped);
+    });
+    return source;
+  }
 }
 
 export const apiService = new ApiService();
\ No newline at end of file
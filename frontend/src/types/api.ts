@@ -7,6 +7,8 @@ export interface Account {
   userId: User;
   accountName: string;
   accountBalance: number;
+  // Send back with an update to have it refused (409) if the account changed in the meantime
+  version?: number;
 }
 
 export interface Category {
@@ -23,19 +25,79 @@ export interface Debt {
   monthlyPayment: number;
   remainingBalance: number;
   paymentProgress: number;
+  // Send back with an update to have it refused (409) if the debt changed in the meantime
+  version?: number;
 }
 
 export interface Transaction {
   transactionId: number;
-  accountId: Account;
-  userId: User;
+  accountId: number;
+  accountName: string;
+  userId: number;
+  categoryId: number;
+  categoryName: string;
+  debtId?: number | null;
+  debtName?: string | null;
   amount: number;
   description: string;
-  categoryId: Category;
-  debtId?: Debt;
   transactionDate: string;
   type: 'income' | 'expense';
-  recurrence?: 'weekly' | 'monthly' | 'yearly';
+  recurrence?: 'weekly' | 'monthly' | 'yearly' | null;
+}
+
+export interface CursorPage<T> {
+  items: T[];
+  nextCursor: string | null;
+  limit: number;
+  hasMore: boolean;
+}
+
+export interface MonthlySpending {
+  yearMonth: string;
+  categoryId: number;
+  categoryName: string;
+  type: 'income' | 'expense';
+  total: number;
+  transactionCount: number;
+}
+
+export interface BalancePoint {
+  date: string;
+  balance: number;
+}
+
+export interface NetWorthPoint {
+  date: string;
+  assets: number;
+  debts: number;
+  netWorth: number;
+}
+
+export interface AccountForecast {
+  accountId: number;
+  accountName: string;
+  balances: number[];
+}
+
+export interface CashFlowForecast {
+  from: string;
+  to: string;
+  accounts: AccountForecast[];
+  debtPayments: number[];
+  total: number[];
+  lowestTotal: number;
+  lowestTotalDate: string;
+}
+
+export interface DashboardSummary {
+  userId: number;
+  totalAssets: number;
+  totalDebts: number;
+  netWorth: number;
+  periodStart: string;
+  periodEnd: string;
+  monthToDateIncome: number;
+  monthToDateExpense: number;
 }
 
 export interface CreateAccountDTO {
@@ -49,10 +111,11 @@ export interface CreateTransactionDTO {
   userId: number;
   amount: number;
   description: string;
-  categoryId: number;
+  categoryId?: number; // Omit to let the user's categorisation rules choose
   debtId?: number;
   type: 'income' | 'expense';
   recurrence?: 'weekly' | 'monthly' | 'yearly';
+  transactionDate?: string;
 }
 
 export interface CreateDebtDTO {
@@ -63,6 +126,37 @@ export interface CreateDebtDTO {
   monthlyPayment: number;
 }
 
+export interface CategoryRule {
+  ruleId: number;
+  userId: number;
+  categoryId: number;
+  categoryName: string;
+  accountId?: number;
+  keyword?: string;
+  pattern?: string;
+  minAmount?: number;
+  maxAmount?: number;
+  priority: number;
+}
+
+export interface CreateCategoryRuleDTO {
+  userId: number;
+  categoryId: number;
+  accountId?: number;
+  keyword?: string;
+  pattern?: string;
+  minAmount?: number;
+  maxAmount?: number;
+  priority: number;
+}
+
 export interface PaymentRequest {
   paymentAmount: number;
+}
+
+// One change on a user's ledger event stream
+export interface LedgerChange {
+  type: string;
+  id?: number;
+  amount?: number;
 }
\ No newline at end of file